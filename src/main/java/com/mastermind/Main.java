@@ -1,15 +1,200 @@
 package com.mastermind;
 
+import com.mastermind.cluster.ClusterNode;
 import com.mastermind.controller.GameController;
+import com.mastermind.models.Game;
+import com.mastermind.models.GameListener;
+import com.mastermind.persistence.GameArchive;
+import com.mastermind.persistence.GameJournal;
+import com.mastermind.persistence.GameStore;
+import com.mastermind.server.AdmissionController;
+import com.mastermind.server.GameHttpServer;
+import com.mastermind.server.GameServer;
+import com.mastermind.services.EntropyReserve;
 import com.mastermind.services.GameFactory;
+import com.mastermind.services.GameSessionService;
+import com.mastermind.services.LocalNumberGenerator;
+import com.mastermind.services.MonitoredNumberGenerator;
+import com.mastermind.services.NumberGenerator;
+import com.mastermind.services.QuotaRateLimiter;
 import com.mastermind.services.RandomNumberApiClient;
 import com.mastermind.services.RandomNumberGenerator;
+import com.mastermind.services.SecretHealthMonitor;
+import com.mastermind.services.SessionRegistry;
 import com.mastermind.ui.UserInterface;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
 public class Main {
-    public static void main(String[] args) {
-        new GameController(new UserInterface(),
-                new GameFactory(new RandomNumberGenerator(new RandomNumberApiClient())))
-                .startGame();
+    /** Optional directory for the persistent entropy reserve, e.g. {@code -Dmastermind.entropy.dir=.mastermind}. */
+    static final String ENTROPY_DIR_PROPERTY = "mastermind.entropy.dir";
+    /**
+     * Optional Random.org bit budget per day, or {@code unlimited} to call the API without one, e.g.
+     * {@code -Dmastermind.random.quota=unlimited}. By default the bucket holds Random.org's
+     * {@value QuotaRateLimiter#DEFAULT_CAPACITY_BITS}-bit allowance and refills
+     * {@value QuotaRateLimiter#DEFAULT_REFILL_BITS} bits a day.
+     */
+    static final String RANDOM_QUOTA_PROPERTY = "mastermind.random.quota";
+    /**
+     * Optional directory persisting every game transition, e.g. {@code -Dmastermind.store.dir=.mastermind/games}.
+     * Finished games are archived in its {@code archive} subdirectory.
+     */
+    static final String STORE_DIR_PROPERTY = "mastermind.store.dir";
+    /** Optional port to host games over TCP instead of playing on the console, e.g. {@code -Dmastermind.server.port=4040}. */
+    static final String SERVER_PORT_PROPERTY = "mastermind.server.port";
+    /** Optional port to host games over HTTP/JSON, alone or next to TCP, e.g. {@code -Dmastermind.http.port=8080}. */
+    static final String HTTP_PORT_PROPERTY = "mastermind.http.port";
+    /** Optional idle timeout for served games as an ISO-8601 duration, e.g. {@code -Dmastermind.session.idle=PT30M}. */
+    static final String SESSION_IDLE_PROPERTY = "mastermind.session.idle";
+    /** Optional number of served games kept in memory, the rest spilled to a temp file, e.g. {@code -Dmastermind.session.capacity=100000}. */
+    static final String SESSION_CAPACITY_PROPERTY = "mastermind.session.capacity";
+    /**
+     * Optional comma-separated {@code host:port} HTTP addresses of every node sharing the games, e.g.
+     * {@code -Dmastermind.cluster.nodes=127.0.0.1:8080,127.0.0.1:8081}. Needs the HTTP API and no TCP port.
+     */
+    static final String CLUSTER_NODES_PROPERTY = "mastermind.cluster.nodes";
+    /** This node's entry in the cluster nodes, by default {@code 127.0.0.1:<http port>}. */
+    static final String CLUSTER_SELF_PROPERTY = "mastermind.cluster.self";
+    /** Secret shared by every cluster node, required with {@link #CLUSTER_NODES_PROPERTY}; guards the cluster routes. */
+    static final String CLUSTER_SECRET_PROPERTY = "mastermind.cluster.secret";
+
+    public static void main(String[] args) throws InterruptedException {
+        String storeDir = System.getProperty(STORE_DIR_PROPERTY);
+        GameArchive archive = storeDir == null ? null : GameArchive.open(Path.of(storeDir, "archive"));
+        GameStore store = storeDir == null ? null : new GameStore(Path.of(storeDir), GameJournal.FsyncPolicy.GROUP,
+                GameStore.DEFAULT_SEGMENT_RECORDS, archive);
+        try {
+            GameFactory gameFactory = new GameFactory(
+                    new MonitoredNumberGenerator(createNumberGenerator(new RandomNumberApiClient()),
+                            new SecretHealthMonitor(Main::reportHealthAlert)),
+                    store == null ? GameListener.NONE : store);
+
+            String serverPort = System.getProperty(SERVER_PORT_PROPERTY);
+            String httpPort = System.getProperty(HTTP_PORT_PROPERTY);
+            if (serverPort == null && httpPort == null) {
+                if (store != null) {
+                    // The console cannot pick a game back up, so stop tracking the unfinished ones
+                    store.getRecoveredGames().values().forEach(Game::exit);
+                }
+                new GameController(new UserInterface(), gameFactory).startGame();
+            } else {
+                try (SessionRegistry registry = createSessionRegistry()) {
+                    GameSessionService sessions = new GameSessionService(gameFactory, registry);
+                    if (store != null) {
+                        sessions.resume(store.getRecoveredGames().values());
+                    }
+                    serve(sessions, serverPort, httpPort);
+                }
+            }
+        } finally {
+            if (store != null) {
+                store.close();
+                archive.close();
+            }
+        }
+    }
+
+    // Serves the same sessions on every configured port until the process is stopped
+    private static void serve(GameSessionService sessions, String serverPort, String httpPort)
+            throws InterruptedException {
+        String clusterNodes = System.getProperty(CLUSTER_NODES_PROPERTY);
+        if (clusterNodes != null && (httpPort == null || serverPort != null)) {
+            // A TCP connection pins its game to this node, which a rebalance could move away
+            throw new IllegalArgumentException("A cluster node serves the HTTP API only");
+        }
+
+        // Joined before the server starts, so no request is served as a standalone node
+        ClusterNode cluster = null;
+        if (clusterNodes != null) {
+            String self = System.getProperty(CLUSTER_SELF_PROPERTY, "127.0.0.1:" + httpPort);
+            cluster = new ClusterNode(self, List.of(clusterNodes.trim().split("\\s*,\\s*")),
+                    System.getProperty(CLUSTER_SECRET_PROPERTY), sessions);
+            // Resumed games owned elsewhere since the last run go to their owners
+            cluster.rebalance();
+        }
+
+        GameServer server = serverPort == null ? null : GameServer.start(sessions, Integer.parseInt(serverPort));
+        GameHttpServer httpServer = httpPort == null ? null
+                : GameHttpServer.start(sessions, Integer.parseInt(httpPort), AdmissionController.defaults(), cluster);
+        try {
+            if (server != null) {
+                System.out.println("Mastermind server listening on port " + server.getPort());
+            }
+            if (httpServer != null) {
+                System.out.println("Mastermind HTTP API listening on port " + httpServer.getPort());
+            }
+            if (cluster != null) {
+                System.out.println("Mastermind cluster node " + cluster.getSelf() + " of " + clusterNodes);
+            }
+
+            if (server != null) {
+                server.awaitTermination();
+            } else {
+                httpServer.awaitTermination();
+            }
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+            if (httpServer != null) {
+                httpServer.close();
+            }
+        }
+    }
+
+    private static SessionRegistry createSessionRegistry() {
+        String idle = System.getProperty(SESSION_IDLE_PROPERTY);
+        String capacity = System.getProperty(SESSION_CAPACITY_PROPERTY);
+        Path spillFile = null;
+        if (capacity != null) {
+            try {
+                spillFile = Files.createTempFile("mastermind-sessions", ".spill");
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create session spill file", e);
+            }
+        }
+
+        SessionRegistry registry = new SessionRegistry(null, idle == null ? null : Duration.parse(idle),
+                capacity == null ? Integer.MAX_VALUE : Integer.parseInt(capacity), spillFile, Game::exit);
+        if (idle != null) {
+            registry.startExpiry();
+        }
+        return registry;
+    }
+
+    private static NumberGenerator createNumberGenerator(RandomNumberApiClient apiClient) {
+        QuotaRateLimiter rateLimiter = createRateLimiter();
+        String entropyDir = System.getProperty(ENTROPY_DIR_PROPERTY);
+        if (entropyDir == null) {
+            return new RandomNumberGenerator(apiClient, new LocalNumberGenerator(), 3, Duration.ofSeconds(1),
+                    rateLimiter);
+        }
+
+        EntropyReserve reserve = EntropyReserve.open(Path.of(entropyDir), apiClient, rateLimiter);
+        reserve.refillIfLow();
+        return new RandomNumberGenerator(apiClient, new LocalNumberGenerator(), 3, Duration.ofSeconds(1),
+                rateLimiter, reserve);
+    }
+
+    private static QuotaRateLimiter createRateLimiter() {
+        String quota = System.getProperty(RANDOM_QUOTA_PROPERTY);
+        if (quota == null) {
+            return new QuotaRateLimiter();
+        }
+        if (quota.equalsIgnoreCase("unlimited")) {
+            return QuotaRateLimiter.unlimited();
+        }
+
+        long bits = Long.parseLong(quota);
+        return new QuotaRateLimiter(bits, bits, Duration.ofDays(1));
+    }
+
+    private static void reportHealthAlert(SecretHealthMonitor.Alert alert) {
+        System.err.println("Random source health check failed: " + alert);
     }
-}
\ No newline at end of file
+}
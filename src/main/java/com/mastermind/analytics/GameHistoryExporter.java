@@ -0,0 +1,328 @@
+package com.mastermind.analytics;
+
+import com.mastermind.analytics.GameQueryEngine.RowFilter;
+import com.mastermind.models.Difficulty;
+import com.mastermind.models.Status;
+import com.mastermind.persistence.GameArchive;
+import com.mastermind.persistence.GameArchive.Segment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams archived games to JSON Lines or CSV for analysts.
+ *
+ * <p>Records are encoded by hand, byte by byte, into one direct buffer that is reused for
+ * every export and drained to a {@link FileChannel} whenever it fills. Player names are
+ * escaped and encoded once per player, enum names once per class, and digits and numbers are
+ * written as ASCII straight from the archive's codes, so the heap stays flat however many
+ * games are exported.
+ *
+ * <p>JSON Lines has one object per game:
+ * <pre>
+ * {"player":"Alice","difficulty":"NORMAL","answer":[7,0,3,3],"status":"WON","hintsUsed":1,
+ *  "finishedAt":1700000000000,"history":[{"guess":[0,1,2,3],"correctNumbers":2,"correctPositions":1}]}
+ * </pre>
+ * CSV has a header and one row per {@link com.mastermind.models.History} entry, with the
+ * game's columns repeated and a sequence number to group them; digits are space-separated.
+ */
+public class GameHistoryExporter {
+    static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+    private static final int MIN_BUFFER_SIZE = 1 << 12;
+
+    private static final byte[] CSV_HEADER = ascii("game,player,difficulty,answer,status,hints_used,finished_at,"
+            + "turn,guess,correct_numbers,correct_positions\n");
+    private static final byte[][] DIFFICULTY_NAMES = enumNames(Difficulty.values());
+    private static final byte[][] STATUS_NAMES = enumNames(Status.values());
+
+    private final GameArchive archive;
+    private final ByteBuffer buffer;
+    private final int[] codes = new int[Byte.MAX_VALUE + 1];
+    private final byte[] digits = new byte[20];
+    private final List<byte[]> encodedNames = new ArrayList<>();
+    private Format encodedNamesFormat;
+    private FileChannel channel;
+
+    public GameHistoryExporter(GameArchive archive) {
+        this(archive, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param archive the archive to export
+     * @param bufferSize the size of the reused direct output buffer, at least 4 KiB
+     */
+    public GameHistoryExporter(GameArchive archive, int bufferSize) {
+        if (bufferSize < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Buffer size must be at least " + MIN_BUFFER_SIZE + ", got " + bufferSize);
+        }
+
+        this.archive = archive;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /**
+     * Exports every game in the archive's written segments.
+     *
+     * @return the number of games written
+     */
+    public long export(Path file, Format format) {
+        return export(file, format, RowFilter.all());
+    }
+
+    /**
+     * Exports the matching games, replacing {@code file}.
+     *
+     * @return the number of games written
+     */
+    public synchronized long export(Path file, Format format, RowFilter filter) {
+        if (encodedNamesFormat != format) {
+            encodedNames.clear();
+            encodedNamesFormat = format;
+        }
+
+        long games = 0;
+        buffer.clear();
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel = out;
+            if (format == Format.CSV) {
+                put(CSV_HEADER);
+            }
+            for (Segment segment : archive.segments()) {
+                for (int row = 0; row < segment.rowCount(); row++) {
+                    if (filter.test(segment, row)) {
+                        games++;
+                        if (format == Format.JSON_LINES) {
+                            writeJson(segment, row);
+                        } else {
+                            writeCsv(segment, row, games);
+                        }
+                    }
+                }
+            }
+            drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot export games to " + file, e);
+        } finally {
+            channel = null;
+        }
+        return games;
+    }
+
+    private void writeJson(Segment segment, int row) throws IOException {
+        Difficulty difficulty = segment.difficulty(row);
+        int size = difficulty.getCombinationSize();
+        int base = difficulty.getMaxRange() + 1;
+
+        put("{\"player\":\"");
+        put(playerName(segment.playerId(row)));
+        put("\",\"difficulty\":\"");
+        put(DIFFICULTY_NAMES[difficulty.ordinal()]);
+        put("\",\"answer\":");
+        putCombination(segment.answerCode(row), size, base, (byte) ',', true);
+        put(",\"status\":\"");
+        put(STATUS_NAMES[segment.status(row).ordinal()]);
+        put("\",\"hintsUsed\":");
+        putLong(segment.hintsUsed(row));
+        put(",\"finishedAt\":");
+        putLong(segment.finishedAt(row));
+        put(",\"history\":[");
+
+        int count = segment.guessCodes(row, codes);
+        int firstTurn = segment.turnOffset(row);
+        for (int turn = 0; turn < count; turn++) {
+            byte feedback = segment.feedbackByte(firstTurn + turn);
+            put(turn == 0 ? "{\"guess\":" : ",{\"guess\":");
+            putCombination(codes[turn], size, base, (byte) ',', true);
+            put(",\"correctNumbers\":");
+            putLong(feedback >> 4 & 0x0F);
+            put(",\"correctPositions\":");
+            putLong(feedback & 0x0F);
+            putByte((byte) '}');
+        }
+        put("]}\n");
+    }
+
+    private void writeCsv(Segment segment, int row, long game) throws IOException {
+        Difficulty difficulty = segment.difficulty(row);
+        int size = difficulty.getCombinationSize();
+        int base = difficulty.getMaxRange() + 1;
+        byte[] player = playerName(segment.playerId(row));
+        byte[] status = STATUS_NAMES[segment.status(row).ordinal()];
+
+        int count = segment.guessCodes(row, codes);
+        int firstTurn = segment.turnOffset(row);
+        for (int turn = 0; turn < count; turn++) {
+            byte feedback = segment.feedbackByte(firstTurn + turn);
+            putLong(game);
+            putByte((byte) ',');
+            put(player);
+            putByte((byte) ',');
+            put(DIFFICULTY_NAMES[difficulty.ordinal()]);
+            putByte((byte) ',');
+            putCombination(segment.answerCode(row), size, base, (byte) ' ', false);
+            putByte((byte) ',');
+            put(status);
+            putByte((byte) ',');
+            putLong(segment.hintsUsed(row));
+            putByte((byte) ',');
+            putLong(segment.finishedAt(row));
+            putByte((byte) ',');
+            putLong(turn + 1);
+            putByte((byte) ',');
+            putCombination(codes[turn], size, base, (byte) ' ', false);
+            putByte((byte) ',');
+            putLong(feedback >> 4 & 0x0F);
+            putByte((byte) ',');
+            putLong(feedback & 0x0F);
+            putByte((byte) '\n');
+        }
+    }
+
+    // Digits most significant first, as in NumCombination.fromCode; difficulties use at most ten digits
+    private void putCombination(long code, int size, int base, byte separator, boolean brackets) throws IOException {
+        ensure(2 * size + 2);
+        if (brackets) {
+            buffer.put((byte) '[');
+        }
+        long divisor = 1;
+        for (int i = 1; i < size; i++) {
+            divisor *= base;
+        }
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                buffer.put(separator);
+            }
+            buffer.put((byte) ('0' + code / divisor % base));
+            divisor /= base;
+        }
+        if (brackets) {
+            buffer.put((byte) ']');
+        }
+    }
+
+    private void putLong(long value) throws IOException {
+        ensure(digits.length);
+        if (value < 0) {
+            buffer.put((byte) '-');
+        }
+        int length = 0;
+        do {
+            digits[length++] = (byte) ('0' + Math.abs(value % 10));
+            value /= 10;
+        } while (value != 0);
+        while (length > 0) {
+            buffer.put(digits[--length]);
+        }
+    }
+
+    // Only for ASCII literals
+    private void put(String literal) throws IOException {
+        ensure(literal.length());
+        for (int i = 0; i < literal.length(); i++) {
+            buffer.put((byte) literal.charAt(i));
+        }
+    }
+
+    private void put(byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    private void putByte(byte value) throws IOException {
+        ensure(1);
+        buffer.put(value);
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private byte[] playerName(int playerId) {
+        while (encodedNames.size() <= playerId) {
+            String name = archive.playerName(encodedNames.size());
+            encodedNames.add(encodedNamesFormat == Format.JSON_LINES ? jsonEscape(name) : csvEscape(name));
+        }
+        return encodedNames.get(playerId);
+    }
+
+    static byte[] jsonEscape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> escaped.append("\\\"");
+                case '\\' -> escaped.append("\\\\");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                case '\t' -> escaped.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        escaped.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // RFC 4180: quote fields holding a separator, quote or line break, doubling the quotes
+    static byte[] csvEscape(String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        String escaped = quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+        return escaped.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[][] enumNames(Enum<?>[] values) {
+        byte[][] names = new byte[values.length][];
+        for (Enum<?> value : values) {
+            names[value.ordinal()] = ascii(value.name());
+        }
+        return names;
+    }
+
+    /**
+     * Output format.
+     */
+    public enum Format {
+        /** One JSON object per game and line */
+        JSON_LINES,
+
+        /** RFC 4180 CSV with a header, one row per guess */
+        CSV
+    }
+}
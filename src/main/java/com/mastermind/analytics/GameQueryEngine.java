@@ -0,0 +1,373 @@
+package com.mastermind.analytics;
+
+import com.mastermind.config.GameConfig;
+import com.mastermind.models.Difficulty;
+import com.mastermind.models.NumCombination;
+import com.mastermind.persistence.GameArchive;
+import com.mastermind.persistence.GameArchive.Segment;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Parallel filter, group-by and aggregate queries over a {@link GameArchive}.
+ *
+ * <p>A query snapshots the archive's segments, cuts them into chunks of at most
+ * {@value #CHUNK_ROWS} rows and scans the chunks as a fork/join tree. Each leaf folds its rows
+ * into its own accumulator, typically a few {@code long[]} counters, and sibling results are
+ * merged on the way up, so there is no shared mutable state and nothing is boxed per row.
+ *
+ * <p>The canned queries are built on {@link #groupBy(RowFilter, GroupKey, int)}; arbitrary
+ * aggregates can use {@link #scan(RowFilter, Supplier, RowAccumulator, BinaryOperator)}.
+ */
+public class GameQueryEngine {
+    static final int CHUNK_ROWS = 1 << 16;
+
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+
+    private final GameArchive archive;
+    private final ForkJoinPool pool;
+
+    public GameQueryEngine(GameArchive archive) {
+        this(archive, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param archive the archive to query; games still buffered in it are not visible
+     * @param pool the pool the scans run on
+     */
+    public GameQueryEngine(GameArchive archive, ForkJoinPool pool) {
+        this.archive = archive;
+        this.pool = pool;
+    }
+
+    /**
+     * Folds every matching row into per-task accumulators and merges them.
+     *
+     * @param filter selects the rows to fold
+     * @param identity creates an empty accumulator for each task
+     * @param accumulator folds one row into an accumulator
+     * @param combiner merges two accumulators, possibly into one of them
+     * @return the merged result, or a fresh identity if the archive is empty
+     */
+    public <A> A scan(RowFilter filter, Supplier<A> identity, RowAccumulator<A> accumulator,
+                      BinaryOperator<A> combiner) {
+        List<Chunk> chunks = chunks();
+        if (chunks.isEmpty()) {
+            return identity.get();
+        }
+        return pool.invoke(new ScanTask<>(chunks, 0, chunks.size(), filter, identity, accumulator, combiner));
+    }
+
+    /**
+     * Number of matching games.
+     */
+    public long count(RowFilter filter) {
+        return scan(filter, () -> new long[1], (counter, segment, row) -> counter[0]++,
+                (left, right) -> {
+                    left[0] += right[0];
+                    return left;
+                })[0];
+    }
+
+    /**
+     * Games, wins, guesses and hints of the matching rows, grouped by {@code key}.
+     *
+     * @param groups the number of groups; keys must be in {@code [0, groups)}, rows with a
+     *               negative key are skipped
+     */
+    public GroupStats groupBy(RowFilter filter, GroupKey key, int groups) {
+        return scan(filter, () -> new GroupStats(groups),
+                (stats, segment, row) -> {
+                    int group = key.of(segment, row);
+                    if (group >= 0) {
+                        stats.add(group, segment.isWon(row), segment.guessCount(row), segment.hintsUsed(row));
+                    }
+                },
+                GroupStats::merge);
+    }
+
+    /**
+     * Win rate of the matching games per difficulty, for difficulties with at least one game.
+     */
+    public Map<Difficulty, Double> winRateByDifficulty(RowFilter filter) {
+        GroupStats stats = groupBy(filter, GroupKey.difficulty(), DIFFICULTIES.length);
+        Map<Difficulty, Double> winRates = new EnumMap<>(Difficulty.class);
+        for (Difficulty difficulty : DIFFICULTIES) {
+            if (stats.games(difficulty.ordinal()) > 0) {
+                winRates.put(difficulty, stats.winRate(difficulty.ordinal()));
+            }
+        }
+        return winRates;
+    }
+
+    /**
+     * Number of matching games per number of guesses taken, indexed by guess count up to the
+     * largest count among the matching games.
+     */
+    public long[] attemptDistribution(RowFilter filter) {
+        // The archive stores guess counts in a byte, whatever a game's maximum attempts were
+        GroupStats stats = groupBy(filter, GroupKey.guessCount(), Byte.MAX_VALUE + 1);
+        int length = stats.groupCount();
+        while (length > 0 && stats.games(length - 1) == 0) {
+            length--;
+        }
+
+        long[] distribution = new long[length];
+        for (int guesses = 0; guesses < length; guesses++) {
+            distribution[guesses] = stats.games(guesses);
+        }
+        return distribution;
+    }
+
+    /**
+     * Games and win rate of the matching games per number of hints used.
+     */
+    public GroupStats hintUsageVersusOutcome(RowFilter filter) {
+        return groupBy(filter, GroupKey.hintsUsed(), GameConfig.DEFAULT_HINT_COUNT + 1);
+    }
+
+    /**
+     * The most frequent opening guesses at {@code difficulty}, most frequent first.
+     *
+     * @param limit the maximum number of guesses to return; none for zero or less
+     */
+    public List<GuessCount> mostCommonFirstGuesses(Difficulty difficulty, RowFilter filter, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        int size = difficulty.getCombinationSize();
+        int maxRange = difficulty.getMaxRange();
+        GroupStats stats = groupBy(RowFilter.difficulty(difficulty).and(filter), GroupKey.firstGuess(),
+                (int) NumCombination.codeSpace(size, 0, maxRange));
+
+        // Bounded min-heap over the codes, ties broken towards the smaller code
+        PriorityQueue<GuessCount> top = new PriorityQueue<>((left, right) -> left.count() != right.count()
+                ? Long.compare(left.count(), right.count())
+                : Long.compare(right.guess().toCode(), left.guess().toCode()));
+        for (int code = 0; code < stats.groupCount(); code++) {
+            long games = stats.games(code);
+            if (games == 0 || top.size() == limit && games <= top.peek().count()) {
+                continue;
+            }
+            top.add(new GuessCount(NumCombination.fromCode(code, size, 0, maxRange), games));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<GuessCount> result = new ArrayList<>(top);
+        result.sort(top.comparator().reversed());
+        return result;
+    }
+
+    private List<Chunk> chunks() {
+        List<Chunk> chunks = new ArrayList<>();
+        for (Segment segment : archive.segments()) {
+            for (int from = 0; from < segment.rowCount(); from += CHUNK_ROWS) {
+                chunks.add(new Chunk(segment, from, Math.min(segment.rowCount(), from + CHUNK_ROWS)));
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * Selects rows of an archive segment.
+     */
+    @FunctionalInterface
+    public interface RowFilter {
+        boolean test(Segment segment, int row);
+
+        default RowFilter and(RowFilter other) {
+            return (segment, row) -> test(segment, row) && other.test(segment, row);
+        }
+
+        static RowFilter all() {
+            return (segment, row) -> true;
+        }
+
+        static RowFilter difficulty(Difficulty difficulty) {
+            int ordinal = difficulty.ordinal();
+            return (segment, row) -> segment.difficultyOrdinal(row) == ordinal;
+        }
+
+        static RowFilter player(int playerId) {
+            return (segment, row) -> segment.playerId(row) == playerId;
+        }
+
+        static RowFilter won() {
+            return Segment::isWon;
+        }
+
+        /**
+         * Games finished in {@code [fromMillis, toMillis)}.
+         */
+        static RowFilter finishedBetween(long fromMillis, long toMillis) {
+            return (segment, row) -> {
+                long finishedAt = segment.finishedAt(row);
+                return finishedAt >= fromMillis && finishedAt < toMillis;
+            };
+        }
+    }
+
+    /**
+     * Maps a row to a dense group index, or a negative value to leave it out.
+     */
+    @FunctionalInterface
+    public interface GroupKey {
+        int of(Segment segment, int row);
+
+        static GroupKey difficulty() {
+            return Segment::difficultyOrdinal;
+        }
+
+        static GroupKey guessCount() {
+            return Segment::guessCount;
+        }
+
+        static GroupKey hintsUsed() {
+            return Segment::hintsUsed;
+        }
+
+        /**
+         * The code of the opening guess; games without guesses are left out.
+         */
+        static GroupKey firstGuess() {
+            return Segment::firstGuessCode;
+        }
+    }
+
+    /**
+     * Folds one row into an accumulator.
+     */
+    @FunctionalInterface
+    public interface RowAccumulator<A> {
+        void accept(A accumulator, Segment segment, int row);
+    }
+
+    /**
+     * How often a guess was played.
+     */
+    public record GuessCount(NumCombination guess, long count) {
+    }
+
+    /**
+     * Per-group counters, as flat primitive arrays.
+     */
+    public static final class GroupStats {
+        private final long[] games;
+        private final long[] wins;
+        private final long[] guesses;
+        private final long[] hints;
+
+        GroupStats(int groups) {
+            this.games = new long[groups];
+            this.wins = new long[groups];
+            this.guesses = new long[groups];
+            this.hints = new long[groups];
+        }
+
+        void add(int group, boolean won, int guessCount, int hintsUsed) {
+            games[group]++;
+            if (won) {
+                wins[group]++;
+            }
+            guesses[group] += guessCount;
+            hints[group] += hintsUsed;
+        }
+
+        GroupStats merge(GroupStats other) {
+            for (int group = 0; group < games.length; group++) {
+                games[group] += other.games[group];
+                wins[group] += other.wins[group];
+                guesses[group] += other.guesses[group];
+                hints[group] += other.hints[group];
+            }
+            return this;
+        }
+
+        public int groupCount() {
+            return games.length;
+        }
+
+        public long games(int group) {
+            return games[group];
+        }
+
+        public long wins(int group) {
+            return wins[group];
+        }
+
+        /**
+         * Share of the group's games that were won, or NaN for an empty group.
+         */
+        public double winRate(int group) {
+            return games[group] == 0 ? Double.NaN : (double) wins[group] / games[group];
+        }
+
+        public double averageGuesses(int group) {
+            return games[group] == 0 ? Double.NaN : (double) guesses[group] / games[group];
+        }
+
+        public double averageHints(int group) {
+            return games[group] == 0 ? Double.NaN : (double) hints[group] / games[group];
+        }
+    }
+
+    private record Chunk(Segment segment, int fromRow, int toRow) {
+    }
+
+    /**
+     * Scans chunks {@code [from, to)}: forks halves until a single chunk is left.
+     * Never serialized; {@link RecursiveTask} is only incidentally {@code Serializable}.
+     */
+    @SuppressWarnings("serial")
+    private static final class ScanTask<A> extends RecursiveTask<A> {
+        private final List<Chunk> chunks;
+        private final int from;
+        private final int to;
+        private final RowFilter filter;
+        private final Supplier<A> identity;
+        private final RowAccumulator<A> accumulator;
+        private final BinaryOperator<A> combiner;
+
+        ScanTask(List<Chunk> chunks, int from, int to, RowFilter filter, Supplier<A> identity,
+                 RowAccumulator<A> accumulator, BinaryOperator<A> combiner) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+            this.filter = filter;
+            this.identity = identity;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected A compute() {
+            if (to - from == 1) {
+                Chunk chunk = chunks.get(from);
+                A result = identity.get();
+                for (int row = chunk.fromRow(); row < chunk.toRow(); row++) {
+                    if (filter.test(chunk.segment(), row)) {
+                        accumulator.accept(result, chunk.segment(), row);
+                    }
+                }
+                return result;
+            }
+
+            int middle = (from + to) >>> 1;
+            ScanTask<A> left = new ScanTask<>(chunks, from, middle, filter, identity, accumulator, combiner);
+            left.fork();
+            A right = new ScanTask<>(chunks, middle, to, filter, identity, accumulator, combiner).compute();
+            return combiner.apply(left.join(), right);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.mastermind.analytics;
+
+import com.mastermind.config.GameConfig;
+import com.mastermind.models.Difficulty;
+import com.mastermind.models.Feedback;
+import com.mastermind.models.Status;
+import com.mastermind.persistence.GameArchive;
+import com.mastermind.persistence.GameArchive.Segment;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Bulk re-verification of every archived game against the rules of {@code Game.playerGuess}.
+ *
+ * <p>Each recorded guess is re-scored with {@link Feedback#scoreCodes} and compared with the
+ * stored feedback. Each game's status must follow from its guesses (won exactly when the last
+ * guess is all correct, lost exactly when all attempts are used without one), and its guess
+ * count must be between one and the maximum number of attempts.
+ *
+ * <p>The calling thread feeds chunks of at most {@value #CHUNK_ROWS} rows into a bounded queue,
+ * drained by one worker per core. The bound keeps only a few chunks of the memory-mapped
+ * segments in flight, so re-verifying the whole history runs in flat memory. Workers keep
+ * their own tallies, merged once at the end.
+ */
+public class GameVerifier {
+    static final int CHUNK_ROWS = 1 << 14;
+    static final int DEFAULT_MAX_SAMPLES = 100;
+
+    private static final Chunk END = new Chunk(null, 0, 0);
+
+    private final GameArchive archive;
+    private final int workers;
+    private final int queueCapacity;
+    private final int maxSamples;
+
+    public GameVerifier(GameArchive archive) {
+        this(archive, Runtime.getRuntime().availableProcessors(),
+                2 * Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_SAMPLES);
+    }
+
+    /**
+     * @param archive the archive to verify
+     * @param workers the number of verifying threads
+     * @param queueCapacity the number of chunks that may wait for a worker
+     * @param maxSamples the number of violations reported in full; all are counted
+     */
+    public GameVerifier(GameArchive archive, int workers, int queueCapacity, int maxSamples) {
+        if (workers < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Workers and queue capacity must be positive");
+        }
+
+        this.archive = archive;
+        this.workers = workers;
+        this.queueCapacity = queueCapacity;
+        this.maxSamples = maxSamples;
+    }
+
+    /**
+     * Verifies every game in the archive's written segments.
+     */
+    public Report verify() {
+        long start = System.nanoTime();
+        BlockingQueue<Chunk> queue = new ArrayBlockingQueue<>(queueCapacity);
+        ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "game-verifier");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<Tally>> tallies = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                tallies.add(executor.submit(() -> drain(queue)));
+            }
+
+            for (Segment segment : archive.segments()) {
+                for (int from = 0; from < segment.rowCount(); from += CHUNK_ROWS) {
+                    queue.put(new Chunk(segment, from, Math.min(segment.rowCount(), from + CHUNK_ROWS)));
+                }
+            }
+            for (int i = 0; i < workers; i++) {
+                queue.put(END);
+            }
+
+            Tally total = new Tally(maxSamples);
+            for (Future<Tally> tally : tallies) {
+                total.merge(tally.get());
+            }
+            return new Report(total.games, total.turns, total.violationCount, List.copyOf(total.samples),
+                    System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Verification interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Verification failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Tally drain(BlockingQueue<Chunk> queue) throws InterruptedException {
+        Tally tally = new Tally(maxSamples);
+        int[] codes = new int[Byte.MAX_VALUE + 1];
+        for (Chunk chunk = queue.take(); chunk != END; chunk = queue.take()) {
+            for (int row = chunk.fromRow(); row < chunk.toRow(); row++) {
+                try {
+                    verifyRow(chunk.segment(), row, codes, tally);
+                } catch (RuntimeException e) {
+                    tally.violation(new Violation(chunk.segment().file(), row, Check.UNREADABLE, -1, e.toString()));
+                }
+                tally.games++;
+            }
+        }
+        return tally;
+    }
+
+    private static void verifyRow(Segment segment, int row, int[] codes, Tally tally) {
+        Difficulty difficulty = segment.difficulty(row);
+        int size = difficulty.getCombinationSize();
+        int base = difficulty.getMaxRange() + 1;
+        int answer = segment.answerCode(row);
+        int count = segment.guessCodes(row, codes);
+        int firstTurn = segment.turnOffset(row);
+        tally.turns += count;
+
+        if (count < 1 || count > GameConfig.DEFAULT_MAX_ATTEMPTS) {
+            tally.violation(new Violation(segment.file(), row, Check.ATTEMPTS, -1,
+                    count + " guesses, expected 1 to " + GameConfig.DEFAULT_MAX_ATTEMPTS));
+        }
+
+        boolean solved = false;
+        for (int turn = 0; turn < count; turn++) {
+            byte expected = Feedback.scoreCodes(answer, codes[turn], size, base);
+            byte stored = segment.feedbackByte(firstTurn + turn);
+            if (stored != expected) {
+                tally.violation(new Violation(segment.file(), row, Check.FEEDBACK, turn,
+                        "stored " + Feedback.fromByte(stored, size) + ", expected " + Feedback.fromByte(expected, size)));
+            }
+
+            solved = (expected & 0x0F) == size;
+            if (solved && turn < count - 1) {
+                tally.violation(new Violation(segment.file(), row, Check.STATUS, turn,
+                        "solved before the last guess"));
+            }
+        }
+
+        Status expectedStatus = solved ? Status.WON
+                : count == GameConfig.DEFAULT_MAX_ATTEMPTS ? Status.LOST
+                : Status.IN_PROGRESS;
+        if (segment.status(row) != expectedStatus) {
+            tally.violation(new Violation(segment.file(), row, Check.STATUS, -1,
+                    "stored " + segment.status(row) + ", expected " + expectedStatus));
+        }
+    }
+
+    /**
+     * Runs the verifier over the archive in the given directory and prints the report.
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Usage: GameVerifier <archive-dir>");
+            System.exit(2);
+        }
+
+        Report report;
+        try (GameArchive archive = GameArchive.open(Path.of(args[0]))) {
+            report = new GameVerifier(archive).verify();
+        }
+        System.out.println(report.games() + " games, " + report.turns() + " turns verified in "
+                + report.elapsedNanos() / 1_000_000 + " ms (" + Math.round(report.gamesPerSecond()) + " games/s)");
+        System.out.println(report.violationCount() + " violations");
+        report.samples().forEach(System.out::println);
+        System.exit(report.isClean() ? 0 : 1);
+    }
+
+    /**
+     * The rule a recorded game breaks.
+     */
+    public enum Check {
+        /** Stored feedback differs from the re-scored guess */
+        FEEDBACK,
+
+        /** Status does not follow from the guesses */
+        STATUS,
+
+        /** Guess count is zero or above the maximum attempts */
+        ATTEMPTS,
+
+        /** The row could not be decoded */
+        UNREADABLE
+    }
+
+    /**
+     * One broken rule.
+     *
+     * @param segment the segment file holding the game
+     * @param row the game's row in the segment
+     * @param check the rule that is broken
+     * @param turn the offending guess, or -1 for the game as a whole
+     * @param detail what was found against what was expected
+     */
+    public record Violation(Path segment, int row, Check check, int turn, String detail) {
+    }
+
+    /**
+     * Outcome and throughput of a verification run.
+     *
+     * @param samples violations reported in full, up to the configured maximum
+     */
+    public record Report(long games, long turns, long violationCount, List<Violation> samples, long elapsedNanos) {
+
+        public boolean isClean() {
+            return violationCount == 0;
+        }
+
+        public double gamesPerSecond() {
+            return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+        }
+
+        public double turnsPerSecond() {
+            return elapsedNanos == 0 ? 0 : turns * 1e9 / elapsedNanos;
+        }
+    }
+
+    private record Chunk(Segment segment, int fromRow, int toRow) {
+    }
+
+    /**
+     * Counters of one worker.
+     */
+    private static final class Tally {
+        private final int maxSamples;
+        private final List<Violation> samples = new ArrayList<>();
+        private long games;
+        private long turns;
+        private long violationCount;
+
+        Tally(int maxSamples) {
+            this.maxSamples = maxSamples;
+        }
+
+        void violation(Violation violation) {
+            violationCount++;
+            if (samples.size() < maxSamples) {
+                samples.add(violation);
+            }
+        }
+
+        void merge(Tally other) {
+            games += other.games;
+            turns += other.turns;
+            violationCount += other.violationCount;
+            for (Violation violation : other.samples) {
+                if (samples.size() < maxSamples) {
+                    samples.add(violation);
+                }
+            }
+        }
+    }
+}
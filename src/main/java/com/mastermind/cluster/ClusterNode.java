@@ -0,0 +1,208 @@
+package com.mastermind.cluster;
+
+import com.mastermind.services.GameSessionService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One member of a cluster of game servers that share the sessions between them.
+ *
+ * <p>Every node is given the same member list and builds the same {@link HashRing}, so every
+ * node agrees on which one owns a game id without asking the others. A node only creates games
+ * it owns and answers requests for games it does not hold by pointing at their owner, so each
+ * guess is served by one node alone and concurrent sessions grow with the number of nodes.
+ *
+ * <p>When the members change, {@link #setMembers} moves every game this node no longer owns to
+ * its new owner: the game is removed under its lock, encoded as a
+ * {@link com.mastermind.persistence.GameSnapshotCodec} snapshot and sent to the owner's
+ * {@value #GAMES_PATH} endpoint, which imports it unless it already hosts that id. A game the
+ * owner refuses is imported back and stays here, still served, until a later rebalance. When
+ * the outcome is unknown, e.g. after a timeout, this node asks the owner whether it hosts the
+ * game and only takes it back if not. Requests for a game in flight between two nodes may
+ * briefly find it on neither.
+ *
+ * <p>The handoff is not a two-phase commit, so two copies remain possible in one case: the
+ * snapshot reaches the owner only after the owner has answered that it does not host the
+ * game, or the owner cannot be asked at all. Both copies are then served and may diverge
+ * until the next rebalance, when the owner refuses this node's copy as already hosted and
+ * this node drops it, losing the moves made on it.
+ *
+ * <p>Nodes are named by the {@code host:port} of their HTTP API. The cluster routes are only
+ * served to requests that carry the shared secret in {@value #SECRET_HEADER}.
+ */
+public class ClusterNode {
+    /** Path on every node's HTTP API that imports a game snapshot. */
+    public static final String GAMES_PATH = "/cluster/games";
+    /** Path on every node's HTTP API that replaces its member list. */
+    public static final String MEMBERS_PATH = "/cluster/members";
+    /** Header carrying the cluster's shared secret on every cluster request. */
+    public static final String SECRET_HEADER = "X-Cluster-Secret";
+
+    private static final Duration TRANSFER_TIMEOUT = Duration.ofSeconds(5);
+
+    private final String self;
+    private final byte[] secret;
+    private final GameSessionService sessions;
+    private final HttpClient client;
+    private final ReentrantLock rebalanceLock = new ReentrantLock();
+    private volatile HashRing ring;
+
+    /**
+     * @param self this node's {@code host:port}
+     * @param members every node of the cluster, usually including this one
+     * @param secret the secret shared by every node of the cluster
+     * @param sessions the games hosted by this node
+     * @throws IllegalArgumentException if the secret is blank
+     */
+    public ClusterNode(String self, Collection<String> members, String secret, GameSessionService sessions) {
+        this(self, members, secret, sessions, HttpClient.newBuilder().connectTimeout(TRANSFER_TIMEOUT).build());
+    }
+
+    ClusterNode(String self, Collection<String> members, String secret, GameSessionService sessions,
+                HttpClient client) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalArgumentException("The cluster secret must not be blank");
+        }
+        this.self = self;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.sessions = sessions;
+        this.client = client;
+        this.ring = new HashRing(members);
+    }
+
+    /**
+     * This node's {@code host:port}.
+     */
+    public String getSelf() {
+        return self;
+    }
+
+    /**
+     * The current ring.
+     */
+    public HashRing getRing() {
+        return ring;
+    }
+
+    /**
+     * Whether a request's {@value #SECRET_HEADER} value is the cluster's secret. Compares in
+     * constant time.
+     *
+     * @param presented the header value, or null if absent
+     */
+    public boolean isAuthorized(String presented) {
+        return presented != null && MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Whether this node owns {@code gameId} under the current members.
+     */
+    public boolean owns(long gameId) {
+        return ring.ownerOf(gameId).equals(self);
+    }
+
+    /**
+     * The owner of {@code gameId}, or empty if it is this node.
+     */
+    public Optional<String> remoteOwnerOf(long gameId) {
+        String owner = ring.ownerOf(gameId);
+        return owner.equals(self) ? Optional.empty() : Optional.of(owner);
+    }
+
+    /**
+     * Replaces the member list and moves away every game this node no longer owns. Leaving
+     * this node out of {@code members} drains it.
+     *
+     * @return the number of games moved
+     * @throws IllegalArgumentException if {@code members} is empty
+     */
+    public int setMembers(Collection<String> members) {
+        rebalanceLock.lock();
+        try {
+            ring = new HashRing(members);
+            return rebalance();
+        } finally {
+            rebalanceLock.unlock();
+        }
+    }
+
+    /**
+     * Moves every game this node holds but does not own to its owner. One rebalance runs at a
+     * time; others wait for it.
+     *
+     * @return the number of games moved
+     */
+    public int rebalance() {
+        // A lock rather than synchronized: transfers block on HTTP calls, which would pin a
+        // virtual thread's carrier inside a monitor
+        rebalanceLock.lock();
+        try {
+            int moved = 0;
+            for (long gameId : sessions.gameIds()) {
+                Optional<String> owner = remoteOwnerOf(gameId);
+                if (owner.isPresent() && transfer(gameId, owner.get())) {
+                    moved++;
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+            }
+            return moved;
+        } finally {
+            rebalanceLock.unlock();
+        }
+    }
+
+    private boolean transfer(long gameId, String owner) {
+        Optional<byte[]> snapshot = sessions.exportGame(gameId);
+        if (snapshot.isEmpty()) {
+            return false;
+        }
+
+        HttpRequest send = request(owner, GAMES_PATH)
+                .header("Content-Type", "application/octet-stream")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(snapshot.get()))
+                .build();
+        int status = statusOf(send);
+        // 409: the owner already hosts the game, e.g. from an attempt whose reply was lost
+        boolean moved = status == 204 || status == 409;
+        if (status < 0) {
+            // Unknown outcome: the owner may have imported the game before the reply was lost
+            HttpRequest check = request(owner, GAMES_PATH + "/" + gameId).GET().build();
+            moved = statusOf(check) == 204;
+        }
+
+        if (!moved) {
+            sessions.importGame(snapshot.get());
+        }
+        return moved;
+    }
+
+    private HttpRequest.Builder request(String owner, String path) {
+        return HttpRequest.newBuilder(URI.create("http://" + owner + path))
+                .timeout(TRANSFER_TIMEOUT)
+                .header(SECRET_HEADER, new String(secret, StandardCharsets.UTF_8));
+    }
+
+    // The reply's status, or -1 if there was none
+    private int statusOf(HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+}
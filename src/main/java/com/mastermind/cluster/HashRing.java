@@ -0,0 +1,98 @@
+package com.mastermind.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Consistent-hash ring mapping game ids to the nodes that own them.
+ *
+ * <p>Each node is placed on a 64-bit ring at {@code virtualNodes} pseudo-random points, and a
+ * game belongs to the node at the first point at or after the hash of its id, wrapping around.
+ * With enough points per node every node owns close to an equal share of ids, and adding or
+ * removing one of {@code n} nodes moves only about {@code 1/n} of them: the ids that move all
+ * go to the added node, or all come from the removed one.
+ *
+ * <p>The ring depends only on the set of node names, not on their order, so every node that is
+ * given the same members routes every id the same way. Rings are immutable.
+ */
+public final class HashRing {
+    public static final int DEFAULT_VIRTUAL_NODES = 128;
+
+    private final List<String> nodes;
+    private final long[] points;
+    private final String[] owners;
+
+    /**
+     * A ring of {@code nodes} with {@value #DEFAULT_VIRTUAL_NODES} points each.
+     */
+    public HashRing(Collection<String> nodes) {
+        this(nodes, DEFAULT_VIRTUAL_NODES);
+    }
+
+    /**
+     * @param nodes the node names, e.g. {@code host:port}; duplicates are ignored
+     * @param virtualNodes the number of points per node
+     * @throws IllegalArgumentException if there are no nodes or {@code virtualNodes} is not positive
+     */
+    public HashRing(Collection<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty() || virtualNodes < 1) {
+            throw new IllegalArgumentException("A ring needs at least one node and one point per node");
+        }
+
+        this.nodes = List.copyOf(new TreeSet<>(nodes));
+        int count = this.nodes.size() * virtualNodes;
+        long[][] placed = new long[count][];
+        for (int n = 0; n < this.nodes.size(); n++) {
+            long seed = hash(this.nodes.get(n));
+            for (int v = 0; v < virtualNodes; v++) {
+                placed[n * virtualNodes + v] = new long[] {mix(seed + mix(v + 1)), n};
+            }
+        }
+        // Ties are broken by node so that equal member sets build equal rings
+        Arrays.sort(placed, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+        this.points = new long[count];
+        this.owners = new String[count];
+        for (int i = 0; i < count; i++) {
+            points[i] = placed[i][0];
+            owners[i] = this.nodes.get((int) placed[i][1]);
+        }
+    }
+
+    /**
+     * The node owning {@code gameId}.
+     */
+    public String ownerOf(long gameId) {
+        int index = Arrays.binarySearch(points, mix(gameId));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    /**
+     * The nodes on the ring, sorted by name.
+     */
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    // 64-bit FNV-1a of the name's UTF-8 bytes
+    private static long hash(String node) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : node.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xFF)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // SplitMix64 finalizer: spreads sequential or clustered values over the whole ring
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
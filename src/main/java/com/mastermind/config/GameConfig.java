@@ -9,6 +9,8 @@ final public class GameConfig {
     public static final int DEFAULT_ANSWER_SIZE = 4;
     public static final int DEFAULT_MIN_VALUE = 0;
     public static final int DEFAULT_MAX_VALUE = 7;
+    public static final int DEFAULT_MAX_ATTEMPTS = 10;
+    public static final int DEFAULT_HINT_COUNT = 2;
 
     private GameConfig() {}
 }
@@ -59,6 +59,7 @@ public class GameController {
                 case MAKE_GUESS -> handleGuess(game);
                 case SHOW_HISTORY -> ui.displayGameHistory(game.getHistory());
                 case EXIT_GAME -> {
+                    game.exit();
                     System.out.println("Game ended by player.");
                     return;
                 }
@@ -0,0 +1,256 @@
+package com.mastermind.models;
+
+import com.mastermind.config.GameConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Flat, primitive-only form of a {@link Game} for hosting millions of mostly idle sessions.
+ *
+ * <p>A {@code Game} holds two lists of objects that each wrap a boxed {@code List<Integer>}, a few
+ * kilobytes once finished. This class keeps the answer as its {@link NumCombination#toCode()}
+ * code, the counters in single bytes, and every turn as one {@code int}: the guess's code in the
+ * low 24 bits and its {@link Feedback#toByte()} in the high 8. {@link Player} and
+ * {@link Difficulty} are shared references. A NORMAL game with ten attempts takes 96 bytes on a
+ * 64-bit JVM with compressed references: 40 for the object and 56 for the turn array.
+ *
+ * <p>The lifecycle follows {@link Game#start()} and {@link Game#playerGuess(NumCombination)}
+ * exactly: PENDING → IN_PROGRESS → (WON|LOST). Answers must have their difficulty's shape.
+ * There is no {@link GameListener}; convert with {@link #toGame()} to observe transitions.
+ * Instances are not thread-safe.
+ */
+public final class CompactGame {
+    private static final int CODE_BITS = 24;
+    private static final int CODE_MASK = (1 << CODE_BITS) - 1;
+    private static final Status[] STATUSES = Status.values();
+
+    private final long id;
+    private final Player player;
+    private final Difficulty difficulty;
+    private final int answerCode;
+    private final int[] turns;
+    private byte status;
+    private byte guessCount;
+    private byte hintCount;
+
+    /**
+     * Creates a pending game with the default number of attempts and hints.
+     */
+    public CompactGame(long id, Player player, Difficulty difficulty, NumCombination answer) {
+        this(id, player, difficulty, answer, GameConfig.DEFAULT_MAX_ATTEMPTS, GameConfig.DEFAULT_HINT_COUNT);
+    }
+
+    /**
+     * Creates a pending game.
+     *
+     * @param id the game's id
+     * @param player the player, shared
+     * @param difficulty the difficulty, which fixes the answer's shape
+     * @param answer the secret combination
+     * @param maxAttempts the number of guesses allowed, 1 to 127
+     * @param hintCount the number of hints allowed, 0 to 127
+     * @throws IllegalArgumentException if an argument is null, out of range, or the answer does not
+     *                                  have the difficulty's shape
+     */
+    public CompactGame(long id, Player player, Difficulty difficulty, NumCombination answer,
+                       int maxAttempts, int hintCount) {
+        if (player == null || difficulty == null || answer == null) {
+            throw new IllegalArgumentException("Player, difficulty and answer cannot be null");
+        }
+        if (answer.getExpectedSize() != difficulty.getCombinationSize() || answer.getMinNum() != 0
+                || answer.getMaxNum() != difficulty.getMaxRange()) {
+            throw new IllegalArgumentException("Answer must have the shape of " + difficulty);
+        }
+        if (maxAttempts < 1 || maxAttempts > Byte.MAX_VALUE || hintCount < 0 || hintCount > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Attempts must be 1-127 and hints 0-127");
+        }
+        if (NumCombination.codeSpace(difficulty.getCombinationSize(), 0, difficulty.getMaxRange()) > CODE_MASK + 1L) {
+            throw new IllegalArgumentException("Codes of " + difficulty + " do not fit in " + CODE_BITS + " bits");
+        }
+
+        this.id = id;
+        this.player = player;
+        this.difficulty = difficulty;
+        this.answerCode = (int) answer.toCode();
+        this.turns = new int[maxAttempts];
+        this.status = (byte) Status.PENDING.ordinal();
+        this.hintCount = (byte) hintCount;
+    }
+
+    /**
+     * Compacts a game with a difficulty, keeping its id, state, history and remaining hints.
+     *
+     * @throws IllegalArgumentException if the game cannot be represented compactly
+     */
+    public static CompactGame from(Game game) {
+        CompactGame compact = new CompactGame(game.getId(), game.getPlayer(), game.getDifficulty(), game.getAnswer(),
+                game.getMaxAttempts(), game.getHintCount());
+        for (int i = 0; i < game.getGuesses().size(); i++) {
+            compact.turns[i] = (int) game.getGuesses().get(i).toCode() | game.getFeedbacks().get(i).toByte() << CODE_BITS;
+        }
+        compact.guessCount = (byte) game.getGuesses().size();
+        compact.status = (byte) game.getStatus().ordinal();
+        return compact;
+    }
+
+    /**
+     * Expands this game back into a {@link Game} with the same state.
+     */
+    public Game toGame() {
+        Game game = new Game(player, getAnswer());
+        game.setId(id);
+        game.setDifficulty(difficulty);
+        game.setMaxAttempts(turns.length);
+        game.setHintCount(hintCount);
+        game.setStatus(getStatus());
+        for (int i = 0; i < guessCount; i++) {
+            game.getGuesses().add(getGuess(i));
+            game.getFeedbacks().add(getFeedback(i));
+        }
+        return game;
+    }
+
+    public void start() {
+        switch (getStatus()) {
+            case PENDING -> status = (byte) Status.IN_PROGRESS.ordinal();
+            case IN_PROGRESS, WON, LOST -> throw new IllegalStateException("Game already started");
+        }
+    }
+
+    public Feedback playerGuess(NumCombination guess) {
+        if (guess == null) {
+            throw new IllegalArgumentException("guess is null");
+        }
+        if (guess.getExpectedSize() != difficulty.getCombinationSize() || guess.getMinNum() != 0
+                || guess.getMaxNum() != difficulty.getMaxRange()) {
+            throw new IllegalArgumentException("Guess must have the shape of " + difficulty);
+        }
+
+        return Feedback.fromByte(playerGuess((int) guess.toCode()), difficulty.getCombinationSize());
+    }
+
+    /**
+     * Allocation-free form of {@link #playerGuess(NumCombination)}.
+     *
+     * @param guessCode the guess's {@link NumCombination#toCode()} code
+     * @return the packed feedback, as {@link Feedback#toByte()}
+     * @throws IllegalArgumentException if the code is outside the difficulty's code space
+     * @throws IllegalStateException if the game is not in progress
+     */
+    public byte playerGuess(int guessCode) {
+        int size = difficulty.getCombinationSize();
+        int base = difficulty.getMaxRange() + 1;
+        if (guessCode < 0 || guessCode >= NumCombination.codeSpace(size, 0, base - 1)) {
+            throw new IllegalArgumentException("Code " + guessCode + " is outside the code space");
+        }
+        if (status != Status.IN_PROGRESS.ordinal()) {
+            throw new IllegalStateException("Game is not in progress");
+        }
+
+        byte feedback = Feedback.scoreCodes(answerCode, guessCode, size, base);
+        turns[guessCount++] = guessCode | feedback << CODE_BITS;
+
+        // Check win condition
+        if ((feedback & 0x0F) == size) {
+            status = (byte) Status.WON.ordinal();
+            // Check lose condition
+        } else if (guessCount == turns.length) {
+            status = (byte) Status.LOST.ordinal();
+        }
+        return feedback;
+    }
+
+    public Optional<String> getHint() {
+        return getHint(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Reveals one digit of the answer, picking the position with the given generator.
+     *
+     * @return the revealed digit, or empty when no hints are left
+     */
+    public Optional<String> getHint(RandomGenerator random) {
+        if (hintCount == 0) {
+            return Optional.empty();
+        }
+
+        hintCount--;
+        int size = difficulty.getCombinationSize();
+        int base = difficulty.getMaxRange() + 1;
+        int digit = answerCode;
+        for (int i = random.nextInt(size); i < size - 1; i++) {
+            digit /= base;
+        }
+        return Optional.of(Integer.toString(digit % base));
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public Status getStatus() {
+        return STATUSES[status];
+    }
+
+    public NumCombination getAnswer() {
+        return NumCombination.fromCode(answerCode, difficulty.getCombinationSize(), 0, difficulty.getMaxRange());
+    }
+
+    public int getMaxAttempts() {
+        return turns.length;
+    }
+
+    public int getRemainingAttempts() {
+        return turns.length - guessCount;
+    }
+
+    public int getHintCount() {
+        return hintCount;
+    }
+
+    public int getGuessCount() {
+        return guessCount;
+    }
+
+    /**
+     * The guess of turn {@code turn}, counting from 0.
+     */
+    public NumCombination getGuess(int turn) {
+        return NumCombination.fromCode(turns[checkTurn(turn)] & CODE_MASK, difficulty.getCombinationSize(), 0,
+                difficulty.getMaxRange());
+    }
+
+    /**
+     * The feedback of turn {@code turn}, counting from 0.
+     */
+    public Feedback getFeedback(int turn) {
+        return Feedback.fromByte((byte) (turns[checkTurn(turn)] >>> CODE_BITS), difficulty.getCombinationSize());
+    }
+
+    public List<History> getHistory() {
+        List<History> history = new ArrayList<>(guessCount);
+        for (int i = 0; i < guessCount; i++) {
+            history.add(new History(getGuess(i), getFeedback(i)));
+        }
+        return history;
+    }
+
+    private int checkTurn(int turn) {
+        if (turn < 0 || turn >= guessCount) {
+            throw new IndexOutOfBoundsException("Turn " + turn + " of " + guessCount);
+        }
+        return turn;
+    }
+}
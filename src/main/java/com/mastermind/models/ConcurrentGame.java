@@ -0,0 +1,186 @@
+package com.mastermind.models;
+
+import com.mastermind.config.GameConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.random.RandomGenerator;
+
+/**
+ * Thread-safe, lock-free variant of {@link Game} for sessions that many threads may play at once.
+ *
+ * <p>All mutable state lives in one immutable {@link State}. Every transition reads the current
+ * state, builds its successor and publishes it with a single compare-and-set, retrying if another
+ * thread got there first. A transition therefore either applies completely against the state it
+ * was checked on or not at all: concurrent guesses can never exceed {@code maxAttempts}, and no
+ * guess is recorded after the game is won or lost. Feedback is scored once, before the loop,
+ * since it depends only on the immutable answer.
+ *
+ * <p>The lifecycle rules are those of {@link Game#start()}, {@link Game#playerGuess(NumCombination)}
+ * and {@link Game#getHint(RandomGenerator)}. There is no {@link GameListener}, because callbacks
+ * from racing threads could not be ordered like the transitions they report.
+ */
+public final class ConcurrentGame {
+    private final long id;
+    private final Player player;
+    private final NumCombination answer;
+    private final Difficulty difficulty;
+    private final int maxAttempts;
+    private final AtomicReference<State> state;
+
+    /**
+     * Creates a pending game with the default number of attempts and hints.
+     */
+    public ConcurrentGame(long id, Player player, NumCombination answer, Difficulty difficulty) {
+        this(id, player, answer, difficulty, GameConfig.DEFAULT_MAX_ATTEMPTS, GameConfig.DEFAULT_HINT_COUNT);
+    }
+
+    /**
+     * Creates a pending game.
+     *
+     * @param id the game's id
+     * @param player the player
+     * @param answer the secret combination
+     * @param difficulty the difficulty, or null
+     * @param maxAttempts the number of guesses allowed
+     * @param hintCount the number of hints allowed
+     * @throws IllegalArgumentException if player or answer is null, or a count is out of range
+     */
+    public ConcurrentGame(long id, Player player, NumCombination answer, Difficulty difficulty,
+                          int maxAttempts, int hintCount) {
+        if (player == null || answer == null) {
+            throw new IllegalArgumentException("Player and answer cannot be null");
+        }
+        if (maxAttempts < 1 || hintCount < 0) {
+            throw new IllegalArgumentException("Attempts must be positive and hints non-negative");
+        }
+
+        this.id = id;
+        this.player = player;
+        this.answer = answer;
+        this.difficulty = difficulty;
+        this.maxAttempts = maxAttempts;
+        this.state = new AtomicReference<>(new State(Status.PENDING, List.of(), hintCount));
+    }
+
+    public void start() {
+        State current;
+        do {
+            current = state.get();
+            if (current.status() != Status.PENDING) {
+                throw new IllegalStateException("Game already started");
+            }
+        } while (!state.compareAndSet(current, new State(Status.IN_PROGRESS, current.history(), current.hintCount())));
+    }
+
+    public Feedback playerGuess(NumCombination guess) {
+        if (guess == null) {
+            throw new IllegalArgumentException("guess is null");
+        }
+
+        Feedback feedback = Feedback.create(answer, guess);
+        History turn = new History(guess, feedback);
+        State current;
+        State next;
+        do {
+            current = state.get();
+            if (current.status() != Status.IN_PROGRESS) {
+                throw new IllegalStateException("Game is not in progress");
+            }
+
+            List<History> history = new ArrayList<>(current.history().size() + 1);
+            history.addAll(current.history());
+            history.add(turn);
+
+            Status status = Status.IN_PROGRESS;
+            // Check win condition
+            if (feedback.getCorrectPositions() == answer.getExpectedSize()) {
+                status = Status.WON;
+                // Check lose condition
+            } else if (history.size() == maxAttempts) {
+                status = Status.LOST;
+            }
+            next = new State(status, Collections.unmodifiableList(history), current.hintCount());
+        } while (!state.compareAndSet(current, next));
+
+        return feedback;
+    }
+
+    public Optional<String> getHint() {
+        return getHint(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Reveals one digit of the answer, picking the position with the given generator.
+     *
+     * @return the revealed digit, or empty when no hints are left
+     */
+    public Optional<String> getHint(RandomGenerator random) {
+        State current;
+        do {
+            current = state.get();
+            if (current.hintCount() == 0) {
+                return Optional.empty();
+            }
+        } while (!state.compareAndSet(current, new State(current.status(), current.history(), current.hintCount() - 1)));
+
+        return Optional.of(answer.getNumbers().get(random.nextInt(answer.getExpectedSize())).toString());
+    }
+
+    /**
+     * A consistent view of the game's mutable state at one instant.
+     */
+    public State getState() {
+        return state.get();
+    }
+
+    public Status getStatus() {
+        return state.get().status();
+    }
+
+    public List<History> getHistory() {
+        return state.get().history();
+    }
+
+    public int getRemainingAttempts() {
+        return maxAttempts - state.get().history().size();
+    }
+
+    public int getHintCount() {
+        return state.get().hintCount();
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public NumCombination getAnswer() {
+        return answer;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Everything about a game that changes, replaced as a whole on every transition.
+     *
+     * @param status the game's status
+     * @param history the guesses so far with their feedback, unmodifiable
+     * @param hintCount the hints left
+     */
+    public record State(Status status, List<History> history, int hintCount) {
+    }
+}
@@ -17,6 +17,9 @@ import java.util.Map;
  */
 @Data
 public class Feedback {
+    /** Largest combination size whose feedback fits in one byte. */
+    public static final int MAX_PACKED_SIZE = 15;
+
     private final int correctDigits;
     private final int correctPositions;
     private final int expectedSize;
@@ -81,6 +84,85 @@ public class Feedback {
         return new int[]{correctPositions + digitOnlyMatches, correctPositions};
     }
 
+    /**
+     * Scores a guess against an answer given as {@link NumCombination#toCode()} codes, straight to
+     * the {@link #toByte()} form. Gives the same result as {@link #create} without allocating, for
+     * bulk re-scoring of recorded games.
+     *
+     * @param answerCode the answer's code
+     * @param guessCode the guess's code, of the same shape
+     * @param size the number of digits, at most {@value #MAX_PACKED_SIZE}
+     * @param base the number of distinct digits, at most 16
+     * @return the packed feedback
+     * @throws IllegalArgumentException if the shape is too large to pack
+     */
+    public static byte scoreCodes(long answerCode, long guessCode, int size, int base) {
+        if (size > MAX_PACKED_SIZE || base > 16) {
+            throw new IllegalArgumentException("Cannot score " + size + " digits in base " + base);
+        }
+
+        // Unpack both codes into one nibble per digit, so the matching below is pure bit work
+        long answerDigits = 0;
+        long guessDigits = 0;
+        for (int i = 0; i < size; i++) {
+            answerDigits |= (answerCode % base) << (4 * i);
+            guessDigits |= (guessCode % base) << (4 * i);
+            answerCode /= base;
+            guessCode /= base;
+        }
+
+        int correctPositions = 0;
+        int matched = 0;
+        for (int i = 0; i < size; i++) {
+            if (((answerDigits ^ guessDigits) >>> (4 * i) & 0xF) == 0) {
+                correctPositions++;
+                matched |= 1 << i;
+            }
+        }
+
+        // Pair each remaining guess digit with an unused remaining answer digit
+        int used = matched;
+        int digitOnlyMatches = 0;
+        for (int i = 0; i < size; i++) {
+            if ((matched & 1 << i) != 0) {
+                continue;
+            }
+            long digit = guessDigits >>> (4 * i) & 0xF;
+            for (int j = 0; j < size; j++) {
+                if ((used & 1 << j) == 0 && (answerDigits >>> (4 * j) & 0xF) == digit) {
+                    used |= 1 << j;
+                    digitOnlyMatches++;
+                    break;
+                }
+            }
+        }
+
+        return (byte) ((correctPositions + digitOnlyMatches) << 4 | correctPositions);
+    }
+
+    /**
+     * Packs this feedback into one byte, correct digits in the high nibble and correct positions
+     * in the low nibble. Supports combinations of up to {@value #MAX_PACKED_SIZE} digits.
+     *
+     * @throws IllegalStateException if the combination is too long to pack
+     */
+    public byte toByte() {
+        if (expectedSize > MAX_PACKED_SIZE) {
+            throw new IllegalStateException("Cannot pack feedback for " + expectedSize + " digits");
+        }
+        return (byte) (correctDigits << 4 | correctPositions);
+    }
+
+    /**
+     * Inverse of {@link #toByte()}.
+     *
+     * @param packed the packed feedback
+     * @param expectedSize the combination size the feedback refers to
+     * @return the unpacked feedback
+     */
+    public static Feedback fromByte(byte packed, int expectedSize) {
+        return new Feedback((packed >> 4) & 0x0F, packed & 0x0F, expectedSize);
+    }
 
     @Override
     public String toString(){
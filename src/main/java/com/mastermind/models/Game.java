@@ -1,12 +1,16 @@
 package com.mastermind.models;
 
+import com.mastermind.config.GameConfig;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents a single game session of Mastermind.
@@ -23,10 +27,13 @@ import java.util.Random;
  * </ul>
  * 
  * <p>Games follow a strict lifecycle: PENDING → IN_PROGRESS → (WON|LOST)
+ *
+ * <p>Every transition is reported to the game's {@link GameListener}.
  */
 @Data
 @NoArgsConstructor
 public class Game {
+    private long id;
     private Status status;
     private Player player;
     private NumCombination answer;
@@ -35,6 +42,9 @@ public class Game {
     private List<Feedback> feedbacks;
     private int hintCount;
     private Difficulty difficulty;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private GameListener listener = GameListener.NONE;
 
     /**
      * Creates a new game with the specified player and secret combination.
@@ -54,10 +64,10 @@ public class Game {
         this.status = Status.PENDING;
         this.player = player;
         this.answer = answer;
-        this.maxAttempts = 10;
+        this.maxAttempts = GameConfig.DEFAULT_MAX_ATTEMPTS;
         this.guesses = new ArrayList<>();
         this.feedbacks = new ArrayList<>();
-        this.hintCount = 2;
+        this.hintCount = GameConfig.DEFAULT_HINT_COUNT;
     }
 
     public void start(){
@@ -65,6 +75,7 @@ public class Game {
            case PENDING -> this.status = Status.IN_PROGRESS;
            case IN_PROGRESS, WON, LOST -> throw new IllegalStateException("Game already started");
        }
+       listener.onStart(this);
     }
 
     public Feedback playerGuess(NumCombination guess){
@@ -76,9 +87,47 @@ public class Game {
             throw new IllegalStateException("Game is not in progress");
         }
 
-        this.guesses.add(guess);
+        return recordGuess(guess, Feedback.create(this.answer, guess));
+    }
+
+    /**
+     * Advances the game with a guess whose feedback was already scored against this game's
+     * answer, for callers that score many guesses at once in a packed form.
+     *
+     * <p>The feedback is trusted, not re-scored: only server code that scored it against this
+     * game's answer may pass it, never feedback that came from a client. The game only checks
+     * that it is consistent, i.e. of the answer's size and claiming a win only for the answer.
+     *
+     * @param guess the guess
+     * @param feedback the guess's feedback against {@link #getAnswer()}
+     * @return the feedback
+     * @throws IllegalArgumentException if guess or feedback is null, or they are inconsistent
+     *                                  with the answer
+     * @throws IllegalStateException if the game is not in progress
+     */
+    public Feedback playerGuess(NumCombination guess, Feedback feedback) {
+        if (guess == null || feedback == null) {
+            throw new IllegalArgumentException("guess or feedback is null");
+        }
+
+        if (this.status != Status.IN_PROGRESS) {
+            throw new IllegalStateException("Game is not in progress");
+        }
+
+        int size = this.answer.getExpectedSize();
+        if (feedback.getExpectedSize() != size
+                || feedback.getCorrectPositions() < 0
+                || feedback.getCorrectPositions() > feedback.getCorrectDigits()
+                || feedback.getCorrectDigits() > size
+                || feedback.getCorrectPositions() == size && !guess.equals(this.answer)) {
+            throw new IllegalArgumentException("feedback does not fit the guess and answer");
+        }
+
+        return recordGuess(guess, feedback);
+    }
 
-        Feedback feedback = Feedback.create(this.answer, guess);
+    private Feedback recordGuess(NumCombination guess, Feedback feedback) {
+        this.guesses.add(guess);
         this.feedbacks.add(feedback);
 
         // Check win condition
@@ -90,9 +139,17 @@ public class Game {
         }
         // else keep playing
 
+        listener.onGuess(this, guess, feedback);
         return feedback;
     }
 
+    /**
+     * Records that the player left the game. The game stays resumable in its current state.
+     */
+    public void exit() {
+        listener.onExit(this);
+    }
+
     public List<History> getHistory() {
         List<History> historyList = new ArrayList<>();
 
@@ -108,6 +165,17 @@ public class Game {
     }
 
     public Optional<String> getHint() {
+        return getHint(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Reveals one digit of the answer, picking the position with the given generator.
+     * Passing a seeded generator makes hint positions reproducible.
+     *
+     * @param random the generator used to pick the revealed position
+     * @return the revealed digit, or empty when no hints are left
+     */
+    public Optional<String> getHint(RandomGenerator random) {
         if (this.hintCount == 0){
             return Optional.empty();
         }
@@ -115,7 +183,8 @@ public class Game {
         this.hintCount--;
 
         int size = this.answer.getNumbers().size();
-        int randomIndex = new Random().nextInt(size);
+        int randomIndex = random.nextInt(size);
+        listener.onHint(this, randomIndex);
 
         return Optional.of(this.answer.getNumbers().get(randomIndex).toString());
     }
@@ -0,0 +1,30 @@
+package com.mastermind.models;
+
+/**
+ * Receives the state transitions of a {@link Game}, e.g. to journal them.
+ *
+ * <p>Callbacks run synchronously on the thread that changed the game, after the change has been
+ * applied, so they should return quickly.
+ */
+public interface GameListener {
+    /** Listener that ignores every transition. */
+    GameListener NONE = new GameListener() {};
+
+    /** The game moved from PENDING to IN_PROGRESS. */
+    default void onStart(Game game) {}
+
+    /** A guess was scored; the game's status already reflects a win or loss. */
+    default void onGuess(Game game, NumCombination guess, Feedback feedback) {}
+
+    /** A hint revealed the digit at {@code position}. */
+    default void onHint(Game game, int position) {}
+
+    /** The player left the game without finishing it. */
+    default void onExit(Game game) {}
+
+    /** The game was handed to another host, which records it from here on. */
+    default void onRelease(Game game) {}
+
+    /** The game was handed over by another host, in the state it had there. */
+    default void onAdopt(Game game) {}
+}
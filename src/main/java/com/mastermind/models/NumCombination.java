@@ -85,6 +85,60 @@ public class NumCombination {
         return new NumCombination(numbers, expectedSize, min, max);
     }
 
+    /**
+     * Number of distinct combinations of {@code size} digits in {@code min-max}.
+     *
+     * @throws ArithmeticException if the space does not fit in a {@code long}
+     */
+    public static long codeSpace(int size, int min, int max) {
+        long space = 1;
+        for (int i = 0; i < size; i++) {
+            space = Math.multiplyExact(space, max - min + 1);
+        }
+        return space;
+    }
+
+    /**
+     * Packs this combination into a dense code in {@code [0, codeSpace)}, reading the digits as a
+     * base-{@code (maxNum - minNum + 1)} number with the first digit most significant.
+     *
+     * @throws ArithmeticException if the code space does not fit in a {@code long}
+     */
+    public long toCode() {
+        codeSpace(expectedSize, minNum, maxNum);
+        int base = maxNum - minNum + 1;
+        long code = 0;
+        // Indexed rather than iterated, so packing allocates nothing
+        for (int i = 0; i < numbers.size(); i++) {
+            code = code * base + (numbers.get(i) - minNum);
+        }
+        return code;
+    }
+
+    /**
+     * Inverse of {@link #toCode()}.
+     *
+     * @param code the packed combination
+     * @param size the number of digits
+     * @param min the minimum digit (inclusive)
+     * @param max the maximum digit (inclusive)
+     * @return the unpacked combination
+     * @throws IllegalArgumentException if the code is outside the code space
+     */
+    public static NumCombination fromCode(long code, int size, int min, int max) {
+        if (code < 0 || code >= codeSpace(size, min, max)) {
+            throw new IllegalArgumentException("Code " + code + " is outside the code space");
+        }
+
+        int base = max - min + 1;
+        Integer[] digits = new Integer[size];
+        for (int i = size - 1; i >= 0; i--) {
+            digits[i] = (int) (code % base) + min;
+            code /= base;
+        }
+        return new NumCombination(List.of(digits), size, min, max);
+    }
+
     @Override
     public String toString() {
         return String.join(" ", numbers.stream()
@@ -0,0 +1,728 @@
+package com.mastermind.persistence;
+
+import com.mastermind.config.GameConfig;
+import com.mastermind.models.Difficulty;
+import com.mastermind.models.Feedback;
+import com.mastermind.models.Game;
+import com.mastermind.models.NumCombination;
+import com.mastermind.models.Player;
+import com.mastermind.models.Status;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only columnar archive of finished games, for analytics over the whole history.
+ *
+ * <p>Finished games are buffered in primitive arrays and written out as immutable segment
+ * files of up to {@code segmentRows} games. Within a segment each field is stored as its own
+ * column, so a scan over one field reads a dense run of bytes:
+ * <pre>
+ *   header         magic, version, rows, turns, guess bytes (5 ints)
+ *   difficulty     1 byte per game, {@link Difficulty} ordinal
+ *   status         1 byte per game, {@link Status} ordinal
+ *   guess count    1 byte per game
+ *   hints used     1 byte per game
+ *   player         int per game, id in the player dictionary
+ *   answer         int per game, {@link NumCombination#toCode()}
+ *   turn offset    int per game + 1, index of the game's first feedback byte
+ *   guess offset   int per game + 1, index of the game's first guess byte
+ *   finished at    long per game, epoch millis
+ *   feedback       1 byte per turn, {@link Feedback#toByte()}
+ *   guesses        zigzag varint per turn, each code as the delta from the previous one
+ *                  (the first from the answer)
+ * </pre>
+ * Consecutive guesses tend to differ in a digit or two, so most deltas fit one or two bytes
+ * and a ten-guess NORMAL game takes under 60 bytes, 28 of them fixed per game.
+ *
+ * <p>Player names are interned in {@code players.dict}, which is appended and synced before
+ * any segment that refers to its ids. Segments are written to a temporary file and moved into
+ * place, and read back through read-only memory maps, so scans run at memory speed and
+ * segments are paged in and out by the OS. Only finished games with a {@link Difficulty} are
+ * archived; {@link #accept} skips any others. Buffered games not yet flushed are lost on a crash; they are history, not live state.
+ *
+ * <p>A full buffer is handed to a background writer and replaced by an empty one, so the thread
+ * that finished the game, e.g. a server's selector, never waits on the disk. Segments are
+ * written one at a time in order; {@link #flush} waits for them.
+ */
+public class GameArchive implements Consumer<Game>, AutoCloseable {
+    static final int DEFAULT_SEGMENT_ROWS = 1 << 20;
+
+    private static final Pattern SEGMENT_FILE = Pattern.compile("archive-(\\d+)\\.seg");
+    private static final String DICTIONARY_FILE = "players.dict";
+    private static final int SEGMENT_MAGIC = 0x4D4D4152; // "MMAR"
+    private static final int SEGMENT_VERSION = 1;
+    private static final int HEADER_BYTES = 5 * Integer.BYTES;
+
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+    private static final Status[] STATUSES = Status.values();
+
+    private final Path directory;
+    private final int segmentRows;
+    private final LongSupplier clock;
+    private final Map<String, Integer> playerIds = new HashMap<>();
+    private final FileChannel dictionary;
+    private final ExecutorService writer;
+    private SegmentBuffer buffer;
+
+    // Segments are added by the writer thread only, player names under the lock; both arrays
+    // grow by doubling. Slots below the count are never rewritten, so readers see a consistent
+    // prefix through the volatile fields without locking
+    private Segment[] segmentArray = new Segment[16];
+    private int segmentCount;
+    private volatile List<Segment> segments = List.of();
+    private volatile String[] playerNames = new String[64];
+    private int playerCount;
+
+    private long nextSegment;
+    // Only touched by the writer thread once the archive is open
+    private int syncedPlayers;
+
+    /**
+     * Opens (or creates) an archive in {@code directory} with the default segment size.
+     */
+    public static GameArchive open(Path directory) {
+        return new GameArchive(directory, DEFAULT_SEGMENT_ROWS, System::currentTimeMillis);
+    }
+
+    /**
+     * Opens (or creates) an archive in {@code directory} and maps its existing segments.
+     *
+     * @param directory the directory holding the segments and the player dictionary
+     * @param segmentRows the number of games after which the buffer is written as a segment
+     * @param clock the source of the finished-at timestamps, in epoch millis
+     */
+    public GameArchive(Path directory, int segmentRows, LongSupplier clock) {
+        if (segmentRows < 1) {
+            throw new IllegalArgumentException("Segment rows must be positive, got " + segmentRows);
+        }
+
+        this.directory = directory;
+        this.segmentRows = segmentRows;
+        this.clock = clock;
+        this.buffer = new SegmentBuffer(segmentRows);
+        try {
+            Files.createDirectories(directory);
+            loadDictionary();
+            this.dictionary = FileChannel.open(directory.resolve(DICTIONARY_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open archive in " + directory, e);
+        }
+
+        for (long number : segmentNumbers()) {
+            addSegment(Segment.map(segmentFile(number)));
+            nextSegment = number + 1;
+        }
+
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-archive-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Archives a finished game, so the archive can be handed to {@link GameStore} as its
+     * consumer of finished games. Games {@link #append} would reject are skipped.
+     */
+    @Override
+    public void accept(Game game) {
+        if ((game.getStatus() == Status.WON || game.getStatus() == Status.LOST) && game.getDifficulty() != null) {
+            append(game);
+        }
+    }
+
+    /**
+     * Buffers a finished game, handing the buffer to the background writer once it is full.
+     *
+     * @throws IllegalArgumentException if the game is not won or lost, or has no difficulty
+     */
+    public synchronized void append(Game game) {
+        if (game.getStatus() != Status.WON && game.getStatus() != Status.LOST) {
+            throw new IllegalArgumentException("Only finished games can be archived, got " + game.getStatus());
+        }
+        if (game.getDifficulty() == null) {
+            throw new IllegalArgumentException("Only games with a difficulty can be archived");
+        }
+
+        buffer.add(game, playerId(game.getPlayer().getName()), clock.getAsLong());
+        if (buffer.rows == segmentRows) {
+            writeInBackground();
+        }
+    }
+
+    /**
+     * Writes the buffered games as a new segment and waits until every segment handed to the
+     * writer is visible to {@link #segments()}.
+     *
+     * @throws UncheckedIOException if the segment cannot be written
+     */
+    public void flush() {
+        Future<?> written;
+        synchronized (this) {
+            written = writeInBackground();
+        }
+        await(written);
+    }
+
+    /**
+     * Waits for the segments handed to the writer so far, leaving buffered games in the buffer.
+     */
+    void awaitWrites() {
+        await(writer.submit(() -> {}));
+    }
+
+    /**
+     * The written segments, oldest first.    /**
+     * The written segments, oldest first. Buffered games appear once their segment is written.
+     */
+    public List<Segment> segments() {
+        return segments;
+    }
+
+    /**
+     * Total number of archived games in written segments.
+     */
+    public long size() {
+        long rows = 0;
+        for (Segment segment : segments) {
+            rows += segment.rowCount();
+        }
+        return rows;
+    }
+
+    /**
+     * The name a player id stands for.
+     *
+     * @throws IndexOutOfBoundsException if the id was never assigned
+     */
+    public String playerName(int playerId) {
+        String[] names = playerNames;
+        if (playerId < 0 || playerId >= names.length || names[playerId] == null) {
+            throw new IndexOutOfBoundsException("Player id " + playerId + " was never assigned");
+        }
+        return names[playerId];
+    }
+
+    /**
+     * The dictionary id of a player, if they have any archived game.
+     */
+    public synchronized OptionalInt findPlayerId(String name) {
+        Integer id = playerIds.get(name);
+        return id == null ? OptionalInt.empty() : OptionalInt.of(id);
+    }
+
+    @Override
+    public void close() {
+        try {
+            flush();
+        } finally {
+            writer.shutdown();
+            try {
+                dictionary.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot close player dictionary", e);
+            }
+        }
+    }
+
+    // Swaps in an empty buffer; the returned write also completes after every earlier one
+    private Future<?> writeInBackground() {
+        if (buffer.rows == 0) {
+            return writer.submit(() -> {});
+        }
+
+        SegmentBuffer full = buffer;
+        long number = nextSegment++;
+        int players = playerCount;
+        buffer = new SegmentBuffer(segmentRows);
+        return writer.submit(() -> {
+            try {
+                write(full, number, players);
+            } catch (RuntimeException e) {
+                // Archived games are history; a flush() caller sees the failure through its future
+                System.err.println("Game archive cannot write segment " + number + " in " + directory + ": " + e);
+                throw e;
+            }
+        });
+    }
+
+    // Runs on the writer thread
+    private void write(SegmentBuffer full, long number, int players) {
+        syncDictionary(players);
+        Path file = segmentFile(number);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer bytes = full.toSegment();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write archive segment " + temp, e);
+        }
+
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot publish archive segment " + file, e);
+        }
+
+        addSegment(Segment.map(file));
+    }
+
+    private static void await(Future<?> written) {
+        try {
+            written.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the archive writer", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void addSegment(Segment segment) {
+        if (segmentCount == segmentArray.length) {
+            segmentArray = Arrays.copyOf(segmentArray, segmentCount * 2);
+        }
+        segmentArray[segmentCount++] = segment;
+        segments = Collections.unmodifiableList(Arrays.asList(segmentArray).subList(0, segmentCount));
+    }
+
+    private int playerId(String name) {
+        Integer id = playerIds.get(name);
+        if (id == null) {
+            id = playerCount;
+            String[] names = playerNames;
+            if (id == names.length) {
+                names = Arrays.copyOf(names, id * 2);
+            }
+            names[id] = name;
+            playerIds.put(name, id);
+            playerCount++;
+            playerNames = names;
+        }
+        return id;
+    }
+
+    // Entries are a short byte length and UTF-8 bytes, in id order
+    private void loadDictionary() throws IOException {
+        Path file = directory.resolve(DICTIONARY_FILE);
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readUnsignedShort();
+                } catch (EOFException e) {
+                    break;
+                }
+                byte[] bytes = new byte[length];
+                in.readFully(bytes);
+                playerId(new String(bytes, StandardCharsets.UTF_8));
+            }
+        }
+        syncedPlayers = playerCount;
+    }
+
+    // Syncs the names of the first players ids, which a segment may refer to
+    private void syncDictionary(int players) {
+        if (syncedPlayers >= players) {
+            return;
+        }
+
+        String[] names = playerNames;
+        try {
+            for (; syncedPlayers < players; syncedPlayers++) {
+                byte[] name = names[syncedPlayers].getBytes(StandardCharsets.UTF_8);
+                if (name.length > 0xFFFF) {
+                    throw new IllegalArgumentException("Player name of " + name.length + " bytes is too long to archive");
+                }
+                ByteBuffer entry = ByteBuffer.allocate(Short.BYTES + name.length);
+                entry.putShort((short) name.length).put(name).flip();
+                while (entry.hasRemaining()) {
+                    dictionary.write(entry);
+                }
+            }
+            dictionary.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write player dictionary", e);
+        }
+    }
+
+    private Path segmentFile(long number) {
+        return directory.resolve("archive-%08d.seg".formatted(number));
+    }
+
+    private List<Long> segmentNumbers() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> SEGMENT_FILE.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list " + directory, e);
+        }
+    }
+
+    /**
+     * Restores an archived game as a finished {@link Game}, e.g. for re-verification or export.
+     * The game id and maximum attempts are not archived; the defaults are used.
+     */
+    public Game restore(Segment segment, int row) {
+        Difficulty difficulty = segment.difficulty(row);
+        int size = difficulty.getCombinationSize();
+        int maxRange = difficulty.getMaxRange();
+
+        Game game = new Game(new Player(playerName(segment.playerId(row))),
+                NumCombination.fromCode(segment.answerCode(row), size, 0, maxRange));
+        game.setDifficulty(difficulty);
+        game.setStatus(segment.status(row));
+        game.setHintCount(GameConfig.DEFAULT_HINT_COUNT - segment.hintsUsed(row));
+
+        int[] codes = new int[segment.guessCount(row)];
+        segment.guessCodes(row, codes);
+        int firstTurn = segment.turnOffset(row);
+        for (int i = 0; i < codes.length; i++) {
+            game.getGuesses().add(NumCombination.fromCode(codes[i], size, 0, maxRange));
+            game.getFeedbacks().add(Feedback.fromByte(segment.feedbackByte(firstTurn + i), size));
+        }
+        return game;
+    }
+
+    static int putVarint(byte[] out, int offset, int value) {
+        while ((value & ~0x7F) != 0) {
+            out[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[offset++] = (byte) value;
+        return offset;
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * One immutable, memory-mapped segment. Accessors read straight from the map by row, so
+     * scans allocate nothing and are safe from any number of threads.
+     */
+    public static final class Segment {
+        private final Path file;
+        private final ByteBuffer data;
+        private final int rows;
+        private final int turns;
+        private final int difficultyAt;
+        private final int statusAt;
+        private final int guessCountAt;
+        private final int hintsUsedAt;
+        private final int playerAt;
+        private final int answerAt;
+        private final int turnOffsetAt;
+        private final int guessOffsetAt;
+        private final int finishedAtAt;
+        private final int feedbackAt;
+        private final int guessesAt;
+
+        private Segment(Path file, ByteBuffer data) {
+            this.file = file;
+            this.data = data;
+            if (data.capacity() < HEADER_BYTES || data.getInt(0) != SEGMENT_MAGIC
+                    || data.getInt(4) != SEGMENT_VERSION) {
+                throw new IllegalStateException(file + " is not an archive segment");
+            }
+
+            this.rows = data.getInt(8);
+            this.turns = data.getInt(12);
+            int guessBytes = data.getInt(16);
+            this.difficultyAt = HEADER_BYTES;
+            this.statusAt = difficultyAt + rows;
+            this.guessCountAt = statusAt + rows;
+            this.hintsUsedAt = guessCountAt + rows;
+            this.playerAt = hintsUsedAt + rows;
+            this.answerAt = playerAt + rows * Integer.BYTES;
+            this.turnOffsetAt = answerAt + rows * Integer.BYTES;
+            this.guessOffsetAt = turnOffsetAt + (rows + 1) * Integer.BYTES;
+            this.finishedAtAt = guessOffsetAt + (rows + 1) * Integer.BYTES;
+            this.feedbackAt = finishedAtAt + rows * Long.BYTES;
+            this.guessesAt = feedbackAt + turns;
+            if (guessesAt + guessBytes != data.capacity()) {
+                throw new IllegalStateException(file + " is truncated or corrupt");
+            }
+        }
+
+        static Segment map(Path file) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                return new Segment(file, data);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot map archive segment " + file, e);
+            }
+        }
+
+        public Path file() {
+            return file;
+        }
+
+        public int rowCount() {
+            return rows;
+        }
+
+        /**
+         * Total number of guesses over all games in this segment.
+         */
+        public int turnCount() {
+            return turns;
+        }
+
+        public Difficulty difficulty(int row) {
+            return DIFFICULTIES[difficultyOrdinal(row)];
+        }
+
+        public int difficultyOrdinal(int row) {
+            return data.get(difficultyAt + checkRow(row));
+        }
+
+        public Status status(int row) {
+            return STATUSES[data.get(statusAt + checkRow(row))];
+        }
+
+        public boolean isWon(int row) {
+            return data.get(statusAt + checkRow(row)) == Status.WON.ordinal();
+        }
+
+        public int guessCount(int row) {
+            return data.get(guessCountAt + checkRow(row));
+        }
+
+        public int hintsUsed(int row) {
+            return data.get(hintsUsedAt + checkRow(row));
+        }
+
+        public int playerId(int row) {
+            return data.getInt(playerAt + checkRow(row) * Integer.BYTES);
+        }
+
+        public int answerCode(int row) {
+            return data.getInt(answerAt + checkRow(row) * Integer.BYTES);
+        }
+
+        public long finishedAt(int row) {
+            return data.getLong(finishedAtAt + checkRow(row) * Long.BYTES);
+        }
+
+        /**
+         * Index of the row's first turn, for {@link #feedbackByte(int)}.
+         */
+        public int turnOffset(int row) {
+            return data.getInt(turnOffsetAt + checkRow(row) * Integer.BYTES);
+        }
+
+        /**
+         * The {@link Feedback#toByte()} of a turn, indexed over the whole segment.
+         */
+        public byte feedbackByte(int turn) {
+            if (turn < 0 || turn >= turns) {
+                throw new IndexOutOfBoundsException("Turn " + turn + " out of " + turns);
+            }
+            return data.get(feedbackAt + turn);
+        }
+
+        /**
+         * Decodes the row's guess codes, in order, into {@code out}.
+         *
+         * @return the number of codes written, i.e. {@link #guessCount(int)}
+         * @throws IndexOutOfBoundsException if {@code out} is too short
+         */
+        public int guessCodes(int row, int[] out) {
+            int count = guessCount(row);
+            int offset = guessesAt + data.getInt(guessOffsetAt + row * Integer.BYTES);
+            int code = answerCode(row);
+            for (int i = 0; i < count; i++) {
+                int value = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data.get(offset++);
+                    value |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                code += unzigzag(value);
+                out[i] = code;
+            }
+            return count;
+        }
+
+        /**
+         * The row's first guess code, or -1 if it has no guesses.
+         */
+        public int firstGuessCode(int row) {
+            if (guessCount(row) == 0) {
+                return -1;
+            }
+
+            int offset = guessesAt + data.getInt(guessOffsetAt + row * Integer.BYTES);
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data.get(offset++);
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return answerCode(row) + unzigzag(value);
+        }
+
+        private int checkRow(int row) {
+            if (row < 0 || row >= rows) {
+                throw new IndexOutOfBoundsException("Row " + row + " out of " + rows);
+            }
+            return row;
+        }
+    }
+
+    /**
+     * Games buffered for the next segment, one primitive array per column.
+     */
+    private static final class SegmentBuffer {
+        private byte[] difficulties;
+        private byte[] statuses;
+        private byte[] guessCounts;
+        private byte[] hintsUsed;
+        private int[] players;
+        private int[] answers;
+        private long[] finishedAt;
+        private byte[] feedback = new byte[1024];
+        private byte[] guesses = new byte[2048];
+        private int rows;
+        private int turns;
+        private int guessBytes;
+
+        SegmentBuffer(int capacity) {
+            // Columns grow on demand, so a large segment size costs nothing until it fills
+            resize(Math.min(capacity, 1024));
+        }
+
+        void add(Game game, int playerId, long timestamp) {
+            if (rows == difficulties.length) {
+                resize(rows * 2);
+            }
+            List<NumCombination> gameGuesses = game.getGuesses();
+            List<Feedback> gameFeedbacks = game.getFeedbacks();
+            int previous = (int) game.getAnswer().toCode();
+
+            difficulties[rows] = (byte) game.getDifficulty().ordinal();
+            statuses[rows] = (byte) game.getStatus().ordinal();
+            guessCounts[rows] = (byte) gameGuesses.size();
+            hintsUsed[rows] = (byte) Math.max(0, GameConfig.DEFAULT_HINT_COUNT - game.getHintCount());
+            players[rows] = playerId;
+            answers[rows] = previous;
+            finishedAt[rows] = timestamp;
+
+            int neededTurns = turns + gameGuesses.size();
+            if (neededTurns > feedback.length) {
+                feedback = Arrays.copyOf(feedback, Math.max(neededTurns, feedback.length * 2));
+            }
+            int neededGuessBytes = guessBytes + gameGuesses.size() * 5;
+            if (neededGuessBytes > guesses.length) {
+                guesses = Arrays.copyOf(guesses, Math.max(neededGuessBytes, guesses.length * 2));
+            }
+            for (int i = 0; i < gameGuesses.size(); i++) {
+                int code = (int) gameGuesses.get(i).toCode();
+                feedback[turns++] = gameFeedbacks.get(i).toByte();
+                guessBytes = putVarint(guesses, guessBytes, zigzag(code - previous));
+                previous = code;
+            }
+            rows++;
+        }
+
+        ByteBuffer toSegment() {
+            int size = HEADER_BYTES + rows * 4 + rows * 2 * Integer.BYTES
+                    + (rows + 1) * 2 * Integer.BYTES + rows * Long.BYTES + turns + guessBytes;
+            ByteBuffer out = ByteBuffer.allocate(size);
+            out.putInt(SEGMENT_MAGIC).putInt(SEGMENT_VERSION).putInt(rows).putInt(turns).putInt(guessBytes);
+            out.put(difficulties, 0, rows).put(statuses, 0, rows).put(guessCounts, 0, rows).put(hintsUsed, 0, rows);
+            for (int i = 0; i < rows; i++) {
+                out.putInt(players[i]);
+            }
+            for (int i = 0; i < rows; i++) {
+                out.putInt(answers[i]);
+            }
+
+            int turnOffset = 0;
+            for (int i = 0; i < rows; i++) {
+                out.putInt(turnOffset);
+                turnOffset += guessCounts[i];
+            }
+            out.putInt(turnOffset);
+
+            // Byte offsets need a pass over the varints, counting their final bytes
+            int guessOffset = 0;
+            for (int i = 0; i < rows; i++) {
+                out.putInt(guessOffset);
+                for (int remaining = guessCounts[i]; remaining > 0; guessOffset++) {
+                    if (guesses[guessOffset] >= 0) {
+                        remaining--;
+                    }
+                }
+            }
+            out.putInt(guessOffset);
+
+            for (int i = 0; i < rows; i++) {
+                out.putLong(finishedAt[i]);
+            }
+            out.put(feedback, 0, turns).put(guesses, 0, guessBytes);
+            return out.flip();
+        }
+
+        private void resize(int capacity) {
+            difficulties = difficulties == null ? new byte[capacity] : Arrays.copyOf(difficulties, capacity);
+            statuses = statuses == null ? new byte[capacity] : Arrays.copyOf(statuses, capacity);
+            guessCounts = guessCounts == null ? new byte[capacity] : Arrays.copyOf(guessCounts, capacity);
+            hintsUsed = hintsUsed == null ? new byte[capacity] : Arrays.copyOf(hintsUsed, capacity);
+            players = players == null ? new int[capacity] : Arrays.copyOf(players, capacity);
+            answers = answers == null ? new int[capacity] : Arrays.copyOf(answers, capacity);
+            finishedAt = finishedAt == null ? new long[capacity] : Arrays.copyOf(finishedAt, capacity);
+        }
+    }
+}
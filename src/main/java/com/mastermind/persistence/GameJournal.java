@@ -0,0 +1,462 @@
+package com.mastermind.persistence;
+
+import com.mastermind.models.Difficulty;
+import com.mastermind.models.Feedback;
+import com.mastermind.models.Game;
+import com.mastermind.models.GameListener;
+import com.mastermind.models.NumCombination;
+import com.mastermind.models.Player;
+import com.mastermind.models.Status;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of game state transitions in fixed-size records, written through
+ * memory-mapped chunks of the journal file.
+ *
+ * <p>Appending reserves a slot with one atomic add and copies {@value #RECORD_SIZE} bytes into
+ * the mapping, so a transition is journaled in well under a microsecond and never waits on
+ * the disk, except under {@link FsyncPolicy#SYNC}.
+ *
+ * <p>Record layout, big-endian:
+ * <pre>
+ *   0  game id       8 bytes
+ *   8  CRC32         4 bytes, over bytes 12-63
+ *   12 index         4 bytes: guess index, hints left, name part or guesses at exit
+ *   16 type          1 byte
+ *   17 payload       47 bytes
+ * </pre>
+ * A START record carries everything needed to rebuild the game and the first
+ * {@value #START_NAME_BYTES} bytes of the player name; longer names continue in NAME records
+ * reserved right after it.
+ *
+ * <p>Replay skips zeroed slots and records with a bad checksum, e.g. torn writes at a crash, and
+ * applies each event only if the rebuilt game has not seen it yet, so replaying a journal over a
+ * game restored from elsewhere is safe.
+ */
+public final class GameJournal implements GameListener, AutoCloseable {
+    public static final int RECORD_SIZE = 64;
+
+    /** 16 MiB per mapping, i.e. 262,144 records. */
+    static final int CHUNK_SIZE = 1 << 24;
+    static final Duration DEFAULT_GROUP_COMMIT_INTERVAL = Duration.ofMillis(10);
+    /** How long a flush waits for a reserved slot to be written before skipping it. */
+    static final Duration GAP_TIMEOUT = Duration.ofSeconds(1);
+
+    static final byte START = 1;
+    static final byte NAME = 2;
+    static final byte GUESS = 3;
+    static final byte HINT = 4;
+    static final byte EXIT = 5;
+
+    private static final int OFFSET_CRC = 8;
+    private static final int OFFSET_INDEX = 12;
+    private static final int OFFSET_TYPE = 16;
+    private static final int OFFSET_PAYLOAD = 17;
+    private static final int START_NAME_OFFSET = 33;
+    private static final int START_NAME_BYTES = RECORD_SIZE - START_NAME_OFFSET;
+    private static final int NAME_PART_BYTES = RECORD_SIZE - OFFSET_PAYLOAD;
+
+    private static final ThreadLocal<ByteBuffer> SCRATCH =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocate(RECORD_SIZE));
+    private static final ThreadLocal<CRC32> CHECKSUM = ThreadLocal.withInitial(CRC32::new);
+
+    /**
+     * When appended records are forced to disk.
+     */
+    public enum FsyncPolicy {
+        /** Never force; the OS writes pages back on its own. Survives process crashes only. */
+        NONE,
+
+        /** A background thread forces new records every group commit interval. */
+        GROUP,
+
+        /** Every append forces its own records before returning. */
+        SYNC
+    }
+
+    private final FileChannel channel;
+    private final FsyncPolicy policy;
+    private final AtomicLong nextOffset;
+    private final ScheduledExecutorService flusher;
+    private final Object flushLock = new Object();
+    private volatile MappedByteBuffer[] chunks = new MappedByteBuffer[0];
+    private long flushedOffset;
+    /** First slot found reserved but unwritten by a flush, and since when, in nanos. */
+    private long gapOffset = -1;
+    private long gapSinceNanos;
+
+    /**
+     * Opens (or creates) a journal with a {@link FsyncPolicy#GROUP} policy.
+     */
+    public static GameJournal open(Path file) {
+        return new GameJournal(file, FsyncPolicy.GROUP, DEFAULT_GROUP_COMMIT_INTERVAL);
+    }
+
+    /**
+     * Opens (or creates) a journal, appending after its last valid record.
+     *
+     * @param file the journal file
+     * @param policy when appended records are forced to disk
+     * @param groupCommitInterval how often new records are forced under {@link FsyncPolicy#GROUP}
+     */
+    public GameJournal(Path file, FsyncPolicy policy, Duration groupCommitInterval) {
+        this.policy = policy;
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open journal " + file, e);
+        }
+
+        long end = 0;
+        long fileSize = fileSize();
+        for (long offset = 0; offset < fileSize; offset += RECORD_SIZE) {
+            if (readRecord(offset) != null) {
+                end = offset + RECORD_SIZE;
+            }
+        }
+        this.nextOffset = new AtomicLong(end);
+        this.flushedOffset = end;
+
+        this.flusher = policy != FsyncPolicy.GROUP ? null : Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-journal-group-commit");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Last, once every field is set, since the flusher may call flush() from then on. The
+        // class is final, so no subclass constructor can still be running when it does
+        if (flusher != null) {
+            long intervalNanos = groupCommitInterval.toNanos();
+            flusher.scheduleWithFixedDelay(this::flush, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Rebuilds every unfinished game recorded in a journal.
+     *
+     * @param file the journal file
+     * @return the PENDING and IN_PROGRESS games by id, in the order they were started
+     */
+    public static Map<Long, Game> replay(Path file) {
+        Map<Long, Game> games = new LinkedHashMap<>();
+        try (GameJournal journal = new GameJournal(file, FsyncPolicy.NONE, DEFAULT_GROUP_COMMIT_INTERVAL)) {
+            journal.replayInto(games);
+        }
+        games.values().removeIf(game -> game.getStatus() == Status.WON || game.getStatus() == Status.LOST);
+        return games;
+    }
+
+    /**
+     * Applies every event in this journal to {@code games}, adding started games that are missing.
+     * Events a game has already seen are skipped.
+     */
+    public void replayInto(Map<Long, Game> games) {
+        replayInto(games, gameId -> {});
+    }
+
+    /**
+     * Like {@link #replayInto(Map)}, also passing the id of every EXIT record to {@code exits}.
+     */
+    void replayInto(Map<Long, Game> games, LongConsumer exits) {
+        long end = nextOffset.get();
+        for (long offset = 0; offset < end; offset += RECORD_SIZE) {
+            ByteBuffer record = readRecord(offset);
+            if (record != null) {
+                if (record.get(OFFSET_TYPE) == EXIT) {
+                    exits.accept(record.getLong(0));
+                }
+                apply(record, offset, games);
+            }
+        }
+    }
+
+    @Override
+    public void onStart(Game game) {
+        NumCombination answer = game.getAnswer();
+        byte[] name = game.getPlayer().getName().getBytes(StandardCharsets.UTF_8);
+        if (answer.getMinNum() < Byte.MIN_VALUE || answer.getMaxNum() > Byte.MAX_VALUE
+                || name.length > 0xFFFF) {
+            throw new IllegalArgumentException("Game " + game.getId() + " does not fit the journal's START record");
+        }
+        int nameParts = Math.max(0, name.length - START_NAME_BYTES + NAME_PART_BYTES - 1) / NAME_PART_BYTES;
+        long offset = nextOffset.getAndAdd((long) RECORD_SIZE * (1 + nameParts));
+
+        Difficulty difficulty = game.getDifficulty();
+        ByteBuffer record = begin(game.getId(), 0, START)
+                .put((byte) (difficulty == null ? 0 : difficulty.ordinal() + 1))
+                .put((byte) answer.getExpectedSize())
+                .put((byte) answer.getMinNum())
+                .put((byte) answer.getMaxNum())
+                .put((byte) game.getMaxAttempts())
+                .put((byte) game.getHintCount())
+                .putLong(answer.toCode())
+                .putShort((short) name.length)
+                .put(name, 0, Math.min(name.length, START_NAME_BYTES));
+        write(offset, record);
+
+        for (int part = 0; part < nameParts; part++) {
+            int from = START_NAME_BYTES + part * NAME_PART_BYTES;
+            write(offset + (long) RECORD_SIZE * (part + 1), begin(game.getId(), part, NAME)
+                    .put(name, from, Math.min(NAME_PART_BYTES, name.length - from)));
+        }
+        commit(offset, 1 + nameParts);
+    }
+
+    @Override
+    public void onGuess(Game game, NumCombination guess, Feedback feedback) {
+        append(begin(game.getId(), game.getGuesses().size() - 1, GUESS)
+                .putLong(guess.toCode())
+                .put(feedback.toByte()));
+    }
+
+    @Override
+    public void onHint(Game game, int position) {
+        append(begin(game.getId(), game.getHintCount(), HINT).put((byte) position));
+    }
+
+    @Override
+    public void onExit(Game game) {
+        append(begin(game.getId(), game.getGuesses().size(), EXIT));
+    }
+
+    /**
+     * Forces every record appended so far to disk.
+     *
+     * <p>Slots are reserved in order but written concurrently, so a slot below the next offset may
+     * still be empty. Only the prefix of completely written records is forced and counted as
+     * flushed; the rest is forced by a later flush. A slot that stays empty for longer than
+     * {@link #GAP_TIMEOUT}, e.g. because its writer failed, is skipped so it cannot hold back
+     * group commit forever.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            long end = nextOffset.get();
+            long written = flushedOffset;
+            while (written < end) {
+                if (readRecord(written) != null) {
+                    written += RECORD_SIZE;
+                } else if (written != gapOffset) {
+                    gapOffset = written;
+                    gapSinceNanos = System.nanoTime();
+                    break;
+                } else if (System.nanoTime() - gapSinceNanos > GAP_TIMEOUT.toNanos()) {
+                    written += RECORD_SIZE;
+                } else {
+                    break;
+                }
+            }
+            force(flushedOffset, written);
+            flushedOffset = written;
+        }
+    }
+
+    /**
+     * Bytes of the journal forced to disk by {@link #flush()}.
+     */
+    long flushedSize() {
+        synchronized (flushLock) {
+            return flushedOffset;
+        }
+    }
+
+    /**
+     * Bytes of the journal in use, i.e. the offset of the next record.
+     */
+    public long size() {
+        return nextOffset.get();
+    }
+
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        if (policy != FsyncPolicy.NONE) {
+            flush();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close journal", e);
+        }
+    }
+
+    private void append(ByteBuffer record) {
+        long offset = nextOffset.getAndAdd(RECORD_SIZE);
+        write(offset, record);
+        commit(offset, 1);
+    }
+
+    private void commit(long offset, int records) {
+        if (policy == FsyncPolicy.SYNC) {
+            force(offset, offset + (long) RECORD_SIZE * records);
+        }
+    }
+
+    private static ByteBuffer begin(long gameId, int index, byte type) {
+        ByteBuffer record = SCRATCH.get();
+        Arrays.fill(record.array(), (byte) 0);
+        return record.clear()
+                .putLong(gameId)
+                .putInt(0)
+                .putInt(index)
+                .put(type);
+    }
+
+    // Absolute bulk puts leave the shared mapping's position alone, so concurrent writers
+    // to different slots do not interfere
+    private void write(long offset, ByteBuffer record) {
+        CRC32 crc = CHECKSUM.get();
+        crc.reset();
+        crc.update(record.array(), OFFSET_INDEX, RECORD_SIZE - OFFSET_INDEX);
+        record.putInt(OFFSET_CRC, (int) crc.getValue());
+        chunk(offset).put((int) (offset % CHUNK_SIZE), record.array());
+    }
+
+    private void force(long from, long to) {
+        while (from < to) {
+            long chunkEnd = (from / CHUNK_SIZE + 1) * CHUNK_SIZE;
+            long end = Math.min(to, chunkEnd);
+            chunk(from).force((int) (from % CHUNK_SIZE), (int) (end - from));
+            from = end;
+        }
+    }
+
+    // Returns the record at offset, or null for a zeroed slot or a bad checksum
+    private ByteBuffer readRecord(long offset) {
+        MappedByteBuffer chunk = chunk(offset);
+        int position = (int) (offset % CHUNK_SIZE);
+        if (chunk.get(position + OFFSET_TYPE) == 0) {
+            return null;
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        chunk.get(position, record.array());
+
+        CRC32 crc = CHECKSUM.get();
+        crc.reset();
+        crc.update(record.array(), OFFSET_INDEX, RECORD_SIZE - OFFSET_INDEX);
+        return record.getInt(OFFSET_CRC) == (int) crc.getValue() ? record : null;
+    }
+
+    private void apply(ByteBuffer record, long offset, Map<Long, Game> games) {
+        long gameId = record.getLong(0);
+        int index = record.getInt(OFFSET_INDEX);
+        byte type = record.get(OFFSET_TYPE);
+        Game game = games.get(gameId);
+
+        if (type == START) {
+            if (game == null) {
+                Game started = readStart(record, offset);
+                if (started != null) {
+                    games.put(gameId, started);
+                }
+            }
+            return;
+        }
+        if (game == null || game.getStatus() != Status.IN_PROGRESS) {
+            return;
+        }
+
+        NumCombination answer = game.getAnswer();
+        switch (type) {
+            case GUESS -> {
+                if (game.getGuesses().size() == index) {
+                    game.playerGuess(NumCombination.fromCode(record.getLong(OFFSET_PAYLOAD),
+                            answer.getExpectedSize(), answer.getMinNum(), answer.getMaxNum()));
+                }
+            }
+            case HINT -> {
+                if (game.getHintCount() > index) {
+                    game.setHintCount(index);
+                }
+            }
+            default -> {
+                // NAME parts are read with their START, EXIT changes no state
+            }
+        }
+    }
+
+    private Game readStart(ByteBuffer record, long offset) {
+        record.position(OFFSET_PAYLOAD);
+        int difficultyCode = record.get();
+        int size = record.get();
+        int min = record.get();
+        int max = record.get();
+        int maxAttempts = record.get() & 0xFF;
+        int hintCount = record.get() & 0xFF;
+        long answerCode = record.getLong();
+        byte[] name = new byte[record.getShort() & 0xFFFF];
+        record.get(name, 0, Math.min(name.length, START_NAME_BYTES));
+
+        for (int from = START_NAME_BYTES, part = 0; from < name.length; from += NAME_PART_BYTES, part++) {
+            long partOffset = offset + (long) RECORD_SIZE * (part + 1);
+            ByteBuffer nameRecord = partOffset < nextOffset.get() ? readRecord(partOffset) : null;
+            if (nameRecord == null || nameRecord.get(OFFSET_TYPE) != NAME || nameRecord.getInt(OFFSET_INDEX) != part) {
+                return null; // torn start, the game never began as far as the journal knows
+            }
+            nameRecord.get(OFFSET_PAYLOAD, name, from, Math.min(NAME_PART_BYTES, name.length - from));
+        }
+
+        Game game = new Game(new Player(new String(name, StandardCharsets.UTF_8)),
+                NumCombination.fromCode(answerCode, size, min, max));
+        game.setId(record.getLong(0));
+        game.setDifficulty(difficultyCode == 0 ? null : Difficulty.values()[difficultyCode - 1]);
+        game.setMaxAttempts(maxAttempts);
+        game.setHintCount(hintCount);
+        game.start();
+        return game;
+    }
+
+    private MappedByteBuffer chunk(long offset) {
+        int index = (int) (offset / CHUNK_SIZE);
+        MappedByteBuffer[] current = chunks;
+        return index < current.length ? current[index] : mapChunk(index);
+    }
+
+    // Maps chunks up to index, extending the file; the array is replaced so readers never lock
+    private synchronized MappedByteBuffer mapChunk(int index) {
+        MappedByteBuffer[] current = chunks;
+        if (index < current.length) {
+            return current[index];
+        }
+
+        MappedByteBuffer[] grown = Arrays.copyOf(current, index + 1);
+        try {
+            for (int i = current.length; i <= index; i++) {
+                grown[i] = channel.map(FileChannel.MapMode.READ_WRITE, (long) i * CHUNK_SIZE, CHUNK_SIZE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map journal chunk " + index, e);
+        }
+        chunks = grown;
+        return grown[index];
+    }
+
+    private long fileSize() {
+        try {
+            return channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read journal size", e);
+        }
+    }
+}
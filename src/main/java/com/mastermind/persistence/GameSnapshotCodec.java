@@ -0,0 +1,341 @@
+package com.mastermind.persistence;
+
+import com.mastermind.models.Difficulty;
+import com.mastermind.models.Feedback;
+import com.mastermind.models.Game;
+import com.mastermind.models.NumCombination;
+import com.mastermind.models.Player;
+import com.mastermind.models.Status;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Compact binary snapshots of {@link Game} state.
+ *
+ * <p>Layout, all integers as unsigned LEB128 varints unless noted:
+ * <pre>
+ *   version          1 byte, {@value #VERSION}
+ *   id               since version 2; version 1 snapshots decode with id 0
+ *   header           1 byte: status (bits 0-1), difficulty ordinal + 1 or 0 (bits 2-4),
+ *                    explicit shape flag (bit 5)
+ *   [shape]          size, zigzag min, zigzag max; only when the answer shape differs
+ *                    from the difficulty's
+ *   maxAttempts, hintCount
+ *   player name      byte length, then UTF-8 bytes
+ *   answer           {@link NumCombination#toCode()}
+ *   guess count
+ *   per guess        code, then {@link Feedback#toByte()} as 1 byte
+ * </pre>
+ *
+ * <p>A NORMAL game packs every code into two bytes and every turn into three, so a finished
+ * ten-guess game with a short player name and a 63-bit id takes about 55 bytes.
+ *
+ * <p>Encoding writes straight into the caller's buffer without allocating. Decoding allocates
+ * only the restored game. Guesses must have the same shape as the answer, combinations must
+ * have at most {@value Feedback#MAX_PACKED_SIZE} digits, and the code space must fit a {@code long}.
+ */
+public final class GameSnapshotCodec {
+    public static final byte VERSION = 2;
+    /** The version before games carried their id. */
+    static final byte VERSION_WITHOUT_ID = 1;
+
+    private static final int STATUS_MASK = 0b11;
+    private static final int DIFFICULTY_SHIFT = 2;
+    private static final int DIFFICULTY_MASK = 0b111;
+    private static final int EXPLICIT_SHAPE = 1 << 5;
+    private static final int HEADER_BITS = STATUS_MASK | DIFFICULTY_MASK << DIFFICULTY_SHIFT | EXPLICIT_SHAPE;
+
+    private static final Status[] STATUSES = Status.values();
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+
+    private GameSnapshotCodec() {}
+
+    /**
+     * Encodes {@code game} at the buffer's position and advances it.
+     *
+     * @param game the game to snapshot
+     * @param out the buffer to write to
+     * @return the number of bytes written
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     * @throws IllegalArgumentException if the game cannot be encoded
+     */
+    public static int encode(Game game, ByteBuffer out) {
+        NumCombination answer = game.getAnswer();
+        if (game.getPlayer() == null || answer == null || game.getStatus() == null) {
+            throw new IllegalArgumentException("Game must have a player, an answer and a status");
+        }
+
+        int start = out.position();
+        Difficulty difficulty = game.getDifficulty();
+        boolean explicitShape = !matchesDifficulty(answer, difficulty);
+
+        out.put(VERSION);
+        putVarint(out, game.getId());
+        out.put((byte) (game.getStatus().ordinal()
+                | (difficulty == null ? 0 : difficulty.ordinal() + 1) << DIFFICULTY_SHIFT
+                | (explicitShape ? EXPLICIT_SHAPE : 0)));
+        if (explicitShape) {
+            putVarint(out, answer.getExpectedSize());
+            putVarint(out, zigzag(answer.getMinNum()));
+            putVarint(out, zigzag(answer.getMaxNum()));
+        }
+        putVarint(out, game.getMaxAttempts());
+        putVarint(out, game.getHintCount());
+        putUtf8(out, game.getPlayer().getName());
+        putVarint(out, answer.toCode());
+
+        List<NumCombination> guesses = game.getGuesses();
+        List<Feedback> feedbacks = game.getFeedbacks();
+        putVarint(out, guesses.size());
+        for (int i = 0; i < guesses.size(); i++) {
+            NumCombination guess = guesses.get(i);
+            if (guess.getExpectedSize() != answer.getExpectedSize()
+                    || guess.getMinNum() != answer.getMinNum()
+                    || guess.getMaxNum() != answer.getMaxNum()) {
+                throw new IllegalArgumentException("Guess " + guess + " does not match the answer's shape");
+            }
+            putVarint(out, guess.toCode());
+            out.put(feedbacks.get(i).toByte());
+        }
+
+        return out.position() - start;
+    }
+
+    /**
+     * Encodes {@code game} into a new array of exactly the snapshot's length.
+     */
+    public static byte[] encode(Game game) {
+        ByteBuffer buffer = ByteBuffer.allocate(maxEncodedSize(game));
+        encode(game, buffer);
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Upper bound of the encoded size of {@code game}, for sizing buffers.
+     */
+    public static int maxEncodedSize(Game game) {
+        int nameBytes = game.getPlayer() == null ? 0 : game.getPlayer().getName().length() * 3;
+        int turns = game.getGuesses() == null ? 0 : game.getGuesses().size();
+        // Version, id and header, shape, maxAttempts and hintCount, name, answer and guess count, turns
+        return 12 + 15 + 10 + 5 + nameBytes + 15 + turns * 11;
+    }
+
+    /**
+     * Decodes a snapshot at the buffer's position and advances past it.
+     *
+     * @param in the buffer to read from
+     * @return the restored game
+     * @throws IllegalArgumentException if the snapshot is truncated, malformed or of an unknown
+     *                                  version, or holds a field out of range
+     */
+    public static Game decode(ByteBuffer in) {
+        try {
+            return read(in);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated game snapshot", e);
+        }
+    }
+
+    private static Game read(ByteBuffer in) {
+        byte version = in.get();
+        if (version != VERSION && version != VERSION_WITHOUT_ID) {
+            throw new IllegalArgumentException("Unsupported snapshot version " + version);
+        }
+
+        long id = version == VERSION_WITHOUT_ID ? 0 : getVarint(in);
+        int header = in.get() & 0xFF;
+        if ((header & ~HEADER_BITS) != 0) {
+            throw new IllegalArgumentException("Unknown header bits " + Integer.toBinaryString(header));
+        }
+        int statusOrdinal = header & STATUS_MASK;
+        if (statusOrdinal >= STATUSES.length) {
+            throw new IllegalArgumentException("Unknown status " + statusOrdinal);
+        }
+        int difficultyCode = (header >> DIFFICULTY_SHIFT) & DIFFICULTY_MASK;
+        if (difficultyCode > DIFFICULTIES.length) {
+            throw new IllegalArgumentException("Unknown difficulty code " + difficultyCode);
+        }
+        Difficulty difficulty = difficultyCode == 0 ? null : DIFFICULTIES[difficultyCode - 1];
+
+        int size;
+        int min;
+        int max;
+        if ((header & EXPLICIT_SHAPE) != 0) {
+            size = (int) getCount(in, Feedback.MAX_PACKED_SIZE, "Combination size");
+            min = unzigzag(getCount(in, 0xFFFFFFFFL, "Minimum digit"));
+            max = unzigzag(getCount(in, 0xFFFFFFFFL, "Maximum digit"));
+            checkShape(size, min, max);
+        } else if (difficulty != null) {
+            size = difficulty.getCombinationSize();
+            min = 0;
+            max = difficulty.getMaxRange();
+        } else {
+            throw new IllegalArgumentException("Snapshot has neither a difficulty nor a shape");
+        }
+
+        int maxAttempts = (int) getCount(in, Integer.MAX_VALUE, "Max attempts");
+        int hintCount = (int) getCount(in, Integer.MAX_VALUE, "Hint count");
+        Player player = new Player(getUtf8(in));
+        NumCombination answer = NumCombination.fromCode(getVarint(in), size, min, max);
+
+        Game game = new Game(player, answer);
+        game.setId(id);
+        game.setStatus(STATUSES[statusOrdinal]);
+        game.setDifficulty(difficulty);
+        game.setMaxAttempts(maxAttempts);
+        game.setHintCount(hintCount);
+
+        // Every turn takes at least two bytes, so a corrupt count cannot run the loop for long
+        int guessCount = (int) getCount(in, Math.min(maxAttempts, in.remaining() / 2), "Guess count");
+        for (int i = 0; i < guessCount; i++) {
+            game.getGuesses().add(NumCombination.fromCode(getVarint(in), size, min, max));
+            game.getFeedbacks().add(getFeedback(in, size));
+        }
+
+        return game;
+    }
+
+    /**
+     * Decodes a snapshot from the start of {@code bytes}.
+     */
+    public static Game decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    private static void checkShape(int size, int min, int max) {
+        if (size < 1 || min > max) {
+            throw new IllegalArgumentException("Invalid shape: " + size + " digits in " + min + "-" + max);
+        }
+        try {
+            NumCombination.codeSpace(size, min, max);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Code space of " + size + " digits in " + min + "-" + max
+                    + " does not fit a long", e);
+        }
+    }
+
+    private static Feedback getFeedback(ByteBuffer in, int size) {
+        byte packed = in.get();
+        int correctDigits = (packed >> 4) & 0x0F;
+        int correctPositions = packed & 0x0F;
+        if (correctPositions > correctDigits || correctDigits > size) {
+            throw new IllegalArgumentException("Invalid feedback " + correctDigits + "/" + correctPositions
+                    + " for " + size + " digits");
+        }
+        return Feedback.fromByte(packed, size);
+    }
+
+    private static long getCount(ByteBuffer in, long max, String field) {
+        long value = getVarint(in);
+        // Unsigned varints above Long.MAX_VALUE read as negative
+        if (value < 0 || value > max) {
+            throw new IllegalArgumentException(field + " " + Long.toUnsignedString(value) + " is out of range");
+        }
+        return value;
+    }
+
+    private static boolean matchesDifficulty(NumCombination answer, Difficulty difficulty) {
+        return difficulty != null
+                && answer.getExpectedSize() == difficulty.getCombinationSize()
+                && answer.getMinNum() == 0
+                && answer.getMaxNum() == difficulty.getMaxRange();
+    }
+
+    static void putVarint(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static long getVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static long zigzag(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+
+    private static int unzigzag(long value) {
+        int bits = (int) value;
+        return (bits >>> 1) ^ -(bits & 1);
+    }
+
+    // Two passes over the chars, so no intermediate byte[] is needed
+    private static void putUtf8(ByteBuffer out, String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length += 1;
+            } else {
+                length += 3;
+            }
+        }
+
+        putVarint(out, length);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | c >> 6));
+                out.put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out.put((byte) (0xF0 | codePoint >> 18));
+                out.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+                out.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                out.put((byte) (0x80 | codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogates become '?', as with String.getBytes(UTF_8)
+                out.put((byte) '?');
+            } else {
+                out.put((byte) (0xE0 | c >> 12));
+                out.put((byte) (0x80 | c >> 6 & 0x3F));
+                out.put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    private static String getUtf8(ByteBuffer in) {
+        int length = (int) getVarint(in);
+        if (length > in.remaining()) {
+            throw new IllegalArgumentException("Player name of " + length + " bytes overruns the snapshot");
+        }
+
+        String value;
+        if (in.hasArray()) {
+            value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            in.get(in.position(), bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        in.position(in.position() + length);
+        return value;
+    }
+}
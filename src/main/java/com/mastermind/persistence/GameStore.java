@@ -0,0 +1,381 @@
+package com.mastermind.persistence;
+
+import com.mastermind.models.Feedback;
+import com.mastermind.models.Game;
+import com.mastermind.models.GameListener;
+import com.mastermind.models.NumCombination;
+import com.mastermind.models.Status;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Crash-recoverable game persistence: a segmented {@link GameJournal} plus periodic snapshots.
+ *
+ * <p>Every transition is appended to the current journal segment. Alongside, the store keeps the
+ * latest {@link GameSnapshotCodec} encoding of every unfinished game, captured on the thread
+ * that changed the game. Finished games are dropped from that set and handed to an optional
+ * consumer, e.g. an archive; exited games are dropped too, and are not recovered.
+ *
+ * <p>Games {@linkplain #onRelease released} to or {@linkplain #onAdopt adopted} from another
+ * host carry no journal record of the hand-over, so the store compacts soon after one: the
+ * released game is left out of the next snapshot and the adopted one written into it. A crash
+ * before that snapshot recovers the game as it was before the hand-over.
+ *
+ * <p>Once a segment holds {@code segmentRecords} records, compaction runs in the background:
+ * <ol>
+ *   <li>a new segment {@code n} is started, which is the only step that excludes writers, and
+ *       only for the swap;</li>
+ *   <li>the live snapshots are written to {@code snapshot-n}, which covers every segment
+ *       before {@code n};</li>
+ *   <li>older segments and snapshots are deleted.</li>
+ * </ol>
+ * Recovery loads the newest snapshot and replays only the segments from its number on, so
+ * restart time scales with the number of live games rather than with total history. Replay
+ * is idempotent, so events present in both the snapshot and a later segment are harmless.
+ */
+public final class GameStore implements GameListener, AutoCloseable {
+    public static final int DEFAULT_SEGMENT_RECORDS = 65_536;
+
+    private static final Pattern SEGMENT_FILE = Pattern.compile("segment-(\\d+)\\.journal");
+    private static final Pattern SNAPSHOT_FILE = Pattern.compile("snapshot-(\\d+)\\.snap");
+    private static final int SNAPSHOT_MAGIC = 0x4D4D534E; // "MMSN"
+
+    private final Path directory;
+    private final GameJournal.FsyncPolicy policy;
+    private final long segmentBytes;
+    private final Consumer<Game> finishedGames;
+    private final Map<Long, byte[]> liveSnapshots = new ConcurrentHashMap<>();
+    private final Map<Long, Game> recovered;
+    private final ReentrantReadWriteLock rollLock = new ReentrantReadWriteLock();
+    private final AtomicBoolean compactionPending = new AtomicBoolean();
+    private final AtomicBoolean handedOver = new AtomicBoolean();
+    private final ExecutorService compactor;
+
+    private volatile GameJournal current;
+    private volatile boolean closed;
+    private long currentSegment;
+
+    /**
+     * Opens (or creates) a store with group commit and no consumer for finished games.
+     */
+    public static GameStore open(Path directory) {
+        return new GameStore(directory, GameJournal.FsyncPolicy.GROUP, DEFAULT_SEGMENT_RECORDS, game -> {});
+    }
+
+    /**
+     * Opens (or creates) a store in {@code directory} and recovers its unfinished games.
+     *
+     * @param directory the directory holding segments and snapshots
+     * @param policy when journal records are forced to disk
+     * @param segmentRecords the number of records after which a segment is compacted
+     * @param finishedGames receives every game that is won or lost, on the thread that finished it
+     */
+    public GameStore(Path directory, GameJournal.FsyncPolicy policy, int segmentRecords,
+                     Consumer<Game> finishedGames) {
+        this.directory = directory;
+        this.policy = policy;
+        this.segmentBytes = (long) segmentRecords * GameJournal.RECORD_SIZE;
+        this.finishedGames = finishedGames;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create " + directory, e);
+        }
+
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-store-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.recovered = recover();
+
+        // Last, once every field is set, since a recovered game may be played on as soon as it
+        // carries this store. The class is final, so no subclass constructor is left to run
+        for (Game game : recovered.values()) {
+            liveSnapshots.put(game.getId(), GameSnapshotCodec.encode(game));
+            game.setListener(this);
+        }
+    }
+
+    /**
+     * Unfinished games recovered on open, by id. They are attached to this store, so playing
+     * them on is persisted too.
+     */
+    public Map<Long, Game> getRecoveredGames() {
+        return Collections.unmodifiableMap(recovered);
+    }
+
+    /**
+     * Number of unfinished games currently tracked.
+     */
+    public int getLiveGameCount() {
+        return liveSnapshots.size();
+    }
+
+    @Override
+    public void onStart(Game game) {
+        record(game, false, journal -> journal.onStart(game));
+    }
+
+    @Override
+    public void onGuess(Game game, NumCombination guess, Feedback feedback) {
+        record(game, false, journal -> journal.onGuess(game, guess, feedback));
+    }
+
+    @Override
+    public void onHint(Game game, int position) {
+        record(game, false, journal -> journal.onHint(game, position));
+    }
+
+    @Override
+    public void onExit(Game game) {
+        record(game, true, journal -> journal.onExit(game));
+    }
+
+    @Override
+    public void onRelease(Game game) {
+        liveSnapshots.remove(game.getId());
+        handedOver.set(true);
+        requestCompaction();
+    }
+
+    @Override
+    public void onAdopt(Game game) {
+        liveSnapshots.put(game.getId(), GameSnapshotCodec.encode(game));
+        handedOver.set(true);
+        requestCompaction();
+    }
+
+    /**
+     * Starts a new segment, snapshots the live games and deletes what the snapshot covers.
+     * Runs on the calling thread; writers are only held off while the segment is swapped.
+     * Does nothing once the store is closed.
+     */
+    public synchronized void compact() {
+        if (closed) {
+            return;
+        }
+        GameJournal retired;
+        long covered;
+        rollLock.writeLock().lock();
+        try {
+            retired = current;
+            covered = currentSegment + 1;
+            current = openSegment(covered);
+            currentSegment = covered;
+        } finally {
+            rollLock.writeLock().unlock();
+        }
+
+        // Every event in the retired segment updated liveSnapshots under the read lock before
+        // the swap; states changed since then are newer, which replay tolerates
+        writeSnapshot(covered, new ArrayList<>(liveSnapshots.values()));
+        retired.close();
+        deleteCoveredFiles(covered);
+    }
+
+    /**
+     * Closes the current segment. A compaction in progress is finished first; queued ones are
+     * dropped.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        compactor.shutdownNow();
+        current.close();
+    }
+
+    private void record(Game game, boolean exited, Consumer<GameJournal> event) {
+        boolean finished = game.getStatus() == Status.WON || game.getStatus() == Status.LOST;
+        byte[] state = finished || exited ? null : GameSnapshotCodec.encode(game);
+
+        rollLock.readLock().lock();
+        try {
+            if (state == null) {
+                liveSnapshots.remove(game.getId());
+            } else {
+                liveSnapshots.put(game.getId(), state);
+            }
+            event.accept(current);
+        } finally {
+            rollLock.readLock().unlock();
+        }
+
+        if (finished) {
+            finishedGames.accept(game);
+        }
+        if (current.size() >= segmentBytes) {
+            requestCompaction();
+        }
+    }
+
+    private void requestCompaction() {
+        if (!closed && compactionPending.compareAndSet(false, true)) {
+            try {
+                compactor.execute(this::compactInBackground);
+            } catch (RejectedExecutionException e) {
+                // Closed meanwhile
+                compactionPending.set(false);
+            }
+        }
+    }
+
+    private void compactInBackground() {
+        try {
+            handedOver.set(false);
+            compact();
+        } catch (RuntimeException e) {
+            // The segment keeps growing and the next record retries
+            System.err.println("Game store compaction failed in " + directory + ": " + e);
+        } finally {
+            compactionPending.set(false);
+        }
+        // A hand-over after the live games were copied is not in this snapshot yet
+        if (handedOver.get()) {
+            requestCompaction();
+        }
+    }
+
+    private Map<Long, Game> recover() {
+        long snapshotNumber = latest(SNAPSHOT_FILE);
+        Map<Long, Game> games = snapshotNumber < 0 ? new LinkedHashMap<>() : readSnapshot(snapshotNumber);
+
+        List<Long> segments = numbers(SEGMENT_FILE);
+        Set<Long> exited = new HashSet<>();
+        for (long segment : segments) {
+            if (segment >= snapshotNumber) {
+                try (GameJournal journal = new GameJournal(segmentFile(segment), GameJournal.FsyncPolicy.NONE,
+                        GameJournal.DEFAULT_GROUP_COMMIT_INTERVAL)) {
+                    journal.replayInto(games, exited::add);
+                }
+            }
+        }
+        games.keySet().removeAll(exited);
+        games.values().removeIf(game -> game.getStatus() == Status.WON || game.getStatus() == Status.LOST);
+
+        currentSegment = Math.max(snapshotNumber, segments.isEmpty() ? 0 : segments.get(segments.size() - 1));
+        current = openSegment(currentSegment);
+        if (snapshotNumber >= 0) {
+            deleteCoveredFiles(snapshotNumber);
+        }
+        return games;
+    }
+
+    private GameJournal openSegment(long segment) {
+        return new GameJournal(segmentFile(segment), policy, GameJournal.DEFAULT_GROUP_COMMIT_INTERVAL);
+    }
+
+    private Path segmentFile(long segment) {
+        return directory.resolve("segment-%016d.journal".formatted(segment));
+    }
+
+    private Path snapshotFile(long segment) {
+        return directory.resolve("snapshot-%016d.snap".formatted(segment));
+    }
+
+    private void writeSnapshot(long segment, List<byte[]> games) {
+        Path file = snapshotFile(segment);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileOutputStream fileOut = new FileOutputStream(temp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(games.size());
+            for (byte[] game : games) {
+                out.writeInt(game.length);
+                out.write(game);
+            }
+            out.flush();
+            fileOut.getFD().sync();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write snapshot " + temp, e);
+        }
+
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot replace snapshot " + file, e);
+        }
+    }
+
+    private Map<Long, Game> readSnapshot(long segment) {
+        Path file = snapshotFile(segment);
+        Map<Long, Game> games = new LinkedHashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IllegalStateException(file + " is not a game snapshot");
+            }
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                Game game = GameSnapshotCodec.decode(bytes);
+                games.put(game.getId(), game);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read snapshot " + file, e);
+        }
+        return games;
+    }
+
+    // Segments before the snapshot are folded into it; older snapshots are superseded
+    private void deleteCoveredFiles(long snapshotNumber) {
+        try {
+            for (long segment : numbers(SEGMENT_FILE)) {
+                if (segment < snapshotNumber) {
+                    Files.deleteIfExists(segmentFile(segment));
+                }
+            }
+            for (long snapshot : numbers(SNAPSHOT_FILE)) {
+                if (snapshot < snapshotNumber) {
+                    Files.deleteIfExists(snapshotFile(snapshot));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot delete compacted files in " + directory, e);
+        }
+    }
+
+    private long latest(Pattern pattern) {
+        List<Long> numbers = numbers(pattern);
+        return numbers.isEmpty() ? -1 : numbers.get(numbers.size() - 1);
+    }
+
+    private List<Long> numbers(Pattern pattern) {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> pattern.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list " + directory, e);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.mastermind.server;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * Load shedding for the game front ends: admits a request only while its budget has room.
+ *
+ * <p>Every {@link Budget} has its own {@link AdaptiveLimit}, so a burst of game creations that
+ * wait on Random.org, or of hints, can use up its own budget but never the one guesses run on.
+ * A request that finds its budget full is refused at once, and the front end answers "busy"
+ * instead of queueing it, which keeps latency and memory flat under overload.
+ */
+public class AdmissionController {
+
+    /**
+     * Classes of requests with separate budgets.
+     */
+    public enum Budget {
+        /** Creating a game, which may block on the random number service. */
+        CREATE,
+        /** Revealing a hint over HTTP. The TCP server reveals hints on its loop thread, unbudgeted. */
+        HINT,
+        /** Guesses, history and other cheap reads and writes of one game. */
+        PLAY
+    }
+
+    private final Map<Budget, AdaptiveLimit> limits;
+
+    /**
+     * @param limits one limit per budget
+     * @throws IllegalArgumentException if a budget has no limit
+     */
+    public AdmissionController(Map<Budget, AdaptiveLimit> limits) {
+        this.limits = new EnumMap<>(Budget.class);
+        for (Budget budget : Budget.values()) {
+            AdaptiveLimit limit = limits.get(budget);
+            if (limit == null) {
+                throw new IllegalArgumentException("No limit for " + budget);
+            }
+            this.limits.put(budget, limit);
+        }
+    }
+
+    /**
+     * Budgets sized for one process: creations aim at the Random.org round trip, hints and play
+     * at a few milliseconds.
+     */
+    public static AdmissionController defaults() {
+        Map<Budget, AdaptiveLimit> limits = new EnumMap<>(Budget.class);
+        limits.put(Budget.CREATE, new AdaptiveLimit(4, 16, 256, Duration.ofSeconds(2)));
+        limits.put(Budget.HINT, new AdaptiveLimit(8, 64, 1_024, Duration.ofMillis(20)));
+        limits.put(Budget.PLAY, new AdaptiveLimit(64, 1_024, 65_536, Duration.ofMillis(20)));
+        return new AdmissionController(limits);
+    }
+
+    /**
+     * Admits everything, for callers that shed load elsewhere.
+     */
+    public static AdmissionController unlimited() {
+        Map<Budget, AdaptiveLimit> limits = new EnumMap<>(Budget.class);
+        for (Budget budget : Budget.values()) {
+            limits.put(budget, new AdaptiveLimit(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE,
+                    Duration.ofDays(1)));
+        }
+        return new AdmissionController(limits);
+    }
+
+    /**
+     * Takes a slot of {@code budget} if one is free. Close the permit when the request is done.
+     *
+     * @return the permit, or empty if the budget is full and the request should be refused
+     */
+    public Optional<Permit> tryAcquire(Budget budget) {
+        AdaptiveLimit limit = limits.get(budget);
+        return limit.tryAcquire() ? Optional.of(new Permit(limit, limit.clock.getAsLong())) : Optional.empty();
+    }
+
+    /**
+     * The limit of {@code budget}.
+     */
+    public AdaptiveLimit getLimit(Budget budget) {
+        return limits.get(budget);
+    }
+
+    /**
+     * An admitted request; closing it frees the slot and reports the request's latency.
+     */
+    public static final class Permit implements AutoCloseable {
+        private final AdaptiveLimit limit;
+        private final long startNanos;
+        private boolean closed;
+
+        private Permit(AdaptiveLimit limit, long startNanos) {
+            this.limit = limit;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                limit.release(limit.clock.getAsLong() - startNanos);
+            }
+        }
+    }
+
+    /**
+     * A concurrency limit that adapts to observed latency by additive increase, multiplicative
+     * decrease (AIMD), the scheme TCP uses for its congestion window.
+     *
+     * <p>A request finishing within the target latency while the limit is at least half used
+     * raises the limit by {@code 1 / limit}, about one per limit's worth of requests. One
+     * finishing slower cuts the limit by {@value #BACKOFF_PERCENT}%, at most once per target
+     * latency so that a single slow wave counts once. The limit stays within its bounds.
+     */
+    public static final class AdaptiveLimit {
+        static final int BACKOFF_PERCENT = 10;
+
+        private final int minLimit;
+        private final int maxLimit;
+        private final long targetLatencyNanos;
+        private final LongSupplier clock;
+        private double limit;
+        private int inFlight;
+        private long lastDecreaseNanos;
+
+        /**
+         * @param minLimit the lowest the limit may fall to
+         * @param initialLimit the starting limit
+         * @param maxLimit the highest the limit may grow to
+         * @param targetLatency the latency above which the limit is cut
+         */
+        public AdaptiveLimit(int minLimit, int initialLimit, int maxLimit, Duration targetLatency) {
+            this(minLimit, initialLimit, maxLimit, targetLatency, System::nanoTime);
+        }
+
+        AdaptiveLimit(int minLimit, int initialLimit, int maxLimit, Duration targetLatency, LongSupplier clock) {
+            if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+                throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+            }
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.targetLatencyNanos = targetLatency.toNanos();
+            this.clock = clock;
+            this.limit = initialLimit;
+            this.lastDecreaseNanos = clock.getAsLong() - targetLatencyNanos;
+        }
+
+        synchronized boolean tryAcquire() {
+            if (inFlight >= (long) limit) {
+                return false;
+            }
+            inFlight++;
+            return true;
+        }
+
+        synchronized void release(long latencyNanos) {
+            inFlight--;
+            long now = clock.getAsLong();
+            if (latencyNanos > targetLatencyNanos) {
+                if (now - lastDecreaseNanos >= targetLatencyNanos) {
+                    limit = Math.max(minLimit, limit * (100 - BACKOFF_PERCENT) / 100);
+                    lastDecreaseNanos = now;
+                }
+            } else if (inFlight + 1 >= limit / 2) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+
+        /**
+         * The current limit, rounded down.
+         */
+        public synchronized int getLimit() {
+            return (int) Math.min(Integer.MAX_VALUE, (long) limit);
+        }
+
+        /**
+         * Requests admitted and not yet released.
+         */
+        public synchronized int getInFlight() {
+            return inFlight;
+        }
+    }
+}
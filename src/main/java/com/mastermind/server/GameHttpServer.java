@@ -0,0 +1,662 @@
+package com.mastermind.server;
+
+import com.mastermind.cluster.ClusterNode;
+import com.mastermind.models.Difficulty;
+import com.mastermind.models.Feedback;
+import com.mastermind.models.Game;
+import com.mastermind.models.History;
+import com.mastermind.models.NumCombination;
+import com.mastermind.models.Status;
+import com.mastermind.server.AdmissionController.Budget;
+import com.mastermind.server.AdmissionController.Permit;
+import com.mastermind.services.GameEventHub.Batch;
+import com.mastermind.services.GameEventHub.Event;
+import com.mastermind.services.GameEventHub.Subscription;
+import com.mastermind.services.GameSessionService;
+import com.mastermind.services.GameSessionService.GuessRequest;
+import com.mastermind.services.GameSessionService.GuessResult;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * REST-style JSON front end on the JDK's {@link HttpServer}.
+ *
+ * <pre>
+ *   POST   /games               {"player":"Alice","difficulty":"NORMAL"}  → 201 game
+ *   GET    /games/{id}                                                   → 200 game
+ *   POST   /games/{id}/guesses  {"guess":[0,1,2,3]}                      → 200 feedback
+ *   GET    /games/{id}/history                                           → 200 history
+ *   POST   /games/{id}/hints                                             → 200 {"hint":"3"}
+ *   GET    /games/{id}/events                                            → 200 event stream
+ *   DELETE /games/{id}                                                   → 204
+ *   POST   /games/guesses       {"guesses":[{"game":1,"guess":[0,1,2,3]}]}  → 200 {"results":[...]}
+ * </pre>
+ * Errors are {@code {"error":"..."}} with 400 for invalid input, 404 for unknown games and
+ * 409 for moves the game's state does not allow, such as guessing after a win or asking for
+ * a hint when none are left. A batch of guesses answers 200 with one feedback or
+ * {@code {"error":"..."}} per guess, in request order.
+ *
+ * <p>Every request must first be admitted by the {@link AdmissionController}: creations, hints
+ * and everything else draw on separate budgets. A request whose budget is full is answered
+ * 503 with {@code Retry-After} right away, so overload sheds work instead of queueing it.
+ *
+ * <p>{@code /games/{id}/events} lets spectators follow a game live as Server-Sent Events: a
+ * {@code state} event with the game as above, then one {@code start}, {@code guess},
+ * {@code hint} or {@code exit} event per transition with the game's status after it. The stream
+ * ends after the game is won, lost or left. Events come from the game's
+ * {@link com.mastermind.services.GameEventHub} ring, so a spectator that reads slowly never holds
+ * up the player; if it falls too far behind, it gets a {@code skipped} event with the number of
+ * events it missed and continues from the oldest one kept. Streams are long-lived, so they are
+ * capped at {@value #MAX_EVENT_STREAMS} instead of drawing on an admission budget, and send a
+ * comment every 15 seconds, closing those whose game has left this node.
+ *
+ * <p>A server may be a {@link ClusterNode} of several processes sharing the games. It then
+ * creates only games it owns and answers requests for a game it does not hold with
+ * {@code 307 Temporary Redirect} to the owner, so clients that follow redirects reach the one
+ * node serving that game. Batches of guesses are not redirected; each entry for a game held
+ * elsewhere fails on its own. Three more routes serve the cluster, only to requests carrying
+ * the cluster's secret in {@value ClusterNode#SECRET_HEADER} (403 otherwise) and within the
+ * creation budget:
+ * <pre>
+ *   POST   /cluster/games       game snapshot bytes                      → 204, 409 if hosted
+ *   GET    /cluster/games/{id}                                           → 204 if hosted, else 404
+ *   PUT    /cluster/members     {"nodes":["host:port",...]}              → 200 {"moved":3}
+ * </pre>
+ * A membership change gives its creation slot back once its body is read, because the games it
+ * then moves may take a while; the node runs one rebalance at a time.
+ *
+ * <p>By default every exchange runs on its own virtual thread, so a request blocked on the
+ * random number service while creating a game parks cheaply instead of holding a platform
+ * thread, and in-flight requests are bounded by memory rather than by a pool size.
+ */
+public class GameHttpServer implements AutoCloseable {
+    static final int MAX_BODY_BYTES = 16 * 1024;
+    static final int MAX_BATCH_BODY_BYTES = 1024 * 1024;
+    static final int MAX_EVENT_STREAMS = 10_000;
+    private static final Duration HEARTBEAT = Duration.ofSeconds(15);
+
+    private final GameSessionService sessions;
+    private final ExecutorService executor;
+    private final AdmissionController admission;
+    private final HttpServer server;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private final AtomicInteger eventStreams = new AtomicInteger();
+    private volatile ClusterNode cluster;
+
+    /**
+     * Starts a server on {@code port}, 0 for any free port, with a virtual thread per exchange
+     * and the default admission budgets.
+     */
+    public static GameHttpServer start(GameSessionService sessions, int port) {
+        return start(sessions, port, AdmissionController.defaults());
+    }
+
+    /**
+     * Starts a server on {@code port}, 0 for any free port, with a virtual thread per exchange.
+     */
+    public static GameHttpServer start(GameSessionService sessions, int port, AdmissionController admission) {
+        return start(sessions, port, admission, null);
+    }
+
+    /**
+     * Starts a cluster member on {@code port}, 0 for any free port, with a virtual thread per
+     * exchange.
+     *
+     * @param cluster this server's membership, or null for a standalone server
+     */
+    public static GameHttpServer start(GameSessionService sessions, int port, AdmissionController admission,
+                                       ClusterNode cluster) {
+        return new GameHttpServer(sessions, new InetSocketAddress(port), Executors.newVirtualThreadPerTaskExecutor(),
+                admission, cluster);
+    }
+
+    /**
+     * Binds to {@code address} and starts serving.
+     *
+     * @param sessions the games served
+     * @param address the address to listen on
+     * @param executor runs every exchange; shut down by {@link #close()}
+     * @param admission admits every request
+     */
+    public GameHttpServer(GameSessionService sessions, InetSocketAddress address, ExecutorService executor,
+                          AdmissionController admission) {
+        this(sessions, address, executor, admission, null);
+    }
+
+    /**
+     * Binds to {@code address} and starts serving, already as a member of {@code cluster}.
+     *
+     * @param cluster this server's membership, or null for a standalone server
+     */
+    public GameHttpServer(GameSessionService sessions, InetSocketAddress address, ExecutorService executor,
+                          AdmissionController admission, ClusterNode cluster) {
+        this.sessions = sessions;
+        this.executor = executor;
+        this.admission = admission;
+        this.cluster = cluster;
+        try {
+            this.server = HttpServer.create(address, 1024);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot listen on " + address, e);
+        }
+        server.createContext("/games", this::handle);
+        server.createContext("/cluster", this::handleCluster);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * The port the server listens on.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Makes this server a member of a cluster, or a standalone server again if null.
+     */
+    public void setCluster(ClusterNode cluster) {
+        this.cluster = cluster;
+    }
+
+    /**
+     * Blocks until the server is closed.
+     */
+    public void awaitTermination() throws InterruptedException {
+        stopped.await();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        stopped.countDown();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (exchange.getRequestMethod().equals("GET") && exchange.getRequestURI().getPath().endsWith("/events")) {
+                streamEvents(exchange);
+                return;
+            }
+
+            Optional<Permit> admitted = admission.tryAcquire(budgetOf(exchange));
+            if (admitted.isEmpty()) {
+                send(exchange, Response.error(503, "Server busy, retry later"));
+                return;
+            }
+
+            Response response;
+            Permit permit = admitted.get();
+            try {
+                response = route(exchange);
+            } catch (NoSuchElementException e) {
+                response = redirectToOwner(exchange).orElse(Response.error(404, e.getMessage()));
+            } catch (IllegalStateException e) {
+                response = Response.error(409, e.getMessage());
+            } catch (IllegalArgumentException e) {
+                response = Response.error(400, e.getMessage());
+            } finally {
+                permit.close();
+            }
+            send(exchange, response);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void streamEvents(HttpExchange exchange) throws IOException {
+        if (eventStreams.incrementAndGet() > MAX_EVENT_STREAMS) {
+            eventStreams.decrementAndGet();
+            send(exchange, Response.error(503, "Too many event streams, retry later"));
+            return;
+        }
+
+        try {
+            String[] path = exchange.getRequestURI().getPath().split("/");
+            Subscription subscription;
+            Game game;
+            try {
+                if (path.length != 4) {
+                    throw new NoSuchElementException("No such resource");
+                }
+                long gameId = parseId(path[2]);
+                subscription = sessions.watch(gameId);
+                try {
+                    // Read after subscribing, so that no event falls between the state and the stream
+                    game = sessions.find(gameId);
+                } catch (NoSuchElementException e) {
+                    subscription.close();
+                    throw e;
+                }
+            } catch (NoSuchElementException e) {
+                send(exchange, redirectToOwner(exchange).orElse(Response.error(404, e.getMessage())));
+                return;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            exchange.sendResponseHeaders(200, 0);
+            try (subscription; OutputStream out = exchange.getResponseBody()) {
+                writeEvent(out, "state", -1, gameJson(game));
+                boolean last = game.getStatus() == Status.WON || game.getStatus() == Status.LOST;
+                while (!last) {
+                    Batch batch = subscription.poll(HEARTBEAT);
+                    if (batch.skipped() > 0) {
+                        writeEvent(out, "skipped", -1, "{\"skipped\":" + batch.skipped() + "}");
+                    }
+                    for (Event event : batch.events()) {
+                        writeEvent(out, event.type().name().toLowerCase(Locale.ROOT), event.sequence(), eventJson(event));
+                        last |= event.isLast();
+                    }
+                    if (batch.events().isEmpty() && batch.skipped() == 0) {
+                        // Ended without an exit, e.g. moved to another cluster node
+                        last = !sessions.isHosted(game.getId());
+                        out.write(": keep-alive\n\n".getBytes(StandardCharsets.UTF_8));
+                        out.flush();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                // The spectator went away
+            }
+        } finally {
+            eventStreams.decrementAndGet();
+        }
+    }
+
+    private static void writeEvent(OutputStream out, String name, long id, String data) throws IOException {
+        StringBuilder event = new StringBuilder(32 + data.length()).append("event: ").append(name).append('\n');
+        if (id >= 0) {
+            event.append("id: ").append(id).append('\n');
+        }
+        event.append("data: ").append(data).append("\n\n");
+        out.write(event.toString().getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static String eventJson(Event event) {
+        StringBuilder json = new StringBuilder(160).append("{\"sequence\":").append(event.sequence());
+        if (event.guess() != null) {
+            appendDigits(json.append(",\"guess\":"), event.guess()).append(',');
+            appendFeedback(json, event.feedback());
+        }
+        return json.append(",\"status\":\"").append(event.status())
+                .append("\",\"remainingAttempts\":").append(event.remainingAttempts())
+                .append(",\"hintsLeft\":").append(event.hintsLeft())
+                .append('}').toString();
+    }
+
+    private void handleCluster(HttpExchange exchange) throws IOException {
+        try {
+            ClusterNode node = cluster;
+            if (node == null) {
+                send(exchange, Response.error(404, "Not a cluster member"));
+                return;
+            }
+            if (!node.isAuthorized(exchange.getRequestHeaders().getFirst(ClusterNode.SECRET_HEADER))) {
+                send(exchange, Response.error(403, "Cluster secret required"));
+                return;
+            }
+
+            Optional<Permit> admitted = admission.tryAcquire(Budget.CREATE);
+            if (admitted.isEmpty()) {
+                send(exchange, Response.error(503, "Server busy, retry later"));
+                return;
+            }
+
+            Response response;
+            Permit permit = admitted.get();
+            try {
+                response = routeCluster(node, exchange, permit);
+            } catch (IllegalStateException e) {
+                response = Response.error(409, e.getMessage());
+            } catch (IllegalArgumentException e) {
+                response = Response.error(400, e.getMessage());
+            } finally {
+                permit.close();
+            }
+            send(exchange, response);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // The permit admits the request; a rebalance gives it back before moving games, since it may
+    // take long and is already limited to one at a time by the node
+    private Response routeCluster(ClusterNode node, HttpExchange exchange, Permit permit) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        if (path.equals(ClusterNode.GAMES_PATH)) {
+            if (!method.equals("POST")) {
+                return Response.notAllowed();
+            }
+            sessions.importGame(readBytes(exchange, MAX_BODY_BYTES));
+            return new Response(204, null);
+        }
+        if (path.startsWith(ClusterNode.GAMES_PATH + "/")) {
+            if (!method.equals("GET")) {
+                return Response.notAllowed();
+            }
+            long gameId;
+            try {
+                gameId = Long.parseLong(path.substring(ClusterNode.GAMES_PATH.length() + 1));
+            } catch (NumberFormatException e) {
+                return Response.error(404, "No such resource");
+            }
+            return sessions.isHosted(gameId) ? new Response(204, null) : Response.error(404, "Not hosted here");
+        }
+        if (path.equals(ClusterNode.MEMBERS_PATH)) {
+            return method.equals("PUT") ? setMembers(node, readBody(exchange, MAX_BODY_BYTES), permit)
+                    : Response.notAllowed();
+        }
+        return Response.error(404, "No such resource");
+    }
+
+    private static Response setMembers(ClusterNode node, Map<String, Object> body, Permit permit) {
+        if (!(body.get("nodes") instanceof List<?> nodes) || nodes.isEmpty()
+                || !nodes.stream().allMatch(String.class::isInstance)) {
+            throw new IllegalArgumentException("\"nodes\" must be a non-empty array of host:port strings");
+        }
+
+        List<String> members = new ArrayList<>(nodes.size());
+        nodes.forEach(member -> members.add((String) member));
+        permit.close();
+        return Response.ok("{\"moved\":" + node.setMembers(members) + "}");
+    }
+
+    // A game this node does not hold is looked up at its owner, if that is another node
+    private Optional<Response> redirectToOwner(HttpExchange exchange) {
+        ClusterNode node = cluster;
+        String[] path = exchange.getRequestURI().getRawPath().split("/");
+        if (node == null || path.length < 3) {
+            return Optional.empty();
+        }
+
+        long gameId;
+        try {
+            gameId = Long.parseLong(path[2]);
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+        String query = exchange.getRequestURI().getRawQuery();
+        return node.remoteOwnerOf(gameId).map(owner -> Response.redirect("http://" + owner
+                + exchange.getRequestURI().getRawPath() + (query == null ? "" : "?" + query)));
+    }
+
+    private static Budget budgetOf(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        if (!exchange.getRequestMethod().equals("POST")) {
+            return Budget.PLAY;
+        }
+        return path.equals("/games") || path.equals("/games/") ? Budget.CREATE
+                : path.endsWith("/hints") ? Budget.HINT
+                : Budget.PLAY;
+    }
+
+    private Response route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String rest = exchange.getRequestURI().getPath().substring("/games".length());
+        if (!rest.isEmpty() && !rest.startsWith("/")) {
+            throw new NoSuchElementException("No such resource");
+        }
+        String[] path = rest.split("/");
+        // path[0] is the empty string before the first slash
+        if (path.length <= 1) {
+            return method.equals("POST") ? createGame(readBody(exchange, MAX_BODY_BYTES)) : Response.notAllowed();
+        }
+        if (path.length == 2 && path[1].equals("guesses")) {
+            return method.equals("POST") ? guessAll(readBody(exchange, MAX_BATCH_BODY_BYTES)) : Response.notAllowed();
+        }
+
+        long gameId = parseId(path[1]);
+        String resource = path.length == 3 ? path[2] : path.length == 2 ? "" : null;
+        if (resource == null) {
+            throw new NoSuchElementException("No such resource");
+        }
+        return switch (method + " " + resource) {
+            case "GET " -> Response.ok(gameJson(sessions.find(gameId)));
+            case "DELETE " -> {
+                ClusterNode node = cluster;
+                if (node != null && !node.owns(gameId)) {
+                    // Ending an unknown game is a no-op, so look it up to be redirected if it lives elsewhere
+                    sessions.find(gameId);
+                }
+                sessions.end(gameId);
+                yield new Response(204, null);
+            }
+            case "POST guesses" -> guess(gameId, readBody(exchange, MAX_BODY_BYTES));
+            case "GET history" -> history(gameId);
+            case "POST hints" -> hint(gameId);
+            default -> resource.isEmpty() || List.of("guesses", "history", "hints", "events").contains(resource)
+                    ? Response.notAllowed()
+                    : Response.error(404, "No such resource " + resource);
+        };
+    }
+
+    private Response createGame(Map<String, Object> body) {
+        Object player = body.get("player");
+        if (!(player instanceof String name) || name.isBlank()) {
+            throw new IllegalArgumentException("\"player\" must be a non-empty string");
+        }
+        Object difficultyName = body.getOrDefault("difficulty", Difficulty.NORMAL.name());
+        Difficulty difficulty;
+        try {
+            difficulty = Difficulty.valueOf(String.valueOf(difficultyName).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("\"difficulty\" must be EASY, NORMAL or HARD");
+        }
+
+        ClusterNode node = cluster;
+        Game game = node == null ? sessions.newGame(name.trim(), difficulty)
+                : sessions.newGame(name.trim(), difficulty, node::owns);
+        return new Response(201, gameJson(game));
+    }
+
+    private Response guess(long gameId, Map<String, Object> body) {
+        Game game = sessions.find(gameId);
+        NumCombination guess = parseGuess(body.get("guess"), game.getAnswer());
+
+        GuessResult result = sessions.play(gameId, guess);
+        StringBuilder json = new StringBuilder(128);
+        appendFeedback(json.append('{'), result.feedback())
+                .append(",\"status\":\"").append(result.status())
+                .append("\",\"remainingAttempts\":").append(result.remainingAttempts());
+        if (result.status() == Status.LOST) {
+            appendDigits(json.append(",\"answer\":"), game.getAnswer());
+        }
+        return Response.ok(json.append('}').toString());
+    }
+
+    private Response guessAll(Map<String, Object> body) {
+        if (!(body.get("guesses") instanceof List<?> entries)) {
+            throw new IllegalArgumentException("\"guesses\" must be an array");
+        }
+
+        // Entries that cannot even be parsed fail here; the rest are scored as one batch
+        String[] errors = new String[entries.size()];
+        Game[] games = new Game[entries.size()];
+        List<GuessRequest> requests = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            try {
+                if (!(entries.get(i) instanceof Map<?, ?> entry) || !(entry.get("game") instanceof Long gameId)) {
+                    throw new IllegalArgumentException("Each guess must be {\"game\":<id>,\"guess\":[...]}");
+                }
+                games[i] = sessions.find(gameId);
+                requests.add(new GuessRequest(gameId, parseGuess(entry.get("guess"), games[i].getAnswer())));
+            } catch (IllegalArgumentException | NoSuchElementException e) {
+                errors[i] = e.getMessage();
+            }
+        }
+
+        List<GuessResult> results = sessions.guessAll(requests);
+        StringBuilder json = new StringBuilder(16 + entries.size() * 96).append("{\"results\":[");
+        for (int i = 0, next = 0; i < entries.size(); i++) {
+            json.append(i == 0 ? "{" : ",{");
+            GuessResult result = errors[i] == null ? results.get(next++) : null;
+            if (result == null || !result.isApplied()) {
+                Json.appendString(json.append("\"error\":"), result == null ? errors[i] : result.error());
+            } else {
+                appendFeedback(json, result.feedback())
+                        .append(",\"status\":\"").append(result.status())
+                        .append("\",\"remainingAttempts\":").append(result.remainingAttempts());
+                if (result.status() == Status.LOST) {
+                    appendDigits(json.append(",\"answer\":"), games[i].getAnswer());
+                }
+            }
+            json.append('}');
+        }
+        return Response.ok(json.append("]}").toString());
+    }
+
+    private Response history(long gameId) {
+        List<History> history = sessions.history(gameId);
+        StringBuilder json = new StringBuilder(32 + history.size() * 64).append("{\"history\":[");
+        for (int i = 0; i < history.size(); i++) {
+            History turn = history.get(i);
+            appendDigits(json.append(i == 0 ? "{\"guess\":" : ",{\"guess\":"), turn.guess()).append(',');
+            appendFeedback(json, turn.feedback()).append('}');
+        }
+        return Response.ok(json.append("]}").toString());
+    }
+
+    private Response hint(long gameId) {
+        Optional<String> hint = sessions.hint(gameId);
+        if (hint.isEmpty()) {
+            throw new IllegalStateException("No hints left");
+        }
+        return Response.ok(Json.appendString(new StringBuilder("{\"hint\":"), hint.get()).append('}').toString());
+    }
+
+    private static String gameJson(Game game) {
+        Difficulty difficulty = game.getDifficulty();
+        StringBuilder json = new StringBuilder(160)
+                .append("{\"id\":").append(game.getId())
+                .append(",\"player\":");
+        Json.appendString(json, game.getPlayer().getName())
+                .append(",\"difficulty\":\"").append(difficulty)
+                .append("\",\"size\":").append(difficulty.getCombinationSize())
+                .append(",\"maxRange\":").append(difficulty.getMaxRange())
+                .append(",\"status\":\"").append(game.getStatus())
+                .append("\",\"remainingAttempts\":").append(game.getRemainingAttempts())
+                .append(",\"hintsLeft\":").append(game.getHintCount());
+        return json.append('}').toString();
+    }
+
+    private static StringBuilder appendFeedback(StringBuilder json, Feedback feedback) {
+        return json.append("\"correctNumbers\":").append(feedback.getCorrectDigits())
+                .append(",\"correctPositions\":").append(feedback.getCorrectPositions());
+    }
+
+    private static StringBuilder appendDigits(StringBuilder json, NumCombination combination) {
+        json.append('[');
+        List<Integer> numbers = combination.getNumbers();
+        for (int i = 0; i < numbers.size(); i++) {
+            json.append(i == 0 ? "" : ",").append(numbers.get(i));
+        }
+        return json.append(']');
+    }
+
+    private static NumCombination parseGuess(Object value, NumCombination answer) {
+        if (!(value instanceof List<?> digits)) {
+            throw new IllegalArgumentException("\"guess\" must be an array of numbers");
+        }
+
+        List<Integer> numbers = new ArrayList<>(digits.size());
+        for (Object digit : digits) {
+            if (!(digit instanceof Long number) || number < Integer.MIN_VALUE || number > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("\"guess\" must be an array of numbers");
+            }
+            numbers.add(number.intValue());
+        }
+        return new NumCombination(numbers, answer.getExpectedSize(), answer.getMinNum(), answer.getMaxNum());
+    }
+
+    private static long parseId(String id) {
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            throw new NoSuchElementException("No game with id " + id);
+        }
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange, int limit) throws IOException {
+        return Json.parseObject(new String(readBytes(exchange, limit), StandardCharsets.UTF_8));
+    }
+
+    private static byte[] readBytes(HttpExchange exchange, int limit) throws IOException {
+        byte[] body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = in.readNBytes(limit + 1);
+        }
+        if (body.length > limit) {
+            throw new IllegalArgumentException("Request body exceeds " + limit + " bytes");
+        }
+        return body;
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        if (response.body() == null) {
+            exchange.sendResponseHeaders(response.status(), -1);
+            return;
+        }
+
+        byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        if (response.status() == 405) {
+            exchange.getResponseHeaders().set("Allow", "GET, POST, DELETE");
+        } else if (response.status() == 503) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+        } else if (response.location() != null) {
+            exchange.getResponseHeaders().set("Location", response.location());
+        }
+        exchange.sendResponseHeaders(response.status(), body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private record Response(int status, String body, String location) {
+
+        Response(int status, String body) {
+            this(status, body, null);
+        }
+
+        static Response ok(String body) {
+            return new Response(200, body);
+        }
+
+        static Response error(int status, String message) {
+            return new Response(status, Json.appendString(new StringBuilder("{\"error\":"),
+                    message == null ? "" : message).append('}').toString());
+        }
+
+        static Response redirect(String location) {
+            return new Response(307, Json.appendString(new StringBuilder("{\"location\":"), location)
+                    .append('}').toString(), location);
+        }
+
+        static Response notAllowed() {
+            return error(405, "Method not allowed");
+        }
+    }
+}
@@ -0,0 +1,523 @@
+package com.mastermind.server;
+
+import com.mastermind.models.Difficulty;
+import com.mastermind.models.Game;
+import com.mastermind.models.History;
+import com.mastermind.models.NumCombination;
+import com.mastermind.models.Status;
+import com.mastermind.server.AdmissionController.Budget;
+import com.mastermind.server.AdmissionController.Permit;
+import com.mastermind.services.GameSessionService;
+import com.mastermind.services.GameSessionService.GuessResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Line-based TCP front end hosting many games on one selector thread.
+ *
+ * <p>Each connection plays one game at a time. Commands and replies are single lines of text:
+ * <pre>
+ *   NEW &lt;difficulty&gt; &lt;player name&gt;  →  GAME &lt;id&gt; &lt;size&gt; &lt;max digit&gt; &lt;attempts&gt;
+ *   GUESS &lt;digits...&gt;               →  FEEDBACK &lt;numbers&gt; &lt;positions&gt; &lt;status&gt; &lt;attempts left&gt; [answer]
+ *   HISTORY                         →  HISTORY [&lt;digits&gt;/&lt;numbers&gt;/&lt;positions&gt; ...]
+ *   HINT                            →  HINT &lt;digit&gt;
+ *   QUIT                            →  BYE, then the connection is closed
+ *   anything invalid                →  ERR &lt;reason&gt;
+ *   NEW while overloaded            →  ERR busy, try again later
+ * </pre>
+ * The answer is only sent once the game is lost. Difficulties are given by name or menu
+ * value, and commands may be pipelined.
+ *
+ * <p>One thread runs a non-blocking {@link Selector} loop and owns every connection, each with
+ * a fixed input and output buffer. Guesses, history and hints take microseconds and are
+ * served on that thread. Creating a game may block on the random number service, so it runs
+ * on a small worker pool; the connection stops reading until the game is ready and the reply
+ * is handed back to the loop, which keeps pipelined commands in order. No connection ever
+ * holds a thread of its own.
+ *
+ * <p>Queues are bounded throughout: a connection buffers at most one line of input and stops
+ * reading while its output buffer is full or its game is being created, and the worker pool
+ * queues at most {@value #MAX_PENDING_CREATES} creations. Creations must also be admitted by
+ * the {@link AdmissionController}; when their budget is full they fail fast with
+ * {@code ERR busy} while guesses keep flowing. The other commands run one at a time on the
+ * loop, which already bounds them, so they take no budget.
+ */
+public class GameServer implements AutoCloseable {
+    static final int MAX_LINE_BYTES = 1024;
+    static final int OUTPUT_BUFFER_BYTES = 8 * 1024;
+    static final int MAX_PENDING_CREATES = 1024;
+    static final String BUSY = "ERR busy, try again later";
+    /** Room kept free in the output buffer before a command is handled; larger than any reply. */
+    private static final int MAX_REPLY_BYTES = 1024;
+
+    private final GameSessionService sessions;
+    private final ExecutorService workers;
+    private final AdmissionController admission;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final Queue<Runnable> completions = new ConcurrentLinkedQueue<>();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private final Thread loop;
+    private volatile boolean running = true;
+
+    /**
+     * Starts a server on {@code port}, 0 for any free port, with one worker per core and the
+     * default admission budgets.
+     */
+    public static GameServer start(GameSessionService sessions, int port) {
+        return start(sessions, port, AdmissionController.defaults());
+    }
+
+    /**
+     * Starts a server on {@code port}, 0 for any free port, with one worker per core.
+     */
+    public static GameServer start(GameSessionService sessions, int port, AdmissionController admission) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_PENDING_CREATES), runnable -> {
+                    Thread thread = new Thread(runnable, "game-server-worker");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        return new GameServer(sessions, new InetSocketAddress(port), workers, admission);
+    }
+
+    /**
+     * Binds to {@code address} and starts the selector thread.
+     *
+     * @param sessions the games served
+     * @param address the address to listen on
+     * @param workers runs game creation, which may block; shut down by {@link #close()}
+     * @param admission admits game creations and hints
+     */
+    public GameServer(GameSessionService sessions, InetSocketAddress address, ExecutorService workers,
+                      AdmissionController admission) {
+        this.sessions = sessions;
+        this.workers = workers;
+        this.admission = admission;
+        try {
+            this.selector = Selector.open();
+            this.serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(address, 1024);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot listen on " + address, e);
+        }
+
+        this.loop = new Thread(this::run, "game-server-selector");
+        loop.start();
+    }
+
+    /**
+     * The port the server listens on.
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Blocks until the server is closed.
+     */
+    public void awaitTermination() throws InterruptedException {
+        stopped.await();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            loop.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                for (Runnable completion = completions.poll(); completion != null; completion = completions.poll()) {
+                    completion.run();
+                }
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            connection.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.write();
+                        }
+                    } catch (RuntimeException e) {
+                        connection.fail(e);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Game server loop failed", e);
+        } finally {
+            shutdown();
+        }
+    }
+
+    // A connection that cannot be set up is dropped; the others keep being served
+    private void accept() {
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (IOException e) {
+                // E.g. out of file descriptors; the next select retries
+                System.err.println("Game server cannot accept a connection: " + e);
+                return;
+            }
+            if (channel == null) {
+                return;
+            }
+
+            try {
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                Connection connection = new Connection(channel);
+                connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            } catch (IOException e) {
+                try {
+                    channel.close();
+                } catch (IOException closeFailure) {
+                    // The peer is gone either way
+                }
+            }
+        }
+    }
+
+    private void shutdown() {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection connection) {
+                connection.close();
+            }
+        }
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException e) {
+            // Nothing left to release
+        }
+        stopped.countDown();
+    }
+
+    /**
+     * One client, owned by the selector thread.
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private final ByteBuffer in = ByteBuffer.allocate(MAX_LINE_BYTES);
+        private final ByteBuffer out = ByteBuffer.allocate(OUTPUT_BUFFER_BYTES);
+        private SelectionKey key;
+        private Game game;
+        private boolean creating;
+        private boolean closing;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void read() {
+            try {
+                if (channel.read(in) < 0) {
+                    close();
+                    return;
+                }
+            } catch (IOException e) {
+                close();
+                return;
+            }
+            process();
+        }
+
+        void write() {
+            try {
+                out.flip();
+                channel.write(out);
+                out.compact();
+            } catch (IOException e) {
+                close();
+                return;
+            }
+
+            if (out.position() == 0 && closing) {
+                close();
+                return;
+            }
+            process();
+        }
+
+        // Handles every complete buffered line, unless waiting for a new game or for output room
+        private void process() {
+            if (!channel.isOpen()) {
+                return;
+            }
+
+            byte[] bytes = in.array();
+            int start = 0;
+            boolean partialLine = false;
+            while (!creating && !closing && out.remaining() >= MAX_REPLY_BYTES) {
+                int end = indexOf(bytes, start, in.position(), (byte) '\n');
+                if (end < 0) {
+                    partialLine = true;
+                    break;
+                }
+                int lineEnd = end > start && bytes[end - 1] == '\r' ? end - 1 : end;
+                handle(new String(bytes, start, lineEnd - start, StandardCharsets.UTF_8));
+                start = end + 1;
+            }
+            in.limit(in.position()).position(start);
+            in.compact();
+
+            if (partialLine && !in.hasRemaining()) {
+                reply("ERR line longer than " + MAX_LINE_BYTES + " bytes");
+                closing = true;
+            }
+            updateInterest();
+        }
+
+        private void handle(String line) {
+            int space = line.indexOf(' ');
+            String command = (space < 0 ? line : line.substring(0, space)).toUpperCase(Locale.ROOT);
+            String argument = space < 0 ? "" : line.substring(space + 1).trim();
+            try {
+                switch (command) {
+                    case "NEW" -> newGame(argument);
+                    case "GUESS" -> guess(argument);
+                    case "HISTORY" -> history();
+                    case "HINT" -> hint();
+                    case "QUIT" -> quit();
+                    case "" -> { }
+                    default -> reply("ERR unknown command " + command);
+                }
+            } catch (IllegalArgumentException | IllegalStateException | NoSuchElementException e) {
+                reply("ERR " + e.getMessage());
+            }
+        }
+
+        private void newGame(String argument) {
+            int space = argument.indexOf(' ');
+            Difficulty difficulty = parseDifficulty(space < 0 ? argument : argument.substring(0, space));
+            String playerName = space < 0 ? "" : argument.substring(space + 1).trim();
+            if (playerName.isEmpty()) {
+                throw new IllegalArgumentException("usage: NEW <difficulty> <player name>");
+            }
+
+            Optional<Permit> admitted = admission.tryAcquire(Budget.CREATE);
+            if (admitted.isEmpty()) {
+                reply(BUSY);
+                return;
+            }
+
+            Permit permit = admitted.get();
+            Runnable create = () -> {
+                Game created = null;
+                String failure = null;
+                try {
+                    created = sessions.newGame(playerName, difficulty);
+                } catch (RuntimeException e) {
+                    failure = "ERR cannot create game: " + e.getMessage();
+                } finally {
+                    permit.close();
+                }
+
+                Game result = created;
+                String error = failure;
+                completions.add(() -> {
+                    try {
+                        created(result, error);
+                    } catch (RuntimeException e) {
+                        fail(e);
+                    }
+                });
+                selector.wakeup();
+            };
+            try {
+                workers.execute(create);
+            } catch (RejectedExecutionException e) {
+                permit.close();
+                reply(BUSY);
+                return;
+            }
+            endGame();
+            creating = true;
+        }
+
+        private void created(Game created, String error) {
+            creating = false;
+            if (!channel.isOpen()) {
+                if (created != null) {
+                    sessions.end(created.getId());
+                }
+                return;
+            }
+
+            if (created == null) {
+                reply(error);
+            } else {
+                game = created;
+                Difficulty difficulty = created.getDifficulty();
+                reply("GAME " + created.getId() + ' ' + difficulty.getCombinationSize() + ' '
+                        + difficulty.getMaxRange() + ' ' + created.getMaxAttempts());
+            }
+            process();
+        }
+
+        private void guess(String argument) {
+            Game current = currentGame();
+            NumCombination answer = current.getAnswer();
+            NumCombination guess = NumCombination.parse(argument, answer.getExpectedSize(),
+                    answer.getMinNum(), answer.getMaxNum());
+            GuessResult result = sessions.play(current.getId(), guess);
+
+            StringBuilder reply = new StringBuilder(48).append("FEEDBACK ")
+                    .append(result.feedback().getCorrectDigits()).append(' ')
+                    .append(result.feedback().getCorrectPositions()).append(' ')
+                    .append(result.status()).append(' ')
+                    .append(result.remainingAttempts());
+            if (result.status() == Status.LOST) {
+                appendDigits(reply.append(' '), answer);
+            }
+            reply(reply.toString());
+        }
+
+        private void history() {
+            List<History> history = sessions.history(currentGame().getId());
+            StringBuilder reply = new StringBuilder(16 + history.size() * 12).append("HISTORY");
+            for (History turn : history) {
+                appendDigits(reply.append(' '), turn.guess())
+                        .append('/').append(turn.feedback().getCorrectDigits())
+                        .append('/').append(turn.feedback().getCorrectPositions());
+            }
+            reply(reply.toString());
+        }
+
+        private void hint() {
+            Optional<String> hint = sessions.hint(currentGame().getId());
+            reply(hint.map(digit -> "HINT " + digit).orElse("ERR no hints left"));
+        }
+
+        private void quit() {
+            endGame();
+            reply("BYE");
+            closing = true;
+        }
+
+        private Game currentGame() {
+            if (game == null) {
+                throw new IllegalStateException("no game, start one with NEW <difficulty> <player name>");
+            }
+            return game;
+        }
+
+        private void endGame() {
+            if (game != null) {
+                sessions.end(game.getId());
+                game = null;
+            }
+        }
+
+        private void reply(String line) {
+            byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+            int length = Math.min(bytes.length, MAX_REPLY_BYTES - 1);
+            out.put(bytes, 0, length).put((byte) '\n');
+        }
+
+        private void updateInterest() {
+            if (!key.isValid()) {
+                return;
+            }
+            boolean canRead = !creating && !closing && out.remaining() >= MAX_REPLY_BYTES;
+            key.interestOps((canRead ? SelectionKey.OP_READ : 0) | (out.position() > 0 ? SelectionKey.OP_WRITE : 0));
+        }
+
+        // Drops only this client after a failure that handle() does not answer with ERR, e.g. a
+        // registry spill or journal write that threw
+        void fail(RuntimeException e) {
+            System.err.println("Game server dropped a connection: " + e);
+            close();
+        }
+
+        void close() {
+            try {
+                endGame();
+            } catch (RuntimeException e) {
+                // The game is left to expire; the connection still goes
+                game = null;
+                System.err.println("Game server cannot end a game: " + e);
+            }
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // The peer is gone either way
+            }
+        }
+    }
+
+    private static Difficulty parseDifficulty(String token) {
+        for (Difficulty difficulty : Difficulty.values()) {
+            if (difficulty.name().equalsIgnoreCase(token) || String.valueOf(difficulty.getValue()).equals(token)) {
+                return difficulty;
+            }
+        }
+        throw new IllegalArgumentException("unknown difficulty " + token + ", use EASY, NORMAL or HARD");
+    }
+
+    private static StringBuilder appendDigits(StringBuilder builder, NumCombination combination) {
+        for (int digit : combination.getNumbers()) {
+            builder.append(digit);
+        }
+        return builder;
+    }
+
+    private static int indexOf(byte[] bytes, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,225 @@
+package com.mastermind.services;
+
+import com.mastermind.models.NumCombination;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Composite generator that routes each call to the fastest healthy source of sufficient strength.
+ *
+ * <p>Every source carries a {@link RandomnessClass}. For each call, healthy sources that meet
+ * the configured class are tried in order of rolling average latency. A source whose rolling
+ * error rate exceeds the threshold counts as unhealthy until its probe interval has passed
+ * since its last failure, after which it is trusted with a trial call again.
+ *
+ * <p>If no such source succeeds, healthy weaker sources are tried from the strongest down, and
+ * unhealthy sources last, so a combination is always returned as long as one source works.
+ */
+public class ChainedNumberGenerator implements NumberGenerator {
+    /** Weight of the newest sample in the rolling averages. */
+    private static final double SMOOTHING = 0.2;
+    private static final double UNHEALTHY_ERROR_RATE = 0.5;
+    private static final Duration DEFAULT_PROBE_INTERVAL = Duration.ofSeconds(30);
+
+    private final List<Source> sources;
+    private final RandomnessClass requiredClass;
+    private final long probeIntervalNanos;
+    private final LongSupplier nanoClock;
+
+    public ChainedNumberGenerator(List<Source> sources, RandomnessClass requiredClass) {
+        this(sources, requiredClass, DEFAULT_PROBE_INTERVAL, System::nanoTime);
+    }
+
+    ChainedNumberGenerator(List<Source> sources, RandomnessClass requiredClass,
+                           Duration probeInterval, LongSupplier nanoClock) {
+        if (sources.isEmpty()) {
+            throw new IllegalArgumentException("At least one source is required");
+        }
+
+        this.sources = List.copyOf(sources);
+        this.requiredClass = requiredClass;
+        this.probeIntervalNanos = probeInterval.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Builds the standard chain: Random.org, {@code SecureRandom}, {@code /dev/urandom} (where
+     * available) and a seeded PRNG.
+     *
+     * @param apiClient the Random.org client
+     * @param requiredClass the weakest class that is routed to before degrading
+     * @return the chained generator
+     */
+    public static ChainedNumberGenerator standard(RandomNumberApiClient apiClient, RandomnessClass requiredClass) {
+        List<Source> sources = new ArrayList<>();
+        sources.add(new Source("random.org", RandomnessClass.TRUE_RANDOM, new NumberGenerator() {
+            @Override
+            public NumCombination generateNumbers(int size, int maxRange) {
+                return apiClient.getRandomNums(size, maxRange);
+            }
+
+            @Override
+            public List<NumCombination> generateBatch(int count, int size, int maxRange) {
+                return LocalNumberGenerator.toCombinations(
+                        apiClient.getRandomIntegers(count * size, maxRange), count, size, maxRange);
+            }
+        }));
+
+        SecureRandom secureRandom = new SecureRandom();
+        sources.add(new Source("SecureRandom", RandomnessClass.CRYPTOGRAPHIC,
+                (size, maxRange) -> LocalNumberGenerator.generate(secureRandom, size, maxRange)));
+
+        if (DevUrandomGenerator.isAvailable()) {
+            DevUrandomGenerator urandom = new DevUrandomGenerator();
+            sources.add(new Source("/dev/urandom", RandomnessClass.CRYPTOGRAPHIC,
+                    (size, maxRange) -> LocalNumberGenerator.generate(urandom, size, maxRange)));
+        }
+
+        sources.add(new Source("L64X128MixRandom", RandomnessClass.PSEUDO_RANDOM, new LocalNumberGenerator()));
+        return new ChainedNumberGenerator(sources, requiredClass);
+    }
+
+    @Override
+    public NumCombination generateNumbers(int size, int maxRange) {
+        return route(generator -> generator.generateNumbers(size, maxRange));
+    }
+
+    /**
+     * Routes the whole batch to a single source, so a remote source serves it in one request.
+     */
+    @Override
+    public List<NumCombination> generateBatch(int count, int size, int maxRange) {
+        return route(generator -> generator.generateBatch(count, size, maxRange));
+    }
+
+    private <T> T route(Function<NumberGenerator, T> call) {
+        RuntimeException lastFailure = null;
+
+        for (Source source : routingOrder()) {
+            long start = nanoClock.getAsLong();
+            try {
+                T result = call.apply(source.generator);
+                source.recordSuccess(nanoClock.getAsLong() - start);
+                return result;
+            } catch (RuntimeException e) {
+                long now = nanoClock.getAsLong();
+                source.recordFailure(now - start, now);
+                lastFailure = e;
+            }
+        }
+
+        throw new IllegalStateException("All number sources failed", lastFailure);
+    }
+
+    /**
+     * Current rolling statistics of every source, in configuration order.
+     */
+    public List<SourceStats> getStats() {
+        return sources.stream().map(Source::stats).toList();
+    }
+
+    // Healthy sources of the required class by latency, then healthy weaker sources from the
+    // strongest down, then unhealthy sources as a last resort
+    private List<Source> routingOrder() {
+        long now = nanoClock.getAsLong();
+        List<Source> preferred = new ArrayList<>();
+        List<Source> degraded = new ArrayList<>();
+        List<Source> unhealthy = new ArrayList<>();
+        for (Source source : sources) {
+            if (!source.isAvailable(now, probeIntervalNanos)) {
+                unhealthy.add(source);
+            } else if (source.randomnessClass.satisfies(requiredClass)) {
+                preferred.add(source);
+            } else {
+                degraded.add(source);
+            }
+        }
+
+        Comparator<Source> strongestThenFastest = Comparator
+                .comparing((Source source) -> source.randomnessClass).reversed()
+                .thenComparingDouble(Source::latencyNanos);
+        preferred.sort(Comparator.comparingDouble(Source::latencyNanos));
+        degraded.sort(strongestThenFastest);
+        unhealthy.sort(strongestThenFastest);
+
+        preferred.addAll(degraded);
+        preferred.addAll(unhealthy);
+        return preferred;
+    }
+
+    /**
+     * Snapshot of one source's rolling statistics.
+     *
+     * @param name the source name
+     * @param randomnessClass the strength of the source
+     * @param latencyNanos rolling average call latency
+     * @param errorRate rolling fraction of failed calls
+     * @param calls total number of calls routed to the source
+     */
+    public record SourceStats(String name, RandomnessClass randomnessClass, double latencyNanos,
+                              double errorRate, long calls) {
+    }
+
+    /**
+     * A named generator with its strength and rolling latency and error statistics.
+     */
+    public static final class Source {
+        private final String name;
+        private final RandomnessClass randomnessClass;
+        private final NumberGenerator generator;
+        private final AtomicLong latencyBits = new AtomicLong(Double.doubleToLongBits(0));
+        private final AtomicLong errorRateBits = new AtomicLong(Double.doubleToLongBits(0));
+        private final AtomicLong calls = new AtomicLong();
+        private volatile long lastFailureNanos;
+
+        public Source(String name, RandomnessClass randomnessClass, NumberGenerator generator) {
+            this.name = name;
+            this.randomnessClass = randomnessClass;
+            this.generator = generator;
+        }
+
+        private double latencyNanos() {
+            return Double.longBitsToDouble(latencyBits.get());
+        }
+
+        private double errorRate() {
+            return Double.longBitsToDouble(errorRateBits.get());
+        }
+
+        private boolean isAvailable(long now, long probeIntervalNanos) {
+            return errorRate() < UNHEALTHY_ERROR_RATE || now - lastFailureNanos >= probeIntervalNanos;
+        }
+
+        private void recordSuccess(long elapsedNanos) {
+            calls.incrementAndGet();
+            smooth(latencyBits, elapsedNanos);
+            smooth(errorRateBits, 0);
+        }
+
+        private void recordFailure(long elapsedNanos, long now) {
+            calls.incrementAndGet();
+            lastFailureNanos = now;
+            smooth(latencyBits, elapsedNanos);
+            smooth(errorRateBits, 1);
+        }
+
+        private SourceStats stats() {
+            return new SourceStats(name, randomnessClass, latencyNanos(), errorRate(), calls.get());
+        }
+
+        // Lock-free exponentially weighted moving average, the first sample seeds the average
+        private void smooth(AtomicLong average, double sample) {
+            boolean first = calls.get() == 1;
+            average.updateAndGet(bits -> Double.doubleToLongBits(first
+                    ? sample
+                    : Double.longBitsToDouble(bits) * (1 - SMOOTHING) + sample * SMOOTHING));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.mastermind.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.random.RandomGenerator;
+
+/**
+ * {@link RandomGenerator} reading the kernel CSPRNG through a {@link FileChannel}.
+ *
+ * <p>Bytes are read in blocks into a reused direct buffer, so most calls are served from memory
+ * without a system call.
+ */
+public class DevUrandomGenerator implements RandomGenerator, AutoCloseable {
+    public static final Path DEV_URANDOM = Path.of("/dev/urandom");
+
+    private static final int BLOCK_SIZE = 4096;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BLOCK_SIZE);
+
+    public DevUrandomGenerator() {
+        this(DEV_URANDOM);
+    }
+
+    DevUrandomGenerator(Path source) {
+        try {
+            this.channel = FileChannel.open(source, StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open " + source, e);
+        }
+        buffer.limit(0);
+    }
+
+    /**
+     * Returns true if {@code /dev/urandom} exists on this platform.
+     */
+    public static boolean isAvailable() {
+        return Files.isReadable(DEV_URANDOM);
+    }
+
+    @Override
+    public synchronized long nextLong() {
+        if (buffer.remaining() < Long.BYTES) {
+            fill();
+        }
+        return buffer.getLong();
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close " + DEV_URANDOM, e);
+        }
+    }
+
+    private void fill() {
+        buffer.clear();
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Unexpected end of random source");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read random source", e);
+        }
+        buffer.flip();
+    }
+}
@@ -0,0 +1,259 @@
+package com.mastermind.services;
+
+import com.mastermind.models.NumCombination;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Persistent reserve of Random.org integers for offline and round-trip-free game creation.
+ *
+ * <p>Values are stored as 16-bit integers in an append-only data file and read through a
+ * memory-mapped buffer. A separate cursor file records how many values have been consumed;
+ * it is advanced and forced to disk before values are handed out, so no value is ever reused
+ * across restarts.
+ *
+ * <p>Values are fetched in the range {@code 0-2519}. Because 2520 is divisible by every
+ * range size from 1 to 10, {@code value % (maxRange + 1)} stays exactly uniform for every
+ * difficulty. Other ranges are not served from the reserve.
+ *
+ * <p>When the reserve runs low it refills itself on a background thread. Failed refills
+ * (e.g. while offline) are retried on the next draw, so the reserve recovers as soon as
+ * connectivity returns. Refills spend the same {@link QuotaRateLimiter} budget as direct API
+ * calls and are skipped while it cannot cover a whole batch.
+ */
+public class EntropyReserve implements AutoCloseable {
+    /** lcm(1..10), so every difficulty's range divides it evenly. */
+    public static final int RESERVE_RANGE = 2520;
+
+    static final String DATA_FILE = "entropy.dat";
+    static final String CURSOR_FILE = "entropy.cursor";
+
+    private static final int DEFAULT_REFILL_BATCH = 10_000;
+    private static final int DEFAULT_LOW_WATERMARK = 1_000;
+
+    private final RandomNumberApiClient apiClient;
+    private final QuotaRateLimiter rateLimiter;
+    private final int refillBatch;
+    private final int lowWatermark;
+    private final FileChannel dataChannel;
+    private final FileChannel cursorChannel;
+    private final MappedByteBuffer cursorBuffer;
+    private final ExecutorService refillExecutor;
+    private final AtomicBoolean refilling = new AtomicBoolean();
+
+    private long cursor;
+    private long storedValues;
+    private long mappedFrom;
+    private MappedByteBuffer mapped;
+
+    /**
+     * Opens (or creates) a reserve in {@code directory} with default refill settings and a
+     * bit budget sized to Random.org's default quota.
+     *
+     * @param directory the directory holding the reserve files
+     * @param apiClient the client used for background refills, or null for a read-only reserve
+     */
+    public static EntropyReserve open(Path directory, RandomNumberApiClient apiClient) {
+        return open(directory, apiClient, new QuotaRateLimiter());
+    }
+
+    /**
+     * Opens (or creates) a reserve in {@code directory} with default refill settings.
+     *
+     * @param directory the directory holding the reserve files
+     * @param apiClient the client used for background refills, or null for a read-only reserve
+     * @param rateLimiter the bit budget refills draw from, typically shared with the generator
+     */
+    public static EntropyReserve open(Path directory, RandomNumberApiClient apiClient, QuotaRateLimiter rateLimiter) {
+        return new EntropyReserve(directory, apiClient, rateLimiter, DEFAULT_REFILL_BATCH, DEFAULT_LOW_WATERMARK);
+    }
+
+    /**
+     * @param directory the directory holding the reserve files
+     * @param apiClient the client used for background refills, or null for a read-only reserve
+     * @param refillBatch the number of values fetched per refill
+     * @param lowWatermark refill once fewer than this many values remain
+     */
+    public EntropyReserve(Path directory, RandomNumberApiClient apiClient, int refillBatch, int lowWatermark) {
+        this(directory, apiClient, new QuotaRateLimiter(), refillBatch, lowWatermark);
+    }
+
+    /**
+     * @param directory the directory holding the reserve files
+     * @param apiClient the client used for background refills, or null for a read-only reserve
+     * @param rateLimiter the bit budget refills draw from
+     * @param refillBatch the number of values fetched per refill
+     * @param lowWatermark refill once fewer than this many values remain
+     */
+    public EntropyReserve(Path directory, RandomNumberApiClient apiClient, QuotaRateLimiter rateLimiter,
+                          int refillBatch, int lowWatermark) {
+        this.apiClient = apiClient;
+        this.rateLimiter = rateLimiter;
+        this.refillBatch = refillBatch;
+        this.lowWatermark = lowWatermark;
+
+        try {
+            Files.createDirectories(directory);
+            this.dataChannel = FileChannel.open(directory.resolve(DATA_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.cursorChannel = FileChannel.open(directory.resolve(CURSOR_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.cursorBuffer = cursorChannel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES);
+            this.cursor = cursorBuffer.getLong(0);
+            this.storedValues = dataChannel.size() / Short.BYTES;
+            remap();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open entropy reserve in " + directory, e);
+        }
+
+        this.refillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "entropy-reserve-refill");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns true if values in the range {@code 0-maxRange} can be drawn without bias.
+     */
+    public static boolean supportsRange(int maxRange) {
+        return maxRange >= 0 && RESERVE_RANGE % (maxRange + 1) == 0;
+    }
+
+    /**
+     * Draws a combination from the reserve, never reusing a value.
+     *
+     * @param size the number of digits to draw
+     * @param maxRange the maximum value (inclusive) for each digit
+     * @return the combination, or empty if the range is unsupported or the reserve is short
+     */
+    public Optional<NumCombination> take(int size, int maxRange) {
+        if (!supportsRange(maxRange)) {
+            return Optional.empty();
+        }
+
+        List<Integer> numbers = new ArrayList<>(size);
+        synchronized (this) {
+            if (available() < size) {
+                refillAsync();
+                return Optional.empty();
+            }
+
+            int base = (int) ((cursor - mappedFrom) * Short.BYTES);
+            for (int i = 0; i < size; i++) {
+                numbers.add(mapped.getShort(base + i * Short.BYTES) % (maxRange + 1));
+            }
+
+            // Persist the new cursor before handing the values out
+            cursor += size;
+            cursorBuffer.putLong(0, cursor);
+            cursorBuffer.force();
+        }
+
+        refillIfLow();
+
+        return Optional.of(new NumCombination(numbers, size, 0, maxRange));
+    }
+
+    /**
+     * Number of values not yet consumed.
+     */
+    public synchronized long available() {
+        return storedValues - cursor;
+    }
+
+    /**
+     * Appends values in the range {@code 0-2519} to the end of the reserve.
+     *
+     * @param values the values to append
+     */
+    public void append(int[] values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Short.BYTES);
+        for (int value : values) {
+            if (value < 0 || value >= RESERVE_RANGE) {
+                throw new IllegalArgumentException("Number " + value + " must be between 0-" + (RESERVE_RANGE - 1));
+            }
+            buffer.putShort((short) value);
+        }
+        buffer.flip();
+
+        synchronized (this) {
+            try {
+                long position = storedValues * Short.BYTES;
+                while (buffer.hasRemaining()) {
+                    position += dataChannel.write(buffer, position);
+                }
+                dataChannel.force(false);
+                storedValues += values.length;
+                remap();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot append to entropy reserve", e);
+            }
+        }
+    }
+
+    /**
+     * Starts a background refill if fewer values than the low watermark remain.
+     */
+    public void refillIfLow() {
+        if (available() < lowWatermark) {
+            refillAsync();
+        }
+    }
+
+    /**
+     * Starts a background refill from Random.org unless one is already running or the bit
+     * budget cannot cover it.
+     */
+    public void refillAsync() {
+        if (apiClient == null || refillExecutor.isShutdown() || !refilling.compareAndSet(false, true)) {
+            return;
+        }
+        if (!rateLimiter.tryAcquire(refillBatch, RESERVE_RANGE - 1)) {
+            // Over budget, a later draw retries once the bucket has refilled
+            refilling.set(false);
+            return;
+        }
+
+        refillExecutor.execute(() -> {
+            try {
+                append(apiClient.getRandomIntegers(refillBatch, RESERVE_RANGE - 1));
+            } catch (RandomNumberApiException | UncheckedIOException e) {
+                // Offline or failing, the next draw retries
+            } finally {
+                refilling.set(false);
+            }
+        });
+    }
+
+    @Override
+    public synchronized void close() {
+        refillExecutor.shutdownNow();
+        try {
+            dataChannel.close();
+            cursorChannel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close entropy reserve", e);
+        }
+    }
+
+    // Maps only the unconsumed tail, so the mapping stays small however long the file grows
+    private void remap() throws IOException {
+        mappedFrom = Math.min(cursor, storedValues);
+        mapped = dataChannel.map(FileChannel.MapMode.READ_ONLY,
+                mappedFrom * Short.BYTES, (storedValues - mappedFrom) * Short.BYTES);
+    }
+}
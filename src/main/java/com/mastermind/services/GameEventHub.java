@@ -0,0 +1,248 @@
+package com.mastermind.services;
+
+import com.mastermind.models.Feedback;
+import com.mastermind.models.Game;
+import com.mastermind.models.GameListener;
+import com.mastermind.models.NumCombination;
+import com.mastermind.models.Status;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fans the transitions of watched games out to spectators without slowing the players down.
+ *
+ * <p>The hub is the listener of every hosted game and passes each transition on to the
+ * downstream listener. A game that somebody {@linkplain #subscribe watches} also gets a ring
+ * buffer of its last {@code capacity} events: the player's thread writes the event into the
+ * next slot and signals a {@link Phaser}, neither of which can block, and every subscriber reads
+ * the ring with its own cursor at its own pace. A subscriber that falls more than
+ * {@code capacity} events behind skips ahead to the oldest event still held and is told how
+ * many it missed. Games nobody watches cost one map lookup per transition.
+ */
+public class GameEventHub implements GameListener {
+    public static final int DEFAULT_CAPACITY = 16;
+
+    private final GameListener downstream;
+    private final int capacity;
+    private final Map<Long, Ring> rings = new ConcurrentHashMap<>();
+
+    /**
+     * A hub keeping the last {@value #DEFAULT_CAPACITY} events of each watched game.
+     */
+    public GameEventHub(GameListener downstream) {
+        this(downstream, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param downstream receives every transition, before subscribers see it
+     * @param capacity the events kept per watched game, a power of two
+     * @throws IllegalArgumentException if capacity is not a positive power of two
+     */
+    public GameEventHub(GameListener downstream, int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two");
+        }
+        this.downstream = downstream;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Starts receiving the events of {@code gameId} published from now on. Close the
+     * subscription when done.
+     */
+    public Subscription subscribe(long gameId) {
+        Ring ring = rings.compute(gameId, (id, current) -> {
+            Ring joined = current == null ? new Ring(capacity) : current;
+            joined.subscribers++;
+            return joined;
+        });
+        return new Subscription(gameId, ring);
+    }
+
+    /**
+     * Number of games with at least one subscriber.
+     */
+    public int getWatchedCount() {
+        return rings.size();
+    }
+
+    @Override
+    public void onStart(Game game) {
+        downstream.onStart(game);
+        publish(game, Type.START, null, null);
+    }
+
+    @Override
+    public void onGuess(Game game, NumCombination guess, Feedback feedback) {
+        downstream.onGuess(game, guess, feedback);
+        publish(game, Type.GUESS, guess, feedback);
+    }
+
+    @Override
+    public void onHint(Game game, int position) {
+        downstream.onHint(game, position);
+        publish(game, Type.HINT, null, null);
+    }
+
+    @Override
+    public void onExit(Game game) {
+        downstream.onExit(game);
+        publish(game, Type.EXIT, null, null);
+    }
+
+    @Override
+    public void onRelease(Game game) {
+        downstream.onRelease(game);
+    }
+
+    @Override
+    public void onAdopt(Game game) {
+        downstream.onAdopt(game);
+    }
+
+    private void publish(Game game, Type type, NumCombination guess, Feedback feedback) {
+        Ring ring = rings.get(game.getId());
+        if (ring != null) {
+            ring.publish(type, guess, feedback, game.getStatus(), game.getRemainingAttempts(), game.getHintCount());
+        }
+    }
+
+    /**
+     * Kinds of events.
+     */
+    public enum Type {
+        /** The game started. */
+        START,
+        /** A guess was scored; the status tells whether it won or lost the game. */
+        GUESS,
+        /** A hint was revealed. The digit is not part of the event. */
+        HINT,
+        /** The player left or the session ended. */
+        EXIT
+    }
+
+    /**
+     * One transition of a game, with the game's state right after it.
+     *
+     * @param sequence the event's position in the game's stream, from 0
+     * @param type what happened
+     * @param guess the guess, for {@link Type#GUESS} only
+     * @param feedback the guess's feedback, for {@link Type#GUESS} only
+     * @param status the game's status
+     * @param remainingAttempts the attempts left
+     * @param hintsLeft the hints left
+     */
+    public record Event(long sequence, Type type, NumCombination guess, Feedback feedback, Status status,
+                        int remainingAttempts, int hintsLeft) {
+
+        /**
+         * Whether no event can follow this one.
+         */
+        public boolean isLast() {
+            return type == Type.EXIT || status == Status.WON || status == Status.LOST;
+        }
+    }
+
+    /**
+     * Events read by one {@link Subscription#poll}, and how many were missed before them
+     * because the subscriber fell too far behind.
+     */
+    public record Batch(List<Event> events, long skipped) {
+    }
+
+    /**
+     * One spectator's cursor over a game's ring. Not thread-safe; read it from one thread.
+     */
+    public final class Subscription implements AutoCloseable {
+        private final long gameId;
+        private final Ring ring;
+        private long cursor;
+        private boolean closed;
+
+        private Subscription(long gameId, Ring ring) {
+            this.gameId = gameId;
+            this.ring = ring;
+            this.cursor = ring.next.get();
+        }
+
+        /**
+         * Returns the events published since the last call, waiting up to {@code timeout} for
+         * one if there are none yet.
+         *
+         * @return the events, empty if none arrived in time
+         */
+        public Batch poll(Duration timeout) throws InterruptedException {
+            int phase = ring.arrivals.getPhase();
+            if (ring.next.get() == cursor) {
+                try {
+                    ring.arrivals.awaitAdvanceInterruptibly(phase, timeout.toNanos(), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    return new Batch(List.of(), 0);
+                }
+            }
+
+            long end = ring.next.get();
+            long skipped = 0;
+            if (end - cursor > capacity) {
+                skipped = end - capacity - cursor;
+                cursor = end - capacity;
+            }
+
+            List<Event> events = new ArrayList<>((int) (end - cursor));
+            for (; cursor < end; cursor++) {
+                Event event = ring.slots.get((int) (cursor & ring.mask));
+                if (event == null || event.sequence() < cursor) {
+                    // Claimed but not written yet; read it next time
+                    break;
+                }
+                if (event.sequence() > cursor) {
+                    // Overwritten while reading
+                    skipped++;
+                    continue;
+                }
+                events.add(event);
+            }
+            return new Batch(events, skipped);
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                rings.computeIfPresent(gameId, (id, current) -> --current.subscribers == 0 ? null : current);
+            }
+        }
+    }
+
+    private static final class Ring {
+        final AtomicReferenceArray<Event> slots;
+        final int mask;
+        final AtomicLong next = new AtomicLong();
+        /** Advances one phase per event, waking the subscribers waiting for it. */
+        final Phaser arrivals = new Phaser(1);
+        /** Guarded by the hub's map. */
+        int subscribers;
+
+        Ring(int capacity) {
+            this.slots = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+        }
+
+        void publish(Type type, NumCombination guess, Feedback feedback, Status status, int remainingAttempts,
+                     int hintsLeft) {
+            long sequence = next.getAndIncrement();
+            slots.set((int) (sequence & mask), new Event(sequence, type, guess, feedback, status, remainingAttempts,
+                    hintsLeft));
+            arrivals.arrive();
+        }
+    }
+}
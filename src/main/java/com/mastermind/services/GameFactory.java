@@ -2,20 +2,38 @@ package com.mastermind.services;
 
 import com.mastermind.models.Difficulty;
 import com.mastermind.models.Game;
+import com.mastermind.models.GameListener;
 import com.mastermind.models.NumCombination;
 import com.mastermind.models.Player;
-import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Factory for creating Game instances with configurable difficulty levels.
  * 
  * <p>This factory abstracts the complexity of generating secret combinations
  * using external random number services with appropriate retry logic and fallbacks.
- * Each game is created with a difficulty-appropriate secret combination.
+ * Each game is created with a difficulty-appropriate secret combination, a random positive id
+ * and the factory's {@link GameListener}.
  */
-@RequiredArgsConstructor
 public class GameFactory {
     private final NumberGenerator numberGenerator;
+    private final GameListener listener;
+
+    public GameFactory(NumberGenerator numberGenerator) {
+        this(numberGenerator, GameListener.NONE);
+    }
+
+    /**
+     * @param numberGenerator the source of secret combinations
+     * @param listener the listener attached to every created game, e.g. a journal
+     */
+    public GameFactory(NumberGenerator numberGenerator, GameListener listener) {
+        this.numberGenerator = numberGenerator;
+        this.listener = listener;
+    }
 
     public Game createGame(Player player) {
        return createGame(player, Difficulty.NORMAL);
@@ -39,8 +57,40 @@ public class GameFactory {
         NumCombination answer =
                 numberGenerator.generateNumbers(difficulty.getCombinationSize(), difficulty.getMaxRange());
 
+        return newGame(player, answer, difficulty);
+    }
+
+    /**
+     * Creates one game per player, generating all secrets with a single batch request.
+     *
+     * @param players the players, one game each
+     * @param difficulty the difficulty level shared by all games
+     * @return the new games, in the order of {@code players}
+     */
+    public List<Game> createGames(List<Player> players, Difficulty difficulty) {
+        List<NumCombination> answers = numberGenerator.generateBatch(
+                players.size(), difficulty.getCombinationSize(), difficulty.getMaxRange());
+
+        List<Game> games = new ArrayList<>(players.size());
+        for (int i = 0; i < players.size(); i++) {
+            games.add(newGame(players.get(i), answers.get(i), difficulty));
+        }
+
+        return games;
+    }
+
+    /**
+     * The listener attached to every created game.
+     */
+    public GameListener getListener() {
+        return listener;
+    }
+
+    private Game newGame(Player player, NumCombination answer, Difficulty difficulty) {
         Game newGame = new Game(player, answer);
+        newGame.setId(ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE));
         newGame.setDifficulty(difficulty);
+        newGame.setListener(listener);
 
         return newGame;
     }
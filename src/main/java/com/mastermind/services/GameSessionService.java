@@ -0,0 +1,363 @@
+package com.mastermind.services;
+
+import com.mastermind.models.Difficulty;
+import com.mastermind.models.Feedback;
+import com.mastermind.models.Game;
+import com.mastermind.models.History;
+import com.mastermind.models.NumCombination;
+import com.mastermind.models.Player;
+import com.mastermind.models.Status;
+import com.mastermind.persistence.GameSnapshotCodec;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongPredicate;
+
+/**
+ * Hosts many concurrent games by id, for front ends that serve more than one player.
+ *
+ * <p>Games are created through the {@link GameFactory} and started right away. Their
+ * transitions go to a {@link GameEventHub}, which passes them on to the factory's listener and
+ * lets spectators {@linkplain #watch watch} them live. They are held in a {@link SessionRegistry},
+ * which applies calls on the same game one at a time and may expire idle games or spill them to
+ * disk. Finished games stay available for their history until they are ended or expire.
+ */
+public class GameSessionService {
+    private final GameFactory gameFactory;
+    private final SessionRegistry games;
+    private final GameEventHub events;
+
+    /**
+     * Hosts games in memory until they are ended.
+     */
+    public GameSessionService(GameFactory gameFactory) {
+        this(gameFactory, new SessionRegistry());
+    }
+
+    public GameSessionService(GameFactory gameFactory, SessionRegistry games) {
+        this.gameFactory = gameFactory;
+        this.games = games;
+        this.events = new GameEventHub(gameFactory.getListener());
+    }
+
+    /**
+     * Creates and starts a game. May block while the secret is generated.
+     */
+    public Game newGame(String playerName, Difficulty difficulty) {
+        return newGame(playerName, difficulty, id -> true);
+    }
+
+    /**
+     * Creates and starts a game whose id passes {@code acceptId}, drawing new random ids until
+     * one does. A cluster node uses this to host only games it owns. May block while the secret
+     * is generated.
+     */
+    public Game newGame(String playerName, Difficulty difficulty, LongPredicate acceptId) {
+        Game game = gameFactory.createGame(new Player(playerName), difficulty);
+        while (!acceptId.test(game.getId())) {
+            game.setId(ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE));
+        }
+        game.setListener(events);
+        game.start();
+        games.put(game);
+        return game;
+    }
+
+    /**
+     * Scores a guess and advances the game.
+     *
+     * @throws NoSuchElementException if there is no game with this id
+     * @throws IllegalArgumentException if the guess does not fit the game's difficulty
+     * @throws IllegalStateException if the game is already finished
+     */
+    public Feedback guess(long gameId, NumCombination guess) {
+        return games.apply(gameId, game -> {
+            checkShape(game, guess);
+            return game.playerGuess(guess);
+        });
+    }
+
+    /**
+     * Scores a guess and advances the game, like {@link #guess}, and reports the game's state
+     * as of that guess. The state is read under the game's lock, so a concurrent guess cannot
+     * show through.
+     *
+     * @throws NoSuchElementException if there is no game with this id
+     * @throws IllegalArgumentException if the guess does not fit the game's difficulty
+     * @throws IllegalStateException if the game is already finished
+     */
+    public GuessResult play(long gameId, NumCombination guess) {
+        return games.apply(gameId, game -> {
+            checkShape(game, guess);
+            Feedback feedback = game.playerGuess(guess);
+            return new GuessResult(feedback, game.getStatus(), game.getRemainingAttempts(), null);
+        });
+    }
+
+    /**
+     * Scores and applies many guesses in one call, for bots and tournament clients that play
+     * many games at once.
+     *
+     * <p>Guesses are grouped by their game's {@link Difficulty} and each group is scored in one
+     * pass of {@link Feedback#scoreCodes} over packed answer and guess codes, instead of one
+     * {@link Feedback#create} per guess. Scoring does not depend on game state, so guesses are
+     * then applied in request order, which keeps several guesses for the same game in sequence.
+     * A guess that cannot be applied fails on its own without affecting the rest.
+     *
+     * @param requests the guesses to apply
+     * @return one result per request, in request order
+     */
+    public List<GuessResult> guessAll(List<GuessRequest> requests) {
+        int count = requests.size();
+        Game[] targets = new Game[count];
+        Feedback[] feedbacks = new Feedback[count];
+        GuessResult[] results = new GuessResult[count];
+
+        // Resolve every game and bucket the valid requests by difficulty
+        Map<Difficulty, int[]> groups = new EnumMap<>(Difficulty.class);
+        Map<Difficulty, Integer> groupSizes = new EnumMap<>(Difficulty.class);
+        for (int i = 0; i < count; i++) {
+            GuessRequest request = requests.get(i);
+            try {
+                if (request == null) {
+                    throw new IllegalArgumentException("Guess request is missing");
+                }
+                Game game = find(request.gameId());
+                checkShape(game, request.guess());
+                targets[i] = game;
+            } catch (IllegalArgumentException | NoSuchElementException e) {
+                results[i] = GuessResult.failed(e.getMessage());
+                continue;
+            }
+
+            Difficulty difficulty = targets[i].getDifficulty();
+            if (!isPackable(difficulty, targets[i].getAnswer())) {
+                feedbacks[i] = Feedback.create(targets[i].getAnswer(), request.guess());
+                continue;
+            }
+            int size = groupSizes.merge(difficulty, 1, Integer::sum);
+            int[] group = groups.computeIfAbsent(difficulty, d -> new int[Math.min(count, 64)]);
+            if (size > group.length) {
+                groups.put(difficulty, group = Arrays.copyOf(group, Math.min(count, group.length * 2)));
+            }
+            group[size - 1] = i;
+        }
+
+        groups.forEach((difficulty, group) -> scoreGroup(difficulty, group, groupSizes.get(difficulty),
+                requests, targets, feedbacks));
+
+        for (int i = 0; i < count; i++) {
+            if (results[i] == null) {
+                results[i] = apply(requests.get(i), feedbacks[i]);
+            }
+        }
+        return List.of(results);
+    }
+
+    /**
+     * The game's guesses and feedback so far.
+     *
+     * @throws NoSuchElementException if there is no game with this id
+     */
+    public List<History> history(long gameId) {
+        return games.apply(gameId, Game::getHistory);
+    }
+
+    /**
+     * Reveals one digit of the answer, or empty when no hints are left.
+     *
+     * @throws NoSuchElementException if there is no game with this id
+     */
+    public Optional<String> hint(long gameId) {
+        return games.apply(gameId, Game::getHint);
+    }
+
+    /**
+     * Ends the session: records the exit and forgets the game. Does nothing for unknown ids.
+     */
+    public void end(long gameId) {
+        games.remove(gameId).ifPresent(Game::exit);
+    }
+
+    /**
+     * Removes a game to hand it to another host, without recording an exit. The listener is
+     * told the game was released, so it stops tracking it.
+     *
+     * @return the game's {@link GameSnapshotCodec} snapshot, or empty if there is no such game
+     */
+    public Optional<byte[]> exportGame(long gameId) {
+        return games.remove(gameId).map(game -> {
+            byte[] snapshot = GameSnapshotCodec.encode(game);
+            events.onRelease(game);
+            return snapshot;
+        });
+    }
+
+    /**
+     * Hosts a game exported by another host. The game carries the factory's listener from here
+     * on. A game already hosted under the same id is kept and the snapshot refused, so a
+     * snapshot delivered twice cannot roll a game back.
+     *
+     * @param snapshot a snapshot from {@link #exportGame}
+     * @return the imported game
+     * @throws IllegalArgumentException if the snapshot is malformed
+     * @throws IllegalStateException if a game with the same id is already hosted
+     */
+    public Game importGame(byte[] snapshot) {
+        Game game = GameSnapshotCodec.decode(snapshot);
+        game.setListener(events);
+        if (!games.putIfAbsent(game)) {
+            throw new IllegalStateException("Game " + game.getId() + " is already hosted");
+        }
+        // Under the game's lock, so no guess can be recorded ahead of the adopted state
+        games.apply(game.getId(), hosted -> {
+            events.onAdopt(hosted);
+            return hosted;
+        });
+        return game;
+    }
+
+    /**
+     * Hosts games the factory's listener already tracks, e.g. those a store recovered after a
+     * restart. They carry the factory's listener from here on, through the live events.
+     */
+    public void resume(Collection<Game> recovered) {
+        for (Game game : recovered) {
+            game.setListener(events);
+            games.put(game);
+        }
+    }
+
+    /**
+     * Whether a game with this id is hosted here. Does not count as a use of the game.
+     */
+    public boolean isHosted(long gameId) {
+        return games.contains(gameId);
+    }
+
+    /**
+     * Subscribes to the live events of a game. Close the subscription when done.
+     *
+     * @throws NoSuchElementException if there is no game with this id
+     */
+    public GameEventHub.Subscription watch(long gameId) {
+        find(gameId);
+        return events.subscribe(gameId);
+    }
+
+    /**
+     * The ids of every hosted game, in no particular order.
+     */
+    public long[] gameIds() {
+        return games.ids();
+    }
+
+    /**
+     * The game with this id, for reading. Read it again after a change, since the registry
+     * may have replaced the instance in between.
+     *
+     * @throws NoSuchElementException if there is no game with this id
+     */
+    public Game find(long gameId) {
+        return games.find(gameId).orElseThrow(() -> new NoSuchElementException("No game with id " + gameId));
+    }
+
+    /**
+     * Number of hosted games, finished or not.
+     */
+    public int getSessionCount() {
+        return games.size();
+    }
+
+    private static void scoreGroup(Difficulty difficulty, int[] group, int size, List<GuessRequest> requests,
+                                   Game[] targets, Feedback[] feedbacks) {
+        long[] answerCodes = new long[size];
+        long[] guessCodes = new long[size];
+        for (int j = 0; j < size; j++) {
+            answerCodes[j] = targets[group[j]].getAnswer().toCode();
+            guessCodes[j] = requests.get(group[j]).guess().toCode();
+        }
+
+        int combinationSize = difficulty.getCombinationSize();
+        int base = difficulty.getMaxRange() + 1;
+        byte[] scores = new byte[size];
+        for (int j = 0; j < size; j++) {
+            scores[j] = Feedback.scoreCodes(answerCodes[j], guessCodes[j], combinationSize, base);
+        }
+
+        for (int j = 0; j < size; j++) {
+            feedbacks[group[j]] = Feedback.fromByte(scores[j], combinationSize);
+        }
+    }
+
+    // Whether the answer has its difficulty's shape and that shape fits Feedback.scoreCodes
+    private static boolean isPackable(Difficulty difficulty, NumCombination answer) {
+        return difficulty != null
+                && difficulty.getCombinationSize() <= Feedback.MAX_PACKED_SIZE
+                && difficulty.getMaxRange() < 16
+                && answer.getExpectedSize() == difficulty.getCombinationSize()
+                && answer.getMinNum() == 0
+                && answer.getMaxNum() == difficulty.getMaxRange();
+    }
+
+    private GuessResult apply(GuessRequest request, Feedback feedback) {
+        try {
+            return games.apply(request.gameId(), game -> {
+                game.playerGuess(request.guess(), feedback);
+                return new GuessResult(feedback, game.getStatus(), game.getRemainingAttempts(), null);
+            });
+        } catch (IllegalStateException | NoSuchElementException e) {
+            // The game finished or ended since it was resolved
+            return GuessResult.failed(e.getMessage());
+        }
+    }
+
+    private static void checkShape(Game game, NumCombination guess) {
+        if (guess == null) {
+            throw new IllegalArgumentException("Guess is missing");
+        }
+        NumCombination answer = game.getAnswer();
+        if (guess.getExpectedSize() != answer.getExpectedSize()
+                || guess.getMinNum() != answer.getMinNum()
+                || guess.getMaxNum() != answer.getMaxNum()) {
+            throw new IllegalArgumentException("Guess must be " + answer.getExpectedSize() + " numbers between "
+                    + answer.getMinNum() + " and " + answer.getMaxNum());
+        }
+    }
+
+    /**
+     * One guess of a {@link #guessAll} batch.
+     *
+     * @param gameId the game to play
+     * @param guess the guess, shaped for the game's difficulty
+     */
+    public record GuessRequest(long gameId, NumCombination guess) {
+    }
+
+    /**
+     * The outcome of a guess {@linkplain #play played} alone or in a {@link #guessAll} batch:
+     * either the feedback and the game's state right after the guess, or why the guess was not
+     * applied.
+     *
+     * @param feedback the guess's feedback, null if it failed
+     * @param status the game's status after the guess, null if it failed
+     * @param remainingAttempts the attempts left after the guess
+     * @param error why the guess was not applied, null if it succeeded
+     */
+    public record GuessResult(Feedback feedback, Status status, int remainingAttempts, String error) {
+
+        static GuessResult failed(String error) {
+            return new GuessResult(null, null, 0, error);
+        }
+
+        public boolean isApplied() {
+            return error == null;
+        }
+    }
+}
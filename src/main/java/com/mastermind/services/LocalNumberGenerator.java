@@ -0,0 +1,118 @@
+package com.mastermind.services;
+
+import com.mastermind.models.NumCombination;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Local pseudo-random number generator backed by a seedable {@link RandomGenerator.SplittableGenerator}.
+ *
+ * <p>Every instance remembers the seed it was created from, so a run can be replayed exactly,
+ * and so do the generators split off from it.
+ * {@link #forGame(long)} derives an independent, reproducible stream per game ID and
+ * {@link #split()} hands out independent generators for other threads, so simulations never
+ * share (and contend on) a single generator.
+ *
+ * <p>Instances are safe to share, but the intended use is one generator per thread.
+ */
+public class LocalNumberGenerator implements NumberGenerator {
+    private static final String ALGORITHM = "L64X128MixRandom";
+
+    private final long seed;
+    private final RandomGenerator.SplittableGenerator random;
+
+    public LocalNumberGenerator() {
+        this(RandomGenerator.getDefault().nextLong());
+    }
+
+    public LocalNumberGenerator(long seed) {
+        this(seed, RandomGeneratorFactory.<RandomGenerator.SplittableGenerator>of(ALGORITHM).create(seed));
+    }
+
+    private LocalNumberGenerator(long seed, RandomGenerator.SplittableGenerator random) {
+        this.seed = seed;
+        this.random = random;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns a generator whose stream depends only on this generator's seed and the game ID,
+     * so any single game can be replayed from {@code (seed, gameId)}.
+     *
+     * @param gameId the identifier of the game to generate for
+     * @return a new generator dedicated to that game
+     */
+    public LocalNumberGenerator forGame(long gameId) {
+        return new LocalNumberGenerator(mix(seed + gameId * 0x9E3779B97F4A7C15L));
+    }
+
+    /**
+     * Splits off an independent generator, e.g. one per simulation thread. The child is seeded
+     * from this generator's stream and reports that seed, so it can be replayed on its own.
+     *
+     * @return a new generator that shares no state with this one
+     */
+    public synchronized LocalNumberGenerator split() {
+        return new LocalNumberGenerator(random.nextLong());
+    }
+
+    @Override
+    public synchronized NumCombination generateNumbers(int size, int maxRange) {
+        return generate(random, size, maxRange);
+    }
+
+    /**
+     * Fills one primitive array with {@code count * size} values, then slices it into combinations.
+     */
+    @Override
+    public List<NumCombination> generateBatch(int count, int size, int maxRange) {
+        int[] values = new int[count * size];
+        synchronized (this) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = random.nextInt(maxRange + 1);
+            }
+        }
+        return toCombinations(values, count, size, maxRange);
+    }
+
+    /**
+     * Slices {@code count} consecutive runs of {@code size} values into combinations.
+     */
+    static List<NumCombination> toCombinations(int[] values, int count, int size, int maxRange) {
+        List<NumCombination> combinations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<Integer> numbers = new ArrayList<>(size);
+            for (int j = 0; j < size; j++) {
+                numbers.add(values[i * size + j]);
+            }
+            combinations.add(new NumCombination(numbers, size, 0, maxRange));
+        }
+        return combinations;
+    }
+
+    /**
+     * Draws a combination from any {@link RandomGenerator}, e.g. a {@link java.security.SecureRandom}.
+     */
+    static NumCombination generate(RandomGenerator random, int size, int maxRange) {
+        List<Integer> numbers = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            numbers.add(random.nextInt(maxRange + 1));
+        }
+
+        return new NumCombination(numbers, size, 0, maxRange);
+    }
+
+    // Stafford variant 13 of the SplitMix64 finalizer, spreads nearby game IDs across the seed space
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
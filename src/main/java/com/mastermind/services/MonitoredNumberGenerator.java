@@ -0,0 +1,38 @@
+package com.mastermind.services;
+
+import com.mastermind.models.NumCombination;
+
+import java.util.List;
+
+/**
+ * Decorator that feeds every generated secret to a {@link SecretHealthMonitor}.
+ */
+public class MonitoredNumberGenerator implements NumberGenerator {
+    private final NumberGenerator delegate;
+    private final SecretHealthMonitor monitor;
+
+    public MonitoredNumberGenerator(NumberGenerator delegate, SecretHealthMonitor monitor) {
+        this.delegate = delegate;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public NumCombination generateNumbers(int size, int maxRange) {
+        NumCombination secret = delegate.generateNumbers(size, maxRange);
+        monitor.record(secret);
+        return secret;
+    }
+
+    @Override
+    public List<NumCombination> generateBatch(int count, int size, int maxRange) {
+        List<NumCombination> batch = delegate.generateBatch(count, size, maxRange);
+        for (NumCombination secret : batch) {
+            monitor.record(secret);
+        }
+        return batch;
+    }
+
+    public SecretHealthMonitor getMonitor() {
+        return monitor;
+    }
+}
@@ -1,7 +1,11 @@
 package com.mastermind.services;
 
+import com.mastermind.config.GameConfig;
 import com.mastermind.models.NumCombination;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Interface for generating random number combinations for Mastermind games.
  * Implementations may use external APIs, local generation, or hybrid approaches.
@@ -13,7 +17,9 @@ public interface NumberGenerator {
      * 
      * @return A valid NumCombination suitable for the game
      */
-    NumCombination generateNumbers();
+    default NumCombination generateNumbers() {
+        return generateNumbers(GameConfig.DEFAULT_ANSWER_SIZE, GameConfig.DEFAULT_MAX_VALUE);
+    }
 
     /**
      * Generates a NumCombination with specified size and range constraints.
@@ -23,4 +29,21 @@ public interface NumberGenerator {
      * @return a valid NumCombination with the specified constraints
      */
     NumCombination generateNumbers(int size, int maxRange);
+
+    /**
+     * Generates {@code count} combinations with the same size and range constraints.
+     * Implementations should override this to amortize per-call costs such as network requests.
+     *
+     * @param count the number of combinations to generate
+     * @param size the number of digits in each combination
+     * @param maxRange the maximum value (inclusive) for each digit
+     * @return {@code count} valid combinations
+     */
+    default List<NumCombination> generateBatch(int count, int size, int maxRange) {
+        List<NumCombination> combinations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            combinations.add(generateNumbers(size, maxRange));
+        }
+        return combinations;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,175 @@
+package com.mastermind.services;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket limiter for Random.org's per-IP bit quota.
+ *
+ * <p>Each integer request costs {@link #bitsFor(int, int)} tokens. The bucket refills at a fixed
+ * rate up to its capacity, so bursts are absorbed while the long-run spend stays within quota.
+ * Callers that cannot acquire enough bits should skip the remote call entirely instead of
+ * waiting for Random.org to reject it.
+ *
+ * <p>The bucket can optionally be re-synced against the server's quota endpoint, which corrects
+ * drift caused by other clients sharing the same IP.
+ */
+public class QuotaRateLimiter implements AutoCloseable {
+    /** Random.org's daily allowance for a fresh IP. */
+    public static final long DEFAULT_CAPACITY_BITS = 1_000_000L;
+    /** Random.org tops up 200,000 bits per day. */
+    public static final long DEFAULT_REFILL_BITS = 200_000L;
+
+    private final long capacityBits;
+    private final double refillBitsPerNano;
+    private final LongSupplier nanoClock;
+    private final AtomicLong rejectedRequests = new AtomicLong();
+
+    private double tokens;
+    private long lastRefillNanos;
+    private ScheduledExecutorService syncExecutor;
+
+    public QuotaRateLimiter() {
+        this(DEFAULT_CAPACITY_BITS, DEFAULT_REFILL_BITS, Duration.ofDays(1));
+    }
+
+    /**
+     * @param capacityBits the bucket size, i.e. the largest burst allowed
+     * @param refillBits the number of bits restored every {@code refillPeriod}
+     * @param refillPeriod the period over which {@code refillBits} are restored
+     */
+    public QuotaRateLimiter(long capacityBits, long refillBits, Duration refillPeriod) {
+        this(capacityBits, refillBits, refillPeriod, System::nanoTime);
+    }
+
+    QuotaRateLimiter(long capacityBits, long refillBits, Duration refillPeriod, LongSupplier nanoClock) {
+        if (capacityBits <= 0 || refillBits < 0 || refillPeriod.isNegative() || refillPeriod.isZero()) {
+            throw new IllegalArgumentException("Capacity and refill period must be positive, refill bits non-negative");
+        }
+
+        this.capacityBits = capacityBits;
+        this.refillBitsPerNano = (double) refillBits / refillPeriod.toNanos();
+        this.nanoClock = nanoClock;
+        this.tokens = capacityBits;
+        this.lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Returns a limiter that never rejects, for setups without a quota to protect.
+     */
+    public static QuotaRateLimiter unlimited() {
+        return new QuotaRateLimiter(Long.MAX_VALUE, 0, Duration.ofDays(1)) {
+            @Override
+            public boolean tryAcquire(long bits) {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Bits Random.org charges for {@code size} integers in the range {@code 0-max}.
+     */
+    public static long bitsFor(int size, int max) {
+        int bitsPerValue = 32 - Integer.numberOfLeadingZeros(max);
+        return (long) size * bitsPerValue;
+    }
+
+    public boolean tryAcquire(int size, int max) {
+        return tryAcquire(bitsFor(size, max));
+    }
+
+    /**
+     * Takes {@code bits} tokens if the bucket holds enough of them.
+     *
+     * @param bits the number of bits the request will consume
+     * @return true if the request fits the budget, false if it should be served locally
+     */
+    public synchronized boolean tryAcquire(long bits) {
+        refill();
+
+        if (tokens < bits) {
+            rejectedRequests.incrementAndGet();
+            return false;
+        }
+
+        tokens -= bits;
+        return true;
+    }
+
+    /**
+     * Remaining budget in bits, exposed as a metric.
+     */
+    public synchronized long getRemainingBits() {
+        refill();
+        return (long) tokens;
+    }
+
+    public long getRejectedRequests() {
+        return rejectedRequests.get();
+    }
+
+    /**
+     * Aligns the bucket with the server's view of the quota, never above capacity.
+     *
+     * @param serverBits the remaining bits reported by the quota endpoint
+     */
+    public synchronized void syncWith(long serverBits) {
+        refill();
+        tokens = Math.max(0, Math.min(capacityBits, serverBits));
+    }
+
+    /**
+     * Fetches the quota once from {@code apiClient} and syncs the bucket with it.
+     *
+     * @return the remaining bits after syncing
+     * @throws RandomNumberApiException if the quota endpoint cannot be reached
+     */
+    public long syncWith(RandomNumberApiClient apiClient) throws RandomNumberApiException {
+        syncWith(apiClient.getQuota());
+        return getRemainingBits();
+    }
+
+    /**
+     * Periodically re-syncs against the quota endpoint on a background daemon thread.
+     * Failed syncs are ignored and the local bucket keeps running.
+     *
+     * @param apiClient the client used to query the quota endpoint
+     * @param interval the delay between syncs
+     */
+    public synchronized void startQuotaSync(RandomNumberApiClient apiClient, Duration interval) {
+        if (syncExecutor != null) {
+            throw new IllegalStateException("Quota sync already started");
+        }
+
+        syncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "random-org-quota-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                syncWith(apiClient);
+            } catch (RandomNumberApiException e) {
+                // Keep the local estimate until the endpoint is reachable again
+            }
+        }, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (syncExecutor != null) {
+            syncExecutor.shutdownNow();
+            syncExecutor = null;
+        }
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacityBits, tokens + (now - lastRefillNanos) * refillBitsPerNano);
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,151 @@
+package com.mastermind.services;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * Parses a Random.org plain-text integer list straight out of the response {@link ByteBuffer}s.
+ *
+ * <p>Digits are accumulated byte by byte into a caller-supplied {@code int[]} slice, so a bulk
+ * response never materializes as a {@code String} or a boxed list. Values are range-checked as
+ * soon as they are complete, and the body fails with a {@link RandomNumberApiException} on the
+ * first malformed byte, out-of-range value, or count mismatch.
+ */
+final class RandomIntegersBodySubscriber implements HttpResponse.BodySubscriber<int[]> {
+    private final CompletableFuture<int[]> result = new CompletableFuture<>();
+    private final int[] target;
+    private final int offset;
+    private final int count;
+    private final int min;
+    private final int max;
+    private final long magnitudeLimit;
+
+    private Flow.Subscription subscription;
+    private int parsed;
+    private long magnitude;
+    private boolean inNumber;
+    private boolean negative;
+
+    /**
+     * @param target the array that receives the parsed values
+     * @param offset the index in {@code target} of the first value
+     * @param count the exact number of values the body must contain
+     * @param min the minimum allowed value (inclusive)
+     * @param max the maximum allowed value (inclusive)
+     */
+    RandomIntegersBodySubscriber(int[] target, int offset, int count, int min, int max) {
+        if (offset < 0 || count < 0 || offset + count > target.length) {
+            throw new IllegalArgumentException("Slice [" + offset + ", " + (offset + count) + ") does not fit target of length " + target.length);
+        }
+
+        this.target = target;
+        this.offset = offset;
+        this.count = count;
+        this.min = min;
+        this.max = max;
+        this.magnitudeLimit = Math.max(Math.abs((long) min), Math.abs((long) max));
+    }
+
+    @Override
+    public CompletionStage<int[]> getBody() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> items) {
+        for (ByteBuffer buffer : items) {
+            if (result.isDone()) {
+                return;
+            }
+
+            int limit = buffer.limit();
+            for (int i = buffer.position(); i < limit && !result.isDone(); i++) {
+                accept(buffer.get(i));
+            }
+            buffer.position(limit);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if (result.isDone()) {
+            return;
+        }
+
+        endNumber();
+        if (result.isDone()) {
+            return;
+        }
+
+        if (parsed != count) {
+            fail("Expected " + count + " integers from Random.org API, got " + parsed);
+            return;
+        }
+
+        result.complete(target);
+    }
+
+    private void accept(byte b) {
+        if (b >= '0' && b <= '9') {
+            if (!inNumber) {
+                if (parsed == count) {
+                    fail("Expected " + count + " integers from Random.org API, got more");
+                    return;
+                }
+                inNumber = true;
+            }
+
+            magnitude = magnitude * 10 + (b - '0');
+            if (magnitude > magnitudeLimit) {
+                fail("Number " + (negative ? "-" : "") + magnitude + "... must be between " + min + "-" + max);
+            }
+        } else if (b == '\n' || b == '\r' || b == ' ' || b == '\t') {
+            endNumber();
+        } else if (b == '-' && !inNumber && !negative) {
+            negative = true;
+        } else {
+            fail("Invalid number format in Random.org API response at byte '" + (char) (b & 0xFF) + "'");
+        }
+    }
+
+    private void endNumber() {
+        if (!inNumber) {
+            if (negative) {
+                fail("Invalid number format in Random.org API response: dangling '-'");
+            }
+            return;
+        }
+
+        long value = negative ? -magnitude : magnitude;
+        if (value < min || value > max) {
+            fail("Number " + value + " must be between " + min + "-" + max);
+            return;
+        }
+
+        target[offset + parsed++] = (int) value;
+        magnitude = 0;
+        inNumber = false;
+        negative = false;
+    }
+
+    private void fail(String message) {
+        if (result.completeExceptionally(new RandomNumberApiException(message)) && subscription != null) {
+            subscription.cancel();
+        }
+    }
+}
@@ -8,22 +8,42 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Pattern;
 
 public class RandomNumberApiClient {
-    private static final String INTEGER_GEN_URI = "https://www.random.org/integers/?num=%d&min=0&max=%d&col=1&base=10&format=plain&rnd=new";
+    public static final URI DEFAULT_BASE_URI = URI.create("https://www.random.org/");
+    private static final String INTEGER_GEN_PATH = "integers/?num=%d&min=0&max=%d&col=1&base=10&format=plain&rnd=new";
+    private static final String QUOTA_PATH = "quota/?format=plain";
+    /** Random.org caps a single integer request at 10,000 values. */
+    static final int MAX_INTEGERS_PER_REQUEST = 10_000;
 
     private final HttpClient client;
+    private final URI baseUri;
 
     public RandomNumberApiClient() {
-        this.client = HttpClient.newHttpClient();
+        this(DEFAULT_BASE_URI);
+    }
+
+    /**
+     * Creates a client against a Random.org compatible server, e.g. a local stand-in for testing.
+     *
+     * @param baseUri the server root; {@code integers/} is resolved against it
+     */
+    public RandomNumberApiClient(URI baseUri) {
+        this(HttpClient.newHttpClient(), baseUri);
     }
 
     RandomNumberApiClient(HttpClient client) {
+        this(client, DEFAULT_BASE_URI);
+    }
+
+    RandomNumberApiClient(HttpClient client, URI baseUri) {
         this.client = client;
+        this.baseUri = baseUri;
     }
 
     public NumCombination getRandomNums() throws RandomNumberApiException {
@@ -31,10 +51,77 @@ public class RandomNumberApiClient {
     }
 
     public NumCombination getRandomNums(int size, int max) throws RandomNumberApiException {
-        String formattedString = INTEGER_GEN_URI.formatted(size, max);
+        HttpRequest request = buildIntegerRequest(size, max);
+
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+            // Check HTTP status code first
+            if (response.statusCode() == 200) {
+                // Success - parse the numbers with constraints
+                return parseSuccessResponse(response.body(), size, max);
+            }
+
+            throw errorFor(response.statusCode(), response.body());
+
+        } catch (IOException | InterruptedException e) {
+            throw new RandomNumberApiException("Network error while contacting Random.org API", e);
+        }
+    }
+
+    /**
+     * Fetches {@code count} integers in the range {@code 0-max} for bulk use.
+     *
+     * <p>Responses are parsed incrementally by {@link RandomIntegersBodySubscriber} directly into
+     * the returned array. Counts above {@link #MAX_INTEGERS_PER_REQUEST} are split into several
+     * requests that fill consecutive slices of the same array.
+     *
+     * @param count the number of integers to fetch
+     * @param max the maximum value (inclusive)
+     * @return the fetched integers
+     * @throws RandomNumberApiException if any request fails or returns a malformed body
+     */
+    public int[] getRandomIntegers(int count, int max) throws RandomNumberApiException {
+        int[] values = new int[count];
+
+        for (int offset = 0; offset < count; offset += MAX_INTEGERS_PER_REQUEST) {
+            int chunk = Math.min(MAX_INTEGERS_PER_REQUEST, count - offset);
+            fetchInto(values, offset, chunk, max);
+        }
+
+        return values;
+    }
+
+    private void fetchInto(int[] values, int offset, int chunk, int max) {
+        HttpResponse.BodyHandler<int[]> handler = responseInfo -> responseInfo.statusCode() == 200
+                ? new RandomIntegersBodySubscriber(values, offset, chunk, 0, max)
+                : HttpResponse.BodySubscribers.mapping(
+                        HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8),
+                        body -> { throw errorFor(responseInfo.statusCode(), body); });
+
+        try {
+            client.send(buildIntegerRequest(chunk, max), handler);
+        } catch (IOException e) {
+            // Body subscriber failures arrive wrapped in an IOException
+            if (e.getCause() instanceof RandomNumberApiException apiException) {
+                throw apiException;
+            }
+            throw new RandomNumberApiException("Network error while contacting Random.org API", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RandomNumberApiException("Network error while contacting Random.org API", e);
+        }
+    }
 
+    /**
+     * Queries the remaining bit quota for this client's IP.
+     *
+     * @return the remaining bits, negative once the quota is overdrawn
+     * @throws RandomNumberApiException if the quota endpoint fails or returns a malformed body
+     */
+    public long getQuota() throws RandomNumberApiException {
         HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(formattedString))
+                .uri(baseUri.resolve(QUOTA_PATH))
                 .GET()
                 .timeout(Duration.ofSeconds(10))
                 .build();
@@ -42,23 +129,39 @@ public class RandomNumberApiClient {
         try {
             HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
 
-            // Check HTTP status code first
             if (response.statusCode() == 200) {
-                // Success - parse the numbers with constraints
-                return parseSuccessResponse(response.body(), size, max);
-            } else if (response.statusCode() == 503) {
-                // Service unavailable - handle error response
-                throw new RandomNumberApiException("Random.org API error: " + extractErrorMessage(response.body()));
-            } else {
-                // Other HTTP status codes
-                throw new RandomNumberApiException("Unexpected HTTP status: " + response.statusCode() + " - " + response.body());
+                return Long.parseLong(response.body().trim());
             }
 
+            throw errorFor(response.statusCode(), response.body());
+
+        } catch (NumberFormatException e) {
+            throw new RandomNumberApiException("Malformed quota response from Random.org API", e);
         } catch (IOException | InterruptedException e) {
             throw new RandomNumberApiException("Network error while contacting Random.org API", e);
         }
     }
 
+    private HttpRequest buildIntegerRequest(int size, int max) {
+        String formattedString = INTEGER_GEN_PATH.formatted(size, max);
+
+        return HttpRequest.newBuilder()
+                .uri(baseUri.resolve(formattedString))
+                .GET()
+                .timeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    private RandomNumberApiException errorFor(int statusCode, String responseBody) {
+        if (statusCode == 503) {
+            // Service unavailable - handle error response
+            return new RandomNumberApiException("Random.org API error: " + extractErrorMessage(responseBody));
+        }
+
+        // Other HTTP status codes
+        return new RandomNumberApiException("Unexpected HTTP status: " + statusCode + " - " + responseBody);
+    }
+
     private NumCombination parseSuccessResponse(String responseBody, int size, int max) {
         // Split body on every new line (Ref: https://www.random.org/clients/http/api/)
         String[] lines = responseBody
@@ -3,19 +3,94 @@ package com.mastermind.services;
 import com.mastermind.config.GameConfig;
 import com.mastermind.models.NumCombination;
 
-import java.util.ArrayList;
+import java.time.Duration;
 import java.util.List;
-import java.util.Random;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Resilient number generator that attempts to use an external API with fallback to local generation.
  * Implements retry logic with exponential backoff for transient failures.
  */
 public class RandomNumberGenerator implements NumberGenerator {
+    private static final int DEFAULT_MAX_ATTEMPTS = 3; // Original + 2 retries
+    private static final Duration DEFAULT_RETRY_DELAY = Duration.ofSeconds(1);
+
     private final RandomNumberApiClient apiClient;
+    private final NumberGenerator localGenerator;
+    private final int maxAttempts;
+    private final long delayMs;
+    private final QuotaRateLimiter rateLimiter;
+    private final EntropyReserve entropyReserve;
     
     public RandomNumberGenerator(RandomNumberApiClient apiClient) {
+        this(apiClient, new LocalNumberGenerator());
+    }
+
+    /**
+     * Creates a generator with an explicit local fallback, e.g. a seeded {@link LocalNumberGenerator}
+     * so fallback secrets can be reproduced.
+     *
+     * @param apiClient the client used for remote generation
+     * @param localGenerator the generator used when the API is unavailable
+     */
+    public RandomNumberGenerator(RandomNumberApiClient apiClient, NumberGenerator localGenerator) {
+        this(apiClient, localGenerator, DEFAULT_MAX_ATTEMPTS, DEFAULT_RETRY_DELAY);
+    }
+
+    /**
+     * Creates a generator with an explicit retry policy, e.g. short delays for offline load tests.
+     * API calls are budgeted by a {@link QuotaRateLimiter} sized to Random.org's default quota.
+     *
+     * @param apiClient the client used for remote generation
+     * @param localGenerator the generator used when the API is unavailable
+     * @param maxAttempts total API attempts before falling back, at least 1
+     * @param retryDelay base delay, multiplied by the attempt number between retries
+     */
+    public RandomNumberGenerator(RandomNumberApiClient apiClient, NumberGenerator localGenerator,
+                                 int maxAttempts, Duration retryDelay) {
+        this(apiClient, localGenerator, maxAttempts, retryDelay, new QuotaRateLimiter());
+    }
+
+    /**
+     * Creates a generator whose API calls are budgeted by a {@link QuotaRateLimiter}.
+     * Attempts that do not fit the remaining bit budget go straight to local generation.
+     *
+     * @param apiClient the client used for remote generation
+     * @param localGenerator the generator used when the API is unavailable or over budget
+     * @param maxAttempts total API attempts before falling back, at least 1
+     * @param retryDelay base delay, multiplied by the attempt number between retries
+     * @param rateLimiter the bit budget in front of {@code apiClient}
+     */
+    public RandomNumberGenerator(RandomNumberApiClient apiClient, NumberGenerator localGenerator,
+                                 int maxAttempts, Duration retryDelay, QuotaRateLimiter rateLimiter) {
+        this(apiClient, localGenerator, maxAttempts, retryDelay, rateLimiter, null);
+    }
+
+    /**
+     * Creates a generator that draws from a persistent {@link EntropyReserve} before calling the API,
+     * so secrets stay truly random without a network round trip, even while offline.
+     *
+     * @param apiClient the client used for remote generation
+     * @param localGenerator the generator used when the API is unavailable or over budget
+     * @param maxAttempts total API attempts before falling back, at least 1
+     * @param retryDelay base delay, multiplied by the attempt number between retries
+     * @param rateLimiter the bit budget in front of {@code apiClient}
+     * @param entropyReserve the reserve drawn from first, or null to always call the API
+     */
+    public RandomNumberGenerator(RandomNumberApiClient apiClient, NumberGenerator localGenerator,
+                                 int maxAttempts, Duration retryDelay, QuotaRateLimiter rateLimiter,
+                                 EntropyReserve entropyReserve) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+
         this.apiClient = apiClient;
+        this.localGenerator = localGenerator;
+        this.maxAttempts = maxAttempts;
+        this.delayMs = retryDelay.toMillis();
+        this.rateLimiter = rateLimiter;
+        this.entropyReserve = entropyReserve;
     }
     
     @Override
@@ -25,26 +100,55 @@ public class RandomNumberGenerator implements NumberGenerator {
 
     @Override
     public NumCombination generateNumbers(int combinationSize, int maxRange) {
-        int maxAttempts = 3; // Original + 2 retries
-        int delayMs = 1000; // 1-second base delay
+        if (entropyReserve != null) {
+            Optional<NumCombination> reserved = entropyReserve.take(combinationSize, maxRange);
+            if (reserved.isPresent()) {
+                return reserved.get();
+            }
+        }
+
+        return withRetries(QuotaRateLimiter.bitsFor(combinationSize, maxRange),
+                () -> apiClient.getRandomNums(combinationSize, maxRange),
+                () -> generateLocalRandomNumbers(combinationSize, maxRange));
+    }
+
+    /**
+     * Generates {@code count} combinations with a single Random.org request (split only above the
+     * API's per-request limit), falling back to one local batch on failure.
+     *
+     * <p>Batches bypass the entropy reserve so bulk creation cannot drain it.
+     */
+    @Override
+    public List<NumCombination> generateBatch(int count, int combinationSize, int maxRange) {
+        return withRetries(QuotaRateLimiter.bitsFor(count * combinationSize, maxRange),
+                () -> LocalNumberGenerator.toCombinations(
+                        apiClient.getRandomIntegers(count * combinationSize, maxRange), count, combinationSize, maxRange),
+                () -> localGenerator.generateBatch(count, combinationSize, maxRange));
+    }
 
+    private <T> T withRetries(long bits, Supplier<T> remote, Supplier<T> local) {
         for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            if (!rateLimiter.tryAcquire(bits)) {
+                // Over the Random.org bit budget, a remote call would only fail slowly
+                return local.get();
+            }
+
             try {
-                return apiClient.getRandomNums(combinationSize, maxRange);
+                return remote.get();
             } catch (RandomNumberApiException e) {
                 if (attempt == maxAttempts) {
                     // All attempts failed, fall back to local random
                     System.out.println("API failed after " + maxAttempts + " attempts, using local random generation");
-                    return generateLocalRandomNumbers(combinationSize, maxRange);
+                    return local.get();
                 }
 
                 // Wait before retry with exponential backoff
                 try {
-                    Thread.sleep(delayMs * attempt); // 1s, 2s delays
+                    Thread.sleep(delayMs * attempt); // 1s, 2s delays by default
                 } catch (InterruptedException ie) {
                     Thread.currentThread().interrupt();
                     // If interrupted, fall back immediately
-                    return generateLocalRandomNumbers(combinationSize, maxRange);
+                    return local.get();
                 }
 
                 System.out.println("API attempt " + attempt + " failed, retrying...");
@@ -52,18 +156,10 @@ public class RandomNumberGenerator implements NumberGenerator {
         }
 
         // This should never be reached, but fallback just in case
-        return generateLocalRandomNumbers(combinationSize, maxRange);
+        return local.get();
     }
     
     private NumCombination generateLocalRandomNumbers(int size, int maxValue) {
-        
-        Random random = new Random();
-        List<Integer> numbers = new ArrayList<>();
-        
-        for (int i = 0; i < size; i++) {
-            numbers.add(random.nextInt(maxValue + 1));
-        }
-        
-        return new NumCombination(numbers, size, 0, maxValue);
+        return localGenerator.generateNumbers(size, maxValue);
     }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.mastermind.services;
+
+/**
+ * Strength of a random number source, ordered from weakest to strongest.
+ */
+public enum RandomnessClass {
+    /** Seeded pseudo-random generator, reproducible but predictable */
+    PSEUDO_RANDOM,
+
+    /** Cryptographically secure generator, e.g. {@code SecureRandom} or {@code /dev/urandom} */
+    CRYPTOGRAPHIC,
+
+    /** Physical entropy source, e.g. Random.org's atmospheric noise */
+    TRUE_RANDOM;
+
+    /**
+     * Returns true if this class is at least as strong as {@code required}.
+     */
+    public boolean satisfies(RandomnessClass required) {
+        return this.compareTo(required) >= 0;
+    }
+}
@@ -0,0 +1,179 @@
+package com.mastermind.services;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scalable Bloom filter over 64-bit keys.
+ *
+ * <p>The filter is a list of stages. When the newest stage reaches its capacity a new stage with
+ * {@value #GROWTH_FACTOR} times the capacity is added, so the number of stages grows only
+ * logarithmically: starting at a million keys, four stages hold 85 million.
+ *
+ * <p>Each stage is a blocked filter: all {@value #BITS_PER_KEY} bits of a key fall into a single
+ * 64-bit word, so a lookup costs one memory access per stage regardless of how many keys have
+ * been added. The key is mixed once and the word index and bit positions are all taken from
+ * that one hash.
+ *
+ * <p>Like any Bloom filter it may report a key that was never added, at roughly 0.03% per stage,
+ * but never misses one that was.
+ */
+public class ScalableBloomFilter {
+    static final int DEFAULT_INITIAL_CAPACITY = 1 << 20;
+
+    private static final int GROWTH_FACTOR = 4;
+    private static final int BITS_PER_KEY = 6;
+    /** Words per key in a stage, i.e. 32 bits per key at full capacity. */
+    private static final double WORDS_PER_KEY = 0.5;
+
+    private final List<Stage> stages = new ArrayList<>();
+
+    public ScalableBloomFilter() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity the number of keys the first stage holds before a new stage is added
+     */
+    public ScalableBloomFilter(long initialCapacity) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("Initial capacity must be positive, got " + initialCapacity);
+        }
+        stages.add(new Stage(initialCapacity));
+    }
+
+    private ScalableBloomFilter(List<Stage> stages) {
+        this.stages.addAll(stages);
+    }
+
+    /**
+     * Returns true if {@code key} may have been added, false if it definitely has not.
+     */
+    public boolean mightContain(long key) {
+        long hash = mix(key);
+        for (Stage stage : stages) {
+            if (stage.contains(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds {@code key} to the newest stage, growing the filter if that stage is full.
+     */
+    public void add(long key) {
+        Stage current = stages.get(stages.size() - 1);
+        if (current.count >= current.capacity) {
+            current = new Stage(current.capacity * GROWTH_FACTOR);
+            stages.add(current);
+        }
+        current.add(mix(key));
+    }
+
+    /**
+     * Total number of keys added.
+     */
+    public long size() {
+        return stages.stream().mapToLong(stage -> stage.count).sum();
+    }
+
+    /**
+     * Number of stages, i.e. the words read per lookup.
+     */
+    public int stageCount() {
+        return stages.size();
+    }
+
+    /**
+     * Writes the filter as its stage headers followed by the raw bit words.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(stages.size());
+        for (Stage stage : stages) {
+            out.writeLong(stage.capacity);
+            out.writeLong(stage.count);
+            out.writeInt(stage.words.length);
+            for (long word : stage.words) {
+                out.writeLong(word);
+            }
+        }
+    }
+
+    /**
+     * Reads a filter written by {@link #writeTo(DataOutput)}.
+     */
+    public static ScalableBloomFilter readFrom(DataInput in) throws IOException {
+        int stageCount = in.readInt();
+        List<Stage> stages = new ArrayList<>(stageCount);
+        for (int i = 0; i < stageCount; i++) {
+            long capacity = in.readLong();
+            long count = in.readLong();
+            long[] words = new long[in.readInt()];
+            for (int j = 0; j < words.length; j++) {
+                words[j] = in.readLong();
+            }
+            stages.add(new Stage(capacity, count, words));
+        }
+        return new ScalableBloomFilter(stages);
+    }
+
+    // SplitMix64 finalizer, spreads sequential codes over the whole word range
+    private static long mix(long key) {
+        long z = key + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class Stage {
+        private final long capacity;
+        private final long[] words;
+        private long count;
+
+        Stage(long capacity) {
+            this(capacity, 0, new long[wordsFor(capacity)]);
+        }
+
+        Stage(long capacity, long count, long[] words) {
+            this.capacity = capacity;
+            this.count = count;
+            this.words = words;
+        }
+
+        private static int wordsFor(long capacity) {
+            long words = (long) Math.ceil(capacity * WORDS_PER_KEY);
+            if (words > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Bloom filter stage of " + capacity + " keys is too large");
+            }
+            return (int) Math.max(1, words);
+        }
+
+        boolean contains(long hash) {
+            long mask = mask(hash);
+            return (words[index(hash)] & mask) == mask;
+        }
+
+        void add(long hash) {
+            words[index(hash)] |= mask(hash);
+            count++;
+        }
+
+        // The high 32 bits pick the word
+        private int index(long hash) {
+            return (int) (((hash >>> 32) * words.length) >>> 32);
+        }
+
+        // The low 36 bits pick the bit positions, six bits each
+        private static long mask(long hash) {
+            long mask = 0;
+            for (int i = 0; i < BITS_PER_KEY; i++) {
+                mask |= 1L << ((hash >>> (6 * i)) & 63);
+            }
+            return mask;
+        }
+    }
+}
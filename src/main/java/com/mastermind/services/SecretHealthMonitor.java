@@ -0,0 +1,239 @@
+package com.mastermind.services;
+
+import com.mastermind.models.NumCombination;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Online statistical health checks on generated secrets.
+ *
+ * <p>Secrets are counted in tumbling windows per combination size and range. Each window keeps a
+ * digit histogram per position and the state of a Wald–Wolfowitz runs test over the digit stream
+ * (digits in the lower half of the range against the upper half). When a window fills, every
+ * position gets a chi-square goodness-of-fit test against the uniform distribution, the runs
+ * test is evaluated, and a fresh window starts. A failing test is reported to the listener.
+ *
+ * <p>Memory is constant per size and range: one histogram of {@code size * (maxRange + 1)}
+ * counters. Updates are lock-free atomic increments. Samples racing with a window rollover may
+ * land in the retired window and go uncounted, which only shrinks that window slightly.
+ */
+public class SecretHealthMonitor {
+    /** Secrets per window. */
+    static final int DEFAULT_WINDOW_SIZE = 4096;
+    /** Standard normal quantile of the alert threshold, about one false alarm per 30,000 checks. */
+    static final double DEFAULT_Z_CRITICAL = 4.0;
+    /** Minimum expected count per histogram cell for the chi-square approximation to hold. */
+    private static final int MIN_EXPECTED_PER_CELL = 5;
+
+    private static final int NO_SIDE = 0;
+    private static final int LOW = 1;
+    private static final int HIGH = 2;
+
+    private final Listener listener;
+    private final int windowSize;
+    private final double zCritical;
+    private final Map<Long, AtomicReference<Window>> windows = new ConcurrentHashMap<>();
+    private final AtomicLong alertCount = new AtomicLong();
+
+    public SecretHealthMonitor(Listener listener) {
+        this(listener, DEFAULT_WINDOW_SIZE, DEFAULT_Z_CRITICAL);
+    }
+
+    /**
+     * @param listener receives alerts, on the thread that completed the window
+     * @param windowSize the number of secrets per window
+     * @param zCritical the standard normal quantile above which a test fails
+     */
+    public SecretHealthMonitor(Listener listener, int windowSize, double zCritical) {
+        if (windowSize < 2) {
+            throw new IllegalArgumentException("Window size must be at least 2, got " + windowSize);
+        }
+
+        this.listener = listener;
+        this.windowSize = windowSize;
+        this.zCritical = zCritical;
+    }
+
+    /**
+     * Adds a generated secret to the statistics of its size and range.
+     */
+    public void record(NumCombination secret) {
+        int size = secret.getExpectedSize();
+        int range = secret.getMaxNum() - secret.getMinNum() + 1;
+        AtomicReference<Window> current = windows.computeIfAbsent(spaceKey(size, range),
+                key -> new AtomicReference<>(new Window(size, range, windowFor(range))));
+
+        Window window = current.get();
+        int position = 0;
+        for (int num : secret.getNumbers()) {
+            window.add(position++, num - secret.getMinNum());
+        }
+
+        if (window.secrets.incrementAndGet() == window.capacity
+                && current.compareAndSet(window, new Window(size, range, window.capacity))) {
+            evaluate(window);
+        }
+    }
+
+    /**
+     * Total number of alerts raised so far.
+     */
+    public long getAlertCount() {
+        return alertCount.get();
+    }
+
+    private int windowFor(int range) {
+        return Math.max(windowSize, MIN_EXPECTED_PER_CELL * range);
+    }
+
+    private void evaluate(Window window) {
+        long samples = window.secrets.get();
+        int degreesOfFreedom = window.range - 1;
+        if (degreesOfFreedom > 0) {
+            double criticalValue = chiSquareCritical(degreesOfFreedom, zCritical);
+            for (int position = 0; position < window.size; position++) {
+                double statistic = window.chiSquare(position);
+                if (statistic > criticalValue) {
+                    raise(new Alert(Check.DIGIT_FREQUENCY, window.size, window.range - 1, position,
+                            statistic, criticalValue, samples));
+                }
+            }
+        }
+
+        double z = window.runsZScore();
+        if (Math.abs(z) > zCritical) {
+            raise(new Alert(Check.RUNS, window.size, window.range - 1, -1, z, zCritical, samples));
+        }
+    }
+
+    private void raise(Alert alert) {
+        alertCount.incrementAndGet();
+        listener.onAlert(alert);
+    }
+
+    /**
+     * Wilson–Hilferty approximation of the chi-square quantile for a standard normal quantile {@code z}.
+     */
+    static double chiSquareCritical(int degreesOfFreedom, double z) {
+        double k = 2.0 / (9.0 * degreesOfFreedom);
+        double cube = 1 - k + z * Math.sqrt(k);
+        return degreesOfFreedom * cube * cube * cube;
+    }
+
+    private static long spaceKey(int size, int range) {
+        return ((long) size << 32) | range;
+    }
+
+    /**
+     * The statistical test that failed.
+     */
+    public enum Check {
+        /** Chi-square test of one position's digit frequencies against uniform */
+        DIGIT_FREQUENCY,
+
+        /** Wald–Wolfowitz runs test of low and high digits in generation order */
+        RUNS
+    }
+
+    /**
+     * A failed health check.
+     *
+     * @param check the test that failed
+     * @param size the combination size of the monitored secrets
+     * @param maxRange the maximum digit of the monitored secrets
+     * @param position the digit position for {@link Check#DIGIT_FREQUENCY}, -1 otherwise
+     * @param statistic the chi-square statistic, or the runs test z-score
+     * @param criticalValue the threshold the statistic exceeded
+     * @param samples the number of secrets in the window
+     */
+    public record Alert(Check check, int size, int maxRange, int position, double statistic,
+                        double criticalValue, long samples) {
+    }
+
+    /**
+     * Receives health alerts.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onAlert(Alert alert);
+    }
+
+    /**
+     * Statistics of one window of secrets.
+     */
+    private static final class Window {
+        private final int size;
+        private final int range;
+        private final int capacity;
+        private final AtomicLongArray histogram;
+        private final AtomicInteger secrets = new AtomicInteger();
+        private final AtomicInteger lastSide = new AtomicInteger(NO_SIDE);
+        private final AtomicLong lowDigits = new AtomicLong();
+        private final AtomicLong highDigits = new AtomicLong();
+        private final AtomicLong runs = new AtomicLong();
+
+        Window(int size, int range, int capacity) {
+            this.size = size;
+            this.range = range;
+            this.capacity = capacity;
+            this.histogram = new AtomicLongArray(size * range);
+        }
+
+        void add(int position, int digit) {
+            histogram.incrementAndGet(position * range + digit);
+
+            // With an odd range the middle digit belongs to neither half
+            int side;
+            if (2 * digit + 1 < range) {
+                side = LOW;
+                lowDigits.incrementAndGet();
+            } else if (2 * digit + 1 > range) {
+                side = HIGH;
+                highDigits.incrementAndGet();
+            } else {
+                return;
+            }
+
+            // getAndSet orders concurrent digits, every change of side starts a new run
+            if (lastSide.getAndSet(side) != side) {
+                runs.incrementAndGet();
+            }
+        }
+
+        double chiSquare(int position) {
+            long[] observed = new long[range];
+            long total = 0;
+            for (int digit = 0; digit < range; digit++) {
+                observed[digit] = histogram.get(position * range + digit);
+                total += observed[digit];
+            }
+
+            double expected = (double) total / range;
+            double statistic = 0;
+            for (long count : observed) {
+                double difference = count - expected;
+                statistic += difference * difference / expected;
+            }
+            return statistic;
+        }
+
+        double runsZScore() {
+            double low = lowDigits.get();
+            double high = highDigits.get();
+            double total = low + high;
+            if (low == 0 || high == 0) {
+                // A single side for a whole window is as far from random as it gets
+                return total > 1 ? Double.NEGATIVE_INFINITY : 0;
+            }
+
+            double mean = 2 * low * high / total + 1;
+            double variance = (mean - 1) * (mean - 2) / (total - 1);
+            return variance > 0 ? (runs.get() - mean) / Math.sqrt(variance) : 0;
+        }
+    }
+}
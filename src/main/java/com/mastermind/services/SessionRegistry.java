@@ -0,0 +1,628 @@
+package com.mastermind.services;
+
+import com.mastermind.models.Game;
+import com.mastermind.models.GameListener;
+import com.mastermind.persistence.GameSnapshotCodec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Holds live games by id, with optional expiry and a bound on how many stay in memory.
+ *
+ * <p>Games are spread over up to {@value #DEFAULT_STRIPES} stripes, each a plain map behind its
+ * own lock, so calls on games in different stripes never contend. {@link #apply} runs its action
+ * under the game's stripe lock, which also serializes calls on the same game.
+ *
+ * <p><b>Expiry.</b> A game expires {@code timeToLive} after it was added or {@code idleTimeout}
+ * after it was last used, whichever comes first. Each stripe keeps a hierarchical timing wheel
+ * of four levels of 64 slots, {@value #TICK_MILLIS} ms per slot at the lowest level. Adding a
+ * game links it into one slot. Using it only records the time; when its slot comes due, the
+ * wheel re-checks the deadline and links the game further on if it was used meanwhile. Expiry
+ * therefore costs O(1) per game and never scans the live ones. {@link #expire()} advances the
+ * wheels, either when called or every tick after {@link #startExpiry()}, and hands expired games
+ * to {@code onExpire}.
+ *
+ * <p><b>Capacity.</b> At most {@code capacity} games are kept in memory, split evenly over the
+ * stripes. A stripe over its share writes its least recently used game to a fixed-size slot of
+ * the spill file with {@link GameSnapshotCodec} and keeps only a small entry pointing at it; the
+ * next call on that game reads it back. Slots are reused, so the file is bounded by the most
+ * games ever spilled at once.
+ *
+ * <p>The map, the LRU list and the wheel all link the same entry object per game, so expiry and
+ * LRU bookkeeping allocate nothing. Each added game still costs its entry, its map node and its
+ * boxed id, and reading a spilled game back decodes a new {@link Game}; only the spill buffer is
+ * reused, one per stripe. Spill file reads and writes run under the stripe lock, so while a
+ * spilled game is read back, or an eldest one written out, calls on the other games of its
+ * stripe wait for the disk.
+ */
+public class SessionRegistry implements AutoCloseable {
+    public static final int DEFAULT_STRIPES = 64;
+    /** Resolution of expiry, and the interval of the background expiry task. */
+    public static final long TICK_MILLIS = 100;
+    /** Spill slot size; games whose snapshot may not fit stay in memory. */
+    static final int SLOT_BYTES = 256;
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 4;
+    private static final long WHEEL_SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    private final long timeToLiveMillis;
+    private final long idleTimeoutMillis;
+    private final int residentPerStripe;
+    private final Consumer<Game> onExpire;
+    private final LongSupplier clock;
+    private final Stripe[] stripes;
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final Path spillFile;
+    private final FileChannel spill;
+    private long[] freeSlots = new long[16];
+    private int freeSlotCount;
+    private long nextSlot;
+
+    private ScheduledExecutorService expiryExecutor;
+
+    /**
+     * Creates a registry that keeps every game in memory until it is removed.
+     */
+    public SessionRegistry() {
+        this(null, null, Integer.MAX_VALUE, null, game -> { }, System::currentTimeMillis);
+    }
+
+    /**
+     * @param timeToLive how long a game may live after it is added, or null for no limit
+     * @param idleTimeout how long a game may go unused, or null for no limit
+     * @param capacity the most games kept in memory, {@link Integer#MAX_VALUE} for no limit
+     * @param spillFile where games over capacity are written; required when capacity is limited,
+     *                  created or truncated now and deleted on {@link #close()}
+     * @param onExpire receives every expired game, after it has been removed
+     */
+    public SessionRegistry(Duration timeToLive, Duration idleTimeout, int capacity, Path spillFile,
+                           Consumer<Game> onExpire) {
+        this(timeToLive, idleTimeout, capacity, spillFile, onExpire, System::currentTimeMillis);
+    }
+
+    SessionRegistry(Duration timeToLive, Duration idleTimeout, int capacity, Path spillFile,
+                    Consumer<Game> onExpire, LongSupplier clock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (capacity != Integer.MAX_VALUE && spillFile == null) {
+            throw new IllegalArgumentException("A limited capacity needs a spill file");
+        }
+
+        this.timeToLiveMillis = toMillis(timeToLive);
+        this.idleTimeoutMillis = toMillis(idleTimeout);
+        this.onExpire = onExpire;
+        this.clock = clock;
+
+        int stripeCount = Math.min(DEFAULT_STRIPES, Integer.highestOneBit(capacity));
+        this.residentPerStripe = capacity == Integer.MAX_VALUE ? Integer.MAX_VALUE : capacity / stripeCount;
+        this.stripes = new Stripe[stripeCount];
+        long tick = clock.getAsLong() / TICK_MILLIS;
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(tick);
+        }
+
+        this.spillFile = capacity == Integer.MAX_VALUE ? null : spillFile;
+        try {
+            this.spill = this.spillFile == null ? null : FileChannel.open(spillFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open spill file " + spillFile, e);
+        }
+    }
+
+    /**
+     * Adds a game under its id, replacing any game with the same id.
+     */
+    public void put(Game game) {
+        add(game, true);
+    }
+
+    /**
+     * Adds a game under its id unless a game with that id is already held.
+     *
+     * @return whether the game was added
+     */
+    public boolean putIfAbsent(Game game) {
+        return add(game, false);
+    }
+
+    private boolean add(Game game, boolean replace) {
+        Entry entry = new Entry(game.getId(), clock.getAsLong());
+        entry.game = game;
+
+        Stripe stripe = stripeFor(entry.id);
+        stripe.lock.lock();
+        try {
+            if (!replace && stripe.entries.containsKey(entry.id)) {
+                return false;
+            }
+            Entry previous = stripe.entries.put(entry.id, entry);
+            if (previous == null) {
+                size.incrementAndGet();
+            } else {
+                unlinkWheel(stripe, previous);
+                if (previous.game != null) {
+                    unlinkLru(stripe, previous);
+                } else {
+                    freeSlot(previous.slot);
+                }
+            }
+            linkNewest(stripe, entry);
+            schedule(stripe, entry);
+            spillOverflow(stripe, entry);
+            return true;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Runs {@code action} on the game under its stripe lock and counts it as a use.
+     *
+     * @return the action's result
+     * @throws NoSuchElementException if there is no game with this id
+     */
+    public <T> T apply(long gameId, Function<Game, T> action) {
+        Stripe stripe = stripeFor(gameId);
+        stripe.lock.lock();
+        try {
+            Entry entry = stripe.entries.get(gameId);
+            if (entry == null) {
+                throw new NoSuchElementException("No game with id " + gameId);
+            }
+            return action.apply(touch(stripe, entry));
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * The game with this id, counted as a use. Changes to the game should go through
+     * {@link #apply}, since a game that is spilled and read back is a new instance.
+     */
+    public Optional<Game> find(long gameId) {
+        Stripe stripe = stripeFor(gameId);
+        stripe.lock.lock();
+        try {
+            Entry entry = stripe.entries.get(gameId);
+            return entry == null ? Optional.empty() : Optional.of(touch(stripe, entry));
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Whether a game with this id is held. Unlike {@link #find}, this does not count as a use.
+     */
+    public boolean contains(long gameId) {
+        Stripe stripe = stripeFor(gameId);
+        stripe.lock.lock();
+        try {
+            return stripe.entries.containsKey(gameId);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the game with this id.
+     *
+     * @return the removed game, or empty if there was none
+     */
+    public Optional<Game> remove(long gameId) {
+        Stripe stripe = stripeFor(gameId);
+        stripe.lock.lock();
+        try {
+            Entry entry = stripe.entries.remove(gameId);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            size.decrementAndGet();
+            unlinkWheel(stripe, entry);
+            return Optional.of(detach(stripe, entry));
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Removes every game past its deadline and hands it to {@code onExpire}.
+     *
+     * @return the number of games expired
+     */
+    public int expire() {
+        long now = clock.getAsLong();
+        List<Game> expired = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                advance(stripe, now, expired);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+
+        // Outside the locks, so the callback may call back into the registry
+        expired.forEach(onExpire);
+        return expired.size();
+    }
+
+    /**
+     * Runs {@link #expire()} every {@value #TICK_MILLIS} ms on a background daemon thread.
+     */
+    public synchronized void startExpiry() {
+        if (expiryExecutor != null) {
+            throw new IllegalStateException("Expiry already started");
+        }
+
+        expiryExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        expiryExecutor.scheduleWithFixedDelay(this::expire, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Number of games held, in memory or spilled.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * The ids of every game held, in no particular order. Games added or removed while the
+     * stripes are visited may or may not be included.
+     */
+    public long[] ids() {
+        long[] ids = new long[size.get()];
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                if (count + stripe.entries.size() > ids.length) {
+                    ids = Arrays.copyOf(ids, count + stripe.entries.size() + ids.length / 2);
+                }
+                for (long id : stripe.entries.keySet()) {
+                    ids[count++] = id;
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    /**
+     * Number of games held in memory.
+     */
+    public int residentCount() {
+        int resident = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                resident += stripe.resident;
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return resident;
+    }
+
+    /**
+     * Stops background expiry and deletes the spill file. Spilled games are lost.
+     */
+    @Override
+    public synchronized void close() {
+        if (expiryExecutor != null) {
+            expiryExecutor.shutdownNow();
+            expiryExecutor = null;
+        }
+        if (spill != null) {
+            try {
+                spill.close();
+                Files.deleteIfExists(spillFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot delete spill file " + spillFile, e);
+            }
+        }
+    }
+
+    private Stripe stripeFor(long gameId) {
+        return stripes[Long.hashCode(gameId) & (stripes.length - 1)];
+    }
+
+    private static long toMillis(Duration duration) {
+        if (duration != null && (duration.isNegative() || duration.isZero())) {
+            throw new IllegalArgumentException("Timeouts must be positive");
+        }
+        return duration == null ? 0 : duration.toMillis();
+    }
+
+    // Records a use: reads the game back if it was spilled and makes it the most recently used
+    private Game touch(Stripe stripe, Entry entry) {
+        entry.lastAccess = clock.getAsLong();
+        if (entry.game == null) {
+            entry.game = readSpilled(stripe, entry);
+        } else {
+            unlinkLru(stripe, entry);
+        }
+        linkNewest(stripe, entry);
+        spillOverflow(stripe, entry);
+        return entry.game;
+    }
+
+    // The entry's game, read back if spilled, after unlinking it from the LRU list or spill file
+    private Game detach(Stripe stripe, Entry entry) {
+        if (entry.game == null) {
+            return readSpilled(stripe, entry);
+        }
+        unlinkLru(stripe, entry);
+        return entry.game;
+    }
+
+    private long deadline(Entry entry) {
+        long deadline = Long.MAX_VALUE;
+        if (timeToLiveMillis > 0) {
+            deadline = entry.addedAt + timeToLiveMillis;
+        }
+        if (idleTimeoutMillis > 0) {
+            deadline = Math.min(deadline, entry.lastAccess + idleTimeoutMillis);
+        }
+        return deadline;
+    }
+
+    // ---- Timing wheel ----
+
+    private void schedule(Stripe stripe, Entry entry) {
+        long deadline = deadline(entry);
+        if (deadline == Long.MAX_VALUE) {
+            return;
+        }
+
+        long due = Math.max((deadline + TICK_MILLIS - 1) / TICK_MILLIS, stripe.tick + 1);
+        long delta = due - stripe.tick;
+        if (delta >= WHEEL_SPAN) {
+            // Beyond the wheel's reach: park in the farthest slot and re-check when it comes round
+            due = stripe.tick + WHEEL_SPAN - 1;
+            delta = WHEEL_SPAN - 1;
+        }
+        int level = 0;
+        while (delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+
+        int bucket = level * SLOTS + (int) (due >>> (SLOT_BITS * level) & (SLOTS - 1));
+        Entry head = stripe.wheel[bucket];
+        entry.wheelNext = head;
+        if (head != null) {
+            head.wheelPrevious = entry;
+        }
+        stripe.wheel[bucket] = entry;
+        entry.bucket = bucket;
+        stripe.scheduled++;
+    }
+
+    private void unlinkWheel(Stripe stripe, Entry entry) {
+        if (entry.bucket < 0) {
+            return;
+        }
+        if (entry.wheelPrevious == null) {
+            stripe.wheel[entry.bucket] = entry.wheelNext;
+        } else {
+            entry.wheelPrevious.wheelNext = entry.wheelNext;
+        }
+        if (entry.wheelNext != null) {
+            entry.wheelNext.wheelPrevious = entry.wheelPrevious;
+        }
+        entry.wheelPrevious = null;
+        entry.wheelNext = null;
+        entry.bucket = -1;
+        stripe.scheduled--;
+    }
+
+    private void advance(Stripe stripe, long now, List<Game> expired) {
+        long target = now / TICK_MILLIS;
+        while (stripe.tick < target) {
+            if (stripe.scheduled == 0) {
+                stripe.tick = target;
+                return;
+            }
+
+            long tick = ++stripe.tick;
+            // Cascade every level whose slot boundary this tick crosses, highest first
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((tick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    drain(stripe, level * SLOTS + (int) (tick >>> (SLOT_BITS * level) & (SLOTS - 1)), now, expired);
+                }
+            }
+            drain(stripe, (int) (tick & (SLOTS - 1)), now, expired);
+        }
+    }
+
+    private void drain(Stripe stripe, int bucket, long now, List<Game> expired) {
+        Entry entry = stripe.wheel[bucket];
+        stripe.wheel[bucket] = null;
+        while (entry != null) {
+            Entry next = entry.wheelNext;
+            entry.wheelPrevious = null;
+            entry.wheelNext = null;
+            entry.bucket = -1;
+            stripe.scheduled--;
+
+            if (deadline(entry) <= now) {
+                stripe.entries.remove(entry.id);
+                size.decrementAndGet();
+                expired.add(detach(stripe, entry));
+            } else {
+                schedule(stripe, entry);
+            }
+            entry = next;
+        }
+    }
+
+    // ---- LRU list and spilling ----
+
+    private static void linkNewest(Stripe stripe, Entry entry) {
+        Entry newest = stripe.lru.lruPrevious;
+        entry.lruPrevious = newest;
+        entry.lruNext = stripe.lru;
+        newest.lruNext = entry;
+        stripe.lru.lruPrevious = entry;
+        stripe.resident++;
+    }
+
+    private static void unlinkLru(Stripe stripe, Entry entry) {
+        entry.lruPrevious.lruNext = entry.lruNext;
+        entry.lruNext.lruPrevious = entry.lruPrevious;
+        entry.lruPrevious = null;
+        entry.lruNext = null;
+        stripe.resident--;
+    }
+
+    // Spills the eldest games until the stripe is within its share, never the one in use
+    private void spillOverflow(Stripe stripe, Entry inUse) {
+        // Games too large for a slot are passed over, at most once each per call
+        int candidates = stripe.resident;
+        while (stripe.resident > residentPerStripe && candidates-- > 0) {
+            Entry eldest = stripe.lru.lruNext;
+            if (eldest == inUse) {
+                return;
+            }
+            unlinkLru(stripe, eldest);
+            if (!writeSpilled(stripe, eldest)) {
+                linkNewest(stripe, eldest);
+            }
+        }
+    }
+
+    private boolean writeSpilled(Stripe stripe, Entry entry) {
+        Game game = entry.game;
+        if (GameSnapshotCodec.maxEncodedSize(game) > SLOT_BYTES - Integer.BYTES) {
+            return false;
+        }
+
+        ByteBuffer buffer = stripe.buffer.clear();
+        buffer.position(Integer.BYTES);
+        try {
+            GameSnapshotCodec.encode(game, buffer);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        buffer.putInt(0, buffer.position() - Integer.BYTES).flip();
+
+        long slot = allocateSlot();
+        try {
+            while (buffer.hasRemaining()) {
+                spill.write(buffer, slot * SLOT_BYTES + buffer.position());
+            }
+        } catch (IOException e) {
+            freeSlot(slot);
+            throw new UncheckedIOException("Cannot spill game " + entry.id, e);
+        }
+
+        entry.listener = game.getListener();
+        entry.game = null;
+        entry.slot = slot;
+        return true;
+    }
+
+    private Game readSpilled(Stripe stripe, Entry entry) {
+        ByteBuffer buffer = stripe.buffer.clear();
+        try {
+            while (buffer.hasRemaining()) {
+                if (spill.read(buffer, entry.slot * SLOT_BYTES + buffer.position()) < 0) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read spilled game " + entry.id, e);
+        }
+        buffer.flip();
+        buffer.limit(Integer.BYTES + buffer.getInt(0)).position(Integer.BYTES);
+
+        Game game = GameSnapshotCodec.decode(buffer);
+        game.setListener(entry.listener);
+        freeSlot(entry.slot);
+        entry.listener = null;
+        entry.slot = -1;
+        return game;
+    }
+
+    private synchronized long allocateSlot() {
+        return freeSlotCount > 0 ? freeSlots[--freeSlotCount] : nextSlot++;
+    }
+
+    private synchronized void freeSlot(long slot) {
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<Long, Entry> entries = new HashMap<>();
+        /** Sentinel of the circular LRU list: {@code lruNext} is the eldest resident game. */
+        final Entry lru = new Entry(0, 0);
+        final Entry[] wheel = new Entry[LEVELS * SLOTS];
+        final ByteBuffer buffer = ByteBuffer.allocate(SLOT_BYTES);
+        int resident;
+        int scheduled;
+        long tick;
+
+        Stripe(long tick) {
+            this.tick = tick;
+            lru.lruNext = lru;
+            lru.lruPrevious = lru;
+        }
+    }
+
+    private static final class Entry {
+        final long id;
+        final long addedAt;
+        long lastAccess;
+        /** The game while resident, null while spilled. */
+        Game game;
+        /** While spilled: the slot holding the game and the listener to restore. */
+        long slot = -1;
+        GameListener listener;
+        Entry lruPrevious;
+        Entry lruNext;
+        int bucket = -1;
+        Entry wheelPrevious;
+        Entry wheelNext;
+
+        Entry(long id, long addedAt) {
+            this.id = id;
+            this.addedAt = addedAt;
+            this.lastAccess = addedAt;
+        }
+    }
+}
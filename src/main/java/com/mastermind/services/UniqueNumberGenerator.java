@@ -0,0 +1,298 @@
+package com.mastermind.services;
+
+import com.mastermind.models.NumCombination;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decorator that never issues the same secret twice, e.g. within a season of daily puzzles.
+ *
+ * <p>Issued secrets are tracked per combination size and range. Spaces of up to
+ * {@value #EXACT_MAX_CODES} codes, which covers every {@link com.mastermind.models.Difficulty},
+ * are tracked exactly in a bitset indexed by {@link NumCombination#toCode()}. Larger custom spaces
+ * use a {@link ScalableBloomFilter}; a false positive there only costs a redraw, never a repeat.
+ * Either way a check is a constant number of word reads, however many secrets were issued.
+ *
+ * <p>A drawn secret that was already issued is redrawn. Once the space is nearly exhausted and
+ * {@value #MAX_REDRAWS} draws in a row collide, an exact space hands out the next unissued code
+ * after the last draw instead, and throws only when every code has been issued.
+ *
+ * <p>With a file, the issued sets are loaded on construction and written back by {@link #save()}
+ * and {@link #close()}: raw bitset and filter words, replaced atomically.
+ */
+public class UniqueNumberGenerator implements NumberGenerator, AutoCloseable {
+    /** 2^27 codes, i.e. a 16 MiB bitset. */
+    static final long EXACT_MAX_CODES = 1L << 27;
+    static final int MAX_REDRAWS = 1_000;
+
+    private static final int FILE_MAGIC = 0x4D4D4953; // "MMIS"
+    private static final int FILE_VERSION = 1;
+
+    private final NumberGenerator delegate;
+    private final Path file;
+    private final Map<Long, IssuedSpace> spaces = new HashMap<>();
+
+    /**
+     * Creates an in-memory decorator.
+     *
+     * @param delegate the generator secrets are drawn from
+     */
+    public UniqueNumberGenerator(NumberGenerator delegate) {
+        this(delegate, null);
+    }
+
+    /**
+     * Creates a decorator persisted to {@code file}, loading it if it exists.
+     *
+     * @param delegate the generator secrets are drawn from
+     * @param file the file holding the issued sets, or null to keep them in memory only
+     */
+    public UniqueNumberGenerator(NumberGenerator delegate, Path file) {
+        this.delegate = delegate;
+        this.file = file;
+        if (file != null && Files.exists(file)) {
+            load();
+        }
+    }
+
+    @Override
+    public synchronized NumCombination generateNumbers(int size, int maxRange) {
+        IssuedSpace space = space(size, maxRange);
+        NumCombination candidate = delegate.generateNumbers(size, maxRange);
+        for (int attempt = 1; space.isIssued(candidate); attempt++) {
+            if (attempt >= MAX_REDRAWS) {
+                candidate = space.nextUnissued(candidate);
+                break;
+            }
+            candidate = delegate.generateNumbers(size, maxRange);
+        }
+
+        space.markIssued(candidate);
+        return candidate;
+    }
+
+    /**
+     * Draws the batch from the delegate in one call and redraws only the collisions, including
+     * duplicates within the batch.
+     */
+    @Override
+    public synchronized List<NumCombination> generateBatch(int count, int size, int maxRange) {
+        IssuedSpace space = space(size, maxRange);
+        List<NumCombination> batch = new ArrayList<>(count);
+        for (NumCombination candidate : delegate.generateBatch(count, size, maxRange)) {
+            if (space.isIssued(candidate)) {
+                batch.add(generateNumbers(size, maxRange));
+            } else {
+                space.markIssued(candidate);
+                batch.add(candidate);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Number of secrets issued so far with the given size and range.
+     */
+    public synchronized long getIssuedCount(int size, int maxRange) {
+        IssuedSpace space = spaces.get(spaceKey(size, maxRange));
+        return space == null ? 0 : space.issuedCount();
+    }
+
+    /**
+     * Forgets every issued secret, e.g. at the start of a new season.
+     */
+    public synchronized void reset() {
+        spaces.clear();
+    }
+
+    /**
+     * Writes the issued sets to the file, replacing it atomically. Does nothing in memory-only mode.
+     */
+    public synchronized void save() {
+        if (file == null) {
+            return;
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(FILE_VERSION);
+            out.writeInt(spaces.size());
+            for (IssuedSpace space : spaces.values()) {
+                space.writeTo(out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write issued secrets to " + temp, e);
+        }
+
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot replace " + file, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        save();
+    }
+
+    private void load() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+                throw new IllegalStateException(file + " is not an issued secrets file");
+            }
+
+            int spaceCount = in.readInt();
+            for (int i = 0; i < spaceCount; i++) {
+                IssuedSpace space = IssuedSpace.readFrom(in);
+                spaces.put(spaceKey(space.size, space.maxRange), space);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read issued secrets from " + file, e);
+        }
+    }
+
+    private IssuedSpace space(int size, int maxRange) {
+        return spaces.computeIfAbsent(spaceKey(size, maxRange), key -> new IssuedSpace(size, maxRange));
+    }
+
+    private static long spaceKey(int size, int maxRange) {
+        return ((long) size << 32) | maxRange;
+    }
+
+    /**
+     * Issued secrets of one size and range, as an exact bitset or a Bloom filter.
+     */
+    private static final class IssuedSpace {
+        private static final byte EXACT = 0;
+        private static final byte BLOOM = 1;
+
+        private final int size;
+        private final int maxRange;
+        private final long codeSpace;
+        private final BitSet exact;
+        private final ScalableBloomFilter bloom;
+        private long issued;
+
+        IssuedSpace(int size, int maxRange) {
+            this(size, maxRange, 0, null, null);
+        }
+
+        private IssuedSpace(int size, int maxRange, long issued, BitSet exact, ScalableBloomFilter bloom) {
+            this.size = size;
+            this.maxRange = maxRange;
+            this.codeSpace = codeSpace(size, maxRange);
+            this.issued = issued;
+            if (codeSpace <= EXACT_MAX_CODES) {
+                this.exact = exact != null ? exact : new BitSet((int) codeSpace);
+                this.bloom = null;
+            } else {
+                this.exact = null;
+                this.bloom = bloom != null ? bloom : new ScalableBloomFilter();
+            }
+        }
+
+        boolean isIssued(NumCombination combination) {
+            return exact != null
+                    ? exact.get((int) combination.toCode())
+                    : bloom.mightContain(key(combination));
+        }
+
+        void markIssued(NumCombination combination) {
+            if (exact != null) {
+                exact.set((int) combination.toCode());
+            } else {
+                bloom.add(key(combination));
+            }
+            issued++;
+        }
+
+        long issuedCount() {
+            return issued;
+        }
+
+        // Walks forward (wrapping) from the last draw to the next clear bit of an exact space
+        NumCombination nextUnissued(NumCombination lastDraw) {
+            if (exact == null) {
+                throw new IllegalStateException("Could not draw an unissued secret after " + MAX_REDRAWS + " attempts");
+            }
+
+            int code = exact.nextClearBit((int) lastDraw.toCode());
+            if (code >= codeSpace) {
+                code = exact.nextClearBit(0);
+            }
+            if (code >= codeSpace) {
+                throw new IllegalStateException("All " + codeSpace + " secrets of size " + size
+                        + " and range 0-" + maxRange + " have been issued");
+            }
+            return NumCombination.fromCode(code, size, 0, maxRange);
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(size);
+            out.writeInt(maxRange);
+            out.writeLong(issued);
+            if (exact != null) {
+                out.writeByte(EXACT);
+                long[] words = exact.toLongArray();
+                out.writeInt(words.length);
+                for (long word : words) {
+                    out.writeLong(word);
+                }
+            } else {
+                out.writeByte(BLOOM);
+                bloom.writeTo(out);
+            }
+        }
+
+        static IssuedSpace readFrom(DataInputStream in) throws IOException {
+            int size = in.readInt();
+            int maxRange = in.readInt();
+            long issued = in.readLong();
+            if (in.readByte() == EXACT) {
+                long[] words = new long[in.readInt()];
+                for (int i = 0; i < words.length; i++) {
+                    words[i] = in.readLong();
+                }
+                return new IssuedSpace(size, maxRange, issued, BitSet.valueOf(words), null);
+            }
+            return new IssuedSpace(size, maxRange, issued, null, ScalableBloomFilter.readFrom(in));
+        }
+
+        // Spaces beyond a long are capped, they are tracked by fingerprint in the Bloom filter anyway
+        private static long codeSpace(int size, int maxRange) {
+            try {
+                return NumCombination.codeSpace(size, 0, maxRange);
+            } catch (ArithmeticException e) {
+                return Long.MAX_VALUE;
+            }
+        }
+
+        // Dense code where it fits, otherwise a polynomial fingerprint of the digits
+        private long key(NumCombination combination) {
+            if (codeSpace < Long.MAX_VALUE) {
+                return combination.toCode();
+            }
+
+            long key = 0;
+            for (int num : combination.getNumbers()) {
+                key = key * 1_000_003L + num;
+            }
+            return key;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.mastermind.analytics;
+
+import com.mastermind.analytics.GameHistoryExporter.Format;
+import com.mastermind.analytics.GameQueryEngine.RowFilter;
+import com.mastermind.models.Difficulty;
+import com.mastermind.models.Game;
+import com.mastermind.models.NumCombination;
+import com.mastermind.models.Player;
+import com.mastermind.persistence.GameArchive;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GameHistoryExporter")
+class GameHistoryExporterTest {
+
+    @TempDir
+    Path directory;
+
+    private GameArchive archive;
+    private final AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+
+    private static final NumCombination ANSWER = new NumCombination(Arrays.asList(7, 0, 3, 3));
+
+    @BeforeEach
+    void setUp() {
+        archive = new GameArchive(directory.resolve("archive"), 1_000, clock::incrementAndGet);
+    }
+
+    @AfterEach
+    void tearDown() {
+        archive.close();
+    }
+
+    private void archiveWin(String name) {
+        Game game = new Game(new Player(name), ANSWER);
+        game.setDifficulty(Difficulty.NORMAL);
+        game.start();
+        game.getHint();
+        game.playerGuess(new NumCombination(Arrays.asList(0, 1, 2, 3)));
+        game.playerGuess(ANSWER);
+        archive.append(game);
+    }
+
+    private void archiveEasyLoss(String name) {
+        Game game = new Game(new Player(name), new NumCombination(Arrays.asList(5, 4, 3), 3, 0, 5));
+        game.setDifficulty(Difficulty.EASY);
+        game.start();
+        while (game.getRemainingAttempts() > 0) {
+            game.playerGuess(new NumCombination(Arrays.asList(0, 0, 0), 3, 0, 5));
+        }
+        archive.append(game);
+    }
+
+    private List<String> export(Format format, RowFilter filter) throws IOException {
+        archive.flush();
+        Path file = directory.resolve("export");
+        new GameHistoryExporter(archive).export(file, format, filter);
+        return Files.readAllLines(file, StandardCharsets.UTF_8);
+    }
+
+    @Nested
+    @DisplayName("JSON Lines")
+    class JsonLines {
+
+        @Test
+        @DisplayName("should write one object per game with its whole history")
+        void shouldWriteOneObjectPerGame() throws IOException {
+            // Arrange
+            archiveWin("Alice");
+
+            // Act
+            List<String> lines = export(Format.JSON_LINES, RowFilter.all());
+
+            // Assert
+            assertEquals(List.of("{\"player\":\"Alice\",\"difficulty\":\"NORMAL\",\"answer\":[7,0,3,3],"
+                    + "\"status\":\"WON\",\"hintsUsed\":1,\"finishedAt\":1700000000001,"
+                    + "\"history\":[{\"guess\":[0,1,2,3],\"correctNumbers\":2,\"correctPositions\":1},"
+                    + "{\"guess\":[7,0,3,3],\"correctNumbers\":4,\"correctPositions\":4}]}"), lines);
+        }
+
+        @Test
+        @DisplayName("should escape player names")
+        void shouldEscapePlayerNames() throws IOException {
+            // Arrange
+            archiveWin("Al \"the\" \\ Ünïcode\t");
+
+            // Act
+            String line = export(Format.JSON_LINES, RowFilter.all()).get(0);
+
+            // Assert
+            assertTrue(line.startsWith("{\"player\":\"Al \\\"the\\\" \\\\ Ünïcode\\t\","), line);
+        }
+    }
+
+    @Nested
+    @DisplayName("CSV")
+    class Csv {
+
+        @Test
+        @DisplayName("should write a header and one row per guess")
+        void shouldWriteOneRowPerGuess() throws IOException {
+            // Arrange
+            archiveWin("Alice");
+            archiveEasyLoss("Bob, Jr.");
+
+            // Act
+            List<String> lines = export(Format.CSV, RowFilter.all());
+
+            // Assert
+            assertEquals(1 + 2 + 10, lines.size());
+            assertEquals("game,player,difficulty,answer,status,hints_used,finished_at,"
+                    + "turn,guess,correct_numbers,correct_positions", lines.get(0));
+            assertEquals("1,Alice,NORMAL,7 0 3 3,WON,1,1700000000001,1,0 1 2 3,2,1", lines.get(1));
+            assertEquals("1,Alice,NORMAL,7 0 3 3,WON,1,1700000000001,2,7 0 3 3,4,4", lines.get(2));
+            assertEquals("2,\"Bob, Jr.\",EASY,5 4 3,LOST,0,1700000000002,10,0 0 0,0,0", lines.get(12));
+        }
+    }
+
+    @Nested
+    @DisplayName("Streaming")
+    class Streaming {
+
+        @Test
+        @DisplayName("should export only matching games")
+        void shouldExportOnlyMatchingGames() throws IOException {
+            // Arrange
+            archiveWin("Alice");
+            archiveEasyLoss("Bob");
+            archiveWin("Carol");
+
+            // Act
+            List<String> lines = export(Format.JSON_LINES, RowFilter.won());
+
+            // Assert
+            assertEquals(2, lines.size());
+            assertTrue(lines.get(1).startsWith("{\"player\":\"Carol\""));
+        }
+
+        @Test
+        @DisplayName("should produce the same output through a buffer smaller than the export")
+        void shouldProduceSameOutputThroughSmallBuffer() throws IOException {
+            // Arrange
+            for (int i = 0; i < 500; i++) {
+                if (i % 3 == 0) {
+                    archiveEasyLoss("Player" + i % 11);
+                } else {
+                    archiveWin("Player" + i % 11);
+                }
+            }
+            archive.flush();
+            Path small = directory.resolve("small.jsonl");
+            Path large = directory.resolve("large.jsonl");
+            GameHistoryExporter exporter = new GameHistoryExporter(archive, 4096);
+
+            // Act
+            long exported = exporter.export(small, Format.JSON_LINES);
+            exporter.export(small.resolveSibling("other.csv"), Format.CSV);
+            exporter.export(small, Format.JSON_LINES);
+            new GameHistoryExporter(archive).export(large, Format.JSON_LINES);
+
+            // Assert
+            assertEquals(500, exported);
+            assertTrue(Files.size(small) > 4096 * 10);
+            assertEquals(-1, Files.mismatch(small, large));
+        }
+
+        @Test
+        @DisplayName("should reject buffers too small for a record")
+        void shouldRejectTinyBuffers() {
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> new GameHistoryExporter(archive, 64));
+        }
+    }
+}
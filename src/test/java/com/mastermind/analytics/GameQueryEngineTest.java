@@ -0,0 +1,248 @@
+package com.mastermind.analytics;
+
+import com.mastermind.analytics.GameQueryEngine.GroupStats;
+import com.mastermind.analytics.GameQueryEngine.GuessCount;
+import com.mastermind.analytics.GameQueryEngine.RowFilter;
+import com.mastermind.models.Difficulty;
+import com.mastermind.models.Game;
+import com.mastermind.models.NumCombination;
+import com.mastermind.models.Player;
+import com.mastermind.persistence.GameArchive;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GameQueryEngine")
+class GameQueryEngineTest {
+
+    @TempDir
+    Path directory;
+
+    private GameArchive archive;
+    private ForkJoinPool pool;
+    private GameQueryEngine engine;
+
+    private static final NumCombination EASY_ANSWER = new NumCombination(Arrays.asList(1, 2, 3), 3, 0, 5);
+    private static final NumCombination NORMAL_ANSWER = new NumCombination(Arrays.asList(7, 0, 3, 3));
+
+    @BeforeEach
+    void setUp() {
+        // Tiny segments, so every query spans several of them
+        archive = new GameArchive(directory, 3, System::currentTimeMillis);
+        pool = new ForkJoinPool(4);
+        engine = new GameQueryEngine(archive, pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+        archive.close();
+    }
+
+    private static NumCombination easy(Integer... digits) {
+        return new NumCombination(Arrays.asList(digits), 3, 0, 5);
+    }
+
+    private static NumCombination normal(Integer... digits) {
+        return new NumCombination(Arrays.asList(digits));
+    }
+
+    // Wins after the given wrong guesses, using the given number of hints first
+    private void archiveWin(String name, Difficulty difficulty, int hints, NumCombination... wrongGuesses) {
+        NumCombination answer = difficulty == Difficulty.EASY ? EASY_ANSWER : NORMAL_ANSWER;
+        Game game = new Game(new Player(name), answer);
+        game.setDifficulty(difficulty);
+        game.start();
+        for (int i = 0; i < hints; i++) {
+            game.getHint();
+        }
+        for (NumCombination guess : wrongGuesses) {
+            game.playerGuess(guess);
+        }
+        game.playerGuess(answer);
+        archive.append(game);
+    }
+
+    private void archiveLoss(String name, NumCombination guess) {
+        Game game = new Game(new Player(name), NORMAL_ANSWER);
+        game.setDifficulty(Difficulty.NORMAL);
+        game.start();
+        while (game.getRemainingAttempts() > 0) {
+            game.playerGuess(guess);
+        }
+        archive.append(game);
+    }
+
+    private void archiveSampleGames() {
+        archiveWin("Alice", Difficulty.EASY, 0, easy(0, 0, 0));
+        archiveWin("Alice", Difficulty.EASY, 1);
+        archiveWin("Bob", Difficulty.NORMAL, 2, normal(0, 1, 2, 3), normal(7, 1, 2, 3));
+        archiveWin("Bob", Difficulty.NORMAL, 0, normal(0, 1, 2, 3));
+        archiveLoss("Carol", normal(0, 1, 2, 3));
+        archiveLoss("Carol", normal(4, 4, 4, 4));
+        archiveLoss("Alice", normal(0, 1, 2, 3));
+        archive.flush();
+    }
+
+    @Nested
+    @DisplayName("Aggregates")
+    class Aggregates {
+
+        @Test
+        @DisplayName("should compute win rate per difficulty")
+        void shouldComputeWinRatePerDifficulty() {
+            // Arrange
+            archiveSampleGames();
+
+            // Act
+            Map<Difficulty, Double> winRates = engine.winRateByDifficulty(RowFilter.all());
+
+            // Assert
+            assertEquals(Map.of(Difficulty.EASY, 1.0, Difficulty.NORMAL, 0.4), winRates);
+        }
+
+        @Test
+        @DisplayName("should compute the attempt distribution")
+        void shouldComputeAttemptDistribution() {
+            // Arrange
+            archiveSampleGames();
+
+            // Act
+            long[] distribution = engine.attemptDistribution(RowFilter.all());
+
+            // Assert
+            assertArrayEquals(new long[] {0, 1, 2, 1, 0, 0, 0, 0, 0, 0, 3}, distribution);
+        }
+
+        @Test
+        @DisplayName("should size the attempt distribution from the games played")
+        void shouldSizeAttemptDistributionFromData() {
+            // Arrange
+            Game game = new Game(new Player("Dave"), NORMAL_ANSWER);
+            game.setDifficulty(Difficulty.NORMAL);
+            game.setMaxAttempts(15);
+            game.start();
+            for (int i = 0; i < 14; i++) {
+                game.playerGuess(normal(0, 1, 2, 3));
+            }
+            game.playerGuess(NORMAL_ANSWER);
+            archive.append(game);
+            archive.flush();
+
+            // Act
+            long[] distribution = engine.attemptDistribution(RowFilter.all());
+            long[] none = engine.attemptDistribution(RowFilter.won().and(RowFilter.difficulty(Difficulty.EASY)));
+
+            // Assert
+            assertEquals(16, distribution.length);
+            assertEquals(1, distribution[15]);
+            assertEquals(0, none.length);
+        }
+
+        @Test
+        @DisplayName("should relate hint usage to outcome")
+        void shouldRelateHintUsageToOutcome() {
+            // Arrange
+            archiveSampleGames();
+
+            // Act
+            GroupStats stats = engine.hintUsageVersusOutcome(RowFilter.all());
+
+            // Assert
+            assertEquals(5, stats.games(0));
+            assertEquals(0.4, stats.winRate(0), 1e-9);
+            assertEquals(1, stats.games(1));
+            assertEquals(1.0, stats.winRate(2), 1e-9);
+            assertEquals(3.0, stats.averageGuesses(2), 1e-9);
+        }
+
+        @Test
+        @DisplayName("should rank the most common first guesses")
+        void shouldRankMostCommonFirstGuesses() {
+            // Arrange
+            archiveSampleGames();
+
+            // Act
+            List<GuessCount> top = engine.mostCommonFirstGuesses(Difficulty.NORMAL, RowFilter.all(), 2);
+
+            // Assert
+            assertEquals(List.of(new GuessCount(normal(0, 1, 2, 3), 4), new GuessCount(normal(4, 4, 4, 4), 1)), top);
+        }
+
+        @Test
+        @DisplayName("should return no opening guesses for a limit of zero")
+        void shouldReturnNoFirstGuessesForZeroLimit() {
+            // Arrange
+            archiveSampleGames();
+
+            // Act & Assert
+            assertTrue(engine.mostCommonFirstGuesses(Difficulty.NORMAL, RowFilter.all(), 0).isEmpty());
+            assertTrue(engine.mostCommonFirstGuesses(Difficulty.NORMAL, RowFilter.all(), -1).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Filters and scans")
+    class FiltersAndScans {
+
+        @Test
+        @DisplayName("should combine filters")
+        void shouldCombineFilters() {
+            // Arrange
+            archiveSampleGames();
+            int alice = archive.findPlayerId("Alice").getAsInt();
+
+            // Act
+            long aliceGames = engine.count(RowFilter.player(alice));
+            long aliceWins = engine.count(RowFilter.player(alice).and(RowFilter.won()));
+            long aliceNormal = engine.count(RowFilter.player(alice).and(RowFilter.difficulty(Difficulty.NORMAL)));
+
+            // Assert
+            assertEquals(3, aliceGames);
+            assertEquals(2, aliceWins);
+            assertEquals(1, aliceNormal);
+        }
+
+        @Test
+        @DisplayName("should fold custom accumulators across many segments")
+        void shouldFoldCustomAccumulators() {
+            // Arrange
+            for (int i = 0; i < 200; i++) {
+                archiveWin("Player" + i % 7, Difficulty.EASY, i % 3, easy(i % 6, 0, 0));
+            }
+            archive.flush();
+
+            // Act
+            long[] totals = engine.scan(RowFilter.all(), () -> new long[2],
+                    (sums, segment, row) -> {
+                        sums[0] += segment.guessCount(row);
+                        sums[1] += segment.hintsUsed(row);
+                    },
+                    (left, right) -> new long[] {left[0] + right[0], left[1] + right[1]});
+
+            // Assert
+            assertEquals(400, totals[0]);
+            assertEquals(67 + 66 * 2, totals[1]);
+        }
+
+        @Test
+        @DisplayName("should see nothing in an empty archive")
+        void shouldHandleEmptyArchive() {
+            // Act & Assert
+            assertEquals(0, engine.count(RowFilter.all()));
+            assertTrue(engine.winRateByDifficulty(RowFilter.all()).isEmpty());
+            assertTrue(engine.mostCommonFirstGuesses(Difficulty.HARD, RowFilter.all(), 5).isEmpty());
+        }
+    }
+}
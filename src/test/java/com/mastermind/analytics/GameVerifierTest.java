@@ -0,0 +1,193 @@
+package com.mastermind.analytics;
+
+import com.mastermind.analytics.GameVerifier.Check;
+import com.mastermind.analytics.GameVerifier.Report;
+import com.mastermind.analytics.GameVerifier.Violation;
+import com.mastermind.models.Difficulty;
+import com.mastermind.models.Feedback;
+import com.mastermind.models.Game;
+import com.mastermind.models.NumCombination;
+import com.mastermind.models.Player;
+import com.mastermind.models.Status;
+import com.mastermind.persistence.GameArchive;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GameVerifier")
+class GameVerifierTest {
+
+    @TempDir
+    Path directory;
+
+    private GameArchive archive;
+
+    private static final NumCombination ANSWER = new NumCombination(Arrays.asList(7, 0, 3, 3));
+    private static final NumCombination WRONG_GUESS = new NumCombination(Arrays.asList(0, 1, 2, 3));
+
+    @BeforeEach
+    void setUp() {
+        archive = new GameArchive(directory, 4, System::currentTimeMillis);
+    }
+
+    @AfterEach
+    void tearDown() {
+        archive.close();
+    }
+
+    private static Game playedGame(int wrongGuesses, boolean win) {
+        Game game = new Game(new Player("Player"), ANSWER);
+        game.setDifficulty(Difficulty.NORMAL);
+        game.start();
+        for (int i = 0; i < wrongGuesses; i++) {
+            game.playerGuess(WRONG_GUESS);
+        }
+        if (win) {
+            game.playerGuess(ANSWER);
+        }
+        return game;
+    }
+
+    private Report verifyArchive() {
+        archive.flush();
+        return new GameVerifier(archive, 3, 2, 10).verify();
+    }
+
+    @Nested
+    @DisplayName("Clean history")
+    class CleanHistory {
+
+        @Test
+        @DisplayName("should find no violations in games played by the rules")
+        void shouldFindNoViolations() {
+            // Arrange
+            for (int i = 0; i < 50; i++) {
+                archive.append(i % 5 == 0 ? playedGame(10, false) : playedGame(i % 10, true));
+            }
+
+            // Act
+            Report report = verifyArchive();
+
+            // Assert
+            assertTrue(report.isClean(), () -> report.samples().toString());
+            assertEquals(50, report.games());
+            assertTrue(report.turns() > 50);
+            assertTrue(report.gamesPerSecond() > 0);
+        }
+
+        @Test
+        @DisplayName("should report an empty archive as clean")
+        void shouldReportEmptyArchiveAsClean() {
+            // Act
+            Report report = verifyArchive();
+
+            // Assert
+            assertTrue(report.isClean());
+            assertEquals(0, report.games());
+        }
+    }
+
+    @Nested
+    @DisplayName("Violations")
+    class Violations {
+
+        @Test
+        @DisplayName("should flag stored feedback that differs from a re-score")
+        void shouldFlagWrongFeedback() {
+            // Arrange
+            Game game = playedGame(2, true);
+            game.getFeedbacks().set(1, new Feedback(4, 1, 4));
+            archive.append(game);
+
+            // Act
+            Report report = verifyArchive();
+
+            // Assert
+            assertEquals(1, report.violationCount());
+            Violation violation = report.samples().get(0);
+            assertEquals(Check.FEEDBACK, violation.check());
+            assertEquals(0, violation.row());
+            assertEquals(1, violation.turn());
+        }
+
+        @Test
+        @DisplayName("should flag a status that does not follow from the guesses")
+        void shouldFlagWrongStatus() {
+            // Arrange
+            Game lostButWon = playedGame(2, true);
+            lostButWon.setStatus(Status.LOST);
+            Game wonButLost = playedGame(10, false);
+            wonButLost.setStatus(Status.WON);
+            archive.append(lostButWon);
+            archive.append(wonButLost);
+
+            // Act
+            Report report = verifyArchive();
+
+            // Assert
+            assertEquals(2, report.violationCount());
+            assertTrue(report.samples().stream().allMatch(violation -> violation.check() == Check.STATUS));
+        }
+
+        @Test
+        @DisplayName("should flag guesses after the combination was solved")
+        void shouldFlagGuessesAfterSolving() {
+            // Arrange
+            Game game = playedGame(1, true);
+            game.getGuesses().add(WRONG_GUESS);
+            game.getFeedbacks().add(Feedback.create(ANSWER, WRONG_GUESS));
+            archive.append(game);
+
+            // Act
+            Report report = verifyArchive();
+
+            // Assert
+            List<Check> checks = report.samples().stream().map(Violation::check).toList();
+            assertEquals(List.of(Check.STATUS, Check.STATUS), checks);
+            assertEquals(1, report.samples().get(0).turn());
+        }
+
+        @Test
+        @DisplayName("should flag more guesses than attempts allow")
+        void shouldFlagTooManyAttempts() {
+            // Arrange
+            Game game = playedGame(10, false);
+            game.getGuesses().add(WRONG_GUESS);
+            game.getFeedbacks().add(Feedback.create(ANSWER, WRONG_GUESS));
+            archive.append(game);
+
+            // Act
+            Report report = verifyArchive();
+
+            // Assert
+            assertTrue(report.samples().stream().anyMatch(violation -> violation.check() == Check.ATTEMPTS));
+        }
+
+        @Test
+        @DisplayName("should count every violation but keep only the configured samples")
+        void shouldCapSamples() {
+            // Arrange
+            for (int i = 0; i < 30; i++) {
+                Game game = playedGame(3, true);
+                game.setStatus(Status.LOST);
+                archive.append(game);
+            }
+
+            // Act
+            Report report = verifyArchive();
+
+            // Assert
+            assertEquals(30, report.violationCount());
+            assertEquals(10, report.samples().size());
+        }
+    }
+}
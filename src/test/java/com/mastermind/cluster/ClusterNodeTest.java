@@ -0,0 +1,374 @@
+package com.mastermind.cluster;
+
+import com.mastermind.models.Difficulty;
+import com.mastermind.models.Game;
+import com.mastermind.models.NumCombination;
+import com.mastermind.persistence.GameSnapshotCodec;
+import com.mastermind.server.AdmissionController;
+import com.mastermind.server.GameHttpServer;
+import com.mastermind.services.GameFactory;
+import com.mastermind.services.GameSessionService;
+import com.mastermind.services.NumberGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs several nodes on loopback, each an HTTP server with its own sessions, as separate
+ * processes would.
+ */
+@DisplayName("ClusterNode")
+class ClusterNodeTest {
+
+    private static final NumCombination ANSWER = new NumCombination(Arrays.asList(7, 0, 3, 3));
+    private static final String SECRET = "s3cret";
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+    private static final Pattern MOVED = Pattern.compile("\"moved\":(\\d+)");
+
+    private final HttpClient direct = HttpClient.newHttpClient();
+    private final HttpClient following = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NORMAL).build();
+    private final List<Node> nodes = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(node -> node.server().close());
+    }
+
+    private record Node(String name, GameSessionService sessions, GameHttpServer server) {
+
+        boolean holds(long gameId) {
+            return Arrays.stream(sessions.gameIds()).anyMatch(id -> id == gameId);
+        }
+    }
+
+    private Node startNode() {
+        NumberGenerator fixedAnswers = (size, maxRange) -> ANSWER;
+        GameSessionService sessions = new GameSessionService(new GameFactory(fixedAnswers));
+        GameHttpServer server = GameHttpServer.start(sessions, 0, AdmissionController.unlimited());
+        Node node = new Node("127.0.0.1:" + server.getPort(), sessions, server);
+        nodes.add(node);
+        return node;
+    }
+
+    // Starts count nodes that all know each other
+    private List<Node> startCluster(int count) {
+        List<Node> cluster = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            cluster.add(startNode());
+        }
+        List<String> members = cluster.stream().map(Node::name).toList();
+        cluster.forEach(node -> node.server().setCluster(new ClusterNode(node.name(), members, SECRET, node.sessions())));
+        return cluster;
+    }
+
+    private HttpResponse<String> send(HttpClient client, Node node, String method, String path, String body)
+            throws IOException, InterruptedException {
+        return send(client, node, method, path, body == null ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(body), SECRET);
+    }
+
+    private HttpResponse<String> send(HttpClient client, Node node, String method, String path,
+                                      HttpRequest.BodyPublisher body, String secret)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://" + node.name() + path))
+                .timeout(Duration.ofSeconds(30))
+                .method(method, body);
+        if (secret != null) {
+            request.header(ClusterNode.SECRET_HEADER, secret);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private long createGame(Node node) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(direct, node, "POST", "/games", "{\"player\":\"Alice\"}");
+        assertEquals(201, response.statusCode(), response.body());
+        Matcher id = ID.matcher(response.body());
+        assertTrue(id.find(), response.body());
+        return Long.parseLong(id.group(1));
+    }
+
+    private int setMembers(Node node, List<Node> members) throws IOException, InterruptedException {
+        StringBuilder body = new StringBuilder("{\"nodes\":[");
+        for (int i = 0; i < members.size(); i++) {
+            body.append(i == 0 ? "\"" : ",\"").append(members.get(i).name()).append('"');
+        }
+        HttpResponse<String> response = send(direct, node, "PUT", ClusterNode.MEMBERS_PATH, body.append("]}").toString());
+        assertEquals(200, response.statusCode(), response.body());
+        Matcher moved = MOVED.matcher(response.body());
+        assertTrue(moved.find(), response.body());
+        return Integer.parseInt(moved.group(1));
+    }
+
+    // Every game is held by exactly the node its owner under the given ring
+    private void assertHeldByOwners(List<Long> gameIds, HashRing ring) {
+        for (long gameId : gameIds) {
+            for (Node node : nodes) {
+                assertEquals(node.name().equals(ring.ownerOf(gameId)), node.holds(gameId),
+                        "Game " + gameId + " on " + node.name());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Routing")
+    class Routing {
+
+        @Test
+        @DisplayName("should create games on the node that owns them")
+        void shouldCreateGamesOnOwner() throws Exception {
+            // Arrange
+            List<Node> cluster = startCluster(3);
+            HashRing ring = new HashRing(cluster.stream().map(Node::name).toList());
+            List<Long> gameIds = new ArrayList<>();
+
+            // Act
+            for (int i = 0; i < 30; i++) {
+                Node node = cluster.get(i % cluster.size());
+                long gameId = createGame(node);
+                assertEquals(node.name(), ring.ownerOf(gameId));
+                gameIds.add(gameId);
+            }
+
+            // Assert
+            assertHeldByOwners(gameIds, ring);
+            assertEquals(30, cluster.stream().mapToInt(node -> node.sessions().getSessionCount()).sum());
+        }
+
+        @Test
+        @DisplayName("should redirect requests for another node's game to its owner")
+        void shouldRedirectToOwner() throws Exception {
+            // Arrange
+            List<Node> cluster = startCluster(3);
+            Node owner = cluster.get(0);
+            Node other = cluster.get(1);
+            long gameId = createGame(owner);
+
+            // Act
+            HttpResponse<String> redirect = send(direct, other, "GET", "/games/" + gameId, null);
+            HttpResponse<String> guess = send(following, other, "POST", "/games/" + gameId + "/guesses",
+                    "{\"guess\":[0,1,2,3]}");
+            HttpResponse<String> ended = send(following, cluster.get(2), "DELETE", "/games/" + gameId, null);
+
+            // Assert
+            assertEquals(307, redirect.statusCode());
+            assertEquals("http://" + owner.name() + "/games/" + gameId,
+                    redirect.headers().firstValue("Location").orElseThrow());
+            assertEquals(200, guess.statusCode(), guess.body());
+            assertTrue(guess.body().contains("\"remainingAttempts\":9"), guess.body());
+            assertEquals(204, ended.statusCode());
+            assertEquals(0, owner.sessions().getSessionCount());
+            assertFalse(other.holds(gameId));
+        }
+
+        @Test
+        @DisplayName("should answer 404 for unknown games it owns")
+        void shouldNotRedirectOwnUnknownGames() throws Exception {
+            // Arrange
+            List<Node> cluster = startCluster(2);
+            Node node = cluster.get(0);
+            HashRing ring = new HashRing(List.of(cluster.get(0).name(), cluster.get(1).name()));
+            long gameId = 1;
+            while (!ring.ownerOf(gameId).equals(node.name())) {
+                gameId++;
+            }
+
+            // Act
+            HttpResponse<String> response = send(direct, node, "GET", "/games/" + gameId, null);
+
+            // Assert
+            assertEquals(404, response.statusCode());
+        }
+    }
+
+    @Nested
+    @DisplayName("Membership changes")
+    class MembershipChanges {
+
+        @Test
+        @DisplayName("should move games to a joining node with their history")
+        void shouldMoveGamesToJoiningNode() throws Exception {
+            // Arrange
+            List<Node> cluster = startCluster(2);
+            List<Long> gameIds = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                long gameId = createGame(cluster.get(i % 2));
+                send(following, cluster.get(0), "POST", "/games/" + gameId + "/guesses", "{\"guess\":[0,1,2,3]}");
+                gameIds.add(gameId);
+            }
+            Node joining = startNode();
+            joining.server().setCluster(new ClusterNode(joining.name(), List.of(joining.name()), SECRET,
+                    joining.sessions()));
+            List<Node> grown = List.of(cluster.get(0), cluster.get(1), joining);
+
+            // Act
+            int moved = 0;
+            for (Node node : grown) {
+                moved += setMembers(node, grown);
+            }
+
+            // Assert
+            assertTrue(moved > 0);
+            assertEquals(moved, joining.sessions().getSessionCount());
+            assertHeldByOwners(gameIds, new HashRing(grown.stream().map(Node::name).toList()));
+            for (long gameId : gameIds) {
+                HttpResponse<String> history = send(following, cluster.get(1), "GET", "/games/" + gameId + "/history",
+                        null);
+                assertEquals(200, history.statusCode(), history.body());
+                assertTrue(history.body().contains("\"guess\":[0,1,2,3]"), history.body());
+            }
+        }
+
+        @Test
+        @DisplayName("should drain a leaving node")
+        void shouldDrainLeavingNode() throws Exception {
+            // Arrange
+            List<Node> cluster = startCluster(3);
+            List<Long> gameIds = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                gameIds.add(createGame(cluster.get(i % 3)));
+            }
+            Node leaving = cluster.get(0);
+            List<Node> shrunk = cluster.subList(1, 3);
+
+            // Act
+            for (Node node : cluster) {
+                setMembers(node, shrunk);
+            }
+
+            // Assert
+            assertEquals(0, leaving.sessions().getSessionCount());
+            assertHeldByOwners(gameIds, new HashRing(shrunk.stream().map(Node::name).toList()));
+            for (long gameId : gameIds) {
+                assertEquals(200, send(following, leaving, "GET", "/games/" + gameId, null).statusCode());
+            }
+        }
+
+        @Test
+        @DisplayName("should keep serving games whose new owner is unreachable")
+        void shouldKeepGamesForUnreachableOwner() {
+            // Arrange
+            Node node = startNode();
+            ClusterNode member = new ClusterNode(node.name(), List.of(node.name()), SECRET, node.sessions());
+            List<Long> gameIds = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                Game game = node.sessions().newGame("Alice", Difficulty.NORMAL);
+                node.sessions().guess(game.getId(), new NumCombination(Arrays.asList(0, 1, 2, 3)));
+                gameIds.add(game.getId());
+            }
+
+            // Act
+            int moved = member.setMembers(List.of(node.name(), "127.0.0.1:1"));
+
+            // Assert
+            assertEquals(0, moved);
+            assertEquals(20, node.sessions().getSessionCount());
+            for (long gameId : gameIds) {
+                assertEquals(1, node.sessions().history(gameId).size());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Cluster routes")
+    class ClusterRoutes {
+
+        @Test
+        @DisplayName("should refuse requests without the cluster secret")
+        void shouldRefuseRequestsWithoutSecret() throws Exception {
+            // Arrange
+            Node node = startCluster(1).get(0);
+            byte[] snapshot = exportNewGame(startNode());
+            String members = "{\"nodes\":[\"" + node.name() + "\"]}";
+
+            // Act
+            HttpResponse<String> anonymous = send(direct, node, "POST", ClusterNode.GAMES_PATH,
+                    HttpRequest.BodyPublishers.ofByteArray(snapshot), null);
+            HttpResponse<String> wrong = send(direct, node, "PUT", ClusterNode.MEMBERS_PATH,
+                    HttpRequest.BodyPublishers.ofString(members), "guess");
+
+            // Assert
+            assertEquals(403, anonymous.statusCode());
+            assertEquals(403, wrong.statusCode());
+            assertEquals(0, node.sessions().getSessionCount());
+        }
+
+        @Test
+        @DisplayName("should refuse to import over a hosted game")
+        void shouldRefuseImportOverHostedGame() throws Exception {
+            // Arrange
+            Node node = startCluster(1).get(0);
+            long gameId = createGame(node);
+            byte[] stale = node.sessions().exportGame(gameId).orElseThrow();
+            node.sessions().importGame(stale);
+            send(direct, node, "POST", "/games/" + gameId + "/guesses", "{\"guess\":[0,1,2,3]}");
+
+            // Act
+            HttpResponse<String> response = send(direct, node, "POST", ClusterNode.GAMES_PATH,
+                    HttpRequest.BodyPublishers.ofByteArray(stale), SECRET);
+            HttpResponse<String> hosted = send(direct, node, "GET", ClusterNode.GAMES_PATH + "/" + gameId, null);
+            HttpResponse<String> missing = send(direct, node, "GET", ClusterNode.GAMES_PATH + "/" + (gameId + 1), null);
+
+            // Assert
+            assertEquals(409, response.statusCode());
+            assertEquals(1, node.sessions().history(gameId).size());
+            assertEquals(204, hosted.statusCode());
+            assertEquals(404, missing.statusCode());
+        }
+
+        @Test
+        @DisplayName("should reject oversized snapshots")
+        void shouldRejectOversizedSnapshots() throws Exception {
+            // Arrange
+            Node node = startCluster(1).get(0);
+
+            // Act: one byte over the server's body limit
+            HttpResponse<String> response = send(direct, node, "POST", ClusterNode.GAMES_PATH,
+                    HttpRequest.BodyPublishers.ofByteArray(new byte[16 * 1024 + 1]), SECRET);
+
+            // Assert
+            assertEquals(400, response.statusCode());
+            assertEquals(0, node.sessions().getSessionCount());
+        }
+
+        @Test
+        @DisplayName("should not keep a copy of a game its owner already hosts")
+        void shouldNotDuplicateGameTheOwnerHosts() {
+            // Arrange
+            List<Node> cluster = startCluster(2);
+            Node holder = cluster.get(0);
+            Node owner = cluster.get(1);
+            ClusterNode member = new ClusterNode(holder.name(), List.of(holder.name()), SECRET, holder.sessions());
+            Game game = holder.sessions().newGame("Alice", Difficulty.NORMAL);
+            // As if an earlier transfer landed but its reply was lost
+            owner.sessions().importGame(GameSnapshotCodec.encode(game));
+
+            // Act
+            int moved = member.setMembers(List.of(owner.name()));
+
+            // Assert
+            assertEquals(1, moved);
+            assertFalse(holder.holds(game.getId()));
+            assertTrue(owner.holds(game.getId()));
+        }
+    }
+
+    private static byte[] exportNewGame(Node node) {
+        Game game = node.sessions().newGame("Alice", Difficulty.NORMAL);
+        return node.sessions().exportGame(game.getId()).orElseThrow();
+    }
+}
@@ -0,0 +1,109 @@
+package com.mastermind.cluster;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HashRing")
+class HashRingTest {
+
+    private static final int KEYS = 100_000;
+    private static final List<String> NODES = List.of("127.0.0.1:8080", "127.0.0.1:8081", "127.0.0.1:8082",
+            "127.0.0.1:8083");
+
+    @Nested
+    @DisplayName("Ownership")
+    class Ownership {
+
+        @Test
+        @DisplayName("should spread sequential ids evenly over the nodes")
+        void shouldSpreadEvenly() {
+            // Arrange
+            HashRing ring = new HashRing(NODES);
+            Map<String, Integer> owned = new HashMap<>();
+
+            // Act
+            for (long id = 1; id <= KEYS; id++) {
+                owned.merge(ring.ownerOf(id), 1, Integer::sum);
+            }
+
+            // Assert
+            assertEquals(NODES.size(), owned.size());
+            int fairShare = KEYS / NODES.size();
+            owned.forEach((node, count) -> assertTrue(Math.abs(count - fairShare) < fairShare / 5,
+                    node + " owns " + count + " of " + KEYS));
+        }
+
+        @Test
+        @DisplayName("should not depend on the order or repetition of members")
+        void shouldIgnoreMemberOrder() {
+            // Arrange
+            HashRing ring = new HashRing(NODES);
+            HashRing shuffled = new HashRing(List.of(NODES.get(2), NODES.get(0), NODES.get(3), NODES.get(1),
+                    NODES.get(0)));
+
+            // Act & Assert
+            assertEquals(NODES, shuffled.getNodes());
+            for (long id = 1; id <= 1_000; id++) {
+                assertEquals(ring.ownerOf(id), shuffled.ownerOf(id));
+            }
+        }
+
+        @Test
+        @DisplayName("should reject an empty ring")
+        void shouldRejectEmptyRing() {
+            assertThrows(IllegalArgumentException.class, () -> new HashRing(List.of()));
+            assertThrows(IllegalArgumentException.class, () -> new HashRing(NODES, 0));
+        }
+    }
+
+    @Nested
+    @DisplayName("Membership changes")
+    class MembershipChanges {
+
+        @Test
+        @DisplayName("should move only the added node's share, all of it to that node")
+        void shouldMoveOnlyToAddedNode() {
+            // Arrange
+            HashRing before = new HashRing(NODES);
+            HashRing after = new HashRing(List.of(NODES.get(0), NODES.get(1), NODES.get(2), NODES.get(3),
+                    "127.0.0.1:8084"));
+
+            // Act
+            int moved = 0;
+            for (long id = 1; id <= KEYS; id++) {
+                String owner = after.ownerOf(id);
+                if (!owner.equals(before.ownerOf(id))) {
+                    moved++;
+                    assertEquals("127.0.0.1:8084", owner);
+                }
+            }
+
+            // Assert
+            int fairShare = KEYS / 5;
+            assertTrue(Math.abs(moved - fairShare) < fairShare / 5, "Moved " + moved + " of " + KEYS);
+        }
+
+        @Test
+        @DisplayName("should move only the removed node's ids")
+        void shouldMoveOnlyFromRemovedNode() {
+            // Arrange
+            HashRing before = new HashRing(NODES);
+            HashRing after = new HashRing(NODES.subList(1, NODES.size()));
+
+            // Act & Assert
+            for (long id = 1; id <= KEYS; id++) {
+                String owner = before.ownerOf(id);
+                if (!owner.equals(NODES.get(0))) {
+                    assertEquals(owner, after.ownerOf(id));
+                }
+            }
+        }
+    }
+}
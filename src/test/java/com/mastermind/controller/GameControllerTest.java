@@ -189,6 +189,7 @@ class GameControllerTest {
 
             // Assert
             verify(mockUI, times(1)).displayGameMenu(eq("TestPlayer"), eq(7), anyInt());
+            verify(mockGame, times(1)).exit();
             // Should not call displayGameResults when user exits manually
             verify(mockUI, never()).displayGameResults(any(Status.class), any(NumCombination.class), anyString());
         }
@@ -0,0 +1,187 @@
+package com.mastermind.models;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DisplayName("CompactGame")
+class CompactGameTest {
+
+    private Player player;
+    private NumCombination answer;
+    private NumCombination miss;
+
+    @BeforeEach
+    void setUp() {
+        player = new Player("TestPlayer");
+        answer = new NumCombination(Arrays.asList(7, 0, 3, 3));
+        miss = new NumCombination(Arrays.asList(0, 1, 2, 3));
+    }
+
+    @Nested
+    @DisplayName("Lifecycle")
+    class Lifecycle {
+
+        @Test
+        @DisplayName("should follow PENDING, IN_PROGRESS then WON")
+        void shouldWin() {
+            // Arrange
+            CompactGame game = new CompactGame(1, player, Difficulty.NORMAL, answer);
+
+            // Act
+            assertThrows(IllegalStateException.class, () -> game.playerGuess(miss));
+            game.start();
+            Feedback first = game.playerGuess(miss);
+            Feedback second = game.playerGuess(answer);
+
+            // Assert
+            assertEquals(new Feedback(2, 1, 4), first);
+            assertEquals(new Feedback(4, 4, 4), second);
+            assertEquals(Status.WON, game.getStatus());
+            assertEquals(8, game.getRemainingAttempts());
+            assertEquals(answer, game.getAnswer());
+            assertEquals(miss, game.getGuess(0));
+            assertThrows(IllegalStateException.class, () -> game.playerGuess(miss));
+            assertThrows(IllegalStateException.class, game::start);
+        }
+
+        @Test
+        @DisplayName("should lose when attempts run out")
+        void shouldLose() {
+            // Arrange
+            CompactGame game = new CompactGame(1, player, Difficulty.NORMAL, answer, 3, 0);
+            game.start();
+
+            // Act
+            for (int i = 0; i < 3; i++) {
+                game.playerGuess(miss);
+            }
+
+            // Assert
+            assertEquals(Status.LOST, game.getStatus());
+            assertEquals(0, game.getRemainingAttempts());
+            assertTrue(game.getHint().isEmpty());
+        }
+
+        @Test
+        @DisplayName("should reveal answer digits as hints")
+        void shouldRevealHints() {
+            // Arrange
+            CompactGame game = new CompactGame(1, player, Difficulty.NORMAL, answer);
+
+            // Act & Assert
+            for (int seed = 0; seed < 2; seed++) {
+                String hint = game.getHint(new SplittableRandom(seed)).orElseThrow();
+                assertTrue(answer.getNumbers().contains(Integer.parseInt(hint)), hint);
+            }
+            assertTrue(game.getHint().isEmpty());
+        }
+
+        @Test
+        @DisplayName("should reject answers and guesses of another shape")
+        void shouldRejectOtherShapes() {
+            // Arrange
+            CompactGame game = new CompactGame(1, player, Difficulty.NORMAL, answer);
+            game.start();
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> new CompactGame(1, player, Difficulty.EASY, answer));
+            assertThrows(IllegalArgumentException.class,
+                    () -> game.playerGuess(new NumCombination(Arrays.asList(1, 2, 3), 3, 0, 5)));
+            assertThrows(IllegalArgumentException.class, () -> game.playerGuess(4096));
+            assertEquals(0, game.getGuessCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Equivalence with Game")
+    class Equivalence {
+
+        @Test
+        @DisplayName("should score and finish random games exactly like Game")
+        void shouldMatchGame() {
+            // Arrange
+            SplittableRandom random = new SplittableRandom(42);
+            for (int round = 0; round < 500; round++) {
+                Difficulty difficulty = Difficulty.values()[random.nextInt(3)];
+                NumCombination secret = randomCombination(random, difficulty);
+                Game game = new Game(player, secret);
+                game.setDifficulty(difficulty);
+                CompactGame compact = new CompactGame(round, player, difficulty, secret);
+                game.start();
+                compact.start();
+
+                // Act
+                while (game.getStatus() == Status.IN_PROGRESS) {
+                    NumCombination guess = random.nextInt(8) == 0 ? secret : randomCombination(random, difficulty);
+                    assertEquals(game.playerGuess(guess), compact.playerGuess(guess));
+                }
+
+                // Assert
+                assertEquals(game.getStatus(), compact.getStatus());
+                assertEquals(game.getHistory(), compact.getHistory());
+                assertEquals(game.getHistory(), compact.toGame().getHistory());
+                assertEquals(compact.getHistory(), CompactGame.from(game).getHistory());
+                assertEquals(game.getStatus(), CompactGame.from(game).getStatus());
+            }
+        }
+
+        private NumCombination randomCombination(SplittableRandom random, Difficulty difficulty) {
+            Integer[] digits = new Integer[difficulty.getCombinationSize()];
+            for (int i = 0; i < digits.length; i++) {
+                digits[i] = random.nextInt(difficulty.getMaxRange() + 1);
+            }
+            return new NumCombination(Arrays.asList(digits), digits.length, 0, difficulty.getMaxRange());
+        }
+    }
+
+    @Nested
+    @DisplayName("Footprint")
+    class Footprint {
+
+        @Test
+        @DisplayName("should take under 128 bytes per finished NORMAL game")
+        void shouldStayUnder128BytesPerGame() {
+            // Arrange
+            assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+            com.sun.management.ThreadMXBean threads =
+                    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+            int missCode = (int) miss.toCode();
+            int count = 100_000;
+            CompactGame[] games = new CompactGame[count];
+            // Warm up first, so one-off costs such as class loading and interpreted runs of the
+            // loop are not counted; what is left is what each kept game holds on to
+            playLostGames(new CompactGame[count], missCode);
+
+            // Act
+            long threadId = Thread.currentThread().threadId();
+            long before = threads.getThreadAllocatedBytes(threadId);
+            playLostGames(games, missCode);
+            long bytesPerGame = (threads.getThreadAllocatedBytes(threadId) - before) / count;
+
+            // Assert
+            assertEquals(Status.LOST, games[count - 1].getStatus());
+            assertTrue(bytesPerGame < 128, "Allocated " + bytesPerGame + " bytes per game");
+        }
+
+        private void playLostGames(CompactGame[] games, int missCode) {
+            for (int i = 0; i < games.length; i++) {
+                CompactGame game = new CompactGame(i, player, Difficulty.NORMAL, answer);
+                game.start();
+                for (int turn = 0; turn < 10; turn++) {
+                    game.playerGuess(missCode);
+                }
+                games[i] = game;
+            }
+        }
+    }
+}
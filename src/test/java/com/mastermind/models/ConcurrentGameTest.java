@@ -0,0 +1,195 @@
+package com.mastermind.models;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ConcurrentGame")
+class ConcurrentGameTest {
+
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 2_000;
+
+    private Player player;
+    private NumCombination answer;
+    private NumCombination miss;
+
+    @BeforeEach
+    void setUp() {
+        player = new Player("TestPlayer");
+        answer = new NumCombination(Arrays.asList(7, 0, 3, 3));
+        miss = new NumCombination(Arrays.asList(0, 1, 2, 3));
+    }
+
+    /**
+     * Starts every action at once on its own thread and collects what each returned or threw.
+     */
+    private static List<Object> race(ExecutorService executor, List<Callable<Object>> actions) throws Exception {
+        CountDownLatch ready = new CountDownLatch(actions.size());
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Object>> futures = new ArrayList<>();
+        for (Callable<Object> action : actions) {
+            futures.add(executor.submit(() -> {
+                ready.countDown();
+                go.await();
+                try {
+                    return action.call();
+                } catch (IllegalStateException e) {
+                    return e;
+                }
+            }));
+        }
+        ready.await();
+        go.countDown();
+
+        List<Object> outcomes = new ArrayList<>();
+        for (Future<Object> future : futures) {
+            outcomes.add(future.get(10, TimeUnit.SECONDS));
+        }
+        return outcomes;
+    }
+
+    @Nested
+    @DisplayName("Lifecycle")
+    class Lifecycle {
+
+        @Test
+        @DisplayName("should follow the same rules as Game")
+        void shouldFollowGameRules() {
+            // Arrange
+            ConcurrentGame game = new ConcurrentGame(1, player, answer, Difficulty.NORMAL);
+
+            // Act
+            assertThrows(IllegalStateException.class, () -> game.playerGuess(miss));
+            game.start();
+            Feedback first = game.playerGuess(miss);
+            Feedback second = game.playerGuess(answer);
+
+            // Assert
+            assertEquals(new Feedback(2, 1, 4), first);
+            assertEquals(new Feedback(4, 4, 4), second);
+            assertEquals(Status.WON, game.getStatus());
+            assertEquals(List.of(new History(miss, first), new History(answer, second)), game.getHistory());
+            assertEquals(8, game.getRemainingAttempts());
+            assertThrows(IllegalStateException.class, () -> game.playerGuess(miss));
+            assertThrows(IllegalStateException.class, game::start);
+            assertThrows(UnsupportedOperationException.class, () -> game.getHistory().clear());
+        }
+
+        @Test
+        @DisplayName("should lose when attempts run out")
+        void shouldLose() {
+            // Arrange
+            ConcurrentGame game = new ConcurrentGame(1, player, answer, Difficulty.NORMAL, 2, 0);
+            game.start();
+
+            // Act
+            game.playerGuess(miss);
+            game.playerGuess(miss);
+
+            // Assert
+            assertEquals(Status.LOST, game.getStatus());
+            assertTrue(game.getHint().isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Races")
+    class Races {
+
+        @Test
+        @DisplayName("should never record more guesses than attempts")
+        void shouldNeverExceedMaxAttempts() throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            try {
+                for (int round = 0; round < ROUNDS; round++) {
+                    // Arrange
+                    ConcurrentGame game = new ConcurrentGame(round, player, answer, Difficulty.NORMAL, 3, 0);
+                    game.start();
+                    List<Callable<Object>> guesses = new ArrayList<>();
+                    for (int i = 0; i < THREADS; i++) {
+                        guesses.add(() -> game.playerGuess(miss));
+                    }
+
+                    // Act
+                    List<Object> outcomes = race(executor, guesses);
+
+                    // Assert
+                    assertEquals(3, outcomes.stream().filter(Feedback.class::isInstance).count());
+                    assertEquals(3, game.getHistory().size());
+                    assertEquals(Status.LOST, game.getStatus());
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("should record nothing after a winning guess")
+        void shouldRecordNothingAfterWin() throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            try {
+                for (int round = 0; round < ROUNDS; round++) {
+                    // Arrange
+                    ConcurrentGame game = new ConcurrentGame(round, player, answer, Difficulty.NORMAL);
+                    game.start();
+                    List<Callable<Object>> guesses = new ArrayList<>();
+                    for (int i = 0; i < THREADS; i++) {
+                        NumCombination guess = i % 2 == 0 ? answer : miss;
+                        guesses.add(() -> game.playerGuess(guess));
+                    }
+
+                    // Act
+                    race(executor, guesses);
+
+                    // Assert
+                    List<History> history = game.getHistory();
+                    assertEquals(Status.WON, game.getStatus());
+                    assertEquals(answer, history.get(history.size() - 1).guess());
+                    assertEquals(1, history.stream().filter(turn -> turn.guess().equals(answer)).count());
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("should hand out exactly the available hints")
+        void shouldHandOutExactlyAvailableHints() throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            try {
+                for (int round = 0; round < ROUNDS; round++) {
+                    // Arrange
+                    ConcurrentGame game = new ConcurrentGame(round, player, answer, Difficulty.NORMAL);
+                    List<Callable<Object>> hints = new ArrayList<>();
+                    for (int i = 0; i < THREADS; i++) {
+                        hints.add(game::getHint);
+                    }
+
+                    // Act
+                    List<Object> outcomes = race(executor, hints);
+
+                    // Assert
+                    assertEquals(2, outcomes.stream().filter(hint -> ((Optional<?>) hint).isPresent()).count());
+                    assertEquals(0, game.getHintCount());
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+}
@@ -268,4 +268,75 @@ class FeedbackTest {
             assertEquals("3 correct numbers, and 1 correct location", result);
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Byte packing")
+    class BytePacking {
+
+        @Test
+        @DisplayName("should round-trip every feedback of a combination size")
+        void shouldRoundTripEveryFeedback() {
+            for (int digits = 0; digits <= 15; digits++) {
+                for (int positions = 0; positions <= digits; positions++) {
+                    // Arrange
+                    Feedback feedback = new Feedback(digits, positions, 15);
+
+                    // Act & Assert
+                    assertEquals(feedback, Feedback.fromByte(feedback.toByte(), 15));
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("should refuse to pack feedback for more than 15 digits")
+        void shouldRefuseToPackFeedbackForMoreThan15Digits() {
+            // Act & Assert
+            assertThrows(IllegalStateException.class, () -> new Feedback(1, 1, 16).toByte());
+        }
+    }
+
+    @Nested
+    @DisplayName("Code scoring")
+    class CodeScoring {
+
+        @Test
+        @DisplayName("should match Feedback.create for every EASY answer and guess")
+        void shouldMatchCreateForEveryEasyPair() {
+            for (long answerCode = 0; answerCode < 216; answerCode++) {
+                for (long guessCode = 0; guessCode < 216; guessCode++) {
+                    // Arrange
+                    NumCombination answer = NumCombination.fromCode(answerCode, 3, 0, 5);
+                    NumCombination guess = NumCombination.fromCode(guessCode, 3, 0, 5);
+
+                    // Act
+                    byte scored = Feedback.scoreCodes(answerCode, guessCode, 3, 6);
+
+                    // Assert
+                    assertEquals(Feedback.create(answer, guess).toByte(), scored, answer + " vs " + guess);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("should handle duplicates like Feedback.create")
+        void shouldHandleDuplicates() {
+            // Arrange
+            NumCombination answer = new NumCombination(Arrays.asList(1, 1, 2, 3));
+            NumCombination guess = new NumCombination(Arrays.asList(1, 1, 1, 2));
+
+            // Act
+            byte scored = Feedback.scoreCodes(answer.toCode(), guess.toCode(), 4, 8);
+
+            // Assert
+            assertEquals(new Feedback(3, 2, 4), Feedback.fromByte(scored, 4));
+        }
+
+        @Test
+        @DisplayName("should refuse shapes that do not pack")
+        void shouldRefuseShapesThatDoNotPack() {
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> Feedback.scoreCodes(0, 0, 16, 2));
+            assertThrows(IllegalArgumentException.class, () -> Feedback.scoreCodes(0, 0, 4, 17));
+        }
+    }
+}
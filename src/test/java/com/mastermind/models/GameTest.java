@@ -5,8 +5,11 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.BeforeEach;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -196,6 +199,44 @@ class GameTest {
             // Assert
             assertEquals(9, game.getRemainingAttempts());
         }
+
+        @Test
+        @DisplayName("should apply a guess with precomputed feedback")
+        void shouldApplyGuessWithPrecomputedFeedback() {
+            // Arrange
+            Game game = new Game(testPlayer, testAnswer);
+            game.start();
+            Feedback win = Feedback.create(testAnswer, testAnswer);
+
+            // Act
+            Feedback returned = game.playerGuess(testAnswer, win);
+
+            // Assert
+            assertSame(win, returned);
+            assertEquals(List.of(new History(testAnswer, win)), game.getHistory());
+            assertEquals(Status.WON, game.getStatus());
+            assertThrows(IllegalStateException.class, () -> game.playerGuess(testGuess, win));
+            assertThrows(IllegalArgumentException.class, () -> game.playerGuess(testGuess, null));
+        }
+
+        @Test
+        @DisplayName("should reject precomputed feedback that cannot be right")
+        void shouldRejectInconsistentPrecomputedFeedback() {
+            // Arrange
+            Game game = new Game(testPlayer, testAnswer);
+            game.start();
+            int size = testAnswer.getExpectedSize();
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class,
+                    () -> game.playerGuess(testGuess, new Feedback(size, size, size)));
+            assertThrows(IllegalArgumentException.class,
+                    () -> game.playerGuess(testGuess, new Feedback(1, 2, size)));
+            assertThrows(IllegalArgumentException.class,
+                    () -> game.playerGuess(testGuess, new Feedback(0, 0, size + 1)));
+            assertTrue(game.getGuesses().isEmpty());
+            assertEquals(Status.IN_PROGRESS, game.getStatus());
+        }
     }
 
     @Nested
@@ -347,4 +388,112 @@ class GameTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Hint functionality")
+    class HintFunctionality {
+
+        @Test
+        @DisplayName("should reveal a digit of the answer and consume a hint")
+        void shouldRevealDigitOfAnswerAndConsumeHint() {
+            // Arrange
+            Game game = new Game(testPlayer, testAnswer);
+
+            // Act
+            Optional<String> hint = game.getHint();
+
+            // Assert
+            assertTrue(hint.isPresent());
+            assertTrue(testAnswer.getNumbers().contains(Integer.parseInt(hint.get())));
+            assertEquals(1, game.getHintCount());
+        }
+
+        @Test
+        @DisplayName("should return empty when no hints are left")
+        void shouldReturnEmptyWhenNoHintsLeft() {
+            // Arrange
+            Game game = new Game(testPlayer, testAnswer);
+            game.getHint();
+            game.getHint();
+
+            // Act & Assert
+            assertTrue(game.getHint().isEmpty());
+        }
+
+        @Test
+        @DisplayName("should pick reproducible positions with a seeded generator")
+        void shouldPickReproduciblePositionsWithSeededGenerator() {
+            // Arrange
+            Game first = new Game(testPlayer, new NumCombination(Arrays.asList(0, 1, 2, 3)));
+            Game second = new Game(testPlayer, new NumCombination(Arrays.asList(0, 1, 2, 3)));
+            SplittableRandom firstRandom = new SplittableRandom(11L);
+            SplittableRandom secondRandom = new SplittableRandom(11L);
+
+            // Act & Assert
+            assertEquals(first.getHint(firstRandom), second.getHint(secondRandom));
+            assertEquals(first.getHint(firstRandom), second.getHint(secondRandom));
+        }
+    }
+
+    @Nested
+    @DisplayName("Listener notifications")
+    class ListenerNotifications {
+
+        @Test
+        @DisplayName("should report every transition after it is applied")
+        void shouldReportEveryTransitionAfterItIsApplied() {
+            // Arrange
+            List<String> events = new ArrayList<>();
+            Game game = new Game(testPlayer, testAnswer);
+            game.setListener(new GameListener() {
+                @Override
+                public void onStart(Game started) {
+                    events.add("start " + started.getStatus());
+                }
+
+                @Override
+                public void onGuess(Game guessed, NumCombination guess, Feedback feedback) {
+                    events.add("guess " + guessed.getGuesses().size() + " " + guess);
+                }
+
+                @Override
+                public void onHint(Game hinted, int position) {
+                    events.add("hint " + hinted.getHintCount() + " at " + position);
+                }
+
+                @Override
+                public void onExit(Game exited) {
+                    events.add("exit");
+                }
+            });
+
+            // Act
+            game.start();
+            game.playerGuess(testGuess);
+            game.getHint(new SplittableRandom(1));
+            game.exit();
+
+            // Assert
+            assertEquals(4, events.size());
+            assertEquals("start IN_PROGRESS", events.get(0));
+            assertEquals("guess 1 0 1 2 3", events.get(1));
+            assertTrue(events.get(2).startsWith("hint 1 at "));
+            assertEquals("exit", events.get(3));
+        }
+
+        @Test
+        @DisplayName("should ignore the listener in equality")
+        void shouldIgnoreListenerInEquality() {
+            // Arrange
+            Game game = new Game(testPlayer, testAnswer);
+            Game other = new Game(testPlayer, testAnswer);
+
+            // Act
+            other.setListener(new GameListener() {});
+
+            // Assert
+            assertEquals(game, other);
+            assertSame(GameListener.NONE, game.getListener());
+        }
+    }
+}
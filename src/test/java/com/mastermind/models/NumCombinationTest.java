@@ -178,4 +178,45 @@ class NumCombinationTest {
             assertThrows(UnsupportedOperationException.class, () -> numbers.add(5));
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Code packing")
+    class CodePacking {
+
+        @Test
+        @DisplayName("should pack digits as a mixed-radix number")
+        void shouldPackDigitsAsMixedRadixNumber() {
+            // Arrange
+            NumCombination combo = new NumCombination(Arrays.asList(1, 2, 3, 4));
+
+            // Act & Assert - base 8: 1*512 + 2*64 + 3*8 + 4
+            assertEquals(668, combo.toCode());
+        }
+
+        @Test
+        @DisplayName("should round-trip every code of a space")
+        void shouldRoundTripEveryCodeOfSpace() {
+            // Act & Assert
+            for (long code = 0; code < NumCombination.codeSpace(3, 1, 6); code++) {
+                assertEquals(code, NumCombination.fromCode(code, 3, 1, 6).toCode());
+            }
+        }
+
+        @Test
+        @DisplayName("should size the code space of each difficulty")
+        void shouldSizeCodeSpaceOfEachDifficulty() {
+            // Act & Assert
+            assertEquals(216, NumCombination.codeSpace(3, 0, 5));
+            assertEquals(4096, NumCombination.codeSpace(4, 0, 7));
+            assertEquals(100_000, NumCombination.codeSpace(5, 0, 9));
+        }
+
+        @Test
+        @DisplayName("should reject codes outside the space")
+        void shouldRejectCodesOutsideSpace() {
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> NumCombination.fromCode(4096, 4, 0, 7));
+            assertThrows(IllegalArgumentException.class, () -> NumCombination.fromCode(-1, 4, 0, 7));
+        }
+    }
+}
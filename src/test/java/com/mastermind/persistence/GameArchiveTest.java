@@ -0,0 +1,244 @@
+package com.mastermind.persistence;
+
+import com.mastermind.models.Difficulty;
+import com.mastermind.models.Game;
+import com.mastermind.models.NumCombination;
+import com.mastermind.models.Player;
+import com.mastermind.models.Status;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GameArchive")
+class GameArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    private final AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+
+    private static final NumCombination ANSWER = new NumCombination(Arrays.asList(7, 0, 3, 3));
+
+    private GameArchive openArchive(int segmentRows) {
+        return new GameArchive(directory, segmentRows, clock::incrementAndGet);
+    }
+
+    private static NumCombination guess(Integer... digits) {
+        return new NumCombination(Arrays.asList(digits));
+    }
+
+    private static Game wonGame(String name) {
+        Game game = new Game(new Player(name), ANSWER);
+        game.setDifficulty(Difficulty.NORMAL);
+        game.start();
+        game.playerGuess(guess(0, 1, 2, 3));
+        game.getHint();
+        game.playerGuess(guess(7, 1, 2, 3));
+        game.playerGuess(ANSWER);
+        return game;
+    }
+
+    private static Game lostGame(String name) {
+        Game game = new Game(new Player(name), ANSWER);
+        game.setDifficulty(Difficulty.NORMAL);
+        game.start();
+        for (int i = 0; i < game.getMaxAttempts(); i++) {
+            game.playerGuess(guess(i % 8, (i + 3) % 8, 0, 0));
+        }
+        return game;
+    }
+
+    @Nested
+    @DisplayName("Round trip")
+    class RoundTrip {
+
+        @Test
+        @DisplayName("should restore won and lost games from a flushed segment")
+        void shouldRestoreWonAndLostGames() {
+            // Arrange
+            Game won = wonGame("Alice");
+            Game lost = lostGame("Bob");
+
+            try (GameArchive archive = openArchive(1_000)) {
+                archive.append(won);
+                archive.append(lost);
+
+                // Act
+                archive.flush();
+                GameArchive.Segment segment = archive.segments().get(0);
+
+                // Assert
+                assertEquals(2, segment.rowCount());
+                assertEquals(won, archive.restore(segment, 0));
+                assertEquals(lost, archive.restore(segment, 1));
+            }
+        }
+
+        @Test
+        @DisplayName("should expose every column by row")
+        void shouldExposeColumnsByRow() {
+            // Arrange
+            try (GameArchive archive = openArchive(1_000)) {
+                archive.append(wonGame("Alice"));
+                archive.append(lostGame("Alice"));
+
+                // Act
+                archive.flush();
+                GameArchive.Segment segment = archive.segments().get(0);
+
+                // Assert
+                assertEquals(Difficulty.NORMAL, segment.difficulty(0));
+                assertEquals(Status.WON, segment.status(0));
+                assertTrue(segment.isWon(0));
+                assertFalse(segment.isWon(1));
+                assertEquals(3, segment.guessCount(0));
+                assertEquals(1, segment.hintsUsed(0));
+                assertEquals(0, segment.hintsUsed(1));
+                assertEquals(segment.playerId(0), segment.playerId(1));
+                assertEquals("Alice", archive.playerName(segment.playerId(0)));
+                assertEquals(ANSWER.toCode(), segment.answerCode(0));
+                assertEquals(guess(0, 1, 2, 3).toCode(), segment.firstGuessCode(0));
+                assertEquals(1_700_000_000_001L, segment.finishedAt(0));
+                assertEquals(3, segment.turnOffset(1));
+                assertEquals(13, segment.turnCount());
+            }
+        }
+
+        @Test
+        @DisplayName("should reject unfinished games and games without a difficulty")
+        void shouldRejectUnarchivableGames() {
+            // Arrange
+            Game pending = new Game(new Player("Alice"), ANSWER);
+            pending.setDifficulty(Difficulty.NORMAL);
+            Game custom = wonGame("Alice");
+            custom.setDifficulty(null);
+
+            try (GameArchive archive = openArchive(1_000)) {
+                // Act & Assert
+                assertThrows(IllegalArgumentException.class, () -> archive.append(pending));
+                assertThrows(IllegalArgumentException.class, () -> archive.append(custom));
+            }
+        }
+
+        @Test
+        @DisplayName("should skip unarchivable games handed over as a consumer")
+        void shouldSkipUnarchivableGamesWhenAccepting() {
+            // Arrange
+            Game pending = new Game(new Player("Alice"), ANSWER);
+            pending.setDifficulty(Difficulty.NORMAL);
+            Game custom = wonGame("Alice");
+            custom.setDifficulty(null);
+
+            try (GameArchive archive = openArchive(1)) {
+                // Act
+                archive.accept(pending);
+                archive.accept(custom);
+                archive.accept(wonGame("Bob"));
+                archive.awaitWrites();
+
+                // Assert
+                assertEquals(1, archive.size());
+                assertEquals("Bob", archive.playerName(archive.segments().get(0).playerId(0)));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Segments")
+    class Segments {
+
+        @Test
+        @DisplayName("should write a segment whenever the buffer fills")
+        void shouldWriteSegmentWhenBufferFills() {
+            // Arrange
+            try (GameArchive archive = openArchive(2)) {
+                // Act
+                for (int i = 0; i < 5; i++) {
+                    archive.append(wonGame("Player" + i));
+                }
+                archive.awaitWrites();
+
+                // Assert
+                assertEquals(2, archive.segments().size());
+                assertEquals(4, archive.size());
+            }
+        }
+
+        @Test
+        @DisplayName("should grow past many segments and players")
+        void shouldGrowPastManySegmentsAndPlayers() {
+            // Arrange
+            try (GameArchive archive = openArchive(1)) {
+                // Act
+                for (int i = 0; i < 100; i++) {
+                    archive.append(wonGame("Player" + i));
+                }
+                archive.awaitWrites();
+
+                // Assert
+                assertEquals(100, archive.segments().size());
+                for (int i = 0; i < 100; i++) {
+                    assertEquals("Player" + i, archive.playerName(archive.segments().get(i).playerId(0)));
+                }
+                assertThrows(IndexOutOfBoundsException.class, () -> archive.playerName(100));
+            }
+        }
+
+        @Test
+        @DisplayName("should keep segments and player names across a reopen")
+        void shouldKeepSegmentsAcrossReopen() {
+            // Arrange
+            try (GameArchive archive = openArchive(2)) {
+                for (int i = 0; i < 5; i++) {
+                    archive.append(wonGame("Player" + i % 3));
+                }
+            }
+
+            // Act
+            try (GameArchive reopened = openArchive(2)) {
+                reopened.append(lostGame("Player1"));
+                reopened.append(lostGame("Newcomer"));
+                reopened.awaitWrites();
+
+                // Assert
+                assertEquals(4, reopened.segments().size());
+                assertEquals(7, reopened.size());
+                assertEquals(1, reopened.findPlayerId("Player1").getAsInt());
+                assertEquals(3, reopened.findPlayerId("Newcomer").getAsInt());
+                GameArchive.Segment last = reopened.segments().get(3);
+                assertEquals("Newcomer", reopened.playerName(last.playerId(1)));
+            }
+        }
+
+        @Test
+        @DisplayName("should store a finished NORMAL game in well under a hundred bytes")
+        void shouldStoreGamesCompactly() throws IOException {
+            // Arrange
+            List<Game> games = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) {
+                games.add(i % 2 == 0 ? wonGame("Player" + i % 10) : lostGame("Player" + i % 10));
+            }
+
+            try (GameArchive archive = openArchive(10_000)) {
+                // Act
+                games.forEach(archive::append);
+                archive.flush();
+
+                // Assert
+                long bytes = Files.size(archive.segments().get(0).file());
+                assertTrue(bytes / games.size() < 60, "Bytes per game: " + bytes / games.size());
+            }
+        }
+    }
+}
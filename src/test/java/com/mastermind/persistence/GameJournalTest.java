@@ -0,0 +1,243 @@
+package com.mastermind.persistence;
+
+import com.mastermind.models.Difficulty;
+import com.mastermind.models.Game;
+import com.mastermind.models.NumCombination;
+import com.mastermind.models.Player;
+import com.mastermind.models.Status;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GameJournal")
+class GameJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private static Game newGame(long id, String playerName, GameJournal journal) {
+        Game game = new Game(new Player(playerName), new NumCombination(Arrays.asList(7, 0, 3, 3)));
+        game.setId(id);
+        game.setDifficulty(Difficulty.NORMAL);
+        game.setListener(journal);
+        return game;
+    }
+
+    private static NumCombination guess(int first) {
+        return new NumCombination(Arrays.asList(first, 1, 2, 3));
+    }
+
+    @Nested
+    @DisplayName("Replay")
+    class Replay {
+
+        @Test
+        @DisplayName("should rebuild in-progress games after a restart")
+        void shouldRebuildInProgressGamesAfterRestart() {
+            // Arrange
+            Path file = directory.resolve("games.journal");
+            Game game;
+            try (GameJournal journal = new GameJournal(file, GameJournal.FsyncPolicy.NONE, Duration.ZERO)) {
+                game = newGame(42, "Alice", journal);
+                game.start();
+                game.playerGuess(guess(1));
+                game.getHint(new SplittableRandom(3));
+                game.playerGuess(guess(2));
+                game.exit();
+            }
+
+            // Act
+            Map<Long, Game> games = GameJournal.replay(file);
+
+            // Assert
+            assertEquals(1, games.size());
+            Game restored = games.get(42L);
+            assertEquals(game, restored);
+            assertEquals(Status.IN_PROGRESS, restored.getStatus());
+            assertEquals(1, restored.getHintCount());
+        }
+
+        @Test
+        @DisplayName("should leave finished games out")
+        void shouldLeaveFinishedGamesOut() {
+            // Arrange
+            Path file = directory.resolve("games.journal");
+            try (GameJournal journal = new GameJournal(file, GameJournal.FsyncPolicy.NONE, Duration.ZERO)) {
+                Game won = newGame(1, "Winner", journal);
+                won.start();
+                won.playerGuess(new NumCombination(Arrays.asList(7, 0, 3, 3)));
+                newGame(2, "Playing", journal).start();
+            }
+
+            // Act & Assert
+            assertEquals(List.of(2L), new ArrayList<>(GameJournal.replay(file).keySet()));
+        }
+
+        @Test
+        @DisplayName("should restore long player names from continuation records")
+        void shouldRestoreLongPlayerNames() {
+            // Arrange
+            Path file = directory.resolve("games.journal");
+            String name = "Ödön the Magnificent, Breaker of Codes and Keeper of Pegs ".repeat(3);
+            try (GameJournal journal = new GameJournal(file, GameJournal.FsyncPolicy.NONE, Duration.ZERO)) {
+                newGame(7, name, journal).start();
+            }
+
+            // Act & Assert
+            assertEquals(name, GameJournal.replay(file).get(7L).getPlayer().getName());
+        }
+
+        @Test
+        @DisplayName("should only apply events a game has not seen")
+        void shouldOnlyApplyUnseenEvents() {
+            // Arrange
+            Path file = directory.resolve("games.journal");
+            Game game;
+            try (GameJournal journal = new GameJournal(file, GameJournal.FsyncPolicy.NONE, Duration.ZERO)) {
+                game = newGame(5, "Bob", journal);
+                game.start();
+                game.playerGuess(guess(1));
+                game.playerGuess(guess(2));
+            }
+            Map<Long, Game> games = GameJournal.replay(file);
+
+            // Act - replaying the same journal again over the rebuilt games
+            try (GameJournal journal = new GameJournal(file, GameJournal.FsyncPolicy.NONE, Duration.ZERO)) {
+                journal.replayInto(games);
+            }
+
+            // Assert
+            assertEquals(game.getGuesses(), games.get(5L).getGuesses());
+        }
+
+        @Test
+        @DisplayName("should skip a torn record and keep appending after the last valid one")
+        void shouldSkipTornRecord() throws IOException {
+            // Arrange
+            Path file = directory.resolve("games.journal");
+            try (GameJournal journal = new GameJournal(file, GameJournal.FsyncPolicy.NONE, Duration.ZERO)) {
+                Game game = newGame(9, "Carol", journal);
+                game.start();
+                game.playerGuess(guess(1));
+                game.playerGuess(guess(2));
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), 2L * GameJournal.RECORD_SIZE + 30);
+            }
+
+            // Act
+            Game restored = GameJournal.replay(file).get(9L);
+
+            // Assert - the second guess was torn
+            assertEquals(List.of(guess(1)), restored.getGuesses());
+        }
+    }
+
+    @Nested
+    @DisplayName("Appending")
+    class Appending {
+
+        @Test
+        @DisplayName("should accept concurrent appends from many games")
+        void shouldAcceptConcurrentAppends() throws Exception {
+            // Arrange
+            Path file = directory.resolve("games.journal");
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            List<Future<?>> futures = new ArrayList<>();
+
+            try (GameJournal journal = new GameJournal(file, GameJournal.FsyncPolicy.GROUP, Duration.ofMillis(1))) {
+                // Act
+                for (long id = 1; id <= 400; id++) {
+                    long gameId = id;
+                    futures.add(executor.submit(() -> {
+                        Game game = newGame(gameId, "Player" + gameId, journal);
+                        game.start();
+                        for (int i = 0; i < 5; i++) {
+                            game.playerGuess(guess(i));
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get(30, TimeUnit.SECONDS);
+                }
+
+                // Assert
+                assertEquals(400L * 6 * GameJournal.RECORD_SIZE, journal.size());
+            } finally {
+                executor.shutdownNow();
+            }
+
+            Map<Long, Game> games = GameJournal.replay(file);
+            assertEquals(400, games.size());
+            assertTrue(games.values().stream().allMatch(game -> game.getGuesses().size() == 5));
+        }
+
+        @Test
+        @DisplayName("should force every append under the SYNC policy")
+        void shouldForceEveryAppendUnderSyncPolicy() {
+            // Arrange
+            Path file = directory.resolve("games.journal");
+
+            // Act
+            try (GameJournal journal = new GameJournal(file, GameJournal.FsyncPolicy.SYNC, Duration.ZERO)) {
+                Game game = newGame(3, "Dave", journal);
+                game.start();
+                game.playerGuess(guess(4));
+
+                // Assert
+                assertEquals(2L * GameJournal.RECORD_SIZE, journal.size());
+            }
+            assertEquals(1, GameJournal.replay(file).get(3L).getGuesses().size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Group commit")
+    class GroupCommit {
+
+        @Test
+        @DisplayName("should flush only up to the first slot not yet written, then skip it once it is stale")
+        void shouldFlushOnlyWrittenPrefix() throws Exception {
+            // Arrange
+            Path file = directory.resolve("games.journal");
+            try (GameJournal journal = new GameJournal(file, GameJournal.FsyncPolicy.GROUP, Duration.ofHours(1));
+                 FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                Game game = newGame(5, "Erin", journal);
+                game.start();
+                game.playerGuess(guess(0));
+                game.playerGuess(guess(1));
+                // Empty the middle slot again, as if its writer had reserved it but not written it yet
+                channel.write(ByteBuffer.allocate(GameJournal.RECORD_SIZE), GameJournal.RECORD_SIZE);
+
+                // Act
+                journal.flush();
+                long beforeTimeout = journal.flushedSize();
+                TimeUnit.MILLISECONDS.sleep(GameJournal.GAP_TIMEOUT.toMillis() + 100);
+                journal.flush();
+
+                // Assert
+                assertEquals(GameJournal.RECORD_SIZE, beforeTimeout);
+                assertEquals(3L * GameJournal.RECORD_SIZE, journal.flushedSize());
+            }
+        }
+    }
+}
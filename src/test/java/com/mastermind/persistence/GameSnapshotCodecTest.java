@@ -0,0 +1,233 @@
+package com.mastermind.persistence;
+
+import com.mastermind.models.Difficulty;
+import com.mastermind.models.Game;
+import com.mastermind.models.NumCombination;
+import com.mastermind.models.Player;
+import com.mastermind.models.Status;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GameSnapshotCodec")
+class GameSnapshotCodecTest {
+
+    private static Game normalGame(String playerName, int guessCount) {
+        Game game = new Game(new Player(playerName), new NumCombination(Arrays.asList(7, 0, 3, 3)));
+        game.setId(Long.MAX_VALUE - 1);
+        game.setDifficulty(Difficulty.NORMAL);
+        game.start();
+        for (int i = 0; i < guessCount; i++) {
+            game.playerGuess(new NumCombination(Arrays.asList(i % 8, 1, 2, 3)));
+        }
+        return game;
+    }
+
+    @Nested
+    @DisplayName("Round trip")
+    class RoundTrip {
+
+        @Test
+        @DisplayName("should restore an in-progress game")
+        void shouldRestoreInProgressGame() {
+            // Arrange
+            Game game = normalGame("Alice", 3);
+            game.getHint();
+
+            // Act
+            Game restored = GameSnapshotCodec.decode(GameSnapshotCodec.encode(game));
+
+            // Assert
+            assertEquals(game, restored);
+            assertEquals(Status.IN_PROGRESS, restored.getStatus());
+            assertEquals(1, restored.getHintCount());
+        }
+
+        @Test
+        @DisplayName("should restore a lost game with every guess and feedback")
+        void shouldRestoreLostGame() {
+            // Arrange
+            Game game = normalGame("Bob", 10);
+
+            // Act
+            Game restored = GameSnapshotCodec.decode(GameSnapshotCodec.encode(game));
+
+            // Assert
+            assertEquals(Status.LOST, restored.getStatus());
+            assertEquals(game.getGuesses(), restored.getGuesses());
+            assertEquals(game.getFeedbacks(), restored.getFeedbacks());
+        }
+
+        @Test
+        @DisplayName("should restore a game without difficulty and with a custom shape")
+        void shouldRestoreGameWithCustomShape() {
+            // Arrange
+            Game game = new Game(new Player("Zoë 🎲"), new NumCombination(Arrays.asList(-2, 12, 0), 3, -3, 12));
+            game.start();
+            game.playerGuess(new NumCombination(Arrays.asList(12, -2, -3), 3, -3, 12));
+
+            // Act
+            Game restored = GameSnapshotCodec.decode(GameSnapshotCodec.encode(game));
+
+            // Assert
+            assertEquals(game, restored);
+            assertNull(restored.getDifficulty());
+        }
+
+        @Test
+        @DisplayName("should read consecutive snapshots from one buffer")
+        void shouldReadConsecutiveSnapshotsFromOneBuffer() {
+            // Arrange
+            List<Game> games = List.of(normalGame("A", 1), normalGame("B", 2), normalGame("C", 10));
+            ByteBuffer buffer = ByteBuffer.allocate(256);
+            for (Game game : games) {
+                GameSnapshotCodec.encode(game, buffer);
+            }
+            buffer.flip();
+
+            // Act & Assert
+            for (Game game : games) {
+                assertEquals(game, GameSnapshotCodec.decode(buffer));
+            }
+            assertFalse(buffer.hasRemaining());
+        }
+    }
+
+    @Nested
+    @DisplayName("Compactness")
+    class Compactness {
+
+        @Test
+        @DisplayName("should fit a finished NORMAL game in under 64 bytes")
+        void shouldFitFinishedNormalGameInUnder64Bytes() {
+            // Act
+            byte[] snapshot = GameSnapshotCodec.encode(normalGame("PlayerOne", 10));
+
+            // Assert - 1 version + 9 id + 1 header + 2 counters + 10 name + 2 answer + 1 count
+            // + 10 turns of at most 3 bytes, two of them with codes below 128 that take one byte
+            assertEquals(54, snapshot.length);
+        }
+
+        @Test
+        @DisplayName("should encode repeatedly into one reused buffer")
+        void shouldEncodeRepeatedlyIntoReusedBuffer() {
+            // Arrange
+            Game game = normalGame("PlayerOne", 10);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+
+            // Act
+            int written = 0;
+            for (int i = 0; i < 100_000; i++) {
+                buffer.clear();
+                written = GameSnapshotCodec.encode(game, buffer);
+            }
+
+            // Assert
+            buffer.flip();
+            assertEquals(54, written);
+            assertEquals(game, GameSnapshotCodec.decode(buffer));
+        }
+    }
+
+    @Nested
+    @DisplayName("Malformed input")
+    class MalformedInput {
+
+        @Test
+        @DisplayName("should reject an unknown version")
+        void shouldRejectUnknownVersion() {
+            // Arrange
+            byte[] snapshot = GameSnapshotCodec.encode(normalGame("A", 1));
+            snapshot[0] = 99;
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> GameSnapshotCodec.decode(snapshot));
+        }
+
+        @Test
+        @DisplayName("should read version 1 snapshots, which have no id")
+        void shouldReadVersionOneSnapshots() {
+            // Arrange
+            Game game = normalGame("A", 3);
+            game.setId(5);
+            byte[] current = GameSnapshotCodec.encode(game);
+            // Version 1 is the same layout without the id varint after the version byte
+            byte[] versionOne = new byte[current.length - 1];
+            versionOne[0] = GameSnapshotCodec.VERSION_WITHOUT_ID;
+            System.arraycopy(current, 2, versionOne, 1, current.length - 2);
+
+            // Act
+            Game decoded = GameSnapshotCodec.decode(versionOne);
+
+            // Assert
+            assertEquals(GameSnapshotCodec.VERSION, current[0]);
+            assertEquals(0, decoded.getId());
+            decoded.setId(5);
+            assertEquals(game, decoded);
+        }
+
+        @Test
+        @DisplayName("should reject every truncated snapshot with IllegalArgumentException")
+        void shouldRejectTruncatedSnapshots() {
+            // Arrange
+            byte[] snapshot = GameSnapshotCodec.encode(normalGame("Alice", 4));
+
+            for (int length = 0; length < snapshot.length; length++) {
+                byte[] truncated = Arrays.copyOf(snapshot, length);
+
+                // Act & Assert
+                assertThrows(IllegalArgumentException.class, () -> GameSnapshotCodec.decode(truncated),
+                        "length " + length);
+            }
+        }
+
+        @Test
+        @DisplayName("should reject fields out of range")
+        void shouldRejectFieldsOutOfRange() {
+            // Arrange
+            Game game = normalGame("A", 2);
+            game.setId(5);
+            byte[] snapshot = GameSnapshotCodec.encode(game);
+            // Version, one-byte id, then the header
+            byte[] unknownHeader = snapshot.clone();
+            unknownHeader[2] |= (byte) 0x80;
+            // The last byte is the last turn's feedback: five correct digits out of four
+            byte[] impossibleFeedback = snapshot.clone();
+            impossibleFeedback[snapshot.length - 1] = 0x51;
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> GameSnapshotCodec.decode(unknownHeader));
+            assertThrows(IllegalArgumentException.class, () -> GameSnapshotCodec.decode(impossibleFeedback));
+        }
+
+        @Test
+        @DisplayName("should reject a game without an answer")
+        void shouldRejectGameWithoutAnswer() {
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> GameSnapshotCodec.encode(new Game()));
+        }
+    }
+
+    @Test
+    @DisplayName("should round-trip varints at every length")
+    void shouldRoundTripVarints() {
+        // Arrange
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+
+        for (long value : new long[]{0, 127, 128, 16_383, 16_384, Integer.MAX_VALUE, Long.MAX_VALUE, -1}) {
+            // Act
+            buffer.clear();
+            GameSnapshotCodec.putVarint(buffer, value);
+            buffer.flip();
+
+            // Assert
+            assertEquals(value, GameSnapshotCodec.getVarint(buffer));
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.mastermind.persistence;
+
+import com.mastermind.models.Difficulty;
+import com.mastermind.models.Game;
+import com.mastermind.models.NumCombination;
+import com.mastermind.models.Player;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GameStore")
+class GameStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private static final NumCombination ANSWER = new NumCombination(Arrays.asList(7, 0, 3, 3));
+
+    private static Game startGame(long id, GameStore store) {
+        Game game = new Game(new Player("Player" + id), ANSWER);
+        game.setId(id);
+        game.setDifficulty(Difficulty.NORMAL);
+        game.setListener(store);
+        game.start();
+        return game;
+    }
+
+    private static NumCombination guess(int first) {
+        return new NumCombination(Arrays.asList(first, 1, 2, 3));
+    }
+
+    private GameStore openStore(int segmentRecords, List<Game> finished) {
+        return new GameStore(directory, GameJournal.FsyncPolicy.NONE, segmentRecords, finished::add);
+    }
+
+    private void awaitSnapshot() throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (files().stream().noneMatch(name -> name.startsWith("snapshot-")) && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertTrue(files().stream().anyMatch(name -> name.startsWith("snapshot-")), files().toString());
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    @Nested
+    @DisplayName("Recovery")
+    class Recovery {
+
+        @Test
+        @DisplayName("should recover unfinished games after a restart")
+        void shouldRecoverUnfinishedGamesAfterRestart() {
+            // Arrange
+            Game game;
+            try (GameStore store = openStore(1_000, new ArrayList<>())) {
+                game = startGame(1, store);
+                game.playerGuess(guess(1));
+                game.getHint();
+            }
+
+            // Act
+            try (GameStore reopened = openStore(1_000, new ArrayList<>())) {
+                Game recovered = reopened.getRecoveredGames().get(1L);
+
+                // Assert
+                assertEquals(game, recovered);
+                assertSame(reopened, recovered.getListener());
+            }
+        }
+
+        @Test
+        @DisplayName("should keep persisting recovered games")
+        void shouldKeepPersistingRecoveredGames() {
+            // Arrange
+            try (GameStore store = openStore(1_000, new ArrayList<>())) {
+                startGame(2, store).playerGuess(guess(1));
+            }
+            try (GameStore store = openStore(1_000, new ArrayList<>())) {
+                store.getRecoveredGames().get(2L).playerGuess(guess(2));
+            }
+
+            // Act
+            try (GameStore reopened = openStore(1_000, new ArrayList<>())) {
+                // Assert
+                assertEquals(List.of(guess(1), guess(2)), reopened.getRecoveredGames().get(2L).getGuesses());
+            }
+        }
+
+        @Test
+        @DisplayName("should hand finished games on and forget them")
+        void shouldHandFinishedGamesOnAndForgetThem() {
+            // Arrange
+            List<Game> finished = new ArrayList<>();
+            try (GameStore store = openStore(1_000, finished)) {
+                Game won = startGame(3, store);
+                won.playerGuess(ANSWER);
+                startGame(4, store);
+
+                // Assert
+                assertEquals(1, store.getLiveGameCount());
+            }
+
+            // Act
+            try (GameStore reopened = openStore(1_000, new ArrayList<>())) {
+                // Assert
+                assertEquals(1, finished.size());
+                assertEquals(3L, finished.get(0).getId());
+                assertEquals(List.of(4L), new ArrayList<>(reopened.getRecoveredGames().keySet()));
+            }
+        }
+
+        @Test
+        @DisplayName("should forget exited games")
+        void shouldForgetExitedGames() {
+            // Arrange
+            List<Game> finished = new ArrayList<>();
+            try (GameStore store = openStore(1_000, finished)) {
+                Game left = startGame(5, store);
+                left.playerGuess(guess(0));
+                startGame(6, store);
+
+                // Act
+                left.exit();
+
+                // Assert
+                assertEquals(1, store.getLiveGameCount());
+            }
+
+            try (GameStore reopened = openStore(1_000, new ArrayList<>())) {
+                // Assert
+                assertTrue(finished.isEmpty());
+                assertEquals(List.of(6L), new ArrayList<>(reopened.getRecoveredGames().keySet()));
+            }
+        }
+
+        @Test
+        @DisplayName("should forget games released to another host")
+        void shouldForgetReleasedGames() throws Exception {
+            // Arrange
+            try (GameStore store = openStore(1_000, new ArrayList<>())) {
+                Game released = startGame(7, store);
+                released.playerGuess(guess(0));
+                startGame(8, store);
+
+                // Act
+                store.onRelease(released);
+
+                // Assert
+                assertEquals(1, store.getLiveGameCount());
+                awaitSnapshot();
+            }
+
+            try (GameStore reopened = openStore(1_000, new ArrayList<>())) {
+                // Assert
+                assertEquals(List.of(8L), new ArrayList<>(reopened.getRecoveredGames().keySet()));
+            }
+        }
+
+        @Test
+        @DisplayName("should recover games adopted from another host")
+        void shouldRecoverAdoptedGames() throws Exception {
+            // Arrange
+            Game adopted = new Game(new Player("Player9"), ANSWER);
+            adopted.setId(9);
+            adopted.setDifficulty(Difficulty.NORMAL);
+            adopted.start();
+            adopted.playerGuess(guess(0));
+
+            try (GameStore store = openStore(1_000, new ArrayList<>())) {
+                // Act
+                store.onAdopt(adopted);
+                adopted.setListener(store);
+                awaitSnapshot();
+                adopted.playerGuess(guess(1));
+            }
+
+            try (GameStore reopened = openStore(1_000, new ArrayList<>())) {
+                // Assert
+                assertEquals(adopted, reopened.getRecoveredGames().get(9L));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Compaction")
+    class Compaction {
+
+        @Test
+        @DisplayName("should fold the log into a snapshot and delete covered segments")
+        void shouldFoldLogIntoSnapshot() throws IOException {
+            // Arrange
+            Map<Long, Game> live = new ConcurrentHashMap<>();
+            try (GameStore store = openStore(1_000, new ArrayList<>())) {
+                for (long id = 1; id <= 50; id++) {
+                    Game game = startGame(id, store);
+                    game.playerGuess(guess((int) id % 8));
+                    if (id % 2 == 0) {
+                        game.playerGuess(ANSWER);
+                    } else {
+                        live.put(id, game);
+                    }
+                }
+
+                // Act
+                store.compact();
+                live.get(1L).playerGuess(guess(5));
+            }
+
+            // Assert
+            assertEquals(List.of("segment-0000000000000001.journal", "snapshot-0000000000000001.snap"), files());
+            try (GameStore reopened = openStore(1_000, new ArrayList<>())) {
+                assertEquals(live, reopened.getRecoveredGames());
+            }
+        }
+
+        @Test
+        @DisplayName("should compact in the background once a segment is full")
+        void shouldCompactInBackgroundOnceSegmentIsFull() throws Exception {
+            // Arrange
+            try (GameStore store = openStore(16, new ArrayList<>())) {
+                // Act
+                for (long id = 1; id <= 20; id++) {
+                    startGame(id, store);
+                }
+
+                // Assert
+                awaitSnapshot();
+            }
+            try (GameStore reopened = openStore(16, new ArrayList<>())) {
+                assertEquals(20, reopened.getRecoveredGames().size());
+            }
+        }
+
+        @Test
+        @DisplayName("should not compact once closed")
+        void shouldNotCompactOnceClosed() throws Exception {
+            // Arrange
+            GameStore store = openStore(1_000, new ArrayList<>());
+            startGame(1, store);
+            store.close();
+
+            // Act
+            store.compact();
+
+            // Assert
+            assertEquals(List.of("segment-0000000000000000.journal"), files());
+        }
+
+        @Test
+        @DisplayName("should not lose events written while compacting")
+        void shouldNotLoseEventsWrittenWhileCompacting() throws Exception {
+            // Arrange
+            Map<Long, Game> live = new ConcurrentHashMap<>();
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            List<Future<?>> futures = new ArrayList<>();
+
+            try (GameStore store = openStore(1_000_000, new ArrayList<>())) {
+                try {
+                    // Act
+                    for (int thread = 0; thread < 4; thread++) {
+                        long base = thread * 1_000L;
+                        futures.add(executor.submit(() -> {
+                            for (long id = base + 1; id <= base + 200; id++) {
+                                Game game = startGame(id, store);
+                                for (int i = 0; i < 3; i++) {
+                                    game.playerGuess(guess(i));
+                                }
+                                live.put(id, game);
+                            }
+                        }));
+                    }
+                    for (int i = 0; i < 20; i++) {
+                        store.compact();
+                    }
+                    for (Future<?> future : futures) {
+                        future.get(30, TimeUnit.SECONDS);
+                    }
+                } finally {
+                    executor.shutdownNow();
+                }
+            }
+
+            // Assert
+            try (GameStore reopened = openStore(1_000_000, new ArrayList<>())) {
+                assertEquals(live, reopened.getRecoveredGames());
+            }
+        }
+    }
+}
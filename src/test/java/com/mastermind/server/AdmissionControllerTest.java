@@ -0,0 +1,179 @@
+package com.mastermind.server;
+
+import com.mastermind.server.AdmissionController.AdaptiveLimit;
+import com.mastermind.server.AdmissionController.Budget;
+import com.mastermind.server.AdmissionController.Permit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AdmissionController")
+class AdmissionControllerTest {
+
+    private static final Duration TARGET = Duration.ofMillis(20);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private AdaptiveLimit limit(int min, int initial, int max) {
+        return new AdaptiveLimit(min, initial, max, TARGET, clock::get);
+    }
+
+    @Nested
+    @DisplayName("Adaptive limit")
+    class Adaptive {
+
+        @Test
+        @DisplayName("should refuse once the limit is in flight and admit again after a release")
+        void shouldRefuseWhenSaturated() {
+            // Arrange
+            AdaptiveLimit limit = limit(1, 2, 4);
+
+            // Act & Assert
+            assertTrue(limit.tryAcquire());
+            assertTrue(limit.tryAcquire());
+            assertFalse(limit.tryAcquire());
+            assertEquals(2, limit.getInFlight());
+            limit.release(FAST);
+            assertTrue(limit.tryAcquire());
+        }
+
+        @Test
+        @DisplayName("should grow by about one per limit's worth of fast requests while busy")
+        void shouldGrowAdditively() {
+            // Arrange
+            AdaptiveLimit limit = limit(1, 10, 100);
+
+            // Act
+            for (int i = 0; i < 10; i++) {
+                limit.tryAcquire();
+            }
+            for (int i = 0; i < 10; i++) {
+                limit.release(FAST);
+                limit.tryAcquire();
+            }
+
+            // Assert
+            assertEquals(10, limit.getLimit());
+            limit.release(FAST);
+            assertEquals(11, limit.getLimit());
+        }
+
+        @Test
+        @DisplayName("should not grow while mostly idle")
+        void shouldNotGrowWhenIdle() {
+            // Arrange
+            AdaptiveLimit limit = limit(1, 10, 100);
+
+            // Act
+            for (int i = 0; i < 100; i++) {
+                limit.tryAcquire();
+                limit.release(FAST);
+            }
+
+            // Assert
+            assertEquals(10, limit.getLimit());
+        }
+
+        @Test
+        @DisplayName("should back off once per target latency and never below the minimum")
+        void shouldBackOffMultiplicatively() {
+            // Arrange
+            AdaptiveLimit limit = limit(5, 100, 100);
+
+            // Act
+            limit.tryAcquire();
+            limit.tryAcquire();
+            limit.release(SLOW);
+            limit.release(SLOW);
+            int afterWave = limit.getLimit();
+            for (int i = 0; i < 100; i++) {
+                clock.addAndGet(TARGET.toNanos());
+                limit.tryAcquire();
+                limit.release(SLOW);
+            }
+
+            // Assert
+            assertEquals(90, afterWave);
+            assertEquals(5, limit.getLimit());
+        }
+
+        @Test
+        @DisplayName("should reject bounds out of order")
+        void shouldRejectBadBounds() {
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> limit(0, 1, 1));
+            assertThrows(IllegalArgumentException.class, () -> limit(2, 1, 4));
+            assertThrows(IllegalArgumentException.class, () -> limit(1, 4, 2));
+        }
+    }
+
+    @Nested
+    @DisplayName("Budgets")
+    class Budgets {
+
+        @Test
+        @DisplayName("should keep admitting play while creations are full")
+        void shouldIsolateBudgets() {
+            // Arrange
+            Map<Budget, AdaptiveLimit> limits = new EnumMap<>(Budget.class);
+            limits.put(Budget.CREATE, limit(1, 1, 1));
+            limits.put(Budget.HINT, limit(1, 1, 1));
+            limits.put(Budget.PLAY, limit(1, 1, 1));
+            AdmissionController admission = new AdmissionController(limits);
+
+            // Act
+            Optional<Permit> create = admission.tryAcquire(Budget.CREATE);
+            Optional<Permit> refused = admission.tryAcquire(Budget.CREATE);
+            Optional<Permit> play = admission.tryAcquire(Budget.PLAY);
+
+            // Assert
+            assertTrue(create.isPresent());
+            assertTrue(refused.isEmpty());
+            assertTrue(play.isPresent());
+        }
+
+        @Test
+        @DisplayName("should release a permit's slot only once and report its latency")
+        void shouldReleaseOnce() {
+            // Arrange
+            Map<Budget, AdaptiveLimit> limits = new EnumMap<>(Budget.class);
+            limits.put(Budget.CREATE, limit(1, 10, 10));
+            limits.put(Budget.HINT, limit(1, 10, 10));
+            limits.put(Budget.PLAY, limit(1, 10, 10));
+            AdmissionController admission = new AdmissionController(limits);
+            Permit permit = admission.tryAcquire(Budget.HINT).orElseThrow();
+            admission.tryAcquire(Budget.HINT).orElseThrow();
+
+            // Act
+            clock.addAndGet(SLOW);
+            permit.close();
+            permit.close();
+
+            // Assert
+            assertEquals(1, admission.getLimit(Budget.HINT).getInFlight());
+            assertEquals(9, admission.getLimit(Budget.HINT).getLimit());
+        }
+
+        @Test
+        @DisplayName("should require a limit for every budget")
+        void shouldRequireEveryBudget() {
+            // Arrange
+            Map<Budget, AdaptiveLimit> limits = new EnumMap<>(Budget.class);
+            limits.put(Budget.PLAY, limit(1, 1, 1));
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> new AdmissionController(limits));
+        }
+    }
+}
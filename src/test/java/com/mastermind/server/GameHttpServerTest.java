@@ -0,0 +1,343 @@
+package com.mastermind.server;
+
+import com.mastermind.models.NumCombination;
+import com.mastermind.server.AdmissionController.AdaptiveLimit;
+import com.mastermind.server.AdmissionController.Budget;
+import com.mastermind.services.GameFactory;
+import com.mastermind.services.GameSessionService;
+import com.mastermind.services.NumberGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GameHttpServer")
+class GameHttpServerTest {
+
+    private static final NumCombination ANSWER = new NumCombination(Arrays.asList(7, 0, 3, 3));
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private volatile long generatorLatencyMillis;
+    private GameSessionService sessions;
+    private GameHttpServer server;
+
+    @BeforeEach
+    void setUp() {
+        NumberGenerator slowFixedAnswers = (size, maxRange) -> {
+            try {
+                TimeUnit.MILLISECONDS.sleep(generatorLatencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ANSWER;
+        };
+        sessions = new GameSessionService(new GameFactory(slowFixedAnswers));
+        server = GameHttpServer.start(sessions, 0, AdmissionController.unlimited());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .timeout(Duration.ofSeconds(30));
+    }
+
+    private HttpResponse<String> post(String path, String body) throws IOException, InterruptedException {
+        return client.send(request(path).POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return client.send(request(path).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private long createGame() throws IOException, InterruptedException {
+        HttpResponse<String> response = post("/games", "{\"player\":\"Alice\",\"difficulty\":\"normal\"}");
+        return (Long) Json.parseObject(response.body()).get("id");
+    }
+
+    @Nested
+    @DisplayName("Endpoints")
+    class Endpoints {
+
+        @Test
+        @DisplayName("should create a game")
+        void shouldCreateGame() throws Exception {
+            // Act
+            HttpResponse<String> response = post("/games", "{\"player\":\"Al \\\"Bo\\\"\",\"difficulty\":\"HARD\"}");
+
+            // Assert
+            assertEquals(201, response.statusCode());
+            Map<String, Object> game = Json.parseObject(response.body());
+            assertEquals("Al \"Bo\"", game.get("player"));
+            assertEquals("HARD", game.get("difficulty"));
+            assertEquals(5L, game.get("size"));
+            assertEquals("IN_PROGRESS", game.get("status"));
+            assertEquals(10L, game.get("remainingAttempts"));
+            assertEquals(1, sessions.getSessionCount());
+        }
+
+        @Test
+        @DisplayName("should score guesses, keep the history and give hints")
+        void shouldPlayGame() throws Exception {
+            // Arrange
+            long id = createGame();
+
+            // Act
+            HttpResponse<String> miss = post("/games/" + id + "/guesses", "{\"guess\":[0,1,2,3]}");
+            HttpResponse<String> hint = post("/games/" + id + "/hints", "");
+            HttpResponse<String> win = post("/games/" + id + "/guesses", "{\"guess\": [7, 0, 3, 3]}");
+            HttpResponse<String> history = get("/games/" + id + "/history");
+            HttpResponse<String> late = post("/games/" + id + "/guesses", "{\"guess\":[7,0,3,3]}");
+
+            // Assert
+            assertEquals("{\"correctNumbers\":2,\"correctPositions\":1,\"status\":\"IN_PROGRESS\",\"remainingAttempts\":9}",
+                    miss.body());
+            assertTrue(hint.body().matches("\\{\"hint\":\"[037]\"}"), hint.body());
+            assertEquals("{\"correctNumbers\":4,\"correctPositions\":4,\"status\":\"WON\",\"remainingAttempts\":8}",
+                    win.body());
+            assertEquals("{\"history\":[{\"guess\":[0,1,2,3],\"correctNumbers\":2,\"correctPositions\":1},"
+                    + "{\"guess\":[7,0,3,3],\"correctNumbers\":4,\"correctPositions\":4}]}", history.body());
+            assertEquals(409, late.statusCode());
+        }
+
+        @Test
+        @DisplayName("should score a batch of guesses in request order")
+        void shouldScoreBatchOfGuesses() throws Exception {
+            // Arrange
+            long first = createGame();
+            long second = createGame();
+
+            // Act
+            HttpResponse<String> response = post("/games/guesses", "{\"guesses\":["
+                    + "{\"game\":" + first + ",\"guess\":[7,0,3,3]},"
+                    + "{\"game\":" + second + ",\"guess\":[0,1,2,3]},"
+                    + "{\"game\":" + first + ",\"guess\":[0,1,2,3]},"
+                    + "{\"game\":" + second + ",\"guess\":[1,2]},"
+                    + "{\"guess\":[1,2,3,4]}]}");
+
+            // Assert
+            assertEquals(200, response.statusCode());
+            assertEquals("{\"results\":["
+                    + "{\"correctNumbers\":4,\"correctPositions\":4,\"status\":\"WON\",\"remainingAttempts\":9},"
+                    + "{\"correctNumbers\":2,\"correctPositions\":1,\"status\":\"IN_PROGRESS\",\"remainingAttempts\":9},"
+                    + "{\"error\":\"Game is not in progress\"},"
+                    + "{\"error\":\"Must have exactly 4 numbers, got 2\"},"
+                    + "{\"error\":\"Each guess must be {\\\"game\\\":<id>,\\\"guess\\\":[...]}\"}]}",
+                    response.body());
+            assertEquals(405, get("/games/guesses").statusCode());
+        }
+
+        @Test
+        @DisplayName("should end a game")
+        void shouldEndGame() throws Exception {
+            // Arrange
+            long id = createGame();
+
+            // Act
+            HttpResponse<String> deleted = client.send(request("/games/" + id).DELETE().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> gone = get("/games/" + id);
+
+            // Assert
+            assertEquals(204, deleted.statusCode());
+            assertEquals(404, gone.statusCode());
+            assertEquals(0, sessions.getSessionCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Errors")
+    class Errors {
+
+        @Test
+        @DisplayName("should map invalid requests to client errors")
+        void shouldMapInvalidRequestsToClientErrors() throws Exception {
+            // Arrange
+            long id = createGame();
+
+            // Act & Assert
+            assertEquals(400, post("/games", "{\"player\":\"\"}").statusCode());
+            assertEquals(400, post("/games", "{\"player\":\"Bob\",\"difficulty\":\"EXTREME\"}").statusCode());
+            assertEquals(400, post("/games", "not json").statusCode());
+            assertEquals(400, post("/games/" + id + "/guesses", "{\"guess\":[1,2,3]}").statusCode());
+            assertEquals(400, post("/games/" + id + "/guesses", "{\"guess\":\"1 2 3 4\"}").statusCode());
+            assertEquals(404, post("/games/42/guesses", "{\"guess\":[1,2,3,4]}").statusCode());
+            assertEquals(404, get("/games/abc").statusCode());
+            assertEquals(404, get("/games/" + id + "/scores").statusCode());
+            assertEquals(405, get("/games").statusCode());
+            assertEquals(405, get("/games/" + id + "/guesses").statusCode());
+        }
+
+        @Test
+        @DisplayName("should report that no hints are left as a conflict")
+        void shouldReportNoHintsLeft() throws Exception {
+            // Arrange
+            long id = createGame();
+            post("/games/" + id + "/hints", "");
+            post("/games/" + id + "/hints", "");
+
+            // Act
+            HttpResponse<String> response = post("/games/" + id + "/hints", "");
+
+            // Assert
+            assertEquals(409, response.statusCode());
+            assertEquals("{\"error\":\"No hints left\"}", response.body());
+        }
+    }
+
+    @Nested
+    @DisplayName("Concurrency")
+    class Concurrency {
+
+        @Test
+        @DisplayName("should keep many slow game creations in flight at once")
+        void shouldOverlapSlowRequests() {
+            // Arrange
+            generatorLatencyMillis = 500;
+            int requests = 200;
+
+            // Act
+            long start = System.nanoTime();
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                responses.add(client.sendAsync(request("/games")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"player\":\"Player" + i + "\"}")).build(),
+                        HttpResponse.BodyHandlers.ofString()));
+            }
+            responses.forEach(CompletableFuture::join);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // Assert
+            assertTrue(responses.stream().allMatch(response -> response.join().statusCode() == 201));
+            assertEquals(requests, sessions.getSessionCount());
+            // Serially this would take 100 s
+            assertTrue(elapsedMillis < 20_000, "Took " + elapsedMillis + " ms");
+        }
+    }
+
+    @Nested
+    @DisplayName("Admission")
+    class Admission {
+
+        @Test
+        @DisplayName("should shed creations beyond the budget while guesses keep flowing")
+        void shouldShedCreationsBeyondBudget() throws Exception {
+            // Arrange
+            long id = createGame();
+            Map<Budget, AdaptiveLimit> limits = new EnumMap<>(Budget.class);
+            limits.put(Budget.CREATE, new AdaptiveLimit(1, 1, 1, Duration.ofSeconds(10)));
+            limits.put(Budget.HINT, new AdaptiveLimit(1, 1, 1, Duration.ofSeconds(10)));
+            limits.put(Budget.PLAY, new AdaptiveLimit(8, 8, 8, Duration.ofSeconds(10)));
+            AdmissionController admission = new AdmissionController(limits);
+            server.close();
+            server = GameHttpServer.start(sessions, 0, admission);
+            generatorLatencyMillis = 1_000;
+
+            // Act
+            CompletableFuture<HttpResponse<String>> slow = client.sendAsync(request("/games")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"player\":\"Slow\"}")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            while (admission.getLimit(Budget.CREATE).getInFlight() == 0) {
+                TimeUnit.MILLISECONDS.sleep(5);
+            }
+            HttpResponse<String> shed = post("/games", "{\"player\":\"Shed\"}");
+            HttpResponse<String> guess = post("/games/" + id + "/guesses", "{\"guess\":[0,1,2,3]}");
+
+            // Assert
+            assertEquals(503, shed.statusCode());
+            assertEquals("1", shed.headers().firstValue("Retry-After").orElseThrow());
+            assertEquals(200, guess.statusCode());
+            assertEquals(201, slow.join().statusCode());
+        }
+    }
+
+    @Nested
+    @DisplayName("Events")
+    class Events {
+
+        private HttpResponse<Stream<String>> watch(long id) throws IOException, InterruptedException {
+            return client.send(request("/games/" + id + "/events").GET().build(), HttpResponse.BodyHandlers.ofLines());
+        }
+
+        @Test
+        @DisplayName("should stream a game's state and every guess until it is won")
+        void shouldStreamGuessesUntilWon() throws Exception {
+            // Arrange
+            long id = createGame();
+            HttpResponse<Stream<String>> stream = watch(id);
+
+            // Act
+            post("/games/" + id + "/guesses", "{\"guess\":[0,1,2,3]}");
+            post("/games/" + id + "/hints", "");
+            post("/games/" + id + "/guesses", "{\"guess\":[7,0,3,3]}");
+            List<String> lines = assertTimeoutPreemptively(Duration.ofSeconds(30),
+                    () -> stream.body().filter(line -> !line.isEmpty()).toList());
+
+            // Assert
+            assertEquals(200, stream.statusCode());
+            assertEquals("text/event-stream; charset=utf-8", stream.headers().firstValue("Content-Type").orElseThrow());
+            assertEquals(List.of("event: state", "event: guess", "event: hint", "event: guess"),
+                    lines.stream().filter(line -> line.startsWith("event: ")).toList());
+            assertTrue(lines.contains("data: {\"sequence\":0,\"guess\":[0,1,2,3],\"correctNumbers\":2,"
+                    + "\"correctPositions\":1,\"status\":\"IN_PROGRESS\",\"remainingAttempts\":9,\"hintsLeft\":2}"),
+                    lines.toString());
+            assertTrue(lines.get(lines.size() - 1).contains("\"status\":\"WON\""), lines.toString());
+        }
+
+        @Test
+        @DisplayName("should end the stream when the game is ended")
+        void shouldEndStreamOnExit() throws Exception {
+            // Arrange
+            long id = createGame();
+            HttpResponse<Stream<String>> stream = watch(id);
+
+            // Act
+            client.send(request("/games/" + id).DELETE().build(), HttpResponse.BodyHandlers.discarding());
+            List<String> lines = assertTimeoutPreemptively(Duration.ofSeconds(30),
+                    () -> stream.body().filter(line -> line.startsWith("event: ")).toList());
+
+            // Assert
+            assertEquals(List.of("event: state", "event: exit"), lines);
+        }
+
+        @Test
+        @DisplayName("should answer 404 for unknown games and end at once for finished ones")
+        void shouldHandleUnknownAndFinishedGames() throws Exception {
+            // Arrange
+            long id = createGame();
+            post("/games/" + id + "/guesses", "{\"guess\":[7,0,3,3]}");
+
+            // Act
+            HttpResponse<String> unknown = get("/games/" + (id + 1) + "/events");
+            HttpResponse<String> finished = get("/games/" + id + "/events");
+
+            // Assert
+            assertEquals(404, unknown.statusCode());
+            assertEquals(200, finished.statusCode());
+            assertTrue(finished.body().startsWith("event: state\n"), finished.body());
+            assertTrue(finished.body().contains("\"status\":\"WON\""), finished.body());
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.mastermind.server;
+
+import com.mastermind.models.Game;
+import com.mastermind.models.GameListener;
+import com.mastermind.models.NumCombination;
+import com.mastermind.server.AdmissionController.AdaptiveLimit;
+import com.mastermind.server.AdmissionController.Budget;
+import com.mastermind.server.AdmissionController.Permit;
+import com.mastermind.services.GameFactory;
+import com.mastermind.services.GameSessionService;
+import com.mastermind.services.NumberGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GameServer")
+class GameServerTest {
+
+    private GameSessionService sessions;
+    private GameServer server;
+
+    // Every game's answer is 1 2 3 at EASY, 7 0 3 3 at NORMAL and 9 9 9 9 9 at HARD
+    private static final NumberGenerator FIXED_ANSWERS = (size, maxRange) -> switch (size) {
+        case 3 -> new NumCombination(Arrays.asList(1, 2, 3), 3, 0, 5);
+        case 4 -> new NumCombination(Arrays.asList(7, 0, 3, 3));
+        default -> new NumCombination(Arrays.asList(9, 9, 9, 9, 9), 5, 0, 9);
+    };
+
+    @BeforeEach
+    void setUp() {
+        sessions = new GameSessionService(new GameFactory(FIXED_ANSWERS));
+        server = GameServer.start(sessions, 0, AdmissionController.unlimited());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    /**
+     * Blocking test client.
+     */
+    private final class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader reader;
+        private final OutputStream writer;
+
+        Client() throws IOException {
+            socket = new Socket("localhost", server.getPort());
+            socket.setSoTimeout(10_000);
+            reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            writer = socket.getOutputStream();
+        }
+
+        void send(String lines) throws IOException {
+            writer.write(lines.getBytes(StandardCharsets.UTF_8));
+            writer.flush();
+        }
+
+        String call(String line) throws IOException {
+            send(line + "\n");
+            return reader.readLine();
+        }
+
+        String readLine() throws IOException {
+            return reader.readLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    @Nested
+    @DisplayName("Protocol")
+    class Protocol {
+
+        @Test
+        @DisplayName("should play a game to a win")
+        void shouldPlayGameToWin() throws IOException {
+            try (Client client = new Client()) {
+                // Act
+                String created = client.call("NEW normal Alice");
+                String miss = client.call("GUESS 0 1 2 3");
+                String hint = client.call("HINT");
+                String win = client.call("GUESS 7 0 3 3");
+                String history = client.call("HISTORY");
+
+                // Assert
+                assertTrue(created.matches("GAME \\d+ 4 7 10"), created);
+                assertEquals("FEEDBACK 2 1 IN_PROGRESS 9", miss);
+                assertTrue(hint.matches("HINT [037]"), hint);
+                assertEquals("FEEDBACK 4 4 WON 8", win);
+                assertEquals("HISTORY 0123/2/1 7033/4/4", history);
+            }
+        }
+
+        @Test
+        @DisplayName("should reveal the answer when the game is lost")
+        void shouldRevealAnswerOnLoss() throws IOException {
+            try (Client client = new Client()) {
+                // Arrange
+                client.call("NEW 1 Bob");
+                for (int i = 0; i < 9; i++) {
+                    client.call("GUESS 0 0 0");
+                }
+
+                // Act
+                String loss = client.call("GUESS 0 0 0");
+                String late = client.call("GUESS 1 2 3");
+
+                // Assert
+                assertEquals("FEEDBACK 0 0 LOST 0 123", loss);
+                assertEquals("ERR Game is not in progress", late);
+            }
+        }
+
+        @Test
+        @DisplayName("should answer pipelined commands in order")
+        void shouldAnswerPipelinedCommandsInOrder() throws IOException {
+            try (Client client = new Client()) {
+                // Act
+                client.send("NEW HARD Carol\r\nGUESS 0 1 2 3 4\nGUESS 0 1 2 3\nQUIT\n");
+
+                // Assert
+                assertTrue(client.readLine().startsWith("GAME "));
+                assertEquals("FEEDBACK 0 0 IN_PROGRESS 9", client.readLine());
+                assertTrue(client.readLine().startsWith("ERR "));
+                assertEquals("BYE", client.readLine());
+                assertNull(client.readLine());
+            }
+            assertEquals(0, sessions.getSessionCount());
+        }
+
+        @Test
+        @DisplayName("should reject invalid commands without closing the connection")
+        void shouldRejectInvalidCommands() throws IOException {
+            try (Client client = new Client()) {
+                // Act & Assert
+                assertEquals("ERR no game, start one with NEW <difficulty> <player name>", client.call("GUESS 1 2 3 4"));
+                assertEquals("ERR unknown command DANCE", client.call("dance"));
+                assertTrue(client.call("NEW EXTREME Dave").startsWith("ERR unknown difficulty"));
+                assertTrue(client.call("NEW EASY").startsWith("ERR usage"));
+                assertTrue(client.call("NEW EASY Dave").startsWith("GAME "));
+            }
+        }
+
+        @Test
+        @DisplayName("should drop only the connection whose command fails unexpectedly")
+        void shouldDropOnlyFailingConnection() throws IOException {
+            // Arrange
+            GameListener failingHints = new GameListener() {
+                @Override
+                public void onHint(Game game, int position) {
+                    throw new UncheckedIOException(new IOException("disk full"));
+                }
+            };
+            server.close();
+            sessions = new GameSessionService(new GameFactory(FIXED_ANSWERS, failingHints));
+            server = GameServer.start(sessions, 0, AdmissionController.unlimited());
+
+            try (Client failing = new Client(); Client other = new Client()) {
+                failing.call("NEW normal Alice");
+                other.call("NEW normal Bob");
+
+                // Act
+                failing.send("HINT\n");
+
+                // Assert
+                assertNull(failing.readLine());
+                assertEquals("FEEDBACK 4 4 WON 9", other.call("GUESS 7 0 3 3"));
+                try (Client late = new Client()) {
+                    assertTrue(late.call("NEW easy Carol").startsWith("GAME "));
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("should close connections that send overlong lines")
+        void shouldCloseOnOverlongLine() throws IOException {
+            try (Client client = new Client()) {
+                // Act
+                client.send("GUESS " + "1 ".repeat(GameServer.MAX_LINE_BYTES));
+
+                // Assert
+                assertTrue(client.readLine().startsWith("ERR line longer than"));
+                assertNull(client.readLine());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Sessions")
+    class Sessions {
+
+        @Test
+        @DisplayName("should end the game when the client disconnects")
+        void shouldEndGameOnDisconnect() throws Exception {
+            // Arrange
+            try (Client client = new Client()) {
+                client.call("NEW NORMAL Erin");
+                assertEquals(1, sessions.getSessionCount());
+            }
+
+            // Act
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (sessions.getSessionCount() > 0 && System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+
+            // Assert
+            assertEquals(0, sessions.getSessionCount());
+        }
+
+        @Test
+        @DisplayName("should serve many concurrent connections")
+        void shouldServeManyConcurrentConnections() throws Exception {
+            // Arrange
+            ExecutorService clients = Executors.newFixedThreadPool(32);
+            try {
+                List<Future<String>> results = new ArrayList<>();
+                for (int i = 0; i < 200; i++) {
+                    int player = i;
+                    results.add(clients.submit(() -> {
+                        try (Client client = new Client()) {
+                            client.call("NEW NORMAL Player" + player);
+                            for (int guess = 0; guess < 5; guess++) {
+                                client.call("GUESS 0 1 2 3");
+                            }
+                            return client.call("GUESS 7 0 3 3");
+                        }
+                    }));
+                }
+
+                // Act & Assert
+                for (Future<String> result : results) {
+                    assertEquals("FEEDBACK 4 4 WON 4", result.get(30, TimeUnit.SECONDS));
+                }
+            } finally {
+                clients.shutdownNow();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Admission")
+    class Admission {
+
+        @Test
+        @DisplayName("should refuse new games while the creation budget is full but keep serving guesses")
+        void shouldRefuseNewGamesWhenCreationBudgetIsFull() throws IOException {
+            // Arrange
+            Map<Budget, AdaptiveLimit> limits = new EnumMap<>(Budget.class);
+            for (Budget budget : Budget.values()) {
+                limits.put(budget, new AdaptiveLimit(1, 1, 1, Duration.ofSeconds(10)));
+            }
+            AdmissionController admission = new AdmissionController(limits);
+            server.close();
+            server = GameServer.start(sessions, 0, admission);
+
+            try (Client client = new Client()) {
+                client.call("NEW NORMAL Alice");
+
+                // Act
+                String refused;
+                String guessed;
+                Permit busy = admission.tryAcquire(Budget.CREATE).orElseThrow();
+                try {
+                    refused = client.call("NEW NORMAL Bob");
+                    guessed = client.call("GUESS 0 1 2 3");
+                } finally {
+                    busy.close();
+                }
+                String created = client.call("NEW NORMAL Carol");
+
+                // Assert
+                assertEquals(GameServer.BUSY, refused);
+                assertEquals("FEEDBACK 2 1 IN_PROGRESS 9", guessed);
+                assertTrue(created.startsWith("GAME "), created);
+            }
+        }
+    }
+}
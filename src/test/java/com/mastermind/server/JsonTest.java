@@ -0,0 +1,63 @@
+package com.mastermind.server;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Json")
+class JsonTest {
+
+    private static String nestedArrays(int depth) {
+        return "{\"a\":" + "[".repeat(depth) + "]".repeat(depth) + "}";
+    }
+
+    @Nested
+    @DisplayName("Parsing")
+    class Parsing {
+
+        @Test
+        @DisplayName("should parse objects, arrays and scalars")
+        void shouldParseObjectsArraysAndScalars() {
+            // Act
+            Map<String, Object> object = Json.parseObject(
+                    "{\"id\": -7, \"name\": \"A\\u0042\\n\", \"guesses\": [[1, 2], []], \"ok\": true, \"none\": null}");
+
+            // Assert
+            assertEquals(-7L, object.get("id"));
+            assertEquals("AB\n", object.get("name"));
+            assertEquals(List.of(List.of(1L, 2L), List.of()), object.get("guesses"));
+            assertEquals(Boolean.TRUE, object.get("ok"));
+            assertTrue(object.containsKey("none"));
+        }
+
+        @Test
+        @DisplayName("should reject malformed input")
+        void shouldRejectMalformedInput() {
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> Json.parseObject("[1]"));
+            assertThrows(IllegalArgumentException.class, () -> Json.parseObject("{\"a\": 1.5}"));
+            assertThrows(IllegalArgumentException.class, () -> Json.parseObject("{\"a\": [1,"));
+            assertThrows(IllegalArgumentException.class, () -> Json.parseObject("{} trailing"));
+        }
+
+        @Test
+        @DisplayName("should accept nesting up to the limit")
+        void shouldAcceptNestingUpToLimit() {
+            // Act & Assert
+            assertDoesNotThrow(() -> Json.parseObject(nestedArrays(Json.MAX_DEPTH - 1)));
+        }
+
+        @Test
+        @DisplayName("should reject deeper nesting instead of overflowing the stack")
+        void shouldRejectDeeperNesting() {
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> Json.parseObject(nestedArrays(Json.MAX_DEPTH)));
+            assertThrows(IllegalArgumentException.class, () -> Json.parseObject("{\"a\":" + "[".repeat(16_000)));
+        }
+    }
+}
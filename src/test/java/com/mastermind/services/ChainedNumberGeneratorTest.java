@@ -0,0 +1,219 @@
+package com.mastermind.services;
+
+import com.mastermind.models.NumCombination;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ChainedNumberGenerator")
+class ChainedNumberGeneratorTest {
+
+    private AtomicLong clock;
+    private List<String> calls;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        calls = new ArrayList<>();
+    }
+
+    /** A source that advances the fake clock by its latency and answers with a constant digit. */
+    private ChainedNumberGenerator.Source source(String name, RandomnessClass randomnessClass,
+                                                 long latencyNanos, int digit) {
+        return new ChainedNumberGenerator.Source(name, randomnessClass, (size, maxRange) -> {
+            calls.add(name);
+            clock.addAndGet(latencyNanos);
+            return new NumCombination(Arrays.asList(digit, digit, digit, digit), size, 0, maxRange);
+        });
+    }
+
+    private ChainedNumberGenerator.Source failingSource(String name, RandomnessClass randomnessClass) {
+        return new ChainedNumberGenerator.Source(name, randomnessClass, (size, maxRange) -> {
+            calls.add(name);
+            clock.addAndGet(1_000);
+            throw new RandomNumberApiException(name + " is down");
+        });
+    }
+
+    private ChainedNumberGenerator chain(RandomnessClass required, ChainedNumberGenerator.Source... sources) {
+        return new ChainedNumberGenerator(List.of(sources), required, Duration.ofSeconds(30), clock::get);
+    }
+
+    @Nested
+    @DisplayName("Routing")
+    class Routing {
+
+        @Test
+        @DisplayName("should route to the fastest source once latencies are known")
+        void shouldRouteToFastestSource() {
+            // Arrange
+            ChainedNumberGenerator generator = chain(RandomnessClass.CRYPTOGRAPHIC,
+                    source("slow", RandomnessClass.CRYPTOGRAPHIC, 5_000, 1),
+                    source("fast", RandomnessClass.CRYPTOGRAPHIC, 100, 2));
+            generator.generateNumbers(); // both start at zero latency, the first wins
+            generator.generateNumbers(); // "fast" has not been measured yet
+
+            // Act
+            NumCombination result = generator.generateNumbers();
+
+            // Assert
+            assertEquals(List.of("slow", "fast", "fast"), calls);
+            assertEquals(Arrays.asList(2, 2, 2, 2), result.getNumbers());
+        }
+
+        @Test
+        @DisplayName("should only use sources that meet the randomness class")
+        void shouldOnlyUseSourcesThatMeetRandomnessClass() {
+            // Arrange
+            ChainedNumberGenerator generator = chain(RandomnessClass.TRUE_RANDOM,
+                    source("prng", RandomnessClass.PSEUDO_RANDOM, 1, 1),
+                    source("remote", RandomnessClass.TRUE_RANDOM, 50_000, 2));
+
+            // Act
+            for (int i = 0; i < 5; i++) {
+                generator.generateNumbers();
+            }
+
+            // Assert
+            assertTrue(calls.stream().allMatch("remote"::equals));
+        }
+
+        @Test
+        @DisplayName("should degrade to the strongest weaker source when required sources fail")
+        void shouldDegradeToStrongestWeakerSource() {
+            // Arrange
+            ChainedNumberGenerator generator = chain(RandomnessClass.TRUE_RANDOM,
+                    failingSource("remote", RandomnessClass.TRUE_RANDOM),
+                    source("prng", RandomnessClass.PSEUDO_RANDOM, 1, 1),
+                    source("secure", RandomnessClass.CRYPTOGRAPHIC, 10, 2));
+
+            // Act
+            NumCombination result = generator.generateNumbers();
+
+            // Assert
+            assertEquals(List.of("remote", "secure"), calls);
+            assertEquals(Arrays.asList(2, 2, 2, 2), result.getNumbers());
+        }
+
+        @Test
+        @DisplayName("should throw when every source fails")
+        void shouldThrowWhenEverySourceFails() {
+            // Arrange
+            ChainedNumberGenerator generator = chain(RandomnessClass.PSEUDO_RANDOM,
+                    failingSource("a", RandomnessClass.PSEUDO_RANDOM),
+                    failingSource("b", RandomnessClass.CRYPTOGRAPHIC));
+
+            // Act & Assert
+            IllegalStateException exception = assertThrows(IllegalStateException.class, generator::generateNumbers);
+            assertInstanceOf(RandomNumberApiException.class, exception.getCause());
+        }
+
+        @Test
+        @DisplayName("should reject an empty chain")
+        void shouldRejectEmptyChain() {
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class,
+                    () -> new ChainedNumberGenerator(List.of(), RandomnessClass.PSEUDO_RANDOM));
+        }
+    }
+
+    @Nested
+    @DisplayName("Batch routing")
+    class BatchRouting {
+
+        @Test
+        @DisplayName("should serve a whole batch from one source")
+        void shouldServeWholeBatchFromOneSource() {
+            // Arrange
+            ChainedNumberGenerator generator = chain(RandomnessClass.PSEUDO_RANDOM,
+                    new ChainedNumberGenerator.Source("seeded", RandomnessClass.PSEUDO_RANDOM,
+                            new LocalNumberGenerator(9L)));
+
+            // Act
+            List<NumCombination> result = generator.generateBatch(10, 4, 7);
+
+            // Assert
+            assertEquals(new LocalNumberGenerator(9L).generateBatch(10, 4, 7), result);
+            assertEquals(1, generator.getStats().get(0).calls());
+        }
+    }
+
+    @Nested
+    @DisplayName("Health tracking")
+    class HealthTracking {
+
+        @Test
+        @DisplayName("should skip an unhealthy source until its probe interval passes")
+        void shouldSkipUnhealthySourceUntilProbeInterval() {
+            // Arrange
+            ChainedNumberGenerator generator = chain(RandomnessClass.TRUE_RANDOM,
+                    failingSource("remote", RandomnessClass.TRUE_RANDOM),
+                    source("secure", RandomnessClass.CRYPTOGRAPHIC, 10, 2));
+            generator.generateNumbers();
+            calls.clear();
+
+            // Act
+            generator.generateNumbers();
+            List<String> whileUnhealthy = List.copyOf(calls);
+            calls.clear();
+            clock.addAndGet(Duration.ofSeconds(31).toNanos());
+            generator.generateNumbers();
+
+            // Assert
+            assertEquals(List.of("secure"), whileUnhealthy);
+            assertEquals(List.of("remote", "secure"), calls);
+        }
+
+        @Test
+        @DisplayName("should expose rolling latency and error rate per source")
+        void shouldExposeRollingStats() {
+            // Arrange
+            ChainedNumberGenerator generator = chain(RandomnessClass.TRUE_RANDOM,
+                    failingSource("remote", RandomnessClass.TRUE_RANDOM),
+                    source("secure", RandomnessClass.CRYPTOGRAPHIC, 400, 2));
+
+            // Act
+            generator.generateNumbers();
+            List<ChainedNumberGenerator.SourceStats> stats = generator.getStats();
+
+            // Assert
+            assertEquals("remote", stats.get(0).name());
+            assertEquals(1.0, stats.get(0).errorRate());
+            assertEquals(1, stats.get(0).calls());
+            assertEquals(0.0, stats.get(1).errorRate());
+            assertEquals(400.0, stats.get(1).latencyNanos());
+        }
+    }
+
+    @Nested
+    @DisplayName("Standard chain")
+    class StandardChain {
+
+        @Test
+        @DisplayName("should fall back to local sources when Random.org is unreachable")
+        void shouldFallBackToLocalSourcesWhenRandomOrgUnreachable() throws Exception {
+            // Arrange
+            try (RandomOrgStubServer stub = RandomOrgStubServer.start()) {
+                stub.errorRate(1.0);
+                ChainedNumberGenerator generator = ChainedNumberGenerator.standard(
+                        new RandomNumberApiClient(stub.baseUri()), RandomnessClass.TRUE_RANDOM);
+
+                // Act
+                NumCombination result = generator.generateNumbers(5, 9);
+
+                // Assert
+                assertEquals(5, result.getNumbers().size());
+                assertEquals(1.0, generator.getStats().get(0).errorRate());
+            }
+        }
+    }
+}
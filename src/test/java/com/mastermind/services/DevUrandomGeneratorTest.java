@@ -0,0 +1,67 @@
+package com.mastermind.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DisplayName("DevUrandomGenerator")
+class DevUrandomGeneratorTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("should read longs from the source in order")
+    void shouldReadLongsFromSourceInOrder() throws IOException {
+        // Arrange
+        Path source = directory.resolve("random");
+        ByteBuffer bytes = ByteBuffer.allocate(4096 * 2);
+        for (long i = 0; i < 1024; i++) {
+            bytes.putLong(i);
+        }
+        Files.write(source, bytes.array());
+
+        try (DevUrandomGenerator generator = new DevUrandomGenerator(source)) {
+            // Act & Assert - crosses the first block boundary
+            for (long i = 0; i < 600; i++) {
+                assertEquals(i, generator.nextLong());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should fail when the source runs dry")
+    void shouldFailWhenSourceRunsDry() throws IOException {
+        // Arrange
+        Path source = directory.resolve("short");
+        Files.write(source, new byte[16]);
+
+        try (DevUrandomGenerator generator = new DevUrandomGenerator(source)) {
+            // Act & Assert
+            assertThrows(UncheckedIOException.class, generator::nextLong);
+        }
+    }
+
+    @Test
+    @DisplayName("should draw bounded values from /dev/urandom")
+    void shouldDrawBoundedValuesFromDevUrandom() {
+        assumeTrue(DevUrandomGenerator.isAvailable());
+
+        try (DevUrandomGenerator generator = new DevUrandomGenerator()) {
+            // Act & Assert
+            for (int i = 0; i < 1000; i++) {
+                int value = generator.nextInt(8);
+                assertTrue(value >= 0 && value < 8);
+            }
+        }
+    }
+}
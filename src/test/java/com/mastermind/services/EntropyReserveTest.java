@@ -0,0 +1,208 @@
+package com.mastermind.services;
+
+import com.mastermind.models.NumCombination;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("EntropyReserve")
+class EntropyReserveTest {
+
+    @TempDir
+    Path directory;
+
+    private EntropyReserve openReserve(RandomNumberApiClient apiClient) {
+        return new EntropyReserve(directory, apiClient, 100, 10);
+    }
+
+    @Nested
+    @DisplayName("Drawing")
+    class Drawing {
+
+        @Test
+        @DisplayName("should draw appended values reduced to the requested range")
+        void shouldDrawAppendedValuesReducedToRange() {
+            try (EntropyReserve reserve = openReserve(null)) {
+                // Arrange
+                reserve.append(new int[]{9, 17, 2519, 8});
+
+                // Act
+                Optional<NumCombination> result = reserve.take(4, 7);
+
+                // Assert
+                assertTrue(result.isPresent());
+                assertEquals(Arrays.asList(1, 1, 7, 0), result.get().getNumbers());
+                assertEquals(0, reserve.available());
+            }
+        }
+
+        @Test
+        @DisplayName("should never hand out the same value twice")
+        void shouldNeverReuseValues() {
+            try (EntropyReserve reserve = openReserve(null)) {
+                // Arrange
+                reserve.append(new int[]{1, 2, 3, 4, 5, 6});
+
+                // Act
+                NumCombination first = reserve.take(3, 9).orElseThrow();
+                NumCombination second = reserve.take(3, 9).orElseThrow();
+
+                // Assert
+                assertEquals(Arrays.asList(1, 2, 3), first.getNumbers());
+                assertEquals(Arrays.asList(4, 5, 6), second.getNumbers());
+                assertTrue(reserve.take(3, 9).isEmpty());
+            }
+        }
+
+        @Test
+        @DisplayName("should return empty when the reserve is short")
+        void shouldReturnEmptyWhenShort() {
+            try (EntropyReserve reserve = openReserve(null)) {
+                // Arrange
+                reserve.append(new int[]{1, 2});
+
+                // Act & Assert
+                assertTrue(reserve.take(3, 5).isEmpty());
+                assertEquals(2, reserve.available());
+            }
+        }
+
+        @Test
+        @DisplayName("should not serve ranges that would be biased")
+        void shouldNotServeBiasedRanges() {
+            try (EntropyReserve reserve = openReserve(null)) {
+                // Arrange
+                reserve.append(new int[]{1, 2, 3, 4});
+
+                // Act & Assert
+                assertFalse(EntropyReserve.supportsRange(10));
+                assertTrue(reserve.take(4, 10).isEmpty());
+                assertTrue(EntropyReserve.supportsRange(5));
+                assertTrue(EntropyReserve.supportsRange(7));
+                assertTrue(EntropyReserve.supportsRange(9));
+            }
+        }
+
+        @Test
+        @DisplayName("should reject values outside the reserve range")
+        void shouldRejectValuesOutsideReserveRange() {
+            try (EntropyReserve reserve = openReserve(null)) {
+                // Act & Assert
+                assertThrows(IllegalArgumentException.class, () -> reserve.append(new int[]{2520}));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Persistence")
+    class Persistence {
+
+        @Test
+        @DisplayName("should resume from the persisted cursor after reopening")
+        void shouldResumeFromPersistedCursor() {
+            // Arrange
+            try (EntropyReserve reserve = openReserve(null)) {
+                reserve.append(new int[]{1, 2, 3, 4, 5, 6, 7, 8});
+                reserve.take(4, 9);
+            }
+
+            // Act
+            try (EntropyReserve reopened = openReserve(null)) {
+                // Assert
+                assertEquals(4, reopened.available());
+                assertEquals(Arrays.asList(5, 6, 7, 8), reopened.take(4, 9).orElseThrow().getNumbers());
+            }
+        }
+
+        @Test
+        @DisplayName("should append after existing values across restarts")
+        void shouldAppendAfterExistingValues() {
+            // Arrange
+            try (EntropyReserve reserve = openReserve(null)) {
+                reserve.append(new int[]{1, 2});
+            }
+
+            // Act
+            try (EntropyReserve reopened = openReserve(null)) {
+                reopened.append(new int[]{3, 4});
+
+                // Assert
+                assertEquals(Arrays.asList(1, 2, 3, 4), reopened.take(4, 9).orElseThrow().getNumbers());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Refilling")
+    class Refilling {
+
+        @Test
+        @DisplayName("should refill in the background when low")
+        void shouldRefillInBackgroundWhenLow() throws InterruptedException {
+            // Arrange
+            RandomNumberApiClient apiClient = mock(RandomNumberApiClient.class);
+            int[] fetched = new int[100];
+            Arrays.fill(fetched, 3);
+            when(apiClient.getRandomIntegers(100, 2519)).thenReturn(fetched);
+
+            try (EntropyReserve reserve = openReserve(apiClient)) {
+                // Act
+                assertTrue(reserve.take(4, 7).isEmpty());
+                for (int i = 0; i < 200 && reserve.available() < 100; i++) {
+                    Thread.sleep(10);
+                }
+
+                // Assert
+                assertEquals(100, reserve.available());
+                assertEquals(Arrays.asList(3, 3, 3, 3), reserve.take(4, 7).orElseThrow().getNumbers());
+            }
+        }
+
+        @Test
+        @DisplayName("should stay usable while refills fail")
+        void shouldStayUsableWhileRefillsFail() {
+            // Arrange
+            RandomNumberApiClient apiClient = mock(RandomNumberApiClient.class);
+            when(apiClient.getRandomIntegers(anyInt(), anyInt())).thenThrow(new RandomNumberApiException("offline"));
+
+            try (EntropyReserve reserve = openReserve(apiClient)) {
+                reserve.append(new int[]{1, 2, 3});
+
+                // Act
+                NumCombination result = reserve.take(3, 5).orElseThrow();
+
+                // Assert
+                assertEquals(Arrays.asList(1, 2, 3), result.getNumbers());
+                assertEquals(0, reserve.available());
+                verify(apiClient, timeout(1_000).atLeastOnce()).getRandomIntegers(100, 2519);
+            }
+        }
+
+        @Test
+        @DisplayName("should skip refills the bit budget cannot cover")
+        void shouldSkipRefillsOverBudget() {
+            // Arrange
+            RandomNumberApiClient apiClient = mock(RandomNumberApiClient.class);
+            QuotaRateLimiter rateLimiter = new QuotaRateLimiter(
+                    QuotaRateLimiter.bitsFor(100, 2519) - 1, 0, Duration.ofDays(1));
+
+            try (EntropyReserve reserve = new EntropyReserve(directory, apiClient, rateLimiter, 100, 10)) {
+                // Act
+                reserve.refillAsync();
+
+                // Assert
+                verifyNoInteractions(apiClient);
+                assertEquals(1, rateLimiter.getRejectedRequests());
+            }
+        }
+    }
+}
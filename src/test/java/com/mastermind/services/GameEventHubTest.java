@@ -0,0 +1,188 @@
+package com.mastermind.services;
+
+import com.mastermind.models.Difficulty;
+import com.mastermind.models.Feedback;
+import com.mastermind.models.Game;
+import com.mastermind.models.GameListener;
+import com.mastermind.models.NumCombination;
+import com.mastermind.models.Player;
+import com.mastermind.models.Status;
+import com.mastermind.services.GameEventHub.Batch;
+import com.mastermind.services.GameEventHub.Event;
+import com.mastermind.services.GameEventHub.Subscription;
+import com.mastermind.services.GameEventHub.Type;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("GameEventHub")
+class GameEventHubTest {
+
+    private static final NumCombination ANSWER = new NumCombination(Arrays.asList(7, 0, 3, 3));
+    private static final NumCombination MISS = new NumCombination(Arrays.asList(0, 1, 2, 3));
+    private static final Duration NO_WAIT = Duration.ZERO;
+
+    private GameListener downstream;
+    private GameEventHub hub;
+
+    @BeforeEach
+    void setUp() {
+        downstream = mock(GameListener.class);
+        hub = new GameEventHub(downstream, 4);
+    }
+
+    private Game game(int maxAttempts) {
+        Game game = new Game(new Player("Alice"), ANSWER);
+        game.setId(1);
+        game.setDifficulty(Difficulty.NORMAL);
+        game.setMaxAttempts(maxAttempts);
+        game.setListener(hub);
+        return game;
+    }
+
+    @Nested
+    @DisplayName("Publishing")
+    class Publishing {
+
+        @Test
+        @DisplayName("should deliver every transition after subscribing, with the state after it")
+        void shouldDeliverTransitions() throws InterruptedException {
+            // Arrange
+            Game game = game(10);
+            game.start();
+            Subscription subscription = hub.subscribe(1);
+
+            // Act
+            game.playerGuess(MISS);
+            game.getHint();
+            game.playerGuess(ANSWER);
+            Batch batch = subscription.poll(NO_WAIT);
+
+            // Assert
+            List<Event> events = batch.events();
+            assertEquals(0, batch.skipped());
+            assertEquals(List.of(Type.GUESS, Type.HINT, Type.GUESS), events.stream().map(Event::type).toList());
+            assertEquals(List.of(0L, 1L, 2L), events.stream().map(Event::sequence).toList());
+            assertEquals(new Event(0, Type.GUESS, MISS, new Feedback(2, 1, 4), Status.IN_PROGRESS, 9, 2),
+                    events.get(0));
+            assertEquals(1, events.get(1).hintsLeft());
+            assertTrue(events.get(2).isLast());
+            verify(downstream).onGuess(game, ANSWER, new Feedback(4, 4, 4));
+        }
+
+        @Test
+        @DisplayName("should keep no buffer for games nobody watches")
+        void shouldKeepNoBufferWhenUnwatched() throws InterruptedException {
+            // Arrange
+            Game game = game(10);
+            Subscription subscription = hub.subscribe(1);
+
+            // Act
+            subscription.close();
+            subscription.close();
+            game.start();
+            Subscription later = hub.subscribe(1);
+            game.exit();
+
+            // Assert
+            assertEquals(1, hub.getWatchedCount());
+            assertEquals(List.of(Type.EXIT), later.poll(NO_WAIT).events().stream().map(Event::type).toList());
+            later.close();
+            assertEquals(0, hub.getWatchedCount());
+            verify(downstream).onStart(game);
+        }
+
+        @Test
+        @DisplayName("should reject capacities that are not powers of two")
+        void shouldRejectBadCapacity() {
+            assertThrows(IllegalArgumentException.class, () -> new GameEventHub(downstream, 6));
+            assertThrows(IllegalArgumentException.class, () -> new GameEventHub(downstream, 0));
+        }
+    }
+
+    @Nested
+    @DisplayName("Slow subscribers")
+    class SlowSubscribers {
+
+        @Test
+        @DisplayName("should skip a lagging subscriber ahead to the oldest kept event")
+        void shouldSkipAhead() throws InterruptedException {
+            // Arrange
+            Game game = game(10);
+            game.start();
+            Subscription slow = hub.subscribe(1);
+            Subscription fast = hub.subscribe(1);
+
+            // Act
+            List<Event> fastEvents = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                game.playerGuess(MISS);
+                fastEvents.addAll(fast.poll(NO_WAIT).events());
+            }
+            Batch lagging = slow.poll(NO_WAIT);
+
+            // Assert
+            assertEquals(7, fastEvents.size());
+            assertEquals(3, lagging.skipped());
+            assertEquals(List.of(3L, 4L, 5L, 6L), lagging.events().stream().map(Event::sequence).toList());
+            assertEquals(3, game.getRemainingAttempts());
+        }
+
+        @Test
+        @DisplayName("should wake a waiting subscriber and never block the player")
+        void shouldWakeWaitingSubscriber() throws Exception {
+            // Arrange
+            Game game = game(1_000);
+            game.start();
+            Subscription waiting = hub.subscribe(1);
+            Subscription stalled = hub.subscribe(1);
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                Future<Batch> woken = executor.submit(() -> waiting.poll(Duration.ofSeconds(30)));
+                TimeUnit.MILLISECONDS.sleep(50);
+
+                // Act
+                for (int i = 0; i < 999; i++) {
+                    game.playerGuess(MISS);
+                }
+
+                // Assert
+                assertFalse(woken.get(10, TimeUnit.SECONDS).events().isEmpty());
+                assertEquals(999, game.getHistory().size());
+                Batch behind = stalled.poll(NO_WAIT);
+                assertEquals(995, behind.skipped());
+                assertEquals(4, behind.events().size());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("should return an empty batch when nothing arrives in time")
+        void shouldTimeOut() throws InterruptedException {
+            // Arrange
+            Subscription subscription = hub.subscribe(1);
+
+            // Act
+            Batch batch = subscription.poll(Duration.ofMillis(20));
+
+            // Assert
+            assertTrue(batch.events().isEmpty());
+            assertEquals(0, batch.skipped());
+        }
+    }
+}
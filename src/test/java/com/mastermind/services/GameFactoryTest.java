@@ -1,6 +1,8 @@
 package com.mastermind.services;
 
+import com.mastermind.models.Difficulty;
 import com.mastermind.models.Game;
+import com.mastermind.models.GameListener;
 import com.mastermind.models.NumCombination;
 import com.mastermind.models.Player;
 import com.mastermind.models.Status;
@@ -13,6 +15,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -173,4 +176,82 @@ class GameFactoryTest {
             assertTrue(result.getHistory().isEmpty());
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Identity and listener")
+    class IdentityAndListener {
+
+        @Test
+        @DisplayName("should give every game a distinct positive id")
+        void shouldGiveEveryGameDistinctPositiveId() {
+            // Arrange
+            when(mockNumberGenerator.generateNumbers(anyInt(), anyInt()))
+                    .thenReturn(new NumCombination(Arrays.asList(1, 2, 3, 4)));
+
+            // Act
+            Game first = gameFactory.createGame(new Player("A"));
+            Game second = gameFactory.createGame(new Player("B"));
+
+            // Assert
+            assertTrue(first.getId() > 0);
+            assertTrue(second.getId() > 0);
+            assertNotEquals(first.getId(), second.getId());
+        }
+
+        @Test
+        @DisplayName("should attach its listener to every game")
+        void shouldAttachListenerToEveryGame() {
+            // Arrange
+            GameListener listener = mock(GameListener.class);
+            GameFactory listeningFactory = new GameFactory(mockNumberGenerator, listener);
+            when(mockNumberGenerator.generateNumbers(anyInt(), anyInt()))
+                    .thenReturn(new NumCombination(Arrays.asList(1, 2, 3, 4)));
+
+            // Act
+            Game game = listeningFactory.createGame(new Player("A"));
+            game.start();
+
+            // Assert
+            assertSame(listener, game.getListener());
+            verify(listener).onStart(game);
+        }
+    }
+
+    @Nested
+    @DisplayName("Batch game creation")
+    class BatchGameCreation {
+
+        @Test
+        @DisplayName("should create one game per player from a single batch")
+        void shouldCreateOneGamePerPlayerFromSingleBatch() {
+            // Arrange
+            List<Player> players = List.of(new Player("Alice"), new Player("Bob"));
+            NumCombination first = new NumCombination(Arrays.asList(1, 2, 3, 4, 5), 5, 0, 9);
+            NumCombination second = new NumCombination(Arrays.asList(9, 8, 7, 6, 5), 5, 0, 9);
+            when(mockNumberGenerator.generateBatch(2, 5, 9)).thenReturn(List.of(first, second));
+
+            // Act
+            List<Game> result = gameFactory.createGames(players, Difficulty.HARD);
+
+            // Assert
+            assertEquals(2, result.size());
+            assertEquals("Alice", result.get(0).getPlayer().getName());
+            assertEquals(first, result.get(0).getAnswer());
+            assertEquals("Bob", result.get(1).getPlayer().getName());
+            assertEquals(second, result.get(1).getAnswer());
+            assertTrue(result.stream().allMatch(game -> game.getDifficulty() == Difficulty.HARD));
+            verify(mockNumberGenerator, times(1)).generateBatch(2, 5, 9);
+            verify(mockNumberGenerator, never()).generateNumbers(anyInt(), anyInt());
+        }
+
+        @Test
+        @DisplayName("should return no games for no players")
+        void shouldReturnNoGamesForNoPlayers() {
+            // Arrange
+            when(mockNumberGenerator.generateBatch(0, 4, 7)).thenReturn(List.of());
+
+            // Act & Assert
+            assertTrue(gameFactory.createGames(List.of(), Difficulty.NORMAL).isEmpty());
+        }
+    }
+}
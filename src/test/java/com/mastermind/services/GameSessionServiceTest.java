@@ -0,0 +1,357 @@
+package com.mastermind.services;
+
+import com.mastermind.models.Difficulty;
+import com.mastermind.models.Feedback;
+import com.mastermind.models.Game;
+import com.mastermind.models.GameListener;
+import com.mastermind.models.History;
+import com.mastermind.models.NumCombination;
+import com.mastermind.models.Player;
+import com.mastermind.models.Status;
+import com.mastermind.services.GameSessionService.GuessRequest;
+import com.mastermind.services.GameSessionService.GuessResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("GameSessionService")
+class GameSessionServiceTest {
+
+    private static final NumCombination ANSWER = new NumCombination(Arrays.asList(7, 0, 3, 3));
+    private static final NumCombination MISS = new NumCombination(Arrays.asList(0, 1, 2, 3));
+
+    private GameSessionService service;
+
+    @BeforeEach
+    void setUp() {
+        NumberGenerator numberGenerator = mock(NumberGenerator.class);
+        when(numberGenerator.generateNumbers(anyInt(), anyInt())).thenReturn(ANSWER);
+        service = new GameSessionService(new GameFactory(numberGenerator));
+    }
+
+    @Nested
+    @DisplayName("Sessions")
+    class Sessions {
+
+        @Test
+        @DisplayName("should host started games by id")
+        void shouldHostStartedGamesById() {
+            // Act
+            Game game = service.newGame("Alice", Difficulty.NORMAL);
+
+            // Assert
+            assertEquals(Status.IN_PROGRESS, game.getStatus());
+            assertSame(game, service.find(game.getId()));
+            assertEquals(1, service.getSessionCount());
+        }
+
+        @Test
+        @DisplayName("should resume recovered games through the live events")
+        void shouldResumeRecoveredGames() {
+            // Arrange
+            GameListener listener = mock(GameListener.class);
+            GameSessionService resumed = new GameSessionService(new GameFactory(mock(NumberGenerator.class), listener));
+            Game recovered = new Game(new Player("Alice"), ANSWER);
+            recovered.setId(42);
+            recovered.setDifficulty(Difficulty.NORMAL);
+            recovered.start();
+
+            // Act
+            resumed.resume(List.of(recovered));
+            Feedback feedback = resumed.guess(42, MISS);
+
+            // Assert
+            assertSame(recovered, resumed.find(42));
+            assertEquals(List.of(new History(MISS, feedback)), resumed.history(42));
+            verify(listener).onGuess(recovered, MISS, feedback);
+        }
+
+        @Test
+        @DisplayName("should forget ended games")
+        void shouldForgetEndedGames() {
+            // Arrange
+            Game game = service.newGame("Alice", Difficulty.NORMAL);
+
+            // Act
+            service.end(game.getId());
+            service.end(game.getId());
+
+            // Assert
+            assertEquals(0, service.getSessionCount());
+            assertThrows(NoSuchElementException.class, () -> service.guess(game.getId(), MISS));
+        }
+    }
+
+    @Nested
+    @DisplayName("Transfer")
+    class Transfer {
+
+        @Test
+        @DisplayName("should create games only with accepted ids")
+        void shouldCreateGamesWithAcceptedIds() {
+            // Act
+            Game game = service.newGame("Alice", Difficulty.NORMAL, id -> id % 4 == 0);
+
+            // Assert
+            assertEquals(0, game.getId() % 4);
+            assertSame(game, service.find(game.getId()));
+        }
+
+        @Test
+        @DisplayName("should move a game to another host with its state")
+        void shouldMoveGameWithState() {
+            // Arrange
+            GameSessionService other = new GameSessionService(new GameFactory(mock(NumberGenerator.class)));
+            Game game = service.newGame("Alice", Difficulty.NORMAL);
+            Feedback miss = service.guess(game.getId(), MISS);
+
+            // Act
+            byte[] snapshot = service.exportGame(game.getId()).orElseThrow();
+            Game imported = other.importGame(snapshot);
+            Feedback win = other.guess(game.getId(), ANSWER);
+
+            // Assert
+            assertEquals(0, service.getSessionCount());
+            assertTrue(service.exportGame(game.getId()).isEmpty());
+            assertEquals(game.getId(), imported.getId());
+            assertEquals(List.of(new History(MISS, miss), new History(ANSWER, win)), other.history(game.getId()));
+            assertEquals(Status.WON, other.find(game.getId()).getStatus());
+            assertArrayEquals(new long[] {game.getId()}, other.gameIds());
+        }
+
+        @Test
+        @DisplayName("should tell the listener about released and adopted games")
+        void shouldTellListenerAboutHandOvers() {
+            // Arrange
+            GameListener listener = mock(GameListener.class);
+            NumberGenerator numberGenerator = mock(NumberGenerator.class);
+            when(numberGenerator.generateNumbers(anyInt(), anyInt())).thenReturn(ANSWER);
+            GameSessionService tracked = new GameSessionService(new GameFactory(numberGenerator, listener));
+            Game game = tracked.newGame("Alice", Difficulty.NORMAL);
+
+            // Act
+            byte[] snapshot = tracked.exportGame(game.getId()).orElseThrow();
+            Game imported = tracked.importGame(snapshot);
+
+            // Assert
+            verify(listener).onRelease(game);
+            verify(listener).onAdopt(imported);
+        }
+
+        @Test
+        @DisplayName("should refuse to import over a hosted game")
+        void shouldRefuseImportOverHostedGame() {
+            // Arrange
+            Game game = service.newGame("Alice", Difficulty.NORMAL);
+            byte[] stale = service.exportGame(game.getId()).orElseThrow();
+            service.importGame(stale);
+            service.guess(game.getId(), MISS);
+
+            // Act & Assert
+            assertThrows(IllegalStateException.class, () -> service.importGame(stale));
+            assertEquals(1, service.history(game.getId()).size());
+        }
+
+        @Test
+        @DisplayName("should reject truncated snapshots")
+        void shouldRejectTruncatedSnapshots() {
+            // Arrange
+            Game game = service.newGame("Alice", Difficulty.NORMAL);
+            byte[] snapshot = service.exportGame(game.getId()).orElseThrow();
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class,
+                    () -> service.importGame(Arrays.copyOf(snapshot, snapshot.length / 2)));
+            assertEquals(0, service.getSessionCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Play")
+    class Play {
+
+        @Test
+        @DisplayName("should score guesses and keep the history")
+        void shouldScoreGuessesAndKeepHistory() {
+            // Arrange
+            Game game = service.newGame("Alice", Difficulty.NORMAL);
+
+            // Act
+            Feedback miss = service.guess(game.getId(), MISS);
+            Feedback win = service.guess(game.getId(), ANSWER);
+            List<History> history = service.history(game.getId());
+
+            // Assert
+            assertEquals(new Feedback(2, 1, 4), miss);
+            assertEquals(new Feedback(4, 4, 4), win);
+            assertEquals(List.of(new History(MISS, miss), new History(ANSWER, win)), history);
+            assertEquals(Status.WON, game.getStatus());
+        }
+
+        @Test
+        @DisplayName("should reject guesses of the wrong shape")
+        void shouldRejectGuessesOfWrongShape() {
+            // Arrange
+            Game game = service.newGame("Alice", Difficulty.NORMAL);
+            NumCombination easyGuess = new NumCombination(Arrays.asList(1, 2, 3), 3, 0, 5);
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> service.guess(game.getId(), easyGuess));
+            assertTrue(game.getGuesses().isEmpty());
+        }
+
+        @Test
+        @DisplayName("should apply concurrent guesses on one game one at a time")
+        void shouldSerializeConcurrentGuesses() throws InterruptedException {
+            // Arrange
+            Game game = service.newGame("Alice", Difficulty.NORMAL);
+            game.setMaxAttempts(10_000);
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+
+            // Act
+            try {
+                for (int i = 0; i < 5_000; i++) {
+                    executor.execute(() -> service.guess(game.getId(), MISS));
+                }
+                executor.shutdown();
+                assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+            } finally {
+                executor.shutdownNow();
+            }
+
+            // Assert
+            assertEquals(5_000, game.getGuesses().size());
+            assertEquals(5_000, game.getFeedbacks().size());
+        }
+
+        @Test
+        @DisplayName("should report the state each concurrent guess left the game in")
+        void shouldReportStateAsOfEachGuess() throws Exception {
+            // Arrange
+            Game game = service.newGame("Alice", Difficulty.NORMAL);
+            game.setMaxAttempts(2_000);
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            List<Future<GuessResult>> futures = new ArrayList<>();
+
+            // Act
+            try {
+                for (int i = 0; i < 2_000; i++) {
+                    futures.add(executor.submit(() -> service.play(game.getId(), MISS)));
+                }
+                Set<Integer> remaining = new HashSet<>();
+                for (Future<GuessResult> future : futures) {
+                    GuessResult result = future.get(30, TimeUnit.SECONDS);
+                    assertEquals(new Feedback(2, 1, 4), result.feedback());
+                    remaining.add(result.remainingAttempts());
+                }
+
+                // Assert
+                assertEquals(2_000, remaining.size());
+                assertTrue(remaining.contains(0));
+                assertEquals(Status.LOST, game.getStatus());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Batch guesses")
+    class BatchGuesses {
+
+        @Test
+        @DisplayName("should score a mixed batch in request order")
+        void shouldScoreMixedBatchInRequestOrder() {
+            // Arrange
+            GameSessionService mixed = new GameSessionService(new GameFactory((size, maxRange) -> size == 3
+                    ? new NumCombination(Arrays.asList(1, 2, 3), 3, 0, 5)
+                    : ANSWER));
+            Game normal = mixed.newGame("Alice", Difficulty.NORMAL);
+            Game easy = mixed.newGame("Bob", Difficulty.EASY);
+            NumCombination easyMiss = new NumCombination(Arrays.asList(3, 2, 1), 3, 0, 5);
+
+            // Act
+            List<GuessResult> results = mixed.guessAll(List.of(
+                    new GuessRequest(normal.getId(), MISS),
+                    new GuessRequest(easy.getId(), easyMiss),
+                    new GuessRequest(normal.getId(), ANSWER),
+                    new GuessRequest(normal.getId(), MISS),
+                    new GuessRequest(Long.MAX_VALUE, MISS),
+                    new GuessRequest(easy.getId(), MISS)));
+
+            // Assert
+            assertEquals(new GuessResult(new Feedback(2, 1, 4), Status.IN_PROGRESS, 9, null), results.get(0));
+            assertEquals(new GuessResult(new Feedback(3, 1, 3), Status.IN_PROGRESS, 9, null), results.get(1));
+            assertEquals(new GuessResult(new Feedback(4, 4, 4), Status.WON, 8, null), results.get(2));
+            assertEquals("Game is not in progress", results.get(3).error());
+            assertEquals("No game with id " + Long.MAX_VALUE, results.get(4).error());
+            assertFalse(results.get(5).isApplied());
+            assertEquals(List.of(MISS, ANSWER), normal.getGuesses());
+            assertEquals(List.of(easyMiss), easy.getGuesses());
+        }
+
+        @Test
+        @DisplayName("should fail missing guesses alone")
+        void shouldFailMissingGuessesAlone() {
+            // Arrange
+            Game game = service.newGame("Alice", Difficulty.NORMAL);
+
+            // Act
+            List<GuessResult> results = service.guessAll(Arrays.asList(
+                    new GuessRequest(game.getId(), null),
+                    null,
+                    new GuessRequest(game.getId(), MISS)));
+
+            // Assert
+            assertEquals("Guess is missing", results.get(0).error());
+            assertEquals("Guess request is missing", results.get(1).error());
+            assertEquals(new GuessResult(new Feedback(2, 1, 4), Status.IN_PROGRESS, 9, null), results.get(2));
+            assertEquals(List.of(MISS), game.getGuesses());
+        }
+
+        @Test
+        @DisplayName("should match one-at-a-time scoring")
+        void shouldMatchSingleGuessScoring() {
+            // Arrange
+            GameSessionService random = new GameSessionService(new GameFactory(new LocalNumberGenerator(7L)));
+            LocalNumberGenerator guesses = new LocalNumberGenerator(13L);
+            List<Game> games = new ArrayList<>();
+            List<GuessRequest> requests = new ArrayList<>();
+            for (Difficulty difficulty : Difficulty.values()) {
+                for (int i = 0; i < 200; i++) {
+                    Game game = random.newGame("Player", difficulty);
+                    games.add(game);
+                    requests.add(new GuessRequest(game.getId(),
+                            guesses.generateNumbers(difficulty.getCombinationSize(), difficulty.getMaxRange())));
+                }
+            }
+
+            // Act
+            List<GuessResult> results = random.guessAll(requests);
+
+            // Assert
+            for (int i = 0; i < requests.size(); i++) {
+                assertEquals(Feedback.create(games.get(i).getAnswer(), requests.get(i).guess()),
+                        results.get(i).feedback());
+            }
+        }
+    }
+}
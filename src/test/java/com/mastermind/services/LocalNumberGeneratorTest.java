@@ -0,0 +1,164 @@
+package com.mastermind.services;
+
+import com.mastermind.models.NumCombination;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LocalNumberGenerator")
+class LocalNumberGeneratorTest {
+
+    private static List<NumCombination> draw(LocalNumberGenerator generator, int count) {
+        List<NumCombination> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            results.add(generator.generateNumbers(5, 9));
+        }
+        return results;
+    }
+
+    @Nested
+    @DisplayName("Generation")
+    class Generation {
+
+        @Test
+        @DisplayName("should generate combinations within the requested size and range")
+        void shouldGenerateCombinationsWithinRequestedSizeAndRange() {
+            // Arrange
+            LocalNumberGenerator generator = new LocalNumberGenerator(42L);
+
+            // Act
+            NumCombination result = generator.generateNumbers(3, 5);
+
+            // Assert
+            assertEquals(3, result.getNumbers().size());
+            for (int number : result.getNumbers()) {
+                assertTrue(number >= 0 && number <= 5, "Number " + number + " should be in range 0-5");
+            }
+        }
+
+        @Test
+        @DisplayName("should use default size and range")
+        void shouldUseDefaultSizeAndRange() {
+            // Act
+            NumCombination result = new LocalNumberGenerator(7L).generateNumbers();
+
+            // Assert
+            assertEquals(4, result.getExpectedSize());
+            assertEquals(7, result.getMaxNum());
+        }
+    }
+
+    @Nested
+    @DisplayName("Batch generation")
+    class BatchGeneration {
+
+        @Test
+        @DisplayName("should generate the requested number of combinations within range")
+        void shouldGenerateRequestedNumberOfCombinationsWithinRange() {
+            // Act
+            List<NumCombination> result = new LocalNumberGenerator(42L).generateBatch(100, 5, 9);
+
+            // Assert
+            assertEquals(100, result.size());
+            for (NumCombination combination : result) {
+                assertEquals(5, combination.getNumbers().size());
+                assertTrue(combination.getNumbers().stream().allMatch(n -> n >= 0 && n <= 9));
+            }
+        }
+
+        @Test
+        @DisplayName("should produce the same batch for the same seed")
+        void shouldProduceSameBatchForSameSeed() {
+            // Act & Assert
+            assertEquals(new LocalNumberGenerator(5L).generateBatch(20, 4, 7),
+                    new LocalNumberGenerator(5L).generateBatch(20, 4, 7));
+        }
+    }
+
+    @Nested
+    @DisplayName("Reproducibility")
+    class Reproducibility {
+
+        @Test
+        @DisplayName("should replay the same sequence from the same seed")
+        void shouldReplaySameSequenceFromSameSeed() {
+            // Act
+            List<NumCombination> first = draw(new LocalNumberGenerator(1234L), 20);
+            List<NumCombination> second = draw(new LocalNumberGenerator(1234L), 20);
+
+            // Assert
+            assertEquals(first, second);
+        }
+
+        @Test
+        @DisplayName("should replay a single game from seed and game ID")
+        void shouldReplaySingleGameFromSeedAndGameId() {
+            // Arrange
+            LocalNumberGenerator root = new LocalNumberGenerator(99L);
+
+            // Act
+            List<NumCombination> game = draw(root.forGame(17L), 5);
+            List<NumCombination> replay = draw(new LocalNumberGenerator(99L).forGame(17L), 5);
+            List<NumCombination> otherGame = draw(root.forGame(18L), 5);
+
+            // Assert
+            assertEquals(game, replay);
+            assertNotEquals(game, otherGame);
+        }
+
+        @Test
+        @DisplayName("should expose the seed it was created from")
+        void shouldExposeSeed() {
+            // Act & Assert
+            assertEquals(5L, new LocalNumberGenerator(5L).getSeed());
+        }
+    }
+
+    @Nested
+    @DisplayName("Splitting")
+    class Splitting {
+
+        @Test
+        @DisplayName("should split into independent generators")
+        void shouldSplitIntoIndependentGenerators() {
+            // Arrange
+            LocalNumberGenerator root = new LocalNumberGenerator(2024L);
+
+            // Act
+            LocalNumberGenerator child = root.split();
+
+            // Assert
+            assertNotEquals(draw(root, 10), draw(child, 10));
+        }
+
+        @Test
+        @DisplayName("should split deterministically from the same seed")
+        void shouldSplitDeterministically() {
+            // Act
+            List<NumCombination> first = draw(new LocalNumberGenerator(8L).split(), 10);
+            List<NumCombination> second = draw(new LocalNumberGenerator(8L).split(), 10);
+
+            // Assert
+            assertEquals(first, second);
+        }
+
+        @Test
+        @DisplayName("should give children their own replayable seed")
+        void shouldGiveChildrenReplayableSeed() {
+            // Arrange
+            LocalNumberGenerator root = new LocalNumberGenerator(2024L);
+
+            // Act
+            LocalNumberGenerator child = root.split();
+
+            // Assert
+            assertNotEquals(root.getSeed(), child.getSeed());
+            assertEquals(draw(new LocalNumberGenerator(child.getSeed()), 10), draw(child, 10));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.mastermind.services;
+
+import com.mastermind.models.NumCombination;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("MonitoredNumberGenerator")
+class MonitoredNumberGeneratorTest {
+
+    @Test
+    @DisplayName("should record every generated secret")
+    void shouldRecordEveryGeneratedSecret() {
+        // Arrange
+        NumberGenerator delegate = mock(NumberGenerator.class);
+        SecretHealthMonitor monitor = mock(SecretHealthMonitor.class);
+        NumCombination single = new NumCombination(Arrays.asList(1, 2, 3, 4));
+        NumCombination batched = new NumCombination(Arrays.asList(5, 6, 7, 0));
+        when(delegate.generateNumbers(4, 7)).thenReturn(single);
+        when(delegate.generateBatch(1, 4, 7)).thenReturn(List.of(batched));
+        MonitoredNumberGenerator generator = new MonitoredNumberGenerator(delegate, monitor);
+
+        // Act
+        NumCombination result = generator.generateNumbers(4, 7);
+        List<NumCombination> batch = generator.generateBatch(1, 4, 7);
+
+        // Assert
+        assertEquals(single, result);
+        assertEquals(List.of(batched), batch);
+        verify(monitor).record(single);
+        verify(monitor).record(batched);
+    }
+}
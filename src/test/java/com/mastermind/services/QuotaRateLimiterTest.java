@@ -0,0 +1,146 @@
+package com.mastermind.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("QuotaRateLimiter")
+class QuotaRateLimiterTest {
+
+    private AtomicLong clock;
+    private QuotaRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        // 100 bits capacity, 10 bits restored per second
+        limiter = new QuotaRateLimiter(100, 10, Duration.ofSeconds(1), clock::get);
+    }
+
+    @Nested
+    @DisplayName("Bit accounting")
+    class BitAccounting {
+
+        @Test
+        @DisplayName("should charge bits per value based on the range")
+        void shouldChargeBitsPerValueBasedOnRange() {
+            // Act & Assert
+            assertEquals(9, QuotaRateLimiter.bitsFor(3, 5));   // 3 bits each
+            assertEquals(12, QuotaRateLimiter.bitsFor(4, 7));  // 3 bits each
+            assertEquals(20, QuotaRateLimiter.bitsFor(5, 9));  // 4 bits each
+            assertEquals(0, QuotaRateLimiter.bitsFor(4, 0));
+        }
+    }
+
+    @Nested
+    @DisplayName("Token bucket")
+    class TokenBucket {
+
+        @Test
+        @DisplayName("should allow requests within budget")
+        void shouldAllowRequestsWithinBudget() {
+            // Act & Assert
+            assertTrue(limiter.tryAcquire(60));
+            assertTrue(limiter.tryAcquire(40));
+            assertEquals(0, limiter.getRemainingBits());
+        }
+
+        @Test
+        @DisplayName("should reject requests beyond budget")
+        void shouldRejectRequestsBeyondBudget() {
+            // Arrange
+            limiter.tryAcquire(95);
+
+            // Act & Assert
+            assertFalse(limiter.tryAcquire(4, 9));
+            assertEquals(5, limiter.getRemainingBits());
+            assertEquals(1, limiter.getRejectedRequests());
+        }
+
+        @Test
+        @DisplayName("should refill over time up to capacity")
+        void shouldRefillOverTimeUpToCapacity() {
+            // Arrange
+            limiter.tryAcquire(100);
+
+            // Act
+            clock.addAndGet(Duration.ofSeconds(3).toNanos());
+
+            // Assert
+            assertEquals(30, limiter.getRemainingBits());
+
+            clock.addAndGet(Duration.ofHours(1).toNanos());
+            assertEquals(100, limiter.getRemainingBits());
+        }
+
+        @Test
+        @DisplayName("should never reject when unlimited")
+        void shouldNeverRejectWhenUnlimited() {
+            // Act & Assert
+            assertTrue(QuotaRateLimiter.unlimited().tryAcquire(Long.MAX_VALUE));
+        }
+    }
+
+    @Nested
+    @DisplayName("Quota sync")
+    class QuotaSync {
+
+        @Test
+        @DisplayName("should align with the server quota")
+        void shouldAlignWithServerQuota() {
+            // Act
+            limiter.syncWith(42);
+
+            // Assert
+            assertEquals(42, limiter.getRemainingBits());
+        }
+
+        @Test
+        @DisplayName("should clamp server quota to capacity and zero")
+        void shouldClampServerQuota() {
+            // Act & Assert
+            limiter.syncWith(1_000_000);
+            assertEquals(100, limiter.getRemainingBits());
+
+            limiter.syncWith(-500);
+            assertEquals(0, limiter.getRemainingBits());
+        }
+
+        @Test
+        @DisplayName("should sync from the API client quota endpoint")
+        void shouldSyncFromApiClientQuotaEndpoint() {
+            // Arrange
+            RandomNumberApiClient apiClient = mock(RandomNumberApiClient.class);
+            when(apiClient.getQuota()).thenReturn(77L);
+
+            // Act
+            long remaining = limiter.syncWith(apiClient);
+
+            // Assert
+            assertEquals(77, remaining);
+        }
+
+        @Test
+        @DisplayName("should sync against the local Random.org stub")
+        void shouldSyncAgainstLocalStub() throws Exception {
+            // Arrange
+            try (RandomOrgStubServer stub = RandomOrgStubServer.start(64)) {
+                RandomNumberApiClient apiClient = new RandomNumberApiClient(stub.baseUri());
+                apiClient.getRandomNums(4, 7); // 12 bits
+
+                // Act
+                long remaining = limiter.syncWith(apiClient);
+
+                // Assert
+                assertEquals(52, remaining);
+            }
+        }
+    }
+}
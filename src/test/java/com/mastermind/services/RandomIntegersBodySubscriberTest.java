@@ -0,0 +1,161 @@
+package com.mastermind.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RandomIntegersBodySubscriber")
+class RandomIntegersBodySubscriberTest {
+
+    private static ByteBuffer bytes(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static int[] feed(RandomIntegersBodySubscriber subscriber, String... chunks) {
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        for (String chunk : chunks) {
+            subscriber.onNext(List.of(bytes(chunk)));
+        }
+        subscriber.onComplete();
+        return subscriber.getBody().toCompletableFuture().join();
+    }
+
+    @Nested
+    @DisplayName("Parsing")
+    class Parsing {
+
+        @Test
+        @DisplayName("should parse newline separated integers")
+        void shouldParseNewlineSeparatedIntegers() {
+            // Arrange
+            RandomIntegersBodySubscriber subscriber = new RandomIntegersBodySubscriber(new int[4], 0, 4, 0, 7);
+
+            // Act
+            int[] result = feed(subscriber, "0\n1\n2\n3\n");
+
+            // Assert
+            assertArrayEquals(new int[]{0, 1, 2, 3}, result);
+        }
+
+        @Test
+        @DisplayName("should parse numbers split across buffers")
+        void shouldParseNumbersSplitAcrossBuffers() {
+            // Arrange
+            RandomIntegersBodySubscriber subscriber = new RandomIntegersBodySubscriber(new int[3], 0, 3, 0, 2519);
+
+            // Act
+            int[] result = feed(subscriber, "12", "34\n5", "\r\n2519");
+
+            // Assert
+            assertArrayEquals(new int[]{1234, 5, 2519}, result);
+        }
+
+        @Test
+        @DisplayName("should fill the requested slice of the target array")
+        void shouldFillRequestedSlice() {
+            // Arrange
+            int[] target = new int[5];
+            RandomIntegersBodySubscriber subscriber = new RandomIntegersBodySubscriber(target, 2, 2, 0, 9);
+
+            // Act
+            feed(subscriber, "8\n9\n");
+
+            // Assert
+            assertArrayEquals(new int[]{0, 0, 8, 9, 0}, target);
+        }
+
+        @Test
+        @DisplayName("should parse negative numbers within range")
+        void shouldParseNegativeNumbersWithinRange() {
+            // Arrange
+            RandomIntegersBodySubscriber subscriber = new RandomIntegersBodySubscriber(new int[2], 0, 2, -5, 5);
+
+            // Act & Assert
+            assertArrayEquals(new int[]{-5, 4}, feed(subscriber, "-5\n4"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Validation")
+    class Validation {
+
+        @Test
+        @DisplayName("should fail on numbers outside range")
+        void shouldFailOnNumbersOutsideRange() {
+            // Arrange
+            RandomIntegersBodySubscriber subscriber = new RandomIntegersBodySubscriber(new int[2], 0, 2, 0, 7);
+
+            // Act
+            CompletionException exception = assertThrows(CompletionException.class, () -> feed(subscriber, "1\n8\n"));
+
+            // Assert
+            assertInstanceOf(RandomNumberApiException.class, exception.getCause());
+            assertTrue(exception.getCause().getMessage().contains("between 0-7"));
+        }
+
+        @Test
+        @DisplayName("should fail on non-numeric bytes")
+        void shouldFailOnNonNumericBytes() {
+            // Arrange
+            RandomIntegersBodySubscriber subscriber = new RandomIntegersBodySubscriber(new int[2], 0, 2, 0, 7);
+
+            // Act & Assert
+            CompletionException exception = assertThrows(CompletionException.class, () -> feed(subscriber, "1\nabc\n"));
+            assertInstanceOf(RandomNumberApiException.class, exception.getCause());
+        }
+
+        @Test
+        @DisplayName("should fail when fewer integers than expected arrive")
+        void shouldFailWhenTooFewIntegers() {
+            // Arrange
+            RandomIntegersBodySubscriber subscriber = new RandomIntegersBodySubscriber(new int[3], 0, 3, 0, 7);
+
+            // Act & Assert
+            CompletionException exception = assertThrows(CompletionException.class, () -> feed(subscriber, "1\n2\n"));
+            assertTrue(exception.getCause().getMessage().contains("got 2"));
+        }
+
+        @Test
+        @DisplayName("should fail when more integers than expected arrive")
+        void shouldFailWhenTooManyIntegers() {
+            // Arrange
+            RandomIntegersBodySubscriber subscriber = new RandomIntegersBodySubscriber(new int[2], 0, 2, 0, 7);
+
+            // Act & Assert
+            assertThrows(CompletionException.class, () -> feed(subscriber, "1\n2\n3\n"));
+        }
+
+        @Test
+        @DisplayName("should fail on an empty body")
+        void shouldFailOnEmptyBody() {
+            // Arrange
+            RandomIntegersBodySubscriber subscriber = new RandomIntegersBodySubscriber(new int[1], 0, 1, 0, 7);
+
+            // Act & Assert
+            assertThrows(CompletionException.class, () -> feed(subscriber, ""));
+        }
+
+        @Test
+        @DisplayName("should reject slices that do not fit the target")
+        void shouldRejectSlicesThatDoNotFit() {
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> new RandomIntegersBodySubscriber(new int[2], 1, 2, 0, 7));
+        }
+    }
+}
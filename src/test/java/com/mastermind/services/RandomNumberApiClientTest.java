@@ -4,12 +4,18 @@ import com.mastermind.models.NumCombination;
 import org.junit.jupiter.api.*;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.stubbing.Answer;
 
 import java.io.IOException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.SubmissionPublisher;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -379,4 +385,114 @@ class RandomNumberApiClientTest {
             assertTrue(exception.getMessage().contains("Unknown error from Random.org API"));
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Bulk integer requests")
+    class BulkIntegerRequests {
+
+        /**
+         * Mimics HttpClient.send: runs the body handler against the given status and body and wraps
+         * body subscriber failures in an IOException.
+         */
+        private Answer<HttpResponse<int[]>> respond(int statusCode, String body) {
+            return invocation -> {
+                HttpResponse.BodyHandler<int[]> handler = invocation.getArgument(1);
+                HttpResponse.ResponseInfo info = mock(HttpResponse.ResponseInfo.class);
+                when(info.statusCode()).thenReturn(statusCode);
+
+                HttpResponse.BodySubscriber<int[]> subscriber = handler.apply(info);
+                SubmissionPublisher<List<ByteBuffer>> publisher = new SubmissionPublisher<>(Runnable::run, 16);
+                publisher.subscribe(subscriber);
+                publisher.submit(List.of(ByteBuffer.wrap(body.getBytes(StandardCharsets.UTF_8))));
+                publisher.close();
+
+                try {
+                    int[] values = subscriber.getBody().toCompletableFuture().join();
+                    @SuppressWarnings("unchecked")
+                    HttpResponse<int[]> response = mock(HttpResponse.class);
+                    when(response.body()).thenReturn(values);
+                    return response;
+                } catch (CompletionException e) {
+                    throw new IOException(e.getCause().getMessage(), e.getCause());
+                }
+            };
+        }
+
+        @Test
+        @DisplayName("should stream integers into an array")
+        void shouldStreamIntegersIntoArray() throws IOException, InterruptedException {
+            // Arrange
+            when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenAnswer(respond(200, "4\n0\n2519\n7\n"));
+
+            // Act
+            int[] result = apiClient.getRandomIntegers(4, 2519);
+
+            // Assert
+            assertArrayEquals(new int[]{4, 0, 2519, 7}, result);
+        }
+
+        @Test
+        @DisplayName("should split large requests into API-sized chunks")
+        void shouldSplitLargeRequestsIntoChunks() throws IOException, InterruptedException {
+            // Arrange
+            int count = RandomNumberApiClient.MAX_INTEGERS_PER_REQUEST + 2;
+            String fullChunk = "1\n".repeat(RandomNumberApiClient.MAX_INTEGERS_PER_REQUEST);
+            when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenAnswer(respond(200, fullChunk))
+                    .thenAnswer(respond(200, "2\n3\n"));
+
+            // Act
+            int[] result = apiClient.getRandomIntegers(count, 9);
+
+            // Assert
+            assertEquals(count, result.length);
+            assertEquals(1, result[0]);
+            assertEquals(2, result[count - 2]);
+            assertEquals(3, result[count - 1]);
+            verify(mockHttpClient).send(argThat(request -> request.uri().toString().contains("num=10000")),
+                    any(HttpResponse.BodyHandler.class));
+            verify(mockHttpClient).send(argThat(request -> request.uri().toString().contains("num=2&")),
+                    any(HttpResponse.BodyHandler.class));
+        }
+
+        @Test
+        @DisplayName("should surface out-of-range values as RandomNumberApiException")
+        void shouldSurfaceOutOfRangeValues() throws IOException, InterruptedException {
+            // Arrange
+            when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenAnswer(respond(200, "1\n8\n"));
+
+            // Act & Assert
+            RandomNumberApiException exception = assertThrows(RandomNumberApiException.class,
+                    () -> apiClient.getRandomIntegers(2, 7));
+            assertTrue(exception.getMessage().contains("between 0-7"));
+        }
+
+        @Test
+        @DisplayName("should surface 503 error bodies as RandomNumberApiException")
+        void shouldSurface503ErrorBodies() throws IOException, InterruptedException {
+            // Arrange
+            when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenAnswer(respond(503, "Error: The server is overloaded"));
+
+            // Act & Assert
+            RandomNumberApiException exception = assertThrows(RandomNumberApiException.class,
+                    () -> apiClient.getRandomIntegers(2, 7));
+            assertTrue(exception.getMessage().contains("Error: The server is overloaded"));
+        }
+
+        @Test
+        @DisplayName("should wrap network errors")
+        void shouldWrapNetworkErrors() throws IOException, InterruptedException {
+            // Arrange
+            when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenThrow(new IOException("Connection reset"));
+
+            // Act & Assert
+            RandomNumberApiException exception = assertThrows(RandomNumberApiException.class,
+                    () -> apiClient.getRandomIntegers(2, 7));
+            assertTrue(exception.getMessage().contains("Network error"));
+        }
+    }
+}
@@ -9,8 +9,10 @@ import org.junit.jupiter.api.AfterEach;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -215,4 +217,165 @@ class RandomNumberGeneratorTest {
             assertTrue(Thread.interrupted(), "Thread should have been interrupted");
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Local generator")
+    class LocalGenerator {
+
+        @Test
+        @DisplayName("should delegate fallback to the injected local generator")
+        void shouldDelegateFallbackToInjectedLocalGenerator() {
+            // Arrange
+            NumberGenerator localGenerator = mock(NumberGenerator.class);
+            NumCombination localAnswer = new NumCombination(Arrays.asList(5, 5, 5, 5));
+            when(localGenerator.generateNumbers(4, 7)).thenReturn(localAnswer);
+            when(mockApiClient.getRandomNums(anyInt(), anyInt())).thenThrow(new RandomNumberApiException("API fails"));
+            Thread.currentThread().interrupt(); // skip retry delays
+
+            // Act
+            NumCombination result = new RandomNumberGenerator(mockApiClient, localGenerator).generateNumbers();
+
+            // Assert
+            assertEquals(localAnswer, result);
+            verify(localGenerator).generateNumbers(4, 7);
+            assertTrue(Thread.interrupted());
+        }
+
+        @Test
+        @DisplayName("should reproduce fallback numbers from a seeded local generator")
+        void shouldReproduceFallbackNumbersFromSeededLocalGenerator() {
+            // Arrange
+            when(mockApiClient.getRandomNums(anyInt(), anyInt())).thenThrow(new RandomNumberApiException("API fails"));
+            RandomNumberGenerator first = new RandomNumberGenerator(mockApiClient, new LocalNumberGenerator(3L));
+            RandomNumberGenerator second = new RandomNumberGenerator(mockApiClient, new LocalNumberGenerator(3L));
+
+            // Act
+            Thread.currentThread().interrupt();
+            NumCombination firstResult = first.generateNumbers(5, 9);
+            Thread.currentThread().interrupt();
+            NumCombination secondResult = second.generateNumbers(5, 9);
+
+            // Assert
+            assertEquals(firstResult, secondResult);
+            assertTrue(Thread.interrupted());
+        }
+    }
+
+    @Nested
+    @DisplayName("Quota budget")
+    class QuotaBudget {
+
+        @Test
+        @DisplayName("should go straight to local generation when over budget")
+        void shouldGoStraightToLocalGenerationWhenOverBudget() {
+            // Arrange
+            QuotaRateLimiter limiter = new QuotaRateLimiter(10, 0, Duration.ofDays(1));
+            RandomNumberGenerator budgeted = new RandomNumberGenerator(
+                    mockApiClient, new LocalNumberGenerator(1L), 3, Duration.ofSeconds(1), limiter);
+
+            // Act
+            NumCombination result = budgeted.generateNumbers(4, 7); // needs 12 bits
+
+            // Assert
+            assertEquals(4, result.getNumbers().size());
+            verify(mockApiClient, never()).getRandomNums(anyInt(), anyInt());
+            assertEquals(1, limiter.getRejectedRequests());
+        }
+
+        @Test
+        @DisplayName("should spend budget on each API attempt")
+        void shouldSpendBudgetOnEachApiAttempt() {
+            // Arrange
+            QuotaRateLimiter limiter = new QuotaRateLimiter(100, 0, Duration.ofDays(1));
+            NumCombination expectedAnswer = new NumCombination(Arrays.asList(1, 2, 3, 4));
+            when(mockApiClient.getRandomNums(anyInt(), anyInt()))
+                    .thenThrow(new RandomNumberApiException("First attempt fails"))
+                    .thenReturn(expectedAnswer);
+            RandomNumberGenerator budgeted = new RandomNumberGenerator(
+                    mockApiClient, new LocalNumberGenerator(1L), 3, Duration.ZERO, limiter);
+
+            // Act
+            NumCombination result = budgeted.generateNumbers();
+
+            // Assert
+            assertEquals(expectedAnswer, result);
+            assertEquals(76, limiter.getRemainingBits());
+        }
+    }
+
+    @Nested
+    @DisplayName("Entropy reserve")
+    class EntropyReserveUsage {
+
+        @Test
+        @DisplayName("should draw from the reserve without calling the API")
+        void shouldDrawFromReserveWithoutCallingApi() {
+            // Arrange
+            EntropyReserve reserve = mock(EntropyReserve.class);
+            NumCombination reserved = new NumCombination(Arrays.asList(6, 5, 4, 3));
+            when(reserve.take(4, 7)).thenReturn(Optional.of(reserved));
+            RandomNumberGenerator withReserve = new RandomNumberGenerator(mockApiClient, new LocalNumberGenerator(1L),
+                    3, Duration.ZERO, QuotaRateLimiter.unlimited(), reserve);
+
+            // Act
+            NumCombination result = withReserve.generateNumbers();
+
+            // Assert
+            assertEquals(reserved, result);
+            verify(mockApiClient, never()).getRandomNums(anyInt(), anyInt());
+        }
+
+        @Test
+        @DisplayName("should call the API when the reserve is empty")
+        void shouldCallApiWhenReserveIsEmpty() {
+            // Arrange
+            EntropyReserve reserve = mock(EntropyReserve.class);
+            when(reserve.take(anyInt(), anyInt())).thenReturn(Optional.empty());
+            NumCombination expectedAnswer = new NumCombination(Arrays.asList(1, 2, 3, 4));
+            when(mockApiClient.getRandomNums(4, 7)).thenReturn(expectedAnswer);
+            RandomNumberGenerator withReserve = new RandomNumberGenerator(mockApiClient, new LocalNumberGenerator(1L),
+                    3, Duration.ZERO, QuotaRateLimiter.unlimited(), reserve);
+
+            // Act & Assert
+            assertEquals(expectedAnswer, withReserve.generateNumbers());
+        }
+    }
+
+    @Nested
+    @DisplayName("Batch generation")
+    class BatchGeneration {
+
+        @Test
+        @DisplayName("should fetch the whole batch in one API request")
+        void shouldFetchWholeBatchInOneApiRequest() {
+            // Arrange
+            when(mockApiClient.getRandomIntegers(8, 7)).thenReturn(new int[]{1, 2, 3, 4, 5, 6, 7, 0});
+
+            // Act
+            List<NumCombination> result = generator.generateBatch(2, 4, 7);
+
+            // Assert
+            assertEquals(Arrays.asList(1, 2, 3, 4), result.get(0).getNumbers());
+            assertEquals(Arrays.asList(5, 6, 7, 0), result.get(1).getNumbers());
+            verify(mockApiClient, times(1)).getRandomIntegers(8, 7);
+            verify(mockApiClient, never()).getRandomNums(anyInt(), anyInt());
+        }
+
+        @Test
+        @DisplayName("should fall back to a local batch when the API keeps failing")
+        void shouldFallBackToLocalBatchWhenApiKeepsFailing() {
+            // Arrange
+            when(mockApiClient.getRandomIntegers(anyInt(), anyInt()))
+                    .thenThrow(new RandomNumberApiException("Service unavailable"));
+            RandomNumberGenerator fastRetry = new RandomNumberGenerator(mockApiClient, new LocalNumberGenerator(3L),
+                    2, Duration.ZERO);
+
+            // Act
+            List<NumCombination> result = fastRetry.generateBatch(3, 5, 9);
+
+            // Assert
+            assertEquals(new LocalNumberGenerator(3L).generateBatch(3, 5, 9), result);
+            verify(mockApiClient, times(2)).getRandomIntegers(15, 9);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.mastermind.services;
+
+import com.mastermind.models.NumCombination;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RandomNumberApiClient against local Random.org stub")
+class RandomOrgStubIntegrationTest {
+
+    private RandomOrgStubServer stub;
+    private RandomNumberApiClient apiClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = RandomOrgStubServer.start();
+        apiClient = new RandomNumberApiClient(stub.baseUri());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Nested
+    @DisplayName("API client")
+    class ApiClient {
+
+        @Test
+        @DisplayName("should fetch a combination from the stub")
+        void shouldFetchCombinationFromStub() {
+            // Act
+            NumCombination result = apiClient.getRandomNums(5, 9);
+
+            // Assert
+            assertEquals(5, result.getNumbers().size());
+            assertEquals(1, stub.integerRequests());
+        }
+
+        @Test
+        @DisplayName("should stream bulk fetches across several requests")
+        void shouldStreamBulkFetches() {
+            // Act
+            int[] result = apiClient.getRandomIntegers(25_000, 2519);
+
+            // Assert
+            assertEquals(25_000, result.length);
+            for (int value : result) {
+                assertTrue(value >= 0 && value <= 2519);
+            }
+            assertEquals(3, stub.integerRequests());
+        }
+
+        @Test
+        @DisplayName("should report 503 error bodies")
+        void shouldReport503ErrorBodies() {
+            // Arrange
+            stub.errorRate(1.0);
+
+            // Act & Assert
+            RandomNumberApiException exception = assertThrows(RandomNumberApiException.class,
+                    () -> apiClient.getRandomNums(4, 7));
+            assertTrue(exception.getMessage().contains("Error: The server is temporarily overloaded"));
+        }
+
+        @Test
+        @DisplayName("should report dropped connections as network errors")
+        void shouldReportDroppedConnections() {
+            // Arrange
+            stub.dropRate(1.0);
+
+            // Act & Assert
+            RandomNumberApiException exception = assertThrows(RandomNumberApiException.class,
+                    () -> apiClient.getRandomNums(4, 7));
+            assertTrue(exception.getMessage().contains("Network error"));
+        }
+
+        @Test
+        @DisplayName("should report an exhausted quota")
+        void shouldReportExhaustedQuota() {
+            // Arrange
+            stub.quotaBits(0);
+
+            // Act & Assert
+            RandomNumberApiException exception = assertThrows(RandomNumberApiException.class,
+                    () -> apiClient.getRandomNums(4, 7));
+            assertTrue(exception.getMessage().contains("quota"));
+        }
+
+        @Test
+        @DisplayName("should charge the quota by bits per integer")
+        void shouldChargeQuotaByBitsPerInteger() {
+            // Arrange
+            stub.quotaBits(1_000);
+
+            // Act
+            apiClient.getRandomNums(4, 7);
+
+            // Assert - 4 integers of 3 bits each
+            assertEquals(988, stub.remainingBits());
+        }
+    }
+
+    @Nested
+    @DisplayName("Generator resilience")
+    class GeneratorResilience {
+
+        @Test
+        @DisplayName("should retry and fall back when every request fails")
+        void shouldRetryAndFallBackWhenEveryRequestFails() {
+            // Arrange
+            stub.errorRate(1.0);
+            RandomNumberGenerator generator =
+                    new RandomNumberGenerator(apiClient, new LocalNumberGenerator(1L), 3, Duration.ofMillis(1));
+
+            // Act
+            NumCombination result = generator.generateNumbers(4, 7);
+
+            // Assert
+            assertEquals(4, result.getNumbers().size());
+            assertEquals(3, stub.integerRequests());
+        }
+
+        @Test
+        @DisplayName("should serve every request under concurrent load with faults")
+        void shouldServeEveryRequestUnderConcurrentLoad() throws Exception {
+            // Arrange
+            int requests = 2_000;
+            stub.errorRate(0.05)
+                    .dropRate(0.02)
+                    .latency(RandomOrgStubServer.LatencyDistribution.uniform(Duration.ZERO, Duration.ofMillis(2)));
+            RandomNumberGenerator generator =
+                    new RandomNumberGenerator(apiClient, new LocalNumberGenerator(1L), 3, Duration.ZERO);
+
+            // Act
+            List<Future<NumCombination>> results = new ArrayList<>();
+            ExecutorService executor = Executors.newFixedThreadPool(64);
+            try {
+                for (int i = 0; i < requests; i++) {
+                    results.add(executor.submit(() -> generator.generateNumbers(5, 9)));
+                }
+                for (Future<NumCombination> result : results) {
+                    assertEquals(5, result.get().getNumbers().size());
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            // Assert
+            assertTrue(stub.integerRequests() >= requests);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.mastermind.services;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+/**
+ * Embedded stand-in for Random.org's {@code /integers/} and {@code /quota/} endpoints.
+ *
+ * <p>Serves plain-format integer lists on loopback so {@link RandomNumberApiClient} and
+ * {@link RandomNumberGenerator} can be exercised offline. Latency, 503 {@code Error:} bodies,
+ * dropped connections and the per-client bit quota are configurable while the server runs.
+ */
+final class RandomOrgStubServer implements AutoCloseable {
+    static final String QUOTA_EXCEEDED =
+            "Error: You have used your quota of random bits for today. See the quota page for details.";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicLong integerRequests = new AtomicLong();
+    private final AtomicLong remainingBits;
+
+    private volatile LatencyDistribution latency = LatencyDistribution.none();
+    private volatile double errorRate;
+    private volatile double dropRate;
+
+    private RandomOrgStubServer(long quotaBits) throws IOException {
+        this.remainingBits = new AtomicLong(quotaBits);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        this.server.createContext("/integers/", this::handleIntegers);
+        this.server.createContext("/quota/", this::handleQuota);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    static RandomOrgStubServer start() throws IOException {
+        return start(Long.MAX_VALUE);
+    }
+
+    static RandomOrgStubServer start(long quotaBits) throws IOException {
+        return new RandomOrgStubServer(quotaBits);
+    }
+
+    URI baseUri() {
+        return URI.create("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/");
+    }
+
+    RandomOrgStubServer latency(LatencyDistribution latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /** Fraction of integer requests answered with a 503 {@code Error:} body. */
+    RandomOrgStubServer errorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    /** Fraction of integer requests whose connection is dropped mid-response. */
+    RandomOrgStubServer dropRate(double dropRate) {
+        this.dropRate = dropRate;
+        return this;
+    }
+
+    RandomOrgStubServer quotaBits(long quotaBits) {
+        this.remainingBits.set(quotaBits);
+        return this;
+    }
+
+    long remainingBits() {
+        return remainingBits.get();
+    }
+
+    long integerRequests() {
+        return integerRequests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handleIntegers(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            integerRequests.incrementAndGet();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            sleep(latency.next(random));
+
+            if (random.nextDouble() < dropRate) {
+                // Promise a body and never send it, the client sees the connection close early
+                exchange.sendResponseHeaders(200, 64);
+                return;
+            }
+
+            if (random.nextDouble() < errorRate) {
+                send(exchange, 503, "Error: The server is temporarily overloaded, please try again later");
+                return;
+            }
+
+            Map<String, String> params = queryParams(exchange.getRequestURI());
+            int num = Integer.parseInt(params.getOrDefault("num", "1"));
+            int min = Integer.parseInt(params.getOrDefault("min", "0"));
+            int max = Integer.parseInt(params.getOrDefault("max", "1"));
+            if (num < 1 || num > RandomNumberApiClient.MAX_INTEGERS_PER_REQUEST || min > max) {
+                send(exchange, 503, "Error: The request parameters are invalid");
+                return;
+            }
+
+            if (remainingBits.get() <= 0) {
+                send(exchange, 503, QUOTA_EXCEEDED);
+                return;
+            }
+            remainingBits.addAndGet(-bitsFor(num, min, max));
+
+            StringBuilder body = new StringBuilder(num * 3);
+            for (int i = 0; i < num; i++) {
+                body.append(random.nextInt(min, max + 1)).append('\n');
+            }
+            send(exchange, 200, body.toString());
+        }
+    }
+
+    private void handleQuota(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            send(exchange, 200, remainingBits.get() + "\n");
+        }
+    }
+
+    /** Bits Random.org charges for {@code num} integers in {@code [min, max]}. */
+    static long bitsFor(int num, int min, int max) {
+        long values = (long) max - min + 1;
+        return (long) num * (64 - Long.numberOfLeadingZeros(values - 1));
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.US_ASCII);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> queryParams(URI uri) {
+        Map<String, String> params = new HashMap<>();
+        String query = uri.getRawQuery();
+        if (query == null) {
+            return params;
+        }
+
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(pair.substring(0, eq), pair.substring(eq + 1));
+            }
+        }
+        return params;
+    }
+
+    private static void sleep(Duration delay) {
+        if (delay.isZero()) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(delay.toNanos());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Source of per-request response delays.
+     */
+    @FunctionalInterface
+    interface LatencyDistribution {
+        Duration next(RandomGenerator random);
+
+        static LatencyDistribution none() {
+            return random -> Duration.ZERO;
+        }
+
+        static LatencyDistribution fixed(Duration delay) {
+            return random -> delay;
+        }
+
+        static LatencyDistribution uniform(Duration min, Duration max) {
+            return random -> Duration.ofNanos(random.nextLong(min.toNanos(), max.toNanos() + 1));
+        }
+
+        /** Exponentially distributed delays, a common model for queueing latency. */
+        static LatencyDistribution exponential(Duration mean) {
+            return random -> Duration.ofNanos((long) (random.nextExponential() * mean.toNanos()));
+        }
+    }
+}
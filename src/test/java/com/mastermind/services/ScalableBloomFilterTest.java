@@ -0,0 +1,86 @@
+package com.mastermind.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ScalableBloomFilter")
+class ScalableBloomFilterTest {
+
+    @Test
+    @DisplayName("should contain every added key")
+    void shouldContainEveryAddedKey() {
+        // Arrange
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000);
+
+        // Act
+        for (long key = 0; key < 50_000; key++) {
+            filter.add(key * 7);
+        }
+
+        // Assert
+        for (long key = 0; key < 50_000; key++) {
+            assertTrue(filter.mightContain(key * 7));
+        }
+        assertEquals(50_000, filter.size());
+    }
+
+    @Test
+    @DisplayName("should grow by stages and keep false positives rare")
+    void shouldGrowByStagesAndKeepFalsePositivesRare() {
+        // Arrange
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000);
+        for (long key = 0; key < 100_000; key++) {
+            filter.add(key);
+        }
+
+        // Act
+        int falsePositives = 0;
+        for (long key = 100_000; key < 200_000; key++) {
+            if (filter.mightContain(key)) {
+                falsePositives++;
+            }
+        }
+
+        // Assert - 1k + 4k + 16k + 64k + 256k
+        assertEquals(5, filter.stageCount());
+        assertTrue(falsePositives < 500, "False positives: " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("should round-trip through its serialized form")
+    void shouldRoundTripThroughSerializedForm() throws IOException {
+        // Arrange
+        ScalableBloomFilter filter = new ScalableBloomFilter(100);
+        for (long key = 0; key < 1_000; key++) {
+            filter.add(key);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        // Act
+        filter.writeTo(new DataOutputStream(bytes));
+        ScalableBloomFilter restored = ScalableBloomFilter.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        // Assert
+        assertEquals(filter.size(), restored.size());
+        assertEquals(filter.stageCount(), restored.stageCount());
+        for (long key = 0; key < 1_000; key++) {
+            assertTrue(restored.mightContain(key));
+        }
+    }
+
+    @Test
+    @DisplayName("should reject a non-positive capacity")
+    void shouldRejectNonPositiveCapacity() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(0));
+    }
+}
@@ -0,0 +1,146 @@
+package com.mastermind.services;
+
+import com.mastermind.models.NumCombination;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SecretHealthMonitor")
+class SecretHealthMonitorTest {
+
+    private List<SecretHealthMonitor.Alert> alerts;
+    private SecretHealthMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        alerts = new ArrayList<>();
+        monitor = new SecretHealthMonitor(alerts::add, 4096, SecretHealthMonitor.DEFAULT_Z_CRITICAL);
+    }
+
+    @Nested
+    @DisplayName("Healthy sources")
+    class HealthySources {
+
+        @Test
+        @DisplayName("should not alert on a uniform source")
+        void shouldNotAlertOnUniformSource() {
+            // Arrange
+            LocalNumberGenerator generator = new LocalNumberGenerator(2024L);
+
+            // Act
+            for (int i = 0; i < 10 * 4096; i++) {
+                monitor.record(generator.generateNumbers(4, 7));
+                monitor.record(generator.generateNumbers(5, 9));
+            }
+
+            // Assert
+            assertEquals(List.of(), alerts);
+        }
+
+        @Test
+        @DisplayName("should accept concurrent updates")
+        void shouldAcceptConcurrentUpdates() throws Exception {
+            // Arrange
+            SecretHealthMonitor concurrent = new SecretHealthMonitor(alerts::add, 1024,
+                    SecretHealthMonitor.DEFAULT_Z_CRITICAL);
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            List<Future<?>> futures = new ArrayList<>();
+
+            try {
+                // Act
+                for (int thread = 0; thread < 4; thread++) {
+                    LocalNumberGenerator generator = new LocalNumberGenerator(thread);
+                    futures.add(executor.submit(() -> {
+                        for (int i = 0; i < 10_000; i++) {
+                            concurrent.record(generator.generateNumbers(4, 7));
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get(30, TimeUnit.SECONDS);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            // Assert
+            assertEquals(0, concurrent.getAlertCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Drifting sources")
+    class DriftingSources {
+
+        @Test
+        @DisplayName("should flag a position stuck at one digit")
+        void shouldFlagPositionStuckAtOneDigit() {
+            // Arrange - e.g. a truncated response padded with zeros
+            LocalNumberGenerator generator = new LocalNumberGenerator(7L);
+
+            // Act
+            for (int i = 0; i < 4096; i++) {
+                List<Integer> numbers = new ArrayList<>(generator.generateNumbers(4, 7).getNumbers());
+                numbers.set(3, 0);
+                monitor.record(new NumCombination(numbers, 4, 0, 7));
+            }
+
+            // Assert
+            SecretHealthMonitor.Alert frequencyAlert = alerts.stream()
+                    .filter(alert -> alert.check() == SecretHealthMonitor.Check.DIGIT_FREQUENCY)
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals(3, frequencyAlert.position());
+            assertEquals(4096, frequencyAlert.samples());
+            assertEquals(1, alerts.stream()
+                    .filter(alert -> alert.check() == SecretHealthMonitor.Check.DIGIT_FREQUENCY)
+                    .count());
+        }
+
+        @Test
+        @DisplayName("should flag a source that is uniform but predictable")
+        void shouldFlagUniformButPredictableSource() {
+            // Act - "0 0 0 0", "1 1 1 1", ... cycling: perfectly uniform per position
+            for (int i = 0; i < 4096; i++) {
+                int digit = i % 8;
+                monitor.record(new NumCombination(Arrays.asList(digit, digit, digit, digit)));
+            }
+
+            // Assert
+            assertEquals(1, alerts.size());
+            assertEquals(SecretHealthMonitor.Check.RUNS, alerts.get(0).check());
+        }
+
+        @Test
+        @DisplayName("should flag a source that only emits low digits")
+        void shouldFlagSourceThatOnlyEmitsLowDigits() {
+            // Act
+            for (int i = 0; i < 4096; i++) {
+                monitor.record(new NumCombination(Arrays.asList(i % 4, 0, 1, 2)));
+            }
+
+            // Assert
+            assertTrue(alerts.stream().anyMatch(alert -> alert.check() == SecretHealthMonitor.Check.RUNS));
+            assertEquals(alerts.size(), monitor.getAlertCount());
+        }
+    }
+
+    @Test
+    @DisplayName("should approximate chi-square critical values")
+    void shouldApproximateChiSquareCriticalValues() {
+        // Act & Assert - tabulated 95th percentiles
+        assertEquals(14.07, SecretHealthMonitor.chiSquareCritical(7, 1.645), 0.05);
+        assertEquals(16.92, SecretHealthMonitor.chiSquareCritical(9, 1.645), 0.05);
+    }
+}
@@ -0,0 +1,314 @@
+package com.mastermind.services;
+
+import com.mastermind.models.Difficulty;
+import com.mastermind.models.Game;
+import com.mastermind.models.GameListener;
+import com.mastermind.models.NumCombination;
+import com.mastermind.models.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("SessionRegistry")
+class SessionRegistryTest {
+
+    private static final NumCombination ANSWER = new NumCombination(Arrays.asList(7, 0, 3, 3));
+    private static final NumCombination MISS = new NumCombination(Arrays.asList(0, 1, 2, 3));
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private final List<Game> expired = new CopyOnWriteArrayList<>();
+    private SessionRegistry registry;
+
+    @AfterEach
+    void tearDown() {
+        if (registry != null) {
+            registry.close();
+        }
+    }
+
+    private SessionRegistry registry(Duration timeToLive, Duration idleTimeout, int capacity) {
+        registry = new SessionRegistry(timeToLive, idleTimeout, capacity, tempDir.resolve("sessions.spill"),
+                expired::add, clock::get);
+        return registry;
+    }
+
+    private static Game game(long id) {
+        Game game = new Game(new Player("Player" + id), ANSWER);
+        game.setId(id);
+        game.setDifficulty(Difficulty.NORMAL);
+        game.start();
+        return game;
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toMillis());
+        registry.expire();
+    }
+
+    @Nested
+    @DisplayName("Sessions")
+    class Sessions {
+
+        @Test
+        @DisplayName("should hold games by id until removed")
+        void shouldHoldGamesUntilRemoved() {
+            // Arrange
+            SessionRegistry registry = new SessionRegistry();
+            Game game = game(1);
+
+            // Act
+            registry.put(game);
+            int applied = registry.apply(1, Game::getRemainingAttempts);
+            Optional<Game> removed = registry.remove(1);
+
+            // Assert
+            assertEquals(10, applied);
+            assertSame(game, removed.orElseThrow());
+            assertEquals(0, registry.size());
+            assertTrue(registry.find(1).isEmpty());
+            assertThrows(NoSuchElementException.class, () -> registry.apply(1, Game::getStatus));
+        }
+
+        @Test
+        @DisplayName("should list the ids of resident and spilled games")
+        void shouldListIds() {
+            // Arrange
+            SessionRegistry registry = registry(null, null, 2);
+            for (long id = 1; id <= 100; id++) {
+                registry.put(game(id));
+            }
+            registry.remove(50);
+
+            // Act
+            long[] ids = registry.ids();
+
+            // Assert
+            Arrays.sort(ids);
+            assertEquals(99, ids.length);
+            assertEquals(1, ids[0]);
+            assertEquals(100, ids[98]);
+            assertFalse(Arrays.stream(ids).anyMatch(id -> id == 50));
+        }
+
+        @Test
+        @DisplayName("should require a spill file when capacity is limited")
+        void shouldRequireSpillFileForLimitedCapacity() {
+            assertThrows(IllegalArgumentException.class, () -> new SessionRegistry(null, null, 10, null, g -> { }));
+            assertThrows(IllegalArgumentException.class,
+                    () -> new SessionRegistry(Duration.ZERO, null, Integer.MAX_VALUE, null, g -> { }));
+        }
+    }
+
+    @Nested
+    @DisplayName("Expiry")
+    class Expiry {
+
+        @Test
+        @DisplayName("should expire idle games but keep used ones")
+        void shouldExpireIdleGames() {
+            // Arrange
+            registry(null, Duration.ofMinutes(5), Integer.MAX_VALUE);
+            registry.put(game(1));
+            registry.put(game(2));
+
+            // Act
+            advance(Duration.ofMinutes(4));
+            registry.apply(2, game -> game.playerGuess(MISS));
+            advance(Duration.ofMinutes(2));
+
+            // Assert
+            assertEquals(List.of(1L), expired.stream().map(Game::getId).toList());
+            assertEquals(1, registry.size());
+
+            advance(Duration.ofMinutes(2));
+            assertEquals(List.of(1L), expired.stream().map(Game::getId).toList());
+            advance(Duration.ofMinutes(1));
+            assertEquals(List.of(1L, 2L), expired.stream().map(Game::getId).toList());
+            assertEquals(1, expired.get(1).getGuesses().size());
+        }
+
+        @Test
+        @DisplayName("should expire games at their time to live however often they are used")
+        void shouldExpireAtTimeToLive() {
+            // Arrange
+            registry(Duration.ofHours(2), Duration.ofMinutes(30), Integer.MAX_VALUE);
+            registry.put(game(1));
+
+            // Act
+            for (int i = 0; i < 11; i++) {
+                advance(Duration.ofMinutes(10));
+                registry.find(1);
+            }
+            advance(Duration.ofMinutes(9));
+            int beforeDeadline = expired.size();
+            advance(Duration.ofMinutes(1));
+
+            // Assert
+            assertEquals(0, beforeDeadline);
+            assertEquals(1, expired.size());
+            assertEquals(0, registry.size());
+        }
+
+        @Test
+        @DisplayName("should expire games scheduled in the wheel's upper levels")
+        void shouldExpireFromUpperLevels() {
+            // Arrange
+            registry(Duration.ofDays(3), null, Integer.MAX_VALUE);
+            registry.put(game(1));
+
+            // Act
+            advance(Duration.ofDays(2));
+            int beforeDeadline = expired.size();
+            advance(Duration.ofDays(1));
+
+            // Assert
+            assertEquals(0, beforeDeadline);
+            assertEquals(1, expired.size());
+        }
+
+        @Test
+        @DisplayName("should not expire removed games")
+        void shouldNotExpireRemovedGames() {
+            // Arrange
+            registry(Duration.ofMinutes(1), null, Integer.MAX_VALUE);
+            registry.put(game(1));
+            registry.remove(1);
+
+            // Act
+            advance(Duration.ofMinutes(2));
+
+            // Assert
+            assertTrue(expired.isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Capacity")
+    class Capacity {
+
+        @Test
+        @DisplayName("should spill the least recently used games and read them back on use")
+        void shouldSpillLeastRecentlyUsedGames() {
+            // Arrange
+            registry(null, null, 1);
+            GameListener listener = mock(GameListener.class);
+            Game first = game(1);
+            first.playerGuess(MISS);
+            first.setListener(listener);
+            registry.put(first);
+
+            // Act
+            registry.put(game(2));
+            registry.put(game(3));
+            Game restored = registry.find(1).orElseThrow();
+
+            // Assert
+            assertEquals(3, registry.size());
+            assertEquals(1, registry.residentCount());
+            assertNotSame(first, restored);
+            assertEquals(first.getHistory(), restored.getHistory());
+            assertEquals(first.getStatus(), restored.getStatus());
+            assertSame(listener, restored.getListener());
+            assertEquals("Player2", registry.apply(2, game -> game.getPlayer().getName()));
+            assertTrue(Files.exists(tempDir.resolve("sessions.spill")));
+        }
+
+        @Test
+        @DisplayName("should reuse spill slots")
+        void shouldReuseSpillSlots() throws Exception {
+            // Arrange
+            registry(null, null, 1);
+            registry.put(game(0));
+
+            // Act
+            for (int i = 1; i <= 1_000; i++) {
+                registry.put(game(i));
+                registry.remove(i - 1);
+            }
+
+            // Assert
+            assertEquals(1, registry.size());
+            assertTrue(Files.size(tempDir.resolve("sessions.spill")) <= 2 * SessionRegistry.SLOT_BYTES);
+        }
+
+        @Test
+        @DisplayName("should expire spilled games")
+        void shouldExpireSpilledGames() {
+            // Arrange
+            registry(null, Duration.ofMinutes(1), 1);
+            registry.put(game(1));
+            registry.put(game(2));
+
+            // Act
+            advance(Duration.ofMinutes(2));
+
+            // Assert
+            assertEquals(2, expired.size());
+            assertEquals(0, registry.size());
+            assertEquals(0, registry.residentCount());
+        }
+
+        @Test
+        @DisplayName("should stay consistent under concurrent churn")
+        void shouldStayConsistentUnderChurn() throws Exception {
+            // Arrange
+            registry(null, Duration.ofMinutes(1), 1_024);
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+
+            // Act
+            try {
+                List<Future<?>> workers = new ArrayList<>();
+                for (int worker = 0; worker < 8; worker++) {
+                    long base = worker * 100_000L;
+                    workers.add(executor.submit(() -> {
+                        for (long id = base; id < base + 5_000; id++) {
+                            registry.put(game(id));
+                            registry.apply(id, game -> game.playerGuess(MISS));
+                            if (id % 2 == 0) {
+                                registry.remove(id);
+                            }
+                        }
+                        for (long id = base + 1; id < base + 5_000; id += 2) {
+                            assertEquals(1, (int) registry.apply(id, game -> game.getGuesses().size()));
+                        }
+                    }));
+                }
+                for (Future<?> worker : workers) {
+                    worker.get(60, TimeUnit.SECONDS);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            // Assert
+            assertEquals(20_000, registry.size());
+            assertTrue(registry.residentCount() <= 1_024);
+            advance(Duration.ofMinutes(2));
+            assertEquals(20_000, expired.size());
+            assertEquals(0, registry.size());
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.mastermind.services;
+
+import com.mastermind.models.NumCombination;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("UniqueNumberGenerator")
+class UniqueNumberGeneratorTest {
+
+    @TempDir
+    Path directory;
+
+    @Nested
+    @DisplayName("De-duplication")
+    class Deduplication {
+
+        @Test
+        @DisplayName("should redraw a secret that was already issued")
+        void shouldRedrawAlreadyIssuedSecret() {
+            // Arrange
+            NumberGenerator delegate = mock(NumberGenerator.class);
+            NumCombination first = new NumCombination(Arrays.asList(1, 2, 3, 4));
+            NumCombination second = new NumCombination(Arrays.asList(4, 3, 2, 1));
+            when(delegate.generateNumbers(4, 7)).thenReturn(first, first, second);
+            UniqueNumberGenerator generator = new UniqueNumberGenerator(delegate);
+
+            // Act
+            NumCombination a = generator.generateNumbers(4, 7);
+            NumCombination b = generator.generateNumbers(4, 7);
+
+            // Assert
+            assertEquals(first, a);
+            assertEquals(second, b);
+            verify(delegate, times(3)).generateNumbers(4, 7);
+            assertEquals(2, generator.getIssuedCount(4, 7));
+        }
+
+        @Test
+        @DisplayName("should issue every EASY secret exactly once, then throw")
+        void shouldIssueEveryEasySecretOnceThenThrow() {
+            // Arrange
+            UniqueNumberGenerator generator = new UniqueNumberGenerator(new LocalNumberGenerator(17L));
+            Set<NumCombination> issued = new HashSet<>();
+
+            // Act
+            for (int i = 0; i < 216; i++) {
+                issued.add(generator.generateNumbers(3, 5));
+            }
+
+            // Assert
+            assertEquals(216, issued.size());
+            assertThrows(IllegalStateException.class, () -> generator.generateNumbers(3, 5));
+        }
+
+        @Test
+        @DisplayName("should replace collisions within a batch")
+        void shouldReplaceCollisionsWithinBatch() {
+            // Arrange
+            NumberGenerator delegate = mock(NumberGenerator.class);
+            NumCombination repeated = new NumCombination(Arrays.asList(1, 1, 1, 1));
+            NumCombination other = new NumCombination(Arrays.asList(2, 2, 2, 2));
+            when(delegate.generateBatch(2, 4, 7)).thenReturn(List.of(repeated, repeated));
+            when(delegate.generateNumbers(4, 7)).thenReturn(other);
+            UniqueNumberGenerator generator = new UniqueNumberGenerator(delegate);
+
+            // Act
+            List<NumCombination> batch = generator.generateBatch(2, 4, 7);
+
+            // Assert
+            assertEquals(List.of(repeated, other), batch);
+        }
+
+        @Test
+        @DisplayName("should track large custom spaces with a Bloom filter")
+        void shouldTrackLargeCustomSpacesWithBloomFilter() {
+            // Arrange - 10^12 codes, beyond the exact bitset
+            UniqueNumberGenerator generator = new UniqueNumberGenerator(new LocalNumberGenerator(3L));
+            Set<NumCombination> issued = new HashSet<>();
+
+            // Act
+            for (int i = 0; i < 10_000; i++) {
+                issued.add(generator.generateNumbers(12, 9));
+            }
+
+            // Assert
+            assertEquals(10_000, issued.size());
+        }
+
+        @Test
+        @DisplayName("should forget issued secrets on reset")
+        void shouldForgetIssuedSecretsOnReset() {
+            // Arrange
+            UniqueNumberGenerator generator = new UniqueNumberGenerator(new LocalNumberGenerator(5L));
+            generator.generateNumbers(4, 7);
+
+            // Act
+            generator.reset();
+
+            // Assert
+            assertEquals(0, generator.getIssuedCount(4, 7));
+        }
+    }
+
+    @Nested
+    @DisplayName("Persistence")
+    class Persistence {
+
+        @Test
+        @DisplayName("should remember issued secrets across restarts")
+        void shouldRememberIssuedSecretsAcrossRestarts() {
+            // Arrange
+            Path file = directory.resolve("issued.bin");
+            NumCombination issued;
+            try (UniqueNumberGenerator generator = new UniqueNumberGenerator(new LocalNumberGenerator(9L), file)) {
+                issued = generator.generateNumbers(4, 7);
+                generator.generateNumbers(12, 9);
+            }
+
+            // Act - a delegate that replays the issued secret first
+            NumberGenerator delegate = mock(NumberGenerator.class);
+            NumCombination fresh = new NumCombination(issued.getNumbers().stream().map(n -> (n + 1) % 8).toList());
+            when(delegate.generateNumbers(4, 7)).thenReturn(issued, fresh);
+            UniqueNumberGenerator restarted = new UniqueNumberGenerator(delegate, file);
+
+            // Assert
+            assertEquals(fresh, restarted.generateNumbers(4, 7));
+            assertEquals(1, restarted.getIssuedCount(12, 9));
+        }
+
+        @Test
+        @DisplayName("should store a NORMAL season compactly")
+        void shouldStoreNormalSeasonCompactly() throws Exception {
+            // Arrange
+            Path file = directory.resolve("issued.bin");
+            UniqueNumberGenerator generator = new UniqueNumberGenerator(new LocalNumberGenerator(1L), file);
+            for (int i = 0; i < 365; i++) {
+                generator.generateNumbers(4, 7);
+            }
+
+            // Act
+            generator.save();
+
+            // Assert - 4096 bits plus headers
+            assertTrue(Files.size(file) <= 512 + 64, "File size: " + Files.size(file));
+        }
+
+        @Test
+        @DisplayName("should reject a file of another format")
+        void shouldRejectFileOfAnotherFormat() throws Exception {
+            // Arrange
+            Path file = directory.resolve("issued.bin");
+            Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+
+            // Act & Assert
+            assertThrows(IllegalStateException.class,
+                    () -> new UniqueNumberGenerator(new LocalNumberGenerator(), file));
+        }
+    }
+}